@@ -25,7 +25,7 @@ import org.apache.sis.util.resources.Errors;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.3
- * @version 0.7
+ * @version 0.8
  * @module
  */
 enum Option {
@@ -64,6 +64,11 @@ enum Option {
      */
     COLORS(true),
 
+    /**
+     * Number of threads to use for processing data.
+     */
+    THREADS(true),
+
     /**
      * Whether the output should contains only brief information.
      * This option expects no value.
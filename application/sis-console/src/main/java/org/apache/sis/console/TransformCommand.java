@@ -16,11 +16,16 @@
  */
 package org.apache.sis.console;
 
-import java.util.List;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.io.IOException;
 import java.io.FileInputStream;
 import java.io.LineNumberReader;
@@ -78,10 +83,13 @@ import org.apache.sis.util.CharSequences;
 /**
  * The "transform" subcommand.
  * The output is a comma separated values (CSV) file, with {@code '#'} as the first character of comment lines.
+ * Coordinates are read, transformed and written by blocks of a few thousands points, so the amount of memory
+ * used by this command does not depend on the amount of input data. Blocks can be transformed in parallel with the
+ * {@code --threads} option.
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.7
- * @version 0.7
+ * @version 0.8
  * @module
  */
 final class TransformCommand extends MetadataCommand {
@@ -95,6 +103,47 @@ final class TransformCommand extends MetadataCommand {
      */
     private MathTransform toDomainOfValidity;
 
+    /**
+     * The domain of validity of the coordinate operation, or {@code null} if none.
+     */
+    private ImmutableEnvelope domainOfValidity;
+
+    /**
+     * The message to write after points outside the domain of validity, quoted if needed.
+     */
+    private String outsideDomainMessage;
+
+    /**
+     * Number of dimensions of source coordinates.
+     */
+    private int sourceDimension;
+
+    /**
+     * Maximal number of points to read, transform and write in a single block.
+     */
+    private static final int BLOCK_SIZE = 4096;
+
+    /**
+     * The executor for transforming blocks of coordinates in background threads,
+     * or {@code null} if coordinates are transformed in the current thread.
+     */
+    private ExecutorService executor;
+
+    /**
+     * The blocks being transformed in background threads, in the order they shall be written.
+     */
+    private final Deque<Future<Block>> pendingBlocks = new ArrayDeque<>();
+
+    /**
+     * Maximal number of blocks in {@link #pendingBlocks}.
+     */
+    private int maxPendingBlocks;
+
+    /**
+     * Whether the names of target axes have been written.
+     */
+    private boolean axesPrinted;
+
     /**
      * Resources for {@link #printHeader(short)}.
      */
@@ -140,7 +189,7 @@ final class TransformCommand extends MetadataCommand {
      */
     TransformCommand(final int commandIndex, final String... args) throws InvalidOptionException {
         super(commandIndex, args, EnumSet.of(Option.SOURCE_CRS, Option.TARGET_CRS, Option.VERBOSE,
-                Option.LOCALE, Option.TIMEZONE, Option.ENCODING, Option.COLORS, Option.HELP, Option.DEBUG));
+                Option.LOCALE, Option.TIMEZONE, Option.ENCODING, Option.COLORS, Option.THREADS, Option.HELP, Option.DEBUG));
 
         // Default output format for CRS.
         outputFormat = Format.WKT;
@@ -193,74 +242,135 @@ final class TransformCommand extends MetadataCommand {
             final String format = outputFormat.name();
             throw new InvalidOptionException(Errors.format(Errors.Keys.IncompatibleFormat_2, "transform", format), format);
         }
+        final int numThreads = parseThreads();
         final CoordinateReferenceSystem sourceCRS = fetchCRS(Option.SOURCE_CRS);
         final CoordinateReferenceSystem targetCRS = fetchCRS(Option.TARGET_CRS);
+        sourceDimension = sourceCRS.getCoordinateSystem().getDimension();
         /*
-         * Read all coordinates, so we can compute the area of interest.
-         * This will be used when searching for a coordinate operation.
+         * Scan all coordinates, so we can compute the area of interest. This will be used when searching
+         * for a coordinate operation. Coordinates are not kept in memory; files will be read again later.
+         * In the case of the standard input stream, which can not be read twice, the area of interest is
+         * computed from the first block of coordinates only.
          */
         GeographicBoundingBox areaOfInterest = null;
-        List<double[]> points = Collections.emptyList();
+        LineNumberReader stdin = null;
+        Block firstBlock = null;
         final boolean useStandardInput = useStandardInput();
-        if (useStandardInput || !files.isEmpty()) {
+        try {
             if (useStandardInput) {
-                try (LineNumberReader in = new LineNumberReader(new InputStreamReader(System.in, encoding))) {
-                    points = readCoordinates(in, "stdin");
-                }
-            } else {
-                for (final String file : files) {
-                    try (LineNumberReader in = new LineNumberReader(new InputStreamReader(new FileInputStream(file), encoding))) {
-                        points = readCoordinates(in, file);
-                    }
-                }
+                stdin = new LineNumberReader(new InputStreamReader(System.in, encoding));
             }
-            try {
+            if (useStandardInput || !files.isEmpty()) try {
                 final GeographicCRS domainOfValidityCRS = ReferencingUtilities.toNormalizedGeographicCRS(sourceCRS);
                 if (domainOfValidityCRS != null) {
                     toDomainOfValidity = CRS.findOperation(sourceCRS, domainOfValidityCRS, null).getMathTransform();
-                    areaOfInterest = computeAreaOfInterest(points);
+                    final double[] bounds = {
+                        Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                        Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+                    };
+                    if (useStandardInput) {
+                        firstBlock = readBlock(stdin, "stdin");
+                        addToAreaOfInterest(firstBlock, bounds);
+                    } else {
+                        for (final String file : files) {
+                            try (LineNumberReader in = new LineNumberReader(new InputStreamReader(new FileInputStream(file), encoding))) {
+                                Block block;
+                                do {
+                                    block = readBlock(in, file);
+                                    addToAreaOfInterest(block, bounds);
+                                } while (block.hasMore());
+                            }
+                        }
+                    }
+                    if (bounds[0] < bounds[1] && bounds[2] < bounds[3]) {
+                        areaOfInterest = new DefaultGeographicBoundingBox(bounds[0], bounds[1], bounds[2], bounds[3]);
+                    }
                 }
             } catch (FactoryException e) {
                 warning(e);
             }
-        }
-        operation = CRS.findOperation(sourceCRS, targetCRS, areaOfInterest);
-        /*
-         * Prints the header: source CRS, target CRS, operation steps and positional accuracy.
-         */
-        outHeader = new TableAppender(new LineAppender(out), " ");
-        outHeader.setMultiLinesCells(true);
-        printHeader(Vocabulary.Keys.Source);      printNameAndIdentifier(operation.getSourceCRS(), false);
-        printHeader(Vocabulary.Keys.Destination); printNameAndIdentifier(operation.getTargetCRS(), false);
-        printHeader(Vocabulary.Keys.Operations);  printOperations (operation, false);
-        outHeader.nextLine();
-        printDomainOfValidity(operation.getDomainOfValidity());
-        printAccuracy(CRS.getLinearAccuracy(operation));
-        if (options.containsKey(Option.VERBOSE)) {
-            printDetails();
-        }
-        outHeader.flush();
-        outHeader = null;
-        /*
-         * At this point we finished to write the header. If there is at least one input file,
-         * compute the number of digits to format and perform the actual coordinate operations.
-         */
-        if (!points.isEmpty()) {
-            ordinateWidth    = 15;                                      // Must be set before computeNumFractionDigits(…).
-            coordinateFormat = NumberFormat.getInstance(Locale.US);
-            coordinateFormat.setGroupingUsed(false);
-            computeNumFractionDigits(operation.getTargetCRS().getCoordinateSystem());
-            out.println();
-            printAxes(operation.getTargetCRS().getCoordinateSystem());
-            out.println();
-            transform(points);
-            if (errorMessage != null) {
-                error(errorMessage, errorCause);
+            operation = CRS.findOperation(sourceCRS, targetCRS, areaOfInterest);
+            /*
+             * Prints the header: source CRS, target CRS, operation steps and positional accuracy.
+             */
+            outHeader = new TableAppender(new LineAppender(out), " ");
+            outHeader.setMultiLinesCells(true);
+            printHeader(Vocabulary.Keys.Source);      printNameAndIdentifier(operation.getSourceCRS(), false);
+            printHeader(Vocabulary.Keys.Destination); printNameAndIdentifier(operation.getTargetCRS(), false);
+            printHeader(Vocabulary.Keys.Operations);  printOperations (operation, false);
+            outHeader.nextLine();
+            printDomainOfValidity(operation.getDomainOfValidity());
+            printAccuracy(CRS.getLinearAccuracy(operation));
+            if (options.containsKey(Option.VERBOSE)) {
+                printDetails();
+            }
+            outHeader.flush();
+            outHeader = null;
+            /*
+             * At this point we finished to write the header. If there is at least one input file,
+             * compute the number of digits to format and perform the actual coordinate operations.
+             * Coordinates are read, transformed and written block by block.
+             */
+            if (useStandardInput || !files.isEmpty()) {
+                ordinateWidth    = 15;                                  // Must be set before computeNumFractionDigits(…).
+                coordinateFormat = NumberFormat.getInstance(Locale.US);
+                coordinateFormat.setGroupingUsed(false);
+                computeNumFractionDigits(operation.getTargetCRS().getCoordinateSystem());
+                prepareTransform();
+                if (numThreads > 1) {
+                    executor = Executors.newFixedThreadPool(numThreads);
+                    maxPendingBlocks = 2 * numThreads;
+                }
+                if (useStandardInput) {
+                    if (firstBlock != null) {
+                        submit(firstBlock);
+                    }
+                    if (firstBlock == null || firstBlock.hasMore()) {
+                        transform(stdin, "stdin");
+                    }
+                } else {
+                    for (final String file : files) {
+                        try (LineNumberReader in = new LineNumberReader(new InputStreamReader(new FileInputStream(file), encoding))) {
+                            transform(in, file);
+                        }
+                    }
+                }
+                flush();
+                if (errorMessage != null) {
+                    error(errorMessage, errorCause);
+                }
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+            if (stdin != null) {
+                stdin.close();
             }
         }
         return 0;
     }
 
+    /**
+     * Returns the number of threads to use for transforming coordinates, as specified by the
+     * {@code --threads} option. The default value is 1.
+     */
+    private int parseThreads() throws InvalidOptionException {
+        final String value = options.get(Option.THREADS);
+        if (value != null) {
+            try {
+                final int n = Integer.parseInt(value);
+                if (n >= 1) return n;
+            } catch (NumberFormatException e) {
+                // Exception will be thrown below.
+            }
+            final String name = Option.THREADS.label();
+            throw new InvalidOptionException(Errors.format(Errors.Keys.IllegalOptionValue_2, name, value), name);
+        }
+        return 1;
+    }
+
     /**
      * Prints the character for commented lines.
      *
@@ -515,133 +625,317 @@ final class TransformCommand extends MetadataCommand {
     }
 
     /**
-     * Reads all coordinates.
-     * This method ignores empty and comment lines.
+     * Reads the next block of coordinates. This method ignores empty and comment lines.
+     * Reading stops after {@value #BLOCK_SIZE} points, at the end of stream or at the first line
+     * that can not be parsed. In the later case, the failure is recorded in the returned block.
      *
      * @param  in        the stream from where to read coordinates.
      * @param  filename  the filename, for error reporting only.
-     * @return the coordinate values.
+     * @return the coordinate values, which may be an empty block.
      */
-    private List<double[]> readCoordinates(final LineNumberReader in, final String filename) throws IOException {
-        final List<double[]> points = new ArrayList<>();
-        try {
-            String line;
-            while ((line = in.readLine()) != null) {
-                final int start = CharSequences.skipLeadingWhitespaces(line, 0, line.length());
-                if (start < line.length() && line.charAt(start) != '#') {
-                    points.add(CharSequences.parseDoubles(line, ','));
+    private Block readBlock(final LineNumberReader in, final String filename) throws IOException {
+        final Block block = new Block();
+        String line;
+        while ((line = in.readLine()) != null) {
+            final int start = CharSequences.skipLeadingWhitespaces(line, 0, line.length());
+            if (start < line.length() && line.charAt(start) != '#') {
+                final double[] coordinates;
+                try {
+                    coordinates = CharSequences.parseDoubles(line, ',');
+                } catch (NumberFormatException e) {
+                    block.errorMessage = Errors.format(Errors.Keys.ErrorInFileAtLine_2, filename, in.getLineNumber());
+                    block.readFailure  = e;
+                    break;
+                }
+                if (coordinates.length != sourceDimension) {
+                    block.readFailure = new MismatchedDimensionException(Errors.format(Errors.Keys.MismatchedDimensionForCRS_3,
+                            operation != null ? operation.getSourceCRS().getName().getCode() : filename,
+                            sourceDimension, coordinates.length));
+                    break;
+                }
+                System.arraycopy(coordinates, 0, block.coordinates, block.count * sourceDimension, sourceDimension);
+                if (++block.count == BLOCK_SIZE) {
+                    block.isFull = true;
+                    break;
                 }
             }
-        } catch (NumberFormatException e) {
-            errorMessage = Errors.format(Errors.Keys.ErrorInFileAtLine_2, filename, in.getLineNumber());
-            errorCause = e;
         }
-        return points;
+        return block;
     }
 
     /**
-     * Computes the geographic area of interest from the given points.
-     * This method ignores the points having an unexpected number of dimensions since it is not this
-     * method's job to report those issues (they will be reported by {@link #transform(List)} instead.
-     */
-    private GeographicBoundingBox computeAreaOfInterest(final List<double[]> points) {
-        final int dimension = toDomainOfValidity.getSourceDimensions();
-        final double[] domainCoordinate = new double[toDomainOfValidity.getTargetDimensions()];
-        if (domainCoordinate.length >= 2) {
-            double xmin = Double.POSITIVE_INFINITY;
-            double ymin = Double.POSITIVE_INFINITY;
-            double xmax = Double.NEGATIVE_INFINITY;
-            double ymax = Double.NEGATIVE_INFINITY;
-            for (final double[] coordinates : points) {
-                if (coordinates.length == dimension) {
-                    try {
-                        toDomainOfValidity.transform(coordinates, 0, domainCoordinate, 0, 1);
-                    } catch (TransformException e) {
-                        warning(e);
-                        continue;
-                    }
-                    final double x = domainCoordinate[0];
-                    final double y = domainCoordinate[1];
-                    if (x < xmin) xmin = x;
-                    if (x > xmax) xmax = x;
-                    if (y < ymin) ymin = y;
-                    if (y > ymax) ymax = y;
-                }
-            }
-            if (xmin < xmax && ymin < ymax) {
-                return new DefaultGeographicBoundingBox(xmin, xmax, ymin, ymax);
+     * Expands the given geographic bounds for including the points of the given block. This method ignores
+     * the points that can not be transformed, since it is not this method's job to report those issues
+     * (they will be reported by {@link Block#call()} instead).
+     *
+     * @param block   the points to add in the area of interest.
+     * @param bounds  the west, east, south and north bounds to update.
+     */
+    private void addToAreaOfInterest(final Block block, final double[] bounds) {
+        final int dimension = toDomainOfValidity.getTargetDimensions();
+        if (dimension >= 2 && block.count != 0) {
+            final double[] domainCoordinates = block.toDomainOfValidity(dimension);
+            for (int i = block.count * dimension; (i -= dimension) >= 0;) {
+                final double x = domainCoordinates[i  ];
+                final double y = domainCoordinates[i+1];
+                if (x < bounds[0]) bounds[0] = x;
+                if (x > bounds[1]) bounds[1] = x;
+                if (y < bounds[2]) bounds[2] = y;
+                if (y > bounds[3]) bounds[3] = y;
             }
         }
-        return null;
     }
 
     /**
-     * Transforms the given coordinates.
+     * Initializes the fields needed by {@link Block#call()}. This method shall be invoked
+     * after the coordinate operation has been determined and before to transform points.
      */
-    private void transform(final List<double[]> points) throws TransformException {
-        final int dimension    = operation.getSourceCRS().getCoordinateSystem().getDimension();
-        final MathTransform mt = operation.getMathTransform();
-        final double[] result  = new double[mt.getTargetDimensions()];
-        final double[] domainCoordinate;
-        final DirectPositionView positionInDomain;
-        final ImmutableEnvelope domainOfValidity;
+    private void prepareTransform() {
         final GeographicBoundingBox bbox;
         if (toDomainOfValidity != null && (bbox = CRS.getGeographicBoundingBox(operation)) != null) {
             domainOfValidity = new ImmutableEnvelope(bbox);
-            domainCoordinate = new double[toDomainOfValidity.getTargetDimensions()];
-            positionInDomain = new DirectPositionView(domainCoordinate, 0, domainCoordinate.length);
+        }
+        String text = Errors.getResources(locale).getString(Errors.Keys.OutsideDomainOfValidity);
+        if (text.indexOf('"') >= 0 || text.indexOf(',') >= 0) {
+            text = '"' + text.replace("\"", "\"\"") + '"';
+        }
+        outsideDomainMessage = text;
+    }
+
+    /**
+     * Reads, transforms and writes all coordinates in the given stream.
+     *
+     * @param  in        the stream from where to read coordinates.
+     * @param  filename  the filename, for error reporting only.
+     */
+    private void transform(final LineNumberReader in, final String filename) throws Exception {
+        Block block;
+        do {
+            block = readBlock(in, filename);
+            submit(block);
+        } while (block.hasMore());
+    }
+
+    /**
+     * Transforms the given block of coordinates and writes the result. If many threads are used,
+     * then the block is transformed in a background thread and written after all previous blocks.
+     * The number of blocks waiting to be written is bounded in order to keep memory usage bounded.
+     */
+    private void submit(final Block block) throws Exception {
+        if (executor == null) {
+            write(block.call());
         } else {
-            domainOfValidity = null;
-            domainCoordinate = null;
-            positionInDomain = null;
-        }
-        for (final double[] coordinates : points) {
-            if (coordinates.length != dimension) {
-                throw new MismatchedDimensionException(Errors.format(Errors.Keys.MismatchedDimensionForCRS_3,
-                            operation.getSourceCRS().getName().getCode(), dimension, coordinates.length));
+            if (pendingBlocks.size() >= maxPendingBlocks) {
+                write(get(pendingBlocks.removeFirst()));
             }
-            /*
-             * At this point we got the coordinates and they have the expected number of dimensions.
-             * Now perform the coordinate operation and print each ordinate values.  We will switch
-             * to scientific notation if the coordinate is much larger than expected.
-             */
-            mt.transform(coordinates, 0, result, 0, 1);
-            for (int i=0; i<result.length; i++) {
-                if (i != 0) {
-                    out.print(',');
+            pendingBlocks.addLast(executor.submit(block));
+        }
+    }
+
+    /**
+     * Writes all blocks that are still waiting for completion of their transformation.
+     */
+    private void flush() throws Exception {
+        Future<Block> task;
+        while ((task = pendingBlocks.pollFirst()) != null) {
+            write(get(task));
+        }
+    }
+
+    /**
+     * Waits for the given task to complete and returns its result.
+     * Since {@link Block#call()} records the expected exceptions in the block itself,
+     * the exception thrown by this method should be only unexpected runtime exceptions.
+     */
+    private static Block get(final Future<Block> task) throws Exception {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            if (cause instanceof Error)     throw (Error) cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the given block of transformed coordinates. If the block contains a failure to read or
+     * transform a point, then the points before the failure are written before the failure is reported.
+     * Failures to parse a number are reported after all coordinates have been transformed, while other
+     * failures stop the command.
+     */
+    private void write(final Block block) throws Exception {
+        if (!axesPrinted && (block.text.length() != 0 || block.transformFailure != null
+                || (block.readFailure != null && !(block.readFailure instanceof NumberFormatException))))
+        {
+            axesPrinted = true;
+            out.println();
+            printAxes(operation.getTargetCRS().getCoordinateSystem());
+            out.println();
+        }
+        out.print(block.text);
+        if (block.transformFailure != null) {
+            throw block.transformFailure;
+        }
+        if (block.readFailure instanceof NumberFormatException) {
+            errorMessage = block.errorMessage;
+            errorCause   = (NumberFormatException) block.readFailure;
+        } else if (block.readFailure != null) {
+            throw block.readFailure;
+        }
+    }
+
+    /**
+     * A block of coordinates to transform in a single call to {@link MathTransform#transform(double[], int,
+     * double[], int, int)}. The transformation and the formatting of transformed coordinates are performed
+     * by {@link #call()}, which may be executed in a background thread. The formatted text is written later
+     * by {@link TransformCommand#write(Block)}, in the same order than the blocks were read.
+     */
+    private final class Block implements Callable<Block> {
+        /**
+         * The source coordinates, as a sequence of tuples of {@link TransformCommand#sourceDimension} values.
+         */
+        final double[] coordinates;
+
+        /**
+         * Number of points in the {@link #coordinates} array.
+         */
+        int count;
+
+        /**
+         * Whether reading stopped because the block is full, in which case there is maybe more points to read.
+         */
+        boolean isFull;
+
+        /**
+         * The error that occurred while reading the line after the last point of this block, or {@code null}.
+         * This is either a {@link NumberFormatException} or a {@link MismatchedDimensionException}.
+         */
+        RuntimeException readFailure;
+
+        /**
+         * The message to report for a {@link NumberFormatException}, or {@code null} if none.
+         */
+        String errorMessage;
+
+        /**
+         * The error that occurred while transforming a point, or {@code null} if none.
+         * In such case, {@link #text} contains only the points before the point that failed.
+         */
+        TransformException transformFailure;
+
+        /**
+         * The transformed coordinates formatted as CSV lines. Computed by {@link #call()}.
+         */
+        CharSequence text;
+
+        /**
+         * Creates a new empty block.
+         */
+        Block() {
+            coordinates = new double[BLOCK_SIZE * sourceDimension];
+        }
+
+        /**
+         * Returns whether there is maybe more points to read after this block.
+         */
+        final boolean hasMore() {
+            return isFull;
+        }
+
+        /**
+         * Transforms all points of this block to the domain of validity CRS.
+         * Points that can not be transformed are set to NaN.
+         *
+         * @param  dimension  number of dimensions of the domain of validity CRS.
+         */
+        final double[] toDomainOfValidity(final int dimension) {
+            final double[] result = new double[count * dimension];
+            try {
+                toDomainOfValidity.transform(coordinates, 0, result, 0, count);
+            } catch (TransformException e) {
+                // Transform again point by point for setting only the points that failed to NaN.
+                for (int i=0; i<count; i++) {
+                    try {
+                        toDomainOfValidity.transform(coordinates, i*sourceDimension, result, i*dimension, 1);
+                    } catch (TransformException f) {
+                        Arrays.fill(result, i*dimension, (i+1)*dimension, Double.NaN);
+                        warning(f);
+                    }
                 }
-                final double value = result[i];
-                final String s;
-                if (Math.abs(value) >= thresholdForScientificNotation[i]) {
-                    s = Double.toString(value);
-                } else {
-                    coordinateFormat.setMinimumFractionDigits(numFractionDigits[i]);
-                    coordinateFormat.setMaximumFractionDigits(numFractionDigits[i]);
-                    s = coordinateFormat.format(value);
+            }
+            return result;
+        }
+
+        /**
+         * Transforms the points of this block and formats the result. Each output line contains the
+         * transformed ordinate values, followed by a warning if the source point is outside the domain
+         * of validity. We will switch to scientific notation if the coordinate is much larger than expected.
+         *
+         * @return {@code this}.
+         */
+        @Override
+        public Block call() {
+            final MathTransform mt = operation.getMathTransform();
+            final int targetDimension = mt.getTargetDimensions();
+            final double[] result = new double[count * targetDimension];
+            int n = count;
+            try {
+                mt.transform(coordinates, 0, result, 0, count);
+            } catch (TransformException e) {
+                // Search the first point that can not be transformed, for writing all points before it.
+                for (n=0; n<count; n++) {
+                    try {
+                        mt.transform(coordinates, n*sourceDimension, result, n*targetDimension, 1);
+                    } catch (TransformException f) {
+                        transformFailure = f;
+                        break;
+                    }
                 }
-                out.print(CharSequences.spaces(ordinateWidth - s.length()));
-                out.print(s);
             }
             /*
-             * Append a warning after the transformed coordinate values if the source coordinate was outside
-             * the domain of validity. A failure to perform a coordinate transformation is also considered as
-             * being out of the domain of valididty.
+             * Determine which source points are outside the domain of validity.
+             * A failure to transform a point is also considered as being out of the domain of validity.
              */
+            double[] domainCoordinates = null;
+            DirectPositionView positionInDomain = null;
             if (domainOfValidity != null) {
-                boolean inside;
-                try {
-                    toDomainOfValidity.transform(coordinates, 0, domainCoordinate, 0, 1);
-                    inside = domainOfValidity.contains(positionInDomain);
-                } catch (TransformException e) {
-                    inside = false;
-                    warning(e);
+                final int dimension = toDomainOfValidity.getTargetDimensions();
+                domainCoordinates = toDomainOfValidity(dimension);
+                positionInDomain  = new DirectPositionView(domainCoordinates, 0, dimension);
+            }
+            final NumberFormat format = (NumberFormat) coordinateFormat.clone();
+            final StringBuilder buffer = new StringBuilder(n * targetDimension * (ordinateWidth + 1));
+            final String lineSeparator = System.lineSeparator();
+            for (int p=0; p<n; p++) {
+                for (int i=0; i<targetDimension; i++) {
+                    if (i != 0) {
+                        buffer.append(',');
+                    }
+                    final double value = result[p*targetDimension + i];
+                    final String s;
+                    if (Math.abs(value) >= thresholdForScientificNotation[i]) {
+                        s = Double.toString(value);
+                    } else {
+                        format.setMinimumFractionDigits(numFractionDigits[i]);
+                        format.setMaximumFractionDigits(numFractionDigits[i]);
+                        s = format.format(value);
+                    }
+                    buffer.append(CharSequences.spaces(ordinateWidth - s.length())).append(s);
                 }
-                if (!inside) {
-                    out.print(",    ");
-                    printQuotedText(Errors.getResources(locale).getString(Errors.Keys.OutsideDomainOfValidity), 0, X364.FOREGROUND_RED);
+                if (positionInDomain != null) {
+                    positionInDomain.offset = p * positionInDomain.getDimension();
+                    if (!domainOfValidity.contains(positionInDomain)) {
+                        buffer.append(",    ");
+                        if (colors) buffer.append(X364.FOREGROUND_RED.sequence());
+                        buffer.append(outsideDomainMessage);
+                        if (colors) buffer.append(X364.FOREGROUND_DEFAULT.sequence());
+                    }
                 }
+                buffer.append(lineSeparator);
             }
-            out.println();
+            text = buffer;
+            return this;
         }
     }
 
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.console;
+
+import java.io.IOException;
+import org.apache.sis.util.CharSequences;
+import org.apache.sis.test.DependsOnMethod;
+import org.apache.sis.test.DependsOn;
+import org.apache.sis.test.TestCase;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+// Branch-dependent imports
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Tests the {@link TransformCommand} sub-command.
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+@DependsOn(CRSCommandTest.class)
+public final strictfp class TransformCommandTest extends TestCase {
+    /**
+     * Number of points in the test file. This is more than the number of points in a block,
+     * in order to test the transformation of many blocks.
+     */
+    private static final int NUM_POINTS = 10000;
+
+    /**
+     * The file of (longitude, latitude) coordinates to transform.
+     */
+    private static Path file;
+
+    /**
+     * Creates the file of coordinates to transform.
+     *
+     * @throws IOException if an error occurred while writing the file.
+     */
+    @BeforeClass
+    public static void createFile() throws IOException {
+        final StringBuilder buffer = new StringBuilder("# Longitude, latitude\n");
+        for (int i=0; i<NUM_POINTS; i++) {
+            buffer.append(longitude(i)).append(", ").append(latitude(i)).append('\n');
+        }
+        file = Files.createTempFile("points", ".csv");
+        Files.write(file, buffer.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Deletes the file of coordinates.
+     *
+     * @throws IOException if an error occurred while deleting the file.
+     */
+    @AfterClass
+    public static void deleteFile() throws IOException {
+        if (file != null) {
+            Files.delete(file);
+            file = null;
+        }
+    }
+
+    /** Returns the longitude of the point at the given index. */
+    private static double longitude(final int i) {
+        return (i % 360) - 179.75;
+    }
+
+    /** Returns the latitude of the point at the given index. */
+    private static double latitude(final int i) {
+        return (i % 170) - 84.5;
+    }
+
+    /**
+     * Runs the transform command with the given number of threads and returns the lines of transformed coordinates.
+     */
+    private static String[] transform(final String threads) throws Exception {
+        final TransformCommand test = new TransformCommand(0, CommandRunner.TEST, "--sourceCRS", "CRS:84",
+                "--targetCRS", "EPSG:4326", "--threads", threads, file.toString());
+        test.run();
+        final CharSequence[] lines = CharSequences.splitOnEOL(test.outputBuffer.toString().trim());
+        assertTrue("Missing output lines.", lines.length > NUM_POINTS);
+        final String[] points = new String[NUM_POINTS];
+        for (int i=0; i<NUM_POINTS; i++) {
+            points[i] = lines[lines.length - NUM_POINTS + i].toString();
+        }
+        return points;
+    }
+
+    /**
+     * Tests the transformation of coordinates in the current thread. The transformation from "CRS:84"
+     * to "EPSG:4326" swaps the axis order, which make easy to verify the result.
+     *
+     * @throws Exception if an error occurred while running the command.
+     */
+    @Test
+    public void testTransform() throws Exception {
+        final String[] lines = transform("1");
+        for (int i=0; i<NUM_POINTS; i++) {
+            final double[] coordinates = CharSequences.parseDoubles(lines[i], ',');
+            assertEquals("dimension", 2, coordinates.length);
+            assertEquals("latitude",  latitude (i), coordinates[0], 1E-6);
+            assertEquals("longitude", longitude(i), coordinates[1], 1E-6);
+        }
+    }
+
+    /**
+     * Tests the transformation of coordinates in many threads.
+     * The output shall be the same than the output of a single thread.
+     *
+     * @throws Exception if an error occurred while running the command.
+     */
+    @Test
+    @DependsOnMethod("testTransform")
+    public void testParallelTransform() throws Exception {
+        assertArrayEquals(transform("1"), transform("3"));
+    }
+
+    /**
+     * Tests an invalid value for the {@code --threads} option.
+     *
+     * @throws Exception if an error occurred while creating the command.
+     */
+    @Test
+    public void testInvalidThreads() throws Exception {
+        final TransformCommand test = new TransformCommand(0, CommandRunner.TEST, "--sourceCRS", "CRS:84",
+                "--targetCRS", "EPSG:4326", "--threads", "0", file.toString());
+        try {
+            test.run();
+            fail("Expected an exception for the invalid number of threads.");
+        } catch (InvalidOptionException e) {
+            assertEquals("threads", e.getOption());
+        }
+    }
+}
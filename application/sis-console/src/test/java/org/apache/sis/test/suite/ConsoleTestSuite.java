@@ -35,7 +35,8 @@ import org.junit.BeforeClass;
     org.apache.sis.console.AboutCommandTest.class,
     org.apache.sis.console.MimeTypeCommandTest.class,
     org.apache.sis.console.MetadataCommandTest.class,
-    org.apache.sis.console.CRSCommandTest.class
+    org.apache.sis.console.CRSCommandTest.class,
+    org.apache.sis.console.TransformCommandTest.class
 })
 public final strictfp class ConsoleTestSuite extends TestSuite {
     /**
@@ -537,7 +537,7 @@ public abstract class AbstractFeature implements Serializable {
      *
      * @param value  the value, which shall be non-null.
      */
-    private static <T> Object verifyAttributeValue(final DefaultAttributeType<T> type, final Object value) {
+    static <T> Object verifyAttributeValue(final DefaultAttributeType<T> type, final Object value) {
         final Class<T> valueClass = type.getValueClass();
         final boolean isSingleton = Field.isSingleton(type.getMaximumOccurs());
         if (valueClass.isInstance(value)) {
@@ -36,6 +36,7 @@ import org.opengis.util.InternationalString;
 import org.opengis.parameter.ParameterDescriptorGroup;
 import org.apache.sis.util.ArgumentChecks;
 import org.apache.sis.util.collection.Containers;
+import org.apache.sis.util.resources.Errors;
 import org.apache.sis.internal.util.CollectionsExt;
 import org.apache.sis.internal.util.UnmodifiableArrayList;
 import org.apache.sis.internal.feature.Resources;
@@ -198,6 +199,20 @@ public class DefaultFeatureType extends AbstractIdentifiedType implements Featur
      */
     private transient Map<String, Integer> indices;
 
+    /**
+     * Indices in an array of properties (as given by the {@link #indices} map) of each property
+     * in {@link #allProperties} order. Values for properties that are not stored are unspecified.
+     * This array is used by {@link #newInstance(Object[])} for avoiding lookups by name.
+     */
+    private transient int[] storageIndices;
+
+    /**
+     * The attribute types in {@link #allProperties} order, or {@code null} for elements that are
+     * operations, associations or attributes with a maximum number of occurrences of zero.
+     * This array is used by {@link #newInstance(Object[])} for avoiding type checks on each feature.
+     */
+    private transient DefaultAttributeType<?>[] attributeTypes;
+
     /**
      * Value in {@link #indices} map for parameterless operations. Those operations are not stored
      * in feature instances, but can be handled as virtual attributes computed on-the-fly.
@@ -363,7 +378,10 @@ public class DefaultFeatureType extends AbstractIdentifiedType implements Featur
          */
         isSimple = true;
         int index = 0;
+        int position = 0;                                                   // Index in 'allProperties'.
         int mandatory = 0;                                                  // Count of mandatory properties.
+        storageIndices = new int[byName.size()];
+        attributeTypes = new DefaultAttributeType<?>[byName.size()];
         for (final Map.Entry<String,AbstractIdentifiedType> entry : byName.entrySet()) {
             final int minimumOccurs, maximumOccurs;
             final AbstractIdentifiedType property = entry.getValue();
@@ -371,6 +389,9 @@ public class DefaultFeatureType extends AbstractIdentifiedType implements Featur
                 minimumOccurs = ((DefaultAttributeType<?>) property).getMinimumOccurs();
                 maximumOccurs = ((DefaultAttributeType<?>) property).getMaximumOccurs();
                 isSimple &= (minimumOccurs == maximumOccurs);
+                if (maximumOccurs != 0) {
+                    attributeTypes[position] = (DefaultAttributeType<?>) property;
+                }
             } else if (property instanceof FieldType) { // TODO: check for AssociationRole instead (after GeoAPI upgrade).
                 minimumOccurs = ((FieldType) property).getMinimumOccurs();
                 maximumOccurs = ((FieldType) property).getMaximumOccurs();
@@ -379,15 +400,18 @@ public class DefaultFeatureType extends AbstractIdentifiedType implements Featur
                 if (isParameterlessOperation(property)) {
                     indices.put(entry.getKey(), OPERATION_INDEX);
                 }
+                position++;
                 continue;                           // For feature operations, maximumOccurs is implicitly 0.
             }
             if (maximumOccurs != 0) {
                 isSimple &= (maximumOccurs == 1);
+                storageIndices[position] = index;
                 indices.put(entry.getKey(), index++);
                 if (minimumOccurs != 0) {
                     mandatory++;
                 }
             }
+            position++;
         }
         /*
          * If some properties use long name of the form "head:tip", creates short aliases containing only the "tip"
@@ -835,6 +859,25 @@ public class DefaultFeatureType extends AbstractIdentifiedType implements Featur
         return indices;
     }
 
+    /**
+     * Returns the indices in an array of properties of each property in {@code getProperties(true)} order.
+     * This is used for {@link DenseFeature} implementation.
+     */
+    @SuppressWarnings("ReturnOfCollectionOrArrayField")
+    final int[] storageIndices() {
+        return storageIndices;
+    }
+
+    /**
+     * Returns the attribute types in {@code getProperties(true)} order,
+     * with {@code null} elements for properties that are not attributes.
+     * This is used for {@link DenseFeature} implementation.
+     */
+    @SuppressWarnings("ReturnOfCollectionOrArrayField")
+    final DefaultAttributeType<?>[] attributeTypes() {
+        return attributeTypes;
+    }
+
     /**
      * Creates a new feature instance of this type.
      *
@@ -852,6 +895,35 @@ public class DefaultFeatureType extends AbstractIdentifiedType implements Featur
         return isSparse ? new SparseFeature(this) : new DenseFeature(this);
     }
 
+    /**
+     * Creates a new feature instance of this type initialized to the given attribute values.
+     * This method is faster than invoking {@link AbstractFeature#setPropertyValue(String, Object)}
+     * for each property, since it does not need to search the properties by their names.
+     * It can be used only if all {@linkplain #getProperties(boolean) properties} are attributes
+     * (no operation and no association).
+     *
+     * @param  values  the attribute values in the order of {@code getProperties(true)}.
+     *                 Null elements are interpreted as values not set.
+     * @return a new feature instance initialized to the given values.
+     * @throws IllegalStateException if this feature type {@linkplain #isAbstract() is abstract}.
+     * @throws ClassCastException if a value is not assignable to the attribute value class.
+     * @throws IllegalArgumentException if the array length is not the number of properties
+     *         or if a property is not an attribute.
+     *
+     * @since 0.8
+     */
+    public AbstractFeature newInstance(final Object[] values) throws IllegalStateException, IllegalArgumentException {
+        if (isAbstract) {
+            throw new IllegalStateException(Resources.format(Resources.Keys.AbstractFeatureType_1, getName()));
+        }
+        ArgumentChecks.ensureNonNull("values", values);
+        final int n = allProperties.size();
+        if (values.length != n) {
+            throw new IllegalArgumentException(Errors.format(Errors.Keys.UnexpectedArrayLength_2, n, values.length));
+        }
+        return new DenseFeature(this, values);
+    }
+
     /**
      * Returns a hash code value for this feature type.
      *
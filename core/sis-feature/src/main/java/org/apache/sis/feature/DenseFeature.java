@@ -33,7 +33,7 @@ import org.apache.sis.util.ArgumentChecks;
  * @author  Martin Desruisseaux (Geomatys)
  * @author  Marc le Bihan
  * @since   0.5
- * @version 0.6
+ * @version 0.8
  * @module
  *
  * @see SparseFeature
@@ -72,6 +72,39 @@ final class DenseFeature extends AbstractFeature implements Cloneable {
         indices = type.indices();
     }
 
+    /**
+     * Creates a new feature of the given type initialized to the given property values.
+     * All properties of the given type shall be attributes, and the values shall be in the
+     * same order than the properties. The values are verified, then copied at the storage
+     * indices precomputed by the feature type. The {@link #indices} map may contain more
+     * entries than the number of properties (e.g. aliases for scoped names), so the array
+     * lengths may differ.
+     *
+     * @param type    information about the feature (name, characteristics, <i>etc.</i>).
+     * @param values  the attribute values in the order of {@code type.getProperties(true)}.
+     * @throws ClassCastException if a value is not assignable to the attribute value class.
+     * @throws IllegalArgumentException if a property is not an attribute.
+     */
+    DenseFeature(final DefaultFeatureType type, final Object[] values) throws IllegalArgumentException {
+        this(type);
+        final DefaultAttributeType<?>[] attributes = type.attributeTypes();
+        final int[] storage = type.storageIndices();
+        final Object[] copy = new Object[indices.size()];
+        for (int i=0; i<attributes.length; i++) {
+            final DefaultAttributeType<?> at = attributes[i];
+            if (at == null) {
+                // Error path only: the property name is searched only for formatting the message.
+                final AbstractIdentifiedType pt = type.getProperties(true).toArray(new AbstractIdentifiedType[attributes.length])[i];
+                throw unsupportedPropertyType(pt.getName());
+            }
+            final Object value = values[i];
+            if (value != null) {
+                copy[storage[i]] = verifyAttributeValue(at, value);
+            }
+        }
+        properties = copy;
+    }
+
     /**
      * Returns the index for the property of the given name, or {@link DefaultFeatureType#OPERATION_INDEX}
      * if the property is a parameterless operation.
@@ -16,7 +16,14 @@
  */
 package org.apache.sis.feature;
 
+import org.opengis.util.NameFactory;
+import org.apache.sis.internal.system.DefaultFactories;
 import org.apache.sis.test.DependsOn;
+import org.apache.sis.test.DependsOnMethod;
+import org.junit.Test;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.*;
 
 
 /**
@@ -25,7 +32,7 @@ import org.apache.sis.test.DependsOn;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.5
- * @version 0.5
+ * @version 0.8
  * @module
  */
 @DependsOn({
@@ -50,5 +57,56 @@ public final strictfp class DenseFeatureTest extends FeatureTestCase {
         return ((DenseFeature) feature).clone();
     }
 
+    /**
+     * Tests {@link DefaultFeatureType#newInstance(Object[])}, which initializes all attribute values at once.
+     */
+    @Test
+    public void testNewInstanceWithValues() {
+        final DefaultFeatureType type = DefaultFeatureTypeTest.city();
+        final Object[] values = {"Tokyo", 13185502};
+        final AbstractFeature city = type.newInstance(values);
+        assertTrue("newInstance", city instanceof DenseFeature);
+        assertEquals("city",       "Tokyo",  city.getPropertyValue("city"));
+        assertEquals("population", 13185502, city.getPropertyValue("population"));
+        /*
+         * The array shall have been copied, and the feature shall still be modifiable.
+         */
+        values[0] = "Osaka";
+        assertEquals("city", "Tokyo", city.getPropertyValue("city"));
+        city.setPropertyValue("city", "Kyoto");
+        assertEquals("city", "Kyoto", city.getPropertyValue("city"));
+        /*
+         * Null values are interpreted as values not set, and values of the wrong type shall be rejected.
+         */
+        assertNull("population", type.newInstance(new Object[] {"Tokyo", null}).getPropertyValue("population"));
+        try {
+            type.newInstance(new Object[] {"Tokyo", "Many"});
+            fail("Shall not accept a value of the wrong type.");
+        } catch (ClassCastException e) {
+            assertTrue(e.getMessage().contains("population"));
+        }
+    }
+
+    /**
+     * Tests {@link DefaultFeatureType#newInstance(Object[])} with a property having a scoped name.
+     * In such case the {@link DefaultFeatureType#indices()} map contains more entries than the
+     * number of properties, since the property can also be fetched by its tip.
+     */
+    @Test
+    @DependsOnMethod("testNewInstanceWithValues")
+    public void testNewInstanceWithScopedName() {
+        final NameFactory factory = DefaultFactories.forBuildin(NameFactory.class);
+        final DefaultAttributeType<String> city = new DefaultAttributeType<>(
+                singletonMap(DefaultAttributeType.NAME_KEY, factory.createGenericName(null, "ns", "city")),
+                String.class, 1, 1, null);
+        final DefaultFeatureType type = new DefaultFeatureType(
+                singletonMap(DefaultFeatureType.NAME_KEY, "City"), false, null, city);
+
+        final AbstractFeature feature = type.newInstance(new Object[] {"Tokyo"});
+        assertEquals("ns:city", "Tokyo", feature.getPropertyValue("ns:city"));
+        assertEquals("city",    "Tokyo", feature.getPropertyValue("city"));
+        assertEquals("ns:city", "Tokyo", ((AbstractAttribute<?>) feature.getProperty("ns:city")).getValue());
+    }
+
     // Inherit all tests from the super-class.
 }
@@ -16,6 +16,10 @@
  */
 package org.apache.sis.metadata.sql;
 
+import java.util.Map;
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.Set;
 import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
@@ -30,8 +34,7 @@ import org.apache.sis.internal.system.Loggers;
 /**
  * The result of a query for metadata attributes. This object {@linkplain PreparedStatement prepares a statement}
  * only once for a given table, until a certain period of inactivity is elapsed. When a particular record in the
- * table is fetched, the {@link ResultSet} is automatically constructed. If many attributes are fetched consecutively
- * for the same record, then the same {@link ResultSet} is reused.
+ * table is fetched, all attributes of that record are copied in a map and the {@link ResultSet} is closed.
  *
  * <div class="section"><b>Synchronization</b>:
  * This class is <strong>not</strong> thread-safe. Callers must perform their own synchronization in such a way
@@ -55,8 +58,8 @@ final class CachedStatement implements AutoCloseable {
     final Class<?> type;
 
     /**
-     * The identifier (usually the primary key) for current results. If the record to fetch does not
-     * have the same identifier, then the {@link #results} will need to be closed and reconstructed.
+     * The identifier (usually the primary key) for current results.
+     * This is used only for formatting a warning if a duplicated identifier is found.
      */
     private String identifier;
 
@@ -69,7 +72,7 @@ final class CachedStatement implements AutoCloseable {
 
     /**
      * The results of last call to {@link PreparedStatement#executeQuery()},
-     * or {@code null} if not yet determined.
+     * or {@code null} if none or already closed.
      */
     private ResultSet results;
 
@@ -100,31 +103,56 @@ final class CachedStatement implements AutoCloseable {
     }
 
     /**
-     * Returns the attribute value in the given column for the given record.
+     * Returns the attribute values in the given columns of the record for the given identifier.
+     * The values of SQL arrays are converted to Java arrays. The {@link ResultSet} is closed before
+     * this method returns, since the caller will not need to query any other attribute for the same record.
      *
-     * @param  id         the object identifier, usually the primary key value.
-     * @param  attribute  the column name of the attribute to fetch.
-     * @return the value of the requested attribute for the row identified by the given key.
+     * <p>Values are fetched by column name with {@link ResultSet#getObject(String)}, which is case-insensitive.
+     * The keys of the returned map are the given column names, so the caller shall look for a column only
+     * if it is contained in {@code columns}.</p>
+     *
+     * @param  id       the object identifier, usually the primary key value.
+     * @param  columns  names of the columns to fetch, as given by the database metadata.
+     * @return the non-null values of the given columns in the row identified by the given key.
      * @throws SQLException if an SQL operation failed.
      * @throws MetadataStoreException if no record has been found for the given key.
      */
-    final Object getValue(final String id, final String attribute) throws SQLException, MetadataStoreException {
-        if (!id.equals(identifier)) {
-            closeResultSet();
+    final Map<String,Object> getRow(final String id, final Set<String> columns) throws SQLException, MetadataStoreException {
+        closeResultSet();                   // Should be a no-op, unless a previous call failed.
+        statement.setString(1, id);
+        final ResultSet r = statement.executeQuery();
+        if (!r.next()) {
+            final String table = r.getMetaData().getTableName(1);
+            r.close();
+            throw new SQLException(Errors.format(Errors.Keys.RecordNotFound_2, table, id));
         }
-        ResultSet r = results;
-        if (r == null) {
-            statement.setString(1, id);
-            r = statement.executeQuery();
-            if (!r.next()) {
-                final String table = r.getMetaData().getTableName(1);
-                r.close();
-                throw new SQLException(Errors.format(Errors.Keys.RecordNotFound_2, table, id));
+        results = r;
+        identifier = id;
+        final Map<String,Object> row = new HashMap<>(columns.size() * 2);
+        for (final String column : columns) {
+            Object value = r.getObject(column);
+            if (value instanceof java.sql.Array) {
+                /*
+                 * Store SQL arrays as Object[], which is how MetadataSource distinguishes them from other
+                 * values that are Java arrays, for example byte[] for binary columns.
+                 */
+                final java.sql.Array array = (java.sql.Array) value;
+                value = array.getArray();
+                array.free();
+                if (!(value instanceof Object[])) {
+                    final Object[] elements = new Object[Array.getLength(value)];
+                    for (int i=0; i<elements.length; i++) {
+                        elements[i] = Array.get(value, i);
+                    }
+                    value = elements;
+                }
+            }
+            if (value != null) {
+                row.put(column, value);
             }
-            results = r;
-            identifier = id;
         }
-        return r.getObject(attribute);
+        closeResultSet();
+        return row;
     }
 
     /**
@@ -19,6 +19,7 @@ package org.apache.sis.metadata.sql;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.sql.SQLException;
+import java.util.Map;
 import java.util.Collection;
 import org.apache.sis.util.Classes;
 import org.apache.sis.util.resources.Errors;
@@ -60,6 +61,16 @@ final class Dispatcher implements InvocationHandler {
      */
     int preferredIndex;
 
+    /**
+     * All attribute values of the record for this metadata entity, or {@code null} if not yet fetched.
+     * The record is fetched in a single query when the first attribute is requested, then the values
+     * of all other attributes are taken from this map. Keys are column names. This map is never modified
+     * after construction, so it can be read without synchronization.
+     *
+     * @see MetadataSource#getValue(Class, Method, Dispatcher)
+     */
+    volatile Map<String,Object> row;
+
     /**
      * Creates a new metadata handler.
      *
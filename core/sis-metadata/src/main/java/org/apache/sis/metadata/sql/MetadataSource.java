@@ -18,6 +18,10 @@ package org.apache.sis.metadata.sql;
 
 import java.util.Map;
 import java.util.HashMap;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.HashSet;
@@ -85,9 +89,12 @@ import org.apache.sis.util.iso.Types;
  * where {@code id} is the primary key value for the desired record in the {@code MD_Format} table.
  *
  * <div class="section">Concurrency</div>
- * {@code MetadataSource} is thread-safe but is not concurrent. If concurrency is desired,
- * multiple instances of {@code MetadataSource} can be created for the same {@link DataSource}.
- * The {@link #MetadataSource(MetadataSource)} convenience constructor can be used for this purpose.
+ * {@code MetadataSource} is thread-safe. Each record is fetched in a single query when the first attribute
+ * of a metadata instance is requested; the other attributes of the same instance are then read from memory.
+ * Records requested by different threads may be fetched concurrently on a few connections obtained from the
+ * same {@link DataSource}. Operations other than record fetching, like {@link #search(Object)}, are not concurrent.
+ * If more concurrency is desired, multiple instances of {@code MetadataSource} can be created for the same
+ * {@code DataSource}. The {@link #MetadataSource(MetadataSource)} convenience constructor can be used for this purpose.
  *
  * @author  Touraïvane (IRD)
  * @author  Martin Desruisseaux (IRD, Geomatys)
@@ -124,6 +131,13 @@ public class MetadataSource implements AutoCloseable {
      */
     private static final int EXTRA_DELAY = 500_000000;
 
+    /**
+     * Maximal number of connections that {@link #getValue(Class, Method, Dispatcher)} can use concurrently,
+     * including the connection of this {@code MetadataSource}. Each additional connection is owned by a
+     * {@code MetadataSource} created by the {@link #MetadataSource(MetadataSource)} constructor.
+     */
+    private static final int MAX_CONCURRENT_CONNECTIONS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
     /**
      * The metadata standard to be used for constructing the database schema.
      */
@@ -170,7 +184,7 @@ public class MetadataSource implements AutoCloseable {
      *         }
      *         // Use the statement and give it back to the pool once we are done.
      *         // We do not put it back in case of SQLException.
-     *         Object value = statement.getValue(…);
+     *         Map<String,Object> row = statement.getRow(…);
      *         preferredIndex = recycle(statement, preferredIndex);
      *     }
      * }
@@ -180,6 +194,22 @@ public class MetadataSource implements AutoCloseable {
      */
     private final CachedStatement[] statements;
 
+    /**
+     * The sources available for fetching records in {@link #getValue(Class, Method, Dispatcher)}.
+     * This includes this {@code MetadataSource} itself, and other sources created when many threads
+     * fetch records concurrently. Every access to this deque must be synchronized on the deque.
+     *
+     * @see #acquire()
+     * @see #release(MetadataSource)
+     */
+    private final Deque<MetadataSource> idleSources;
+
+    /**
+     * The sources created in addition to this {@code MetadataSource} for concurrent queries.
+     * Every access to this list must be synchronized on {@link #idleSources}.
+     */
+    private final List<MetadataSource> concurrentSources;
+
     /**
      * The database schema where metadata are stored, or {@code null} if none. In the metadata source
      * {@linkplain #getProvided() provided by SIS}, this is {@code "metadata"} or {@code "METADATA"},
@@ -336,6 +366,9 @@ public class MetadataSource implements AutoCloseable {
         this.tableColumns = new HashMap<>();
         this.pool         = new WeakValueHashMap<>(CacheKey.class);
         this.listeners    = new WarningListeners<>(this);
+        idleSources       = new ArrayDeque<>(MAX_CONCURRENT_CONNECTIONS);
+        concurrentSources = new ArrayList<>(MAX_CONCURRENT_CONNECTIONS - 1);
+        idleSources.add(this);
     }
 
     /**
@@ -361,6 +394,9 @@ public class MetadataSource implements AutoCloseable {
         classloader  = source.classloader;
         pool         = source.pool;
         listeners    = new WarningListeners<>(this, source.listeners);
+        idleSources  = new ArrayDeque<>(MAX_CONCURRENT_CONNECTIONS);
+        concurrentSources = new ArrayList<>(MAX_CONCURRENT_CONNECTIONS - 1);
+        idleSources.add(this);
     }
 
     /**
@@ -789,36 +825,17 @@ public class MetadataSource implements AutoCloseable {
         final boolean  isMetadata     = standard.isMetadata(elementType);
         final String   tableName      = getTableName(type);
         final String   columnName     = getColumnName(method);
-        final boolean  isArray;
-        Object value;
-        synchronized (this) {
-            if (!getExistingColumns(tableName).contains(columnName)) {
-                value   = null;
-                isArray = false;
-            } else {
-                /*
-                 * Prepares the statement and executes the SQL query in this synchronized block.
-                 * Note that the usage of 'result' must stay inside this synchronized block
-                 * because we can not assume that JDBC connections are thread-safe.
-                 */
-                CachedStatement result = take(type, toSearch.preferredIndex);
-                if (result == null) {
-                    final SQLBuilder helper = helper();
-                    final String query = helper.clear().append("SELECT * FROM ")
-                            .appendIdentifier(schema, tableName).append(" WHERE ")
-                            .append(ID_COLUMN).append("=?").toString();
-                    result = new CachedStatement(type, connection().prepareStatement(query), listeners);
-                }
-                value = result.getValue(toSearch.identifier, columnName);
-                isArray = (value instanceof java.sql.Array);
-                if (isArray) {
-                    final java.sql.Array array = (java.sql.Array) value;
-                    value = array.getArray();
-                    array.free();
-                }
-                toSearch.preferredIndex = recycle(result, toSearch.preferredIndex);
-            }
+        Map<String,Object> row = toSearch.row;
+        if (row == null) {
+            toSearch.row = row = fetchRow(type, tableName, toSearch);
         }
+        /*
+         * The row contains only the columns declared in the database metadata, with the case used in
+         * that metadata. Consequently the following is equivalent to checking if the set of existing
+         * columns contains 'columnName' before to fetch its value.
+         */
+        Object value = row.get(columnName);
+        final boolean isArray = (value instanceof Object[]);        // SQL ARRAY, as stored by CachedStatement.
         /*
          * If the value is an array and the return type is anything except an array of primitive type, ensure
          * that the value is converted in an array of type Object[]. In this process, resolve foreigner keys.
@@ -880,6 +897,83 @@ public class MetadataSource implements AutoCloseable {
         return value;
     }
 
+    /**
+     * Fetches all attribute values of the record identified by the given dispatcher. The query is executed on the
+     * connection of an idle {@code MetadataSource}, which may be this source or another one sharing the same data
+     * source. Consequently many threads can fetch records concurrently, up to {@value #MAX_CONCURRENT_CONNECTIONS}
+     * threads. If all sources are busy, the query waits for the lock on this source.
+     *
+     * @param  type       the interface class. This is mapped to the table name in the database.
+     * @param  tableName  the name of the table in the database.
+     * @param  toSearch   contains the identifier and preferred index of the record to search.
+     * @return the values of all columns in the record. Shall not be modified.
+     * @throws SQLException if the SQL query failed.
+     * @throws MetadataStoreException if no record has been found for the given key.
+     */
+    private Map<String,Object> fetchRow(final Class<?> type, final String tableName, final Dispatcher toSearch)
+            throws SQLException, MetadataStoreException
+    {
+        final MetadataSource idle = acquire();
+        final MetadataSource source = (idle != null) ? idle : this;
+        try {
+            synchronized (source) {
+                final Set<String> columns = source.getExistingColumns(tableName);
+                if (columns.isEmpty()) {
+                    return Collections.emptyMap();
+                }
+                /*
+                 * Prepares the statement and executes the SQL query in this synchronized block.
+                 * Note that the usage of 'result' must stay inside this synchronized block
+                 * because we can not assume that JDBC connections are thread-safe.
+                 */
+                CachedStatement result = source.take(type, toSearch.preferredIndex);
+                if (result == null) {
+                    final SQLBuilder helper = source.helper();
+                    final String query = helper.clear().append("SELECT * FROM ")
+                            .appendIdentifier(schema, tableName).append(" WHERE ")
+                            .append(ID_COLUMN).append("=?").toString();
+                    result = new CachedStatement(type, source.connection().prepareStatement(query), listeners);
+                }
+                final Map<String,Object> row = result.getRow(toSearch.identifier, columns);
+                toSearch.preferredIndex = source.recycle(result, toSearch.preferredIndex);
+                return row;
+            }
+        } finally {
+            if (idle != null) {
+                release(idle);
+            }
+        }
+    }
+
+    /**
+     * Returns a source which is not used by any other thread for fetching records, or {@code null} if all
+     * sources are busy and no new one can be created. The source shall be given back to {@link #release}.
+     */
+    private MetadataSource acquire() {
+        synchronized (idleSources) {
+            MetadataSource source = idleSources.pollLast();
+            if (source == null && concurrentSources.size() < MAX_CONCURRENT_CONNECTIONS - 1) {
+                source = new MetadataSource(this);
+                concurrentSources.add(source);
+            }
+            return source;
+        }
+    }
+
+    /**
+     * Gives back a source obtained by {@link #acquire()}. If the pool has been cleared by {@link #close()}
+     * while the given source was in use, then the source is closed instead of being put back in the pool.
+     */
+    private void release(final MetadataSource source) throws MetadataStoreException {
+        synchronized (idleSources) {
+            if (source == this || concurrentSources.contains(source)) {
+                idleSources.addLast(source);
+                return;
+            }
+        }
+        source.close();
+    }
+
     /**
      * Converts the specified non-metadata value into an object of the expected type.
      * The expected value is an instance of a class outside the metadata package, for
@@ -1118,6 +1212,19 @@ public class MetadataSource implements AutoCloseable {
      */
     @Override
     public synchronized void close() throws MetadataStoreException {
+        /*
+         * Remove the concurrent sources from the pool before closing them, so a later lookup can not
+         * acquire a closed source. Sources in use by other threads will be discarded by release(…).
+         */
+        final MetadataSource[] others;
+        synchronized (idleSources) {
+            others = concurrentSources.toArray(new MetadataSource[concurrentSources.size()]);
+            concurrentSources.clear();
+            idleSources.retainAll(Collections.singleton(this));
+        }
+        for (final MetadataSource source : others) {
+            source.close();
+        }
         try {
             for (int i=0; i < statements.length; i++) {
                 final CachedStatement statement = statements[i];
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.metadata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.io.IOException;
+import org.apache.sis.math.Statistics;
+import org.apache.sis.math.StatisticsFormat;
+import org.apache.sis.metadata.iso.DefaultMetadata;
+import org.apache.sis.metadata.iso.citation.DefaultCitation;
+import org.apache.sis.metadata.iso.extent.DefaultExtent;
+import org.apache.sis.metadata.iso.extent.DefaultGeographicBoundingBox;
+import org.apache.sis.metadata.iso.identification.DefaultDataIdentification;
+import org.apache.sis.internal.simple.SimpleIdentifier;
+import org.apache.sis.util.iso.SimpleInternationalString;
+
+import static java.util.Collections.singleton;
+
+
+/**
+ * Measures the performance of {@link PropertyAccessor} when traversing {@link DefaultMetadata} trees.
+ * The benchmark compares, computes hash codes, prunes and creates unmodifiable copies of metadata
+ * having many identification information, each with a citation and a geographic extent.
+ * All those operations invoke the getter and setter methods through {@code PropertyAccessor}.
+ * Since {@code unmodifiable()} caches its result, that operation is measured on new metadata
+ * instances created before the timing begins.
+ *
+ * <p><b>Usage:</b> run before and after a change in {@code PropertyAccessor} implementation,
+ * then compare the statistics printed to the standard output.</p>
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+@SuppressWarnings("UseOfSystemOutOrSystemErr")
+public final class PropertyAccessorBenchmark {
+    /**
+     * Runs the benchmark and prints the time result to the standard output.
+     *
+     * @param  args  ignored.
+     * @throws Exception if an error occurred while waiting for the garbage collector or printing the results.
+     */
+    public static void main(String[] args) throws Exception {
+        final PropertyAccessorBenchmark benchmark = new PropertyAccessorBenchmark();
+        for (int i=0; i<10; i++) {
+            benchmark.run();
+            System.gc();
+            Thread.sleep(1000);
+        }
+        benchmark.printStatistics();
+    }
+
+    /**
+     * Number of identification information in each metadata. Can be modified freely.
+     */
+    private static final int NUM_IDENTIFICATIONS = 200;
+
+    /**
+     * Number of time to repeat each operation in a run. Can be modified freely.
+     */
+    private static final int NUM_REPETITIONS = 50;
+
+    /**
+     * Two metadata objects which are equal but not the same instances.
+     */
+    private final DefaultMetadata metadata1, metadata2;
+
+    /**
+     * Statistics about execution time, in milliseconds.
+     */
+    private final Statistics equalsTime, hashCodeTime, pruneTime, copyTime;
+
+    /**
+     * A value computed from the results, for preventing the JVM to optimize away the benchmarked code.
+     */
+    private int check;
+
+    /**
+     * Creates a new benchmark.
+     */
+    private PropertyAccessorBenchmark() {
+        metadata1    = createMetadata();
+        metadata2    = createMetadata();
+        equalsTime   = new Statistics("equals(…)");
+        hashCodeTime = new Statistics("hashCode()");
+        pruneTime    = new Statistics("prune()");
+        copyTime     = new Statistics("unmodifiable()");
+    }
+
+    /**
+     * Creates a metadata with {@value #NUM_IDENTIFICATIONS} identification information.
+     */
+    private static DefaultMetadata createMetadata() {
+        final List<DefaultDataIdentification> identifications = new ArrayList<>(NUM_IDENTIFICATIONS);
+        for (int i=0; i<NUM_IDENTIFICATIONS; i++) {
+            final DefaultDataIdentification identification = new DefaultDataIdentification();
+            final DefaultCitation citation = new DefaultCitation("Dataset #" + i);
+            citation.setIdentifiers(singleton(new SimpleIdentifier(null, "ID-" + i, false)));
+            identification.setCitation(citation);
+            identification.setAbstract(new SimpleInternationalString("Description of dataset #" + i));
+            final DefaultExtent extent = new DefaultExtent();
+            extent.setGeographicElements(singleton(new DefaultGeographicBoundingBox(-i % 180, i % 180, -i % 90, i % 90)));
+            identification.setExtents(singleton(extent));
+            identifications.add(identification);
+        }
+        final DefaultMetadata metadata = new DefaultMetadata();
+        metadata.setIdentificationInfo(identifications);
+        return metadata;
+    }
+
+    /**
+     * Runs all operations once and adds the execution times to the statistics.
+     */
+    private void run() {
+        final DefaultMetadata[] copySources = new DefaultMetadata[NUM_REPETITIONS];
+        for (int i=0; i<NUM_REPETITIONS; i++) {
+            copySources[i] = createMetadata();
+        }
+        long time = System.nanoTime();
+        for (int i=0; i<NUM_REPETITIONS; i++) {
+            if (metadata1.equals(metadata2)) check++;
+        }
+        time = record(equalsTime, time);
+        for (int i=0; i<NUM_REPETITIONS; i++) {
+            check += metadata1.hashCode();
+        }
+        time = record(hashCodeTime, time);
+        for (int i=0; i<NUM_REPETITIONS; i++) {
+            metadata1.prune();
+        }
+        time = record(pruneTime, time);
+        for (int i=0; i<NUM_REPETITIONS; i++) {
+            check += System.identityHashCode(copySources[i].unmodifiable());
+        }
+        record(copyTime, time);
+    }
+
+    /**
+     * Adds the time elapsed since the given time to the given statistics, in milliseconds.
+     *
+     * @return the current time.
+     */
+    private static long record(final Statistics statistics, final long start) {
+        final long time = System.nanoTime();
+        statistics.accept((time - start) / 1E+6);
+        return time;
+    }
+
+    /**
+     * Prints the statistics to the standard output.
+     *
+     * @throws IOException if an error occurred while writing to the standard output.
+     */
+    private void printStatistics() throws IOException {
+        StatisticsFormat.getInstance().format(new Statistics[] {equalsTime, hashCodeTime, pruneTime, copyTime}, System.out);
+        System.out.println("(check value: " + check + ')');
+        System.out.flush();
+    }
+}
@@ -16,7 +16,13 @@
  */
 package org.apache.sis.metadata.sql;
 
+import java.util.Map;
 import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.lang.reflect.Proxy;
 import javax.sql.DataSource;
 import org.opengis.metadata.distribution.Format;
 import org.apache.sis.metadata.MetadataStandard;
@@ -53,7 +59,9 @@ public final strictfp class MetadataSourceTest extends TestCase {
         final DataSource ds = TestDatabase.create("temporary");
         try (final MetadataSource source = new MetadataSource(MetadataStandard.ISO_19115, ds, "metadata", null, null)) {
             source.install();
+            verifyConcurrentLookups(source);
             verifyFormats(source);
+            verifyPrefetch(source);
 //          testSearch(source);
         } finally {
             TestDatabase.drop(ds);
@@ -76,6 +84,55 @@ public final strictfp class MetadataSourceTest extends TestCase {
         verify(source.lookup(Format.class, "CSV-MF"),  "CSV",     "OGC Moving Features Encoding Extension: Simple Comma-Separated Values (CSV)");
     }
 
+    /**
+     * Verifies that the record of a metadata instance is fetched in a single query and cached.
+     * The first getter invoked on the proxy fetches the whole row, and the other getters reuse it.
+     * A strong reference to the proxy is kept during the whole test, so the verification does not
+     * depend on whether the pool still contains a proxy created by a previous test step.
+     *
+     * @param  source  the instance to test.
+     * @throws MetadataStoreException if an error occurred while querying the database.
+     */
+    @TestStep
+    public static void verifyPrefetch(final MetadataSource source) throws MetadataStoreException {
+        final Format format = source.lookup(Format.class, "PNG");
+        final Dispatcher dispatcher = (Dispatcher) Proxy.getInvocationHandler(format);
+        verify(format, "PNG", "PNG (Portable Network Graphics) Specification");
+        final Map<String,Object> row = dispatcher.row;
+        assertNotNull("row", row);
+        verify(format, "PNG", "PNG (Portable Network Graphics) Specification");
+        assertSame("row", row, dispatcher.row);
+    }
+
+    /**
+     * Fetches the same formats in many threads and verifies that they all get the same values.
+     * The first threads should fetch the records concurrently on different connections.
+     *
+     * @param  source  the instance to test.
+     * @throws Exception if an error occurred while querying the database.
+     */
+    @TestStep
+    public static void verifyConcurrentLookups(final MetadataSource source) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            @SuppressWarnings({"unchecked","rawtypes"})
+            final Future<Object>[] tasks = new Future[8];
+            for (int i=0; i<tasks.length; i++) {
+                tasks[i] = executor.submit(new Callable<Object>() {
+                    @Override public Object call() throws MetadataStoreException {
+                        verifyFormats(source);
+                        return null;
+                    }
+                });
+            }
+            for (final Future<Object> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     /**
      * Verifies properties of the given format.
      *
@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.referencing;
+
+import java.util.Arrays;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.apache.sis.referencing.operation.transform.AbstractMathTransform;
+import org.apache.sis.referencing.operation.transform.LinearTransform;
+import org.apache.sis.util.resources.Errors;
+import org.apache.sis.util.Static;
+
+
+/**
+ * Helper methods for transforming coordinates stored in one array per dimension ("structure of arrays")
+ * instead than in a single array of interleaved tuples. For a two-dimensional transform, the source
+ * coordinates are given as {@code double[][] {x, y}} where {@code x[srcOff + i]} and {@code y[srcOff + i]}
+ * are the ordinates of point <var>i</var>. Loops over a single column have no stride, which allows the
+ * JIT compiler to vectorize the linear parts of the calculation.
+ *
+ * <p>A destination column can be the same array than the source column of the same dimension at the same offset
+ * (in-place transformation). For any other case where a destination column is also a source column, the source
+ * coordinates are copied by {@link #sourceColumns sourceColumns(…)} before the transformation.</p>
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+public final class CoordinateColumns extends Static {
+    /**
+     * Maximal number of points to process in a single block when temporary arrays are needed.
+     * Temporary arrays have this length for each dimension, regardless the number of points.
+     */
+    private static final int BLOCK_SIZE = 512;
+
+    /**
+     * Do not allow instantiation of this class.
+     */
+    private CoordinateColumns() {
+    }
+
+    /**
+     * Transforms the given columns by the given transform. If the transform is an {@link AbstractMathTransform},
+     * then this method delegates to its {@code transform(double[][], …)} method, which may be specialized.
+     * Otherwise if the transform is linear, then this method uses {@link #linear linear(…)}.
+     * Otherwise this method uses {@link #interleaved interleaved(…)}.
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the source coordinates, as one array per source dimension.
+     * @param  srcOff     index of the first point to transform in each source array.
+     * @param  dstPts     where to write the transformed coordinates, as one array per target dimension.
+     * @param  dstOff     index where to write the first point in each destination array.
+     * @param  numPts     number of points to transform.
+     * @throws TransformException if a point can not be transformed.
+     */
+    public static void transform(final MathTransform transform, final double[][] srcPts, final int srcOff,
+            final double[][] dstPts, final int dstOff, final int numPts) throws TransformException
+    {
+        if (transform instanceof AbstractMathTransform) {
+            ((AbstractMathTransform) transform).transform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else if (transform instanceof LinearTransform) {
+            final Matrix matrix = ((LinearTransform) transform).getMatrix();
+            final int numRow = matrix.getNumRow();
+            final int numCol = matrix.getNumCol();
+            final double[] elements = new double[numRow * numCol];
+            for (int j=0; j<numRow; j++) {
+                for (int i=0; i<numCol; i++) {
+                    elements[j*numCol + i] = matrix.getElement(j, i);
+                }
+            }
+            linear(elements, numRow, numCol, srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            interleaved(transform, srcPts, srcOff, dstPts, dstOff, numPts);
+        }
+    }
+
+    /**
+     * Verifies the number of columns and returns a copy of the source columns if the transformation can not be
+     * done in place. The copy is needed if a destination column is also a source column, unless it is the column
+     * of the same dimension and the source and destination offsets are equal.
+     *
+     * @param  transform  the transform which will be applied.
+     * @param  srcPts     the source coordinates, as one array per source dimension.
+     * @param  srcOff     index of the first point to transform in each source array.
+     * @param  dstPts     where to write the transformed coordinates, as one array per target dimension.
+     * @param  dstOff     index where to write the first point in each destination array.
+     * @param  numPts     number of points to transform.
+     * @return copy of the {@code numPts} source ordinates starting at index 0 in each array,
+     *         or {@code null} if the given {@code srcPts} can be used directly.
+     * @throws MismatchedDimensionException if the number of columns does not match the transform dimensions.
+     */
+    public static double[][] sourceColumns(final MathTransform transform, final double[][] srcPts, final int srcOff,
+            final double[][] dstPts, final int dstOff, final int numPts)
+    {
+        ensureDimensionMatches("srcPts", transform.getSourceDimensions(), srcPts);
+        ensureDimensionMatches("dstPts", transform.getTargetDimensions(), dstPts);
+        return overlaps(srcPts, srcOff, dstPts, dstOff) ? copy(srcPts, srcOff, numPts) : null;
+    }
+
+    /**
+     * Returns {@code true} if a destination column is also a source column in a way that prevents
+     * in-place transformation.
+     */
+    private static boolean overlaps(final double[][] srcPts, final int srcOff, final double[][] dstPts, final int dstOff) {
+        for (int j=0; j<dstPts.length; j++) {
+            final double[] column = dstPts[j];
+            for (int i=0; i<srcPts.length; i++) {
+                if (srcPts[i] == column && (i != j || srcOff != dstOff)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ensures that the given array of columns has the expected length.
+     */
+    private static void ensureDimensionMatches(final String name, final int expected, final double[][] columns) {
+        if (columns.length != expected) {
+            throw new MismatchedDimensionException(Errors.format(
+                    Errors.Keys.MismatchedDimension_3, name, expected, columns.length));
+        }
+    }
+
+    /**
+     * Transforms the given columns by a matrix. The matrix elements are given in row-major order,
+     * like the {@code ProjectiveTransform} internal array. Each row of the matrix is computed for
+     * a block of points by loops over single columns, which can be vectorized by the JIT compiler.
+     * The calculation is performed in the same order than the transformation of interleaved arrays,
+     * so the results are identical.
+     *
+     * @param  elt     the matrix elements in row-major order. May be longer than {@code numRow} × {@code numCol}.
+     * @param  numRow  number of rows in the matrix, which is the target dimension + 1.
+     * @param  numCol  number of columns in the matrix, which is the source dimension + 1.
+     * @param  srcPts  the source coordinates, as one array per source dimension.
+     * @param  srcOff  index of the first point to transform in each source array.
+     * @param  dstPts  where to write the transformed coordinates, as one array per target dimension.
+     * @param  dstOff  index where to write the first point in each destination array.
+     * @param  numPts  number of points to transform.
+     */
+    public static void linear(final double[] elt, final int numRow, final int numCol,
+            double[][] srcPts, int srcOff, final double[][] dstPts, int dstOff, int numPts)
+    {
+        if (numPts <= 0) {
+            return;
+        }
+        final int srcDim = numCol - 1;
+        final int dstDim = numRow - 1;
+        if (srcPts.length != srcDim || dstPts.length != dstDim) {
+            ensureDimensionMatches("srcPts", srcDim, srcPts);
+            ensureDimensionMatches("dstPts", dstDim, dstPts);
+        }
+        if (overlaps(srcPts, srcOff, dstPts, dstOff)) {
+            srcPts = copy(srcPts, srcOff, numPts);
+            srcOff = 0;
+        }
+        /*
+         * If the last row is [0 0 … 0 1], then the matrix is affine and we do not need to compute
+         * the 'w' values. Otherwise the last temporary row will contain the 'w' values.
+         */
+        boolean isAffine = true;
+        for (int i=0, mix=dstDim*numCol; i<numCol; i++) {
+            if (elt[mix++] != (i == srcDim ? 1 : 0)) {
+                isAffine = false;
+                break;
+            }
+        }
+        final int blockSize = Math.min(numPts, BLOCK_SIZE);
+        final double[][] rows = new double[isAffine ? dstDim : numRow][blockSize];
+        do {
+            final int n = Math.min(numPts, blockSize);
+            for (int j=0; j<rows.length; j++) {
+                final double[] row = rows[j];
+                final int mix = j * numCol;
+                Arrays.fill(row, 0, n, elt[mix + srcDim]);
+                for (int i=0; i<srcDim; i++) {
+                    final double e = elt[mix + i];
+                    if (e != 0) {
+                        // See comment in ProjectiveTransform.transform(double[], …) about NaN values.
+                        final double[] column = srcPts[i];
+                        for (int k=0; k<n; k++) {
+                            row[k] += column[srcOff + k] * e;
+                        }
+                    }
+                }
+            }
+            if (!isAffine) {
+                final double[] w = rows[dstDim];
+                for (int j=0; j<dstDim; j++) {
+                    final double[] row = rows[j];
+                    for (int k=0; k<n; k++) {
+                        row[k] /= w[k];
+                    }
+                }
+            }
+            for (int j=0; j<dstDim; j++) {
+                System.arraycopy(rows[j], 0, dstPts[j], dstOff, n);
+            }
+            srcOff += n;
+            dstOff += n;
+            numPts -= n;
+        } while (numPts != 0);
+    }
+
+    /**
+     * Transforms the given columns by copying them in blocks of interleaved tuples given to
+     * {@link MathTransform#transform(double[], int, double[], int, int)}. This is the fallback
+     * used when a transform has no specialized implementation for coordinates stored in columns.
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the source coordinates, as one array per source dimension.
+     * @param  srcOff     index of the first point to transform in each source array.
+     * @param  dstPts     where to write the transformed coordinates, as one array per target dimension.
+     * @param  dstOff     index where to write the first point in each destination array.
+     * @param  numPts     number of points to transform.
+     * @throws TransformException if a point can not be transformed.
+     */
+    public static void interleaved(final MathTransform transform, double[][] srcPts, int srcOff,
+            final double[][] dstPts, int dstOff, int numPts) throws TransformException
+    {
+        final double[][] copy = sourceColumns(transform, srcPts, srcOff, dstPts, dstOff, numPts);
+        if (copy != null) {
+            srcPts = copy;
+            srcOff = 0;
+        }
+        if (numPts <= 0) {
+            return;
+        }
+        final int dimSource  = srcPts.length;
+        final int dimTarget  = dstPts.length;
+        final int dimLargest = Math.max(dimSource, dimTarget);
+        final int blockSize  = Math.min(numPts, Math.max(1, BLOCK_SIZE / dimLargest));
+        final double[] buffer = new double[blockSize * dimLargest];
+        TransformException failure = null;
+        do {
+            final int n = Math.min(numPts, blockSize);
+            for (int i=0; i<dimSource; i++) {
+                final double[] column = srcPts[i];
+                for (int k=0; k<n; k++) {
+                    buffer[k*dimSource + i] = column[srcOff + k];
+                }
+            }
+            try {
+                transform.transform(buffer, 0, buffer, 0, n);
+            } catch (TransformException exception) {
+                // Same comment than in AbstractMathTransform.transform(float[], …, float[], …).
+                if (exception.getLastCompletedTransform() != transform) {
+                    throw exception;
+                } else if (failure == null) {
+                    failure = exception;
+                } else {
+                    failure.addSuppressed(exception);
+                }
+            }
+            for (int j=0; j<dimTarget; j++) {
+                final double[] column = dstPts[j];
+                for (int k=0; k<n; k++) {
+                    column[dstOff + k] = buffer[k*dimTarget + j];
+                }
+            }
+            srcOff += n;
+            dstOff += n;
+            numPts -= n;
+        } while (numPts != 0);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Returns a copy of the {@code numPts} values starting at {@code srcOff} in each column.
+     */
+    private static double[][] copy(final double[][] srcPts, final int srcOff, final int numPts) {
+        final double[][] copy = new double[srcPts.length][];
+        for (int k=0; k<copy.length; k++) {
+            copy[k] = Arrays.copyOfRange(srcPts[k], srcOff, srcOff + numPts);
+        }
+        return copy;
+    }
+}
@@ -18,6 +18,7 @@ package org.apache.sis.internal.referencing.provider;
 
 import java.util.Arrays;
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
 import javax.measure.Unit;
 import javax.measure.Quantity;
 import org.opengis.parameter.ParameterDescriptor;
@@ -67,15 +68,18 @@ public abstract class DatumShiftGridFile<C extends Quantity<C>, T extends Quanti
     /**
      * Cache of grids loaded so far. Those grids will be stored by soft references until the amount of
      * data exceed 32768 (about 128 kilobytes if the values use the {@code float} type). in which case
-     * the oldest grids will be replaced by weak references.
+     * the oldest grids will be replaced by weak references. Grids backed by {@linkplain Mapped mapped files}
+     * do not count in the amount of data, since their values are not in the Java heap.
      */
     static final Cache<Object, DatumShiftGridFile<?,?>> CACHE = new Cache<Object, DatumShiftGridFile<?,?>>(4, 32*1024, true) {
         @Override protected int cost(final DatumShiftGridFile<?,?> grid) {
-            int p = 1;
+            long p = 0;
             for (final Object array : grid.getData()) {
-                p *= Array.getLength(array);
+                if (array.getClass().isArray()) {
+                    p += Array.getLength(array);
+                }
             }
-            return p;
+            return (int) Math.min(p, Integer.MAX_VALUE);
         }
     };
 
@@ -353,4 +357,211 @@ public abstract class DatumShiftGridFile<C extends Quantity<C>, T extends Quanti
             return DecimalFunctions.floatToDouble(offsets[dim][gridX + gridY*nx]);
         }
     }
+
+
+
+
+    /**
+     * A buffer mapped on a region of a file, together with the identification of that region.
+     * Two regions are equal if they map the same bytes of the same file. The buffer content is
+     * not compared, since comparing mapped files element by element would read the whole files.
+     */
+    static final class Region {
+        /**
+         * The read-only buffer mapped on the file.
+         */
+        final ByteBuffer data;
+
+        /**
+         * The real path of the mapped file (after resolution of symbolic links).
+         */
+        private final Path file;
+
+        /**
+         * Position in the file of the first mapped byte.
+         */
+        private final long position;
+
+        /**
+         * Creates a new region for the given buffer mapped on the given file.
+         *
+         * @param  data      the read-only buffer mapped on the file.
+         * @param  file      the real path of the mapped file.
+         * @param  position  position in the file of the first byte of {@code data}.
+         */
+        Region(final ByteBuffer data, final Path file, final long position) {
+            this.data     = data;
+            this.file     = file;
+            this.position = position;
+        }
+
+        /**
+         * Returns {@code true} if the given object is a region mapping the same bytes of the same file.
+         */
+        @Override
+        public boolean equals(final Object other) {
+            if (other instanceof Region) {
+                final Region that = (Region) other;
+                return position == that.position && data.capacity() == that.data.capacity() && file.equals(that.file);
+            }
+            return false;
+        }
+
+        /**
+         * Returns a hash code value computed from the file and the position.
+         */
+        @Override
+        public int hashCode() {
+            return file.hashCode() + (int) (position ^ (position >>> 32));
+        }
+    }
+
+    /**
+     * An implementation of {@link DatumShiftGridFile} which reads the offset values directly from a file
+     * mapped in memory. Values are read on demand and the file pages are cached by the operating system
+     * rather than in the Java heap, which avoid the cost of loading the whole grid at construction time.
+     * The cache of the operating system is also shared between all processes using the same file.
+     *
+     * <p>The file shall contain one record of {@code cellLength} bytes for each grid cell, in the same order
+     * than the cells of the grid (row-major, starting from the cell at index (0,0)). Each record contains the
+     * offset values as {@code float} numbers at the given byte offsets in the record. The values stored in the
+     * file are divided by a factor specified for each dimension, which allows for example to convert angular
+     * seconds into ratio of cell size as required when {@link #isCellValueRatio()} is {@code true}.</p>
+     *
+     * <p>Mapped grids are serialized as {@link Float} grids.</p>
+     *
+     * @author  agent (GeoPlatform)
+     * @since   0.8
+     * @version 0.8
+     * @module
+     */
+    static final class Mapped<C extends Quantity<C>, T extends Quantity<T>> extends DatumShiftGridFile<C,T> {
+        /**
+         * Serial number for inter-operability with different versions.
+         */
+        private static final long serialVersionUID = 6542961183236740151L;
+
+        /**
+         * The translation values, as a read-only buffer mapped on the file.
+         * The buffer byte order shall be the byte order of the file.
+         */
+        private final transient ByteBuffer data;
+
+        /**
+         * The region of the file mapped by {@link #data}. This is used as the grid data in comparisons,
+         * so two grids are considered to share the same data if they map the same region of the same file.
+         */
+        private final transient Region region;
+
+        /**
+         * Number of bytes in the record of a cell.
+         */
+        private final int cellLength;
+
+        /**
+         * Byte offset of the value of each dimension in the record of a cell.
+         */
+        private final int[] fieldOffsets;
+
+        /**
+         * The factors by which to divide the values stored in the file, for each dimension.
+         */
+        private final double[] divisors;
+
+        /**
+         * Creates a new datum shift grid with the given grid geometry backed by the given mapped region.
+         * The buffer position shall be zero, and its capacity shall be at least {@code nx × ny × cellLength}.
+         */
+        Mapped(final Unit<C> coordinateUnit,
+               final Unit<T> translationUnit,
+               final boolean isCellValueRatio,
+               final double x0, final double y0,
+               final double Δx, final double Δy,
+               final int    nx, final int    ny,
+               final ParameterDescriptorGroup descriptor,
+               final Region region, final int cellLength,
+               final int[] fieldOffsets, final double[] divisors,
+               final Path... files) throws NoninvertibleTransformException
+        {
+            super(coordinateUnit, translationUnit, isCellValueRatio, x0, y0, Δx, Δy, nx, ny, descriptor, files);
+            if (region.data.capacity() / cellLength < (long) nx * ny || fieldOffsets.length != divisors.length) {
+                throw new IllegalArgumentException();
+            }
+            this.region       = region;
+            this.data         = region.data;
+            this.cellLength   = cellLength;
+            this.fieldOffsets = fieldOffsets;
+            this.divisors     = divisors;
+        }
+
+        /**
+         * Creates a new grid of the same geometry than the given grid but using a different mapped region.
+         */
+        private Mapped(final Mapped<C,T> grid, final Region region) {
+            super(grid);
+            this.region       = region;
+            this.data         = region.data;
+            this.cellLength   = grid.cellLength;
+            this.fieldOffsets = grid.fieldOffsets;
+            this.divisors     = grid.divisors;
+        }
+
+        /**
+         * Returns a new grid with the same geometry than this grid but a different buffer.
+         */
+        @Override
+        final DatumShiftGridFile<C,T> setData(final Object[] other) {
+            return new Mapped<>(this, (Region) other[0]);
+        }
+
+        /**
+         * Returns the mapped region of this grid. Two mapped grids have the same data
+         * if they map the same region of the same file, regardless the buffer content.
+         */
+        @Override
+        final Object[] getData() {
+            return new Object[] {region};
+        }
+
+        /**
+         * Returns the number of shift dimension.
+         */
+        @Override
+        public final int getTranslationDimensions() {
+            return fieldOffsets.length;
+        }
+
+        /**
+         * Returns the cell value at the given dimension and grid index. This method reads the value
+         * in the mapped file, then converts it to {@code double} in the same way than {@link Float}.
+         *
+         * @param dim    The dimension for which to get an average value.
+         * @param gridX  The grid index along the <var>x</var> axis, from 0 inclusive to {@link #nx} exclusive.
+         * @param gridY  The grid index along the <var>y</var> axis, from 0 inclusive to {@link #ny} exclusive.
+         * @return The offset at the given dimension in the grid cell at the given index.
+         */
+        @Override
+        public final double getCellValue(final int dim, final int gridX, final int gridY) {
+            final float value = data.getFloat((gridX + gridY*nx) * cellLength + fieldOffsets[dim]);
+            return DecimalFunctions.floatToDouble(value) / divisors[dim];
+        }
+
+        /**
+         * Replaces this grid by a grid stored in {@code float[]} arrays at serialization time,
+         * since the mapped buffer can not be serialized.
+         *
+         * @return the grid to serialize in replacement of this grid.
+         */
+        private Object writeReplace() {
+            final int size = JDK8.multiplyExact(nx, getGridSize()[1]);
+            final float[][] offsets = new float[fieldOffsets.length][size];
+            for (int dim=0; dim < offsets.length; dim++) {
+                final float[] values = offsets[dim];
+                for (int i=0; i<size; i++) {
+                    values[i] = (float) (data.getFloat(i * cellLength + fieldOffsets[dim]) / divisors[dim]);
+                }
+            }
+            return new Float<>(this, offsets);
+        }
+    }
 }
@@ -0,0 +1,344 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.referencing.provider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.io.Serializable;
+import javax.measure.Unit;
+import javax.measure.Quantity;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.parameter.ParameterDescriptorGroup;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+
+// Branch-specific imports
+import java.nio.file.Path;
+
+
+/**
+ * A datum shift grid made of many sub-grids organized in a hierarchy, as found in some NTv2 files.
+ * The first grids cover large areas with a coarse resolution, and their children cover smaller areas
+ * with finer resolutions. For each point, this class uses the finest grid containing that point.
+ *
+ * <p>The grid geometry of this group is an arbitrary grid enclosing all sub-grids, with the resolution
+ * of the coarsest grid. Grid indices given to {@link #interpolateInCell interpolateInCell(…)} are in
+ * that enclosing grid; they are converted to the indices of the selected sub-grid by an affine function,
+ * and the translation computed by the sub-grid is converted back to units of enclosing grid cells.
+ * This is possible because {@link #isCellValueRatio()} is {@code true} for all NTv2 grids.</p>
+ *
+ * <p>The sub-grids are stored in a tree where each node keeps the bounds of its children in units of the
+ * enclosing grid. The search for the grid to use at a given point descends that tree, testing only the
+ * children of the grids containing the point.</p>
+ *
+ * @param  <C>  dimension of the coordinate unit (usually {@link javax.measure.quantity.Angle}).
+ * @param  <T>  dimension of the translation unit (usually {@link javax.measure.quantity.Angle}).
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+final class DatumShiftGridGroup<C extends Quantity<C>, T extends Quantity<T>> extends DatumShiftGridFile<C,T> {
+    /**
+     * Serial number for inter-operability with different versions.
+     */
+    private static final long serialVersionUID = 1602724619897451422L;
+
+    /**
+     * All sub-grids, in the order they were declared in the file.
+     */
+    private final DatumShiftGridFile<C,T>[] subgrids;
+
+    /**
+     * The sub-grids which have no parent. Their children are stored in {@link Node#children}.
+     */
+    private final Node[] roots;
+
+    /**
+     * The smallest cell precision of all sub-grids, in units of the enclosing grid cells.
+     */
+    private final double precision;
+
+    /**
+     * A sub-grid in the tree, together with the conversion from the indices of the enclosing grid
+     * to the indices of the sub-grid.
+     */
+    private static final class Node implements Serializable {
+        /** For cross-version compatibility. */
+        private static final long serialVersionUID = -2290553426328706426L;
+
+        /** Index of the sub-grid in the {@link DatumShiftGridGroup#subgrids} array. */
+        final int index;
+
+        /** Scale factors and offsets converting enclosing grid indices to sub-grid indices. */
+        final double sx, sy, ox, oy;
+
+        /** Bounds of the sub-grid in units of the enclosing grid indices. */
+        final double xmin, xmax, ymin, ymax;
+
+        /** The sub-grids having this grid as their parent. */
+        Node[] children;
+
+        /**
+         * Creates a node for the given sub-grid.
+         *
+         * @param index      index of the sub-grid in the array of all sub-grids.
+         * @param subgrid    the sub-grid.
+         * @param enclosing  conversion from coordinates to enclosing grid indices.
+         */
+        Node(final int index, final DatumShiftGridFile<?,?> subgrid, final Matrix enclosing) {
+            final Matrix m = subgrid.getCoordinateToGrid().getMatrix();
+            this.index = index;
+            sx = m.getElement(0,0) / enclosing.getElement(0,0);
+            sy = m.getElement(1,1) / enclosing.getElement(1,1);
+            ox = m.getElement(0,2) - sx * enclosing.getElement(0,2);
+            oy = m.getElement(1,2) - sy * enclosing.getElement(1,2);
+            final int[] size = subgrid.getGridSize();
+            final double x0 = -ox / sx, x1 = (size[0] - 1 - ox) / sx;
+            final double y0 = -oy / sy, y1 = (size[1] - 1 - oy) / sy;
+            xmin = Math.min(x0, x1);  xmax = Math.max(x0, x1);
+            ymin = Math.min(y0, y1);  ymax = Math.max(y0, y1);
+        }
+
+        /**
+         * Creates a node with the same geometry than the given node.
+         */
+        Node(final Node other) {
+            index = other.index;
+            sx = other.sx;  ox = other.ox;  xmin = other.xmin;  xmax = other.xmax;
+            sy = other.sy;  oy = other.oy;  ymin = other.ymin;  ymax = other.ymax;
+        }
+
+        /**
+         * Returns {@code true} if the given enclosing grid indices are inside this sub-grid.
+         */
+        final boolean contains(final double gridX, final double gridY) {
+            return gridX >= xmin && gridX <= xmax && gridY >= ymin && gridY <= ymax;
+        }
+
+        /**
+         * Returns the square of the distance from the given point to the bounds of this sub-grid,
+         * in units of enclosing grid cells.
+         */
+        final double distanceSquared(final double gridX, final double gridY) {
+            final double dx = Math.max(0, Math.max(xmin - gridX, gridX - xmax));
+            final double dy = Math.max(0, Math.max(ymin - gridY, gridY - ymax));
+            return dx*dx + dy*dy;
+        }
+
+        /**
+         * Returns a copy of the given tree.
+         */
+        static Node[] copy(final Node[] nodes) {
+            final Node[] copy = new Node[nodes.length];
+            for (int i=0; i<nodes.length; i++) {
+                copy[i] = new Node(nodes[i]);
+                copy[i].children = copy(nodes[i].children);
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * Creates a new group for the given sub-grids. The grid geometry of this group shall enclose all sub-grids.
+     *
+     * @param subgrids  all sub-grids, in the order they were declared in the file.
+     * @param parents   for each sub-grid, index of the parent grid or -1 if none.
+     * @param x0        <var>x</var> coordinate of the cell at index (0,0) in the enclosing grid.
+     * @param y0        <var>y</var> coordinate of the cell at index (0,0) in the enclosing grid.
+     * @param Δx        increment in <var>x</var> value between cells of the enclosing grid.
+     * @param Δy        increment in <var>y</var> value between cells of the enclosing grid.
+     * @param nx        number of cells along the <var>x</var> axis in the enclosing grid.
+     * @param ny        number of cells along the <var>y</var> axis in the enclosing grid.
+     */
+    DatumShiftGridGroup(final DatumShiftGridFile<C,T>[] subgrids, final int[] parents,
+                        final Unit<C> coordinateUnit, final Unit<T> translationUnit,
+                        final double x0, final double y0,
+                        final double Δx, final double Δy,
+                        final int    nx, final int    ny,
+                        final ParameterDescriptorGroup descriptor,
+                        final Path... files) throws NoninvertibleTransformException
+    {
+        super(coordinateUnit, translationUnit, true, x0, y0, Δx, Δy, nx, ny, descriptor, files);
+        this.subgrids = subgrids;
+        final Matrix enclosing = getCoordinateToGrid().getMatrix();
+        final Node[] nodes = new Node[subgrids.length];
+        double p = Double.POSITIVE_INFINITY;
+        for (int i=0; i<nodes.length; i++) {
+            final Node node = new Node(i, subgrids[i], enclosing);
+            final double sp = subgrids[i].getCellPrecision() / Math.max(Math.abs(node.sx), Math.abs(node.sy));
+            if (sp < p) p = sp;         // Ignore NaN values.
+            nodes[i] = node;
+        }
+        precision = p;
+        roots = children(nodes, parents, -1);
+    }
+
+    /**
+     * Creates a new group with the same geometry than the given group but different sub-grids.
+     */
+    private DatumShiftGridGroup(final DatumShiftGridGroup<C,T> other, final DatumShiftGridFile<C,T>[] subgrids) {
+        super(other);
+        this.subgrids  = subgrids;
+        this.precision = other.precision;
+        this.roots     = Node.copy(other.roots);
+    }
+
+    /**
+     * Returns the nodes having the given parent, after having set their own children.
+     */
+    private static Node[] children(final Node[] nodes, final int[] parents, final int parent) {
+        final List<Node> children = new ArrayList<>();
+        for (int i=0; i<nodes.length; i++) {
+            if (parents[i] == parent) {
+                final Node node = nodes[i];
+                node.children = children(nodes, parents, i);
+                children.add(node);
+            }
+        }
+        return children.toArray(new Node[children.size()]);
+    }
+
+    /**
+     * Returns the finest sub-grid containing the given point. If no sub-grid contains the point,
+     * then this method returns the root grid nearest to that point.
+     */
+    private Node find(final double gridX, final double gridY) {
+        Node found = null;
+        Node[] candidates = roots;
+search: while (candidates.length != 0) {
+            for (final Node node : candidates) {
+                if (node.contains(gridX, gridY)) {
+                    found = node;
+                    candidates = node.children;
+                    continue search;
+                }
+            }
+            break;
+        }
+        if (found == null) {
+            double min = Double.POSITIVE_INFINITY;
+            for (final Node node : roots) {
+                final double d = node.distanceSquared(gridX, gridY);
+                if (d < min) {
+                    min = d;
+                    found = node;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns a new grid with the same geometry than this grid but different data arrays.
+     */
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    final DatumShiftGridFile<C,T> setData(final Object[] other) {
+        final DatumShiftGridFile<C,T>[] grids = new DatumShiftGridFile[subgrids.length];
+        int offset = 0;
+        for (int i=0; i<grids.length; i++) {
+            final int n = subgrids[i].getData().length;
+            grids[i] = subgrids[i].setData(Arrays.copyOfRange(other, offset, offset += n));
+        }
+        return new DatumShiftGridGroup<>(this, grids);
+    }
+
+    /**
+     * Returns the data arrays of all sub-grids, in the order of sub-grids.
+     */
+    @Override
+    final Object[] getData() {
+        final List<Object> data = new ArrayList<>();
+        for (final DatumShiftGridFile<C,T> grid : subgrids) {
+            data.addAll(Arrays.asList(grid.getData()));
+        }
+        return data.toArray();
+    }
+
+    /**
+     * Returns the number of shift dimensions, which is the same for all sub-grids.
+     */
+    @Override
+    public int getTranslationDimensions() {
+        return subgrids[0].getTranslationDimensions();
+    }
+
+    /**
+     * Returns the smallest precision of all sub-grids, in units of the enclosing grid cells.
+     */
+    @Override
+    public double getCellPrecision() {
+        return precision;
+    }
+
+    /**
+     * Returns the average translation of the first root grid, in units of the enclosing grid cells.
+     */
+    @Override
+    public double getCellMean(final int dim) {
+        final Node node = roots[0];
+        double mean = subgrids[node.index].getCellMean(dim);
+        switch (dim) {
+            case 0: mean /= node.sx; break;
+            case 1: mean /= node.sy; break;
+        }
+        return mean;
+    }
+
+    /**
+     * Returns the translation at the given enclosing grid indices. The value is interpolated
+     * in the finest sub-grid containing the given cell.
+     */
+    @Override
+    public double getCellValue(final int dim, final int gridX, final int gridY) {
+        final double[] vector = new double[getTranslationDimensions()];
+        interpolateInCell(gridX, gridY, vector);
+        return vector[dim];
+    }
+
+    /**
+     * Interpolates the translation in the finest sub-grid containing the given point.
+     * The translation is converted from units of the sub-grid cells to units of the enclosing grid cells.
+     */
+    @Override
+    public void interpolateInCell(final double gridX, final double gridY, final double[] vector) {
+        final Node node = find(gridX, gridY);
+        subgrids[node.index].interpolateInCell(gridX * node.sx + node.ox, gridY * node.sy + node.oy, vector);
+        vector[0] /= node.sx;
+        vector[1] /= node.sy;
+    }
+
+    /**
+     * Returns the derivative in the finest sub-grid containing the given point,
+     * converted to units of the enclosing grid cells.
+     */
+    @Override
+    public Matrix derivativeInCell(final double gridX, final double gridY) {
+        final Node node = find(gridX, gridY);
+        final Matrix derivative = subgrids[node.index].derivativeInCell(gridX * node.sx + node.ox, gridY * node.sy + node.oy);
+        final double[] scales = {node.sx, node.sy};
+        for (int j=Math.min(derivative.getNumRow(), 2); --j >= 0;) {
+            for (int i=Math.min(derivative.getNumCol(), 2); --i >= 0;) {
+                final double identity = (i == j) ? 1 : 0;
+                derivative.setElement(j, i, identity + (derivative.getElement(j, i) - identity) * (scales[i] / scales[j]));
+            }
+        }
+        return derivative;
+    }
+}
@@ -21,6 +21,7 @@ import java.util.logging.LogRecord;
 import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import org.opengis.util.FactoryException;
 import org.apache.sis.util.resources.Errors;
@@ -40,7 +41,7 @@ import java.nio.file.NoSuchFileException;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.7
- * @version 0.7
+ * @version 0.8
  * @module
  */
 class DatumShiftGridLoader {
@@ -138,6 +139,46 @@ class DatumShiftGridLoader {
         buffer.position(p);
     }
 
+    /**
+     * Returns the position in the file of the next byte to read from the {@linkplain #buffer},
+     * or -1 if the channel is not a file channel.
+     *
+     * @return position of the next byte to read, or -1 if unknown.
+     * @throws IOException if an error occurred while querying the channel position.
+     */
+    final long position() throws IOException {
+        if (channel instanceof FileChannel) {
+            return ((FileChannel) channel).position() - buffer.remaining();
+        }
+        return -1;
+    }
+
+    /**
+     * Maps in memory the next <var>n</var> bytes of the file, then skips those bytes. This method can be
+     * invoked for grids large enough for making worth to read the values on demand instead of loading them
+     * in the Java heap. If the channel is not a file channel, then this method does nothing and returns
+     * {@code null}, in which case the caller should read the values from the {@linkplain #buffer}.
+     *
+     * @param  n  number of bytes to map.
+     * @return a read-only buffer with the same byte order than {@link #buffer}, or {@code null} if the channel
+     *         can not be mapped.
+     * @throws IOException if an error occurred while mapping the file.
+     */
+    final ByteBuffer map(final int n) throws IOException {
+        final long position = position();
+        if (position < 0) {
+            return null;
+        }
+        final FileChannel fc = (FileChannel) channel;
+        if (position + n > fc.size()) {
+            throw new EOFException(Errors.format(Errors.Keys.UnexpectedEndOfFile_1, file));
+        }
+        final ByteBuffer data = fc.map(FileChannel.MapMode.READ_ONLY, position, n).order(buffer.order());
+        fc.position(position + n);
+        buffer.clear().flip();
+        return data;
+    }
+
     /**
      * Logs a message about a grid which is about to be loaded.
      *
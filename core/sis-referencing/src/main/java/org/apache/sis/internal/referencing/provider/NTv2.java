@@ -35,6 +35,7 @@ import org.opengis.parameter.ParameterValueGroup;
 import org.opengis.parameter.ParameterDescriptor;
 import org.opengis.parameter.ParameterDescriptorGroup;
 import org.opengis.parameter.ParameterNotFoundException;
+import org.opengis.referencing.operation.Matrix;
 import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.MathTransformFactory;
 import org.opengis.referencing.operation.Transformation;
@@ -147,9 +148,7 @@ public final class NTv2 extends AbstractProvider {
                 if (grid == null) {
                     try (final ReadableByteChannel in = Files.newByteChannel(resolved)) {
                         DatumShiftGridLoader.log(NTv2.class, file);
-                        final Loader loader = new Loader(in, file);
-                        grid = loader.readGrid();
-                        loader.reportWarnings();
+                        grid = load(in, file, Loader.MAPPING_THRESHOLD);
                     } catch (IOException | NoninvertibleTransformException | RuntimeException e) {
                         throw DatumShiftGridLoader.canNotLoad("NTv2", file, e);
                     }
@@ -162,6 +161,27 @@ public final class NTv2 extends AbstractProvider {
         return grid.castTo(Angle.class, Angle.class);
     }
 
+    /**
+     * Loads all grids from the given channel. Grids having data records of at least {@code mappingThreshold}
+     * bytes are read from the file mapped in memory if the channel allows that, and loaded in the Java heap
+     * otherwise. This method is invoked by {@link #getOrLoad(Path)} with a threshold of 16 megabytes, and by
+     * tests with smaller thresholds.
+     *
+     * @param  in                the channel from which to read the grids.
+     * @param  file              path to the longitude and latitude difference file. Used for error reporting
+     *                           and as the identity of mapped grids.
+     * @param  mappingThreshold  minimal size in bytes of the data records of grids to map in memory.
+     * @return the grid, or a group of grids if the file contains many of them.
+     */
+    static DatumShiftGridFile<Angle,Angle> load(final ReadableByteChannel in, final Path file, final int mappingThreshold)
+            throws IOException, FactoryException, NoninvertibleTransformException
+    {
+        final Loader loader = new Loader(in, file, mappingThreshold);
+        final DatumShiftGridFile<Angle,Angle> grid = loader.readAllGrids();
+        loader.reportWarnings();
+        return grid;
+    }
+
 
 
 
@@ -171,7 +191,7 @@ public final class NTv2 extends AbstractProvider {
      * @author  Simon Reynard (Geomatys)
      * @author  Martin Desruisseaux (Geomatys)
      * @since   0.7
-     * @version 0.7
+     * @version 0.8
      * @module
      */
     private static final class Loader extends DatumShiftGridLoader {
@@ -181,6 +201,13 @@ public final class NTv2 extends AbstractProvider {
          */
         private static final int RECORD_LENGTH = 16;
 
+        /**
+         * Default minimal size in bytes of the data records of a grid for reading the values from the file mapped
+         * in memory instead than loading them in the Java heap. Smaller grids are loaded in the heap since
+         * they can often be compressed, and since mapping a file has a fixed cost.
+         */
+        static final int MAPPING_THRESHOLD = 16 * 1024 * 1024;
+
         /**
          * Maximum number of characters of a key in a header record.
          */
@@ -244,17 +271,40 @@ public final class NTv2 extends AbstractProvider {
          */
         private int remainingGrids;
 
+        /**
+         * Unit of measurement of coordinates and translations, as declared by the {@code GS_TYPE} record.
+         * This is set by {@link #readGrid()}.
+         */
+        private Unit<Angle> unit;
+
+        /**
+         * Value of the {@code SUB_NAME} and {@code PARENT} records of the last grid read by {@link #readGrid()},
+         * or {@code null} if none. The parent name is set to {@code null} if the grid has no parent.
+         */
+        private String subgridName, parentName;
+
+        /**
+         * Minimal number of records in a grid for reading the values from the file mapped in memory.
+         *
+         * @see #MAPPING_THRESHOLD
+         */
+        private final int mappedRecords;
+
         /**
          * Creates a new reader for the given channel.
          * This constructor parses the header immediately, but does not read any grid.
          *
          * @param  channel Where to read data from.
          * @param  file Path to the longitude and latitude difference file. Used only for error reporting.
+         * @param  mappingThreshold Minimal size in bytes of the data records of grids to map in memory.
          * @throws FactoryException if a data record can not be parsed.
          */
-        Loader(final ReadableByteChannel channel, final Path file) throws IOException, FactoryException {
+        Loader(final ReadableByteChannel channel, final Path file, final int mappingThreshold)
+                throws IOException, FactoryException
+        {
             super(channel, ByteBuffer.allocate(4096), file);
             this.header = new LinkedHashMap<>();
+            this.mappedRecords = mappingThreshold / RECORD_LENGTH;
             ensureBufferContains(RECORD_LENGTH);
             if (isLittleEndian(buffer.getInt(KEY_LENGTH))) {
                 buffer.order(ByteOrder.LITTLE_ENDIAN);
@@ -272,17 +322,75 @@ public final class NTv2 extends AbstractProvider {
         }
 
         /**
-         * Reads the next grid, starting at the current position. A NTv2 file can have many grids.
-         * This can be used for grids having different resolutions depending on the geographic area.
-         * The first grid can cover a large area with a coarse resolution, and next grids cover smaller
-         * areas overlapping the first grid but with finer resolution.
+         * Reads all grids in the file. A NTv2 file can have many grids. This can be used for grids
+         * having different resolutions depending on the geographic area. The first grid can cover
+         * a large area with a coarse resolution, and next grids cover smaller areas overlapping the
+         * first grid but with finer resolution. The hierarchy is given by the {@code PARENT} record
+         * of each sub-grid, which is {@code "NONE"} for the grids at the root of the hierarchy.
          *
-         * Current SIS implementation does not yet handle the above-cited hierarchy of grids.
-         * For now we just take the first one.
+         * <p>If the file contains only one grid, then that grid is returned directly. Otherwise this method
+         * returns a {@link DatumShiftGridGroup} which selects the finest sub-grid containing each point.</p>
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final DatumShiftGridFile<Angle,Angle> readAllGrids() throws IOException, FactoryException, NoninvertibleTransformException {
+            final int n = remainingGrids;
+            final DatumShiftGridFile<Angle,Angle>[] grids = new DatumShiftGridFile[n];
+            final String[] names   = new String[n];
+            final String[] parents = new String[n];
+            for (int i=0; i<n; i++) {
+                grids[i]   = readGrid();
+                names[i]   = subgridName;
+                parents[i] = parentName;
+            }
+            if (n == 1) {
+                return grids[0];
+            }
+            /*
+             * Resolve the parent names into indices in the 'grids' array, and compute the geometry
+             * of a grid enclosing all sub-grids. The coordinates computed below are positive east
+             * (sign reversed compared to NTv2 convention), as in the grid geometry of sub-grids.
+             */
+            final int[] parentIndices = new int[n];
+            double east = Double.NEGATIVE_INFINITY, west  = Double.POSITIVE_INFINITY;
+            double north = Double.NEGATIVE_INFINITY, south = Double.POSITIVE_INFINITY;
+            double dx = 0, dy = 0;
+            for (int i=0; i<n; i++) {
+                parentIndices[i] = -1;
+                if (parents[i] != null) {
+                    for (int j=0; j<n; j++) {
+                        if (j != i && parents[i].equalsIgnoreCase(names[j])) {
+                            parentIndices[i] = j;
+                            break;
+                        }
+                    }
+                }
+                final Matrix m = grids[i].getCoordinateToGrid().getMatrix();
+                final int[] size = grids[i].getGridSize();
+                final double x0 = -m.getElement(0,2) / m.getElement(0,0);
+                final double x1 = (size[0] - 1 - m.getElement(0,2)) / m.getElement(0,0);
+                final double y0 = -m.getElement(1,2) / m.getElement(1,1);
+                final double y1 = (size[1] - 1 - m.getElement(1,2)) / m.getElement(1,1);
+                east  = Math.max(east,  Math.max(x0, x1));
+                west  = Math.min(west,  Math.min(x0, x1));
+                north = Math.max(north, Math.max(y0, y1));
+                south = Math.min(south, Math.min(y0, y1));
+                dx = Math.max(dx, Math.abs(1 / m.getElement(0,0)));     // Resolution of the coarsest grid.
+                dy = Math.max(dy, Math.abs(1 / m.getElement(1,1)));
+            }
+            final int width  = JDK8.toIntExact((long) Math.ceil((east  - west)  / dx) + 1);
+            final int height = JDK8.toIntExact((long) Math.ceil((north - south) / dy) + 1);
+            return new DatumShiftGridGroup<>(grids, parentIndices, unit, unit,
+                    east, south, -dx, dy, width, height, PARAMETERS, file);
+        }
+
+        /**
+         * Reads the next grid, starting at the current position. After this method call,
+         * the {@link #subgridName} and {@link #parentName} fields are set to the values
+         * found in the header of the grid that has been read.
          *
          * <p>NTv2 grids contain also information about shifts accuracy. This is not yet handled by SIS.</p>
          */
-        final DatumShiftGridFile<Angle,Angle> readGrid() throws IOException, FactoryException, NoninvertibleTransformException {
+        private DatumShiftGridFile<Angle,Angle> readGrid() throws IOException, FactoryException, NoninvertibleTransformException {
             if (--remainingGrids < 0) {
                 throw new FactoryException(Errors.format(Errors.Keys.CanNotRead_1, file));
             }
@@ -295,7 +403,6 @@ public final class NTv2 extends AbstractProvider {
              *
              * Note that the longitude values in NTv2 files are positive WEST.
              */
-            final Unit<Angle> unit;
             final double precision;
             final String name = (String) get("GS_TYPE");
             if (name.equalsIgnoreCase("SECONDS")) {         // Most common value
@@ -331,6 +438,36 @@ public final class NTv2 extends AbstractProvider {
              * sign of longitude translations; instead, this reversal will be handled by grid.coordinateToGrid
              * MathTransform and its inverse.
              */
+            subgridName = (String) header.get("SUB_NAME");
+            parentName  = (String) header.get("PARENT");
+            if ("NONE".equalsIgnoreCase(parentName)) {
+                parentName = null;
+            }
+            header.keySet().retainAll(Arrays.asList(overviewKeys));   // Keep only overview records.
+            /*
+             * If the grid is large, read the values on demand from the file mapped in memory instead
+             * than loading them in the Java heap. We still need to scan the accuracy values, but this
+             * scan does not allocate memory.
+             */
+            if (count >= mappedRecords) {
+                final long position = position();
+                final ByteBuffer data = map(JDK8.multiplyExact(count, RECORD_LENGTH));
+                if (data != null) {
+                    final Path source = DataDirectory.DATUM_CHANGES.resolve(file).toRealPath();  // Same resolution than getOrLoad(Path).
+                    final DatumShiftGridFile.Mapped<Angle,Angle> grid = new DatumShiftGridFile.Mapped<>(
+                            unit, unit, true, -xmin, ymin, -dx, dy, width, height, PARAMETERS,
+                            new DatumShiftGridFile.Region(data, source, position),
+                            RECORD_LENGTH, new int[] {4, 0}, new double[] {dx, dy}, file);
+                    for (int i=0; i<count; i++) {
+                        final int p = i * RECORD_LENGTH;
+                        final double accuracy = Math.min(data.getFloat(p + 8) / dy, data.getFloat(p + 12) / dx);
+                        if (accuracy > 0 && !(accuracy >= grid.accuracy)) {   // Use '!' for replacing the initial NaN.
+                            grid.accuracy = accuracy;
+                        }
+                    }
+                    return grid;
+                }
+            }
             final DatumShiftGridFile.Float<Angle,Angle> grid = new DatumShiftGridFile.Float<>(2,
                     unit, unit, true, -xmin, ymin, -dx, dy, width, height, PARAMETERS, file);
             @SuppressWarnings("MismatchedReadAndWriteOfArray") final float[] tx = grid.offsets[0];
@@ -344,7 +481,6 @@ public final class NTv2 extends AbstractProvider {
                     grid.accuracy = accuracy;
                 }
             }
-            header.keySet().retainAll(Arrays.asList(overviewKeys));   // Keep only overview records.
             return DatumShiftGridCompressed.compress(grid, null, precision / Math.max(dx, dy));
         }
 
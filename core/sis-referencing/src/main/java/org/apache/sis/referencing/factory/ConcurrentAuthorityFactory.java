@@ -26,7 +26,13 @@ import java.util.LinkedList;
 import java.util.WeakHashMap;
 import java.util.IdentityHashMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.LogRecord;
 import java.lang.ref.WeakReference;
 import java.lang.ref.PhantomReference;
@@ -55,6 +61,7 @@ import org.apache.sis.internal.system.DelayedExecutor;
 import org.apache.sis.internal.system.DelayedRunnable;
 import org.apache.sis.internal.system.Shutdown;
 import org.apache.sis.internal.system.Loggers;
+import org.apache.sis.internal.system.PoolCounters;
 import org.apache.sis.internal.util.CollectionsExt;
 import org.apache.sis.util.logging.PerformanceLevel;
 import org.apache.sis.util.resources.Errors;
@@ -87,7 +94,9 @@ import org.apache.sis.internal.jdk8.JDK8;
  * If two or more threads are accessing this factory in same time, then two or more Data Access Object instances
  * may be created. The maximal amount of instances to create is specified at {@code ConcurrentAuthorityFactory}
  * construction time. If more Data Access Object instances are needed, some of the threads will block until an
- * instance become available.
+ * instance become available. Blocked threads get the released instances in the order they asked for them.
+ * The number of Data Access Objects borrowed and the time spent waiting for them are reported by the
+ * Apache SIS supervisor MBean.
  *
  * <div class="section">Note for subclasses</div>
  * This abstract class does not implement any of the {@link DatumAuthorityFactory}, {@link CSAuthorityFactory},
@@ -98,7 +107,7 @@ import org.apache.sis.internal.jdk8.JDK8;
  *
  * @author  Martin Desruisseaux (IRD, Geomatys)
  * @since   0.7
- * @version 0.7
+ * @version 0.8
  * @module
  */
 public abstract class ConcurrentAuthorityFactory<DAO extends GeodeticAuthorityFactory>
@@ -209,11 +218,25 @@ public abstract class ConcurrentAuthorityFactory<DAO extends GeodeticAuthorityFa
     private final Deque<DataAccessRef<DAO>> availableDAOs = new LinkedList<>();
 
     /**
-     * The amount of Data Access Objects that can still be created. This number is decremented in a block
-     * synchronized on {@link #availableDAOs} every time a Data Access Object is in use, and incremented
-     * once released.
+     * The amount of Data Access Objects that can still be used concurrently. A permit is acquired every time
+     * a Data Access Object is taken from the {@link #availableDAOs} queue or created, and released once the
+     * Data Access Object is given back. The semaphore is fair, so threads blocked because the maximal amount
+     * of Data Access Objects is in use get the permits in the order they asked for them.
      */
-    private int remainingDAOs;
+    private final Semaphore remainingDAOs;
+
+    /**
+     * The maximal amount of Data Access Objects to use concurrently, as given at construction time.
+     * This is the initial number of permits in {@link #remainingDAOs}.
+     */
+    private final int maxConcurrentQueries;
+
+    /**
+     * Number of Data Access Objects borrowed by {@link #getDataAccess()} and time spent waiting for them.
+     * Reentrant calls to {@code getDataAccess()} in the same thread are not counted.
+     * This field is package-private for testing purpose only.
+     */
+    final PoolCounters counters;
 
     /**
      * {@code true} if the call to {@link #closeExpired()} is scheduled for future execution in the background
@@ -294,7 +317,10 @@ public abstract class ConcurrentAuthorityFactory<DAO extends GeodeticAuthorityFa
          * object (using the same key), then the default Cache implementation considers that situation as an
          * error unless the above property has been set to 'true'.
          */
-        remainingDAOs = maxConcurrentQueries;
+        this.maxConcurrentQueries = maxConcurrentQueries;
+        remainingDAOs = new Semaphore(maxConcurrentQueries, true);
+        counters = new PoolCounters(Classes.getShortName(dataAccessClass));
+        counters.register();
         cache = new Cache<>(20, maxStrongReferences, false);
         cache.setKeyCollisionAllowed(true);
         /*
@@ -358,34 +384,35 @@ public abstract class ConcurrentAuthorityFactory<DAO extends GeodeticAuthorityFa
          */
         DataAccessRef<DAO> usage = currentDAO.get();
         if (usage == null) {
-            synchronized (availableDAOs) {
-                /*
-                 * If we have reached the maximal amount of Data Access Objects allowed, wait for an instance
-                 * to become available. In theory the 0.2 second timeout is not necessary, but we put it as a
-                 * safety in case we fail to invoke a notify() matching this wait(), for example someone else
-                 * is waiting on this monitor or because the release(…) method threw an exception.
-                 */
-                while (remainingDAOs == 0) {
-                    try {
-                        availableDAOs.wait(TIMEOUT_RESOLUTION);
-                    } catch (InterruptedException e) {
-                        // Someone does not want to let us sleep.
-                        throw new FactoryException(e.getLocalizedMessage(), e);
-                    }
+            /*
+             * If we have reached the maximal amount of Data Access Objects allowed, wait for an instance
+             * to become available. We use tryAcquire(0, …) instead of tryAcquire() in the first attempt
+             * because the later does not honor the fairness setting and would let this thread pass ahead
+             * of the threads already waiting.
+             */
+            try {
+                if (remainingDAOs.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                    counters.borrowed();
+                } else {
+                    final long start = System.nanoTime();
+                    remainingDAOs.acquire();
+                    counters.borrowed(System.nanoTime() - start);
                 }
-                /*
-                 * Reuse the most recently used factory, if available. If there is no factory available for reuse,
-                 * creates a new one. We do not add it to the queue now; it will be done by the release(…) method.
-                 */
-                usage = availableDAOs.pollLast();
-                remainingDAOs--;       // Should be done last when we are sure to not fail.
+            } catch (InterruptedException e) {
+                // Someone does not want to let us sleep.
+                throw new FactoryException(e.getLocalizedMessage(), e);
             }
             /*
+             * Reuse the most recently used factory, if available. If there is no factory available for reuse,
+             * creates a new one. We do not add it to the queue now; it will be done by the release(…) method.
              * If there is a need to create a new factory, do that outside the synchronized block because this
              * creation may involve a lot of client code. This is better for reducing the dead-lock risk.
              * Subclasses are responsible of synchronizing their newDataAccess() method if necessary.
              */
             try {
+                synchronized (availableDAOs) {
+                    usage = availableDAOs.pollLast();
+                }
                 if (usage == null) {
                     final DAO factory = newDataAccess();
                     if (factory == null) {
@@ -400,14 +427,9 @@ public abstract class ConcurrentAuthorityFactory<DAO extends GeodeticAuthorityFa
                 usage.timestamp = System.nanoTime();
             } catch (Throwable e) {
                 /*
-                 * If any kind of error occurred, restore the 'remainingDAO' field as if no code were executed.
-                 * This code would not have been needed if we were allowed to decrement 'remainingDAO' only as
-                 * the very last step (when we know that everything else succeed).
-                 * But it needed to be decremented inside the synchronized block.
+                 * If any kind of error occurred, give back the permit as if no code were executed.
                  */
-                synchronized (availableDAOs) {
-                    remainingDAOs++;
-                }
+                remainingDAOs.release();
                 throw e;
             }
             currentDAO.set(usage);
@@ -435,11 +457,18 @@ public abstract class ConcurrentAuthorityFactory<DAO extends GeodeticAuthorityFa
         if (--usage.depth == 0) {
             currentDAO.remove();
             long time = usage.timestamp;
-            synchronized (availableDAOs) {
-                remainingDAOs++;            // Must be done first in case an exception happen after this point.
-                recycle(usage);
-                availableDAOs.notify();     // We released only one data access, so awake only one thread - not all of them.
-                time = usage.timestamp - time;
+            try {
+                synchronized (availableDAOs) {
+                    recycle(usage);
+                    time = usage.timestamp - time;
+                }
+            } finally {
+                /*
+                 * Give back the permit only after the DAO has been added to the queue, so the next thread
+                 * (if any is waiting) finds it there instead of creating a new one. The permit must be
+                 * given back even if an exception happened, otherwise it would be lost forever.
+                 */
+                remainingDAOs.release();
             }
             /*
              * Log only events that take longer than the threshold (e.g. 10 milliseconds).
@@ -743,6 +772,102 @@ public abstract class ConcurrentAuthorityFactory<DAO extends GeodeticAuthorityFa
         }
     }
 
+    /**
+     * Creates in advance all objects of the given type and stores them in the cache.
+     * This method is for applications that are going to need most objects of a given type anyway,
+     * for example a service exposing the whole catalog of coordinate reference systems.
+     * Creating all objects in a single call is faster than creating them lazily one by one,
+     * because this method creates the objects in many threads, each thread using the same
+     * Data Access Object for all the objects that it creates.
+     *
+     * <p>Each object is created by the public {@code create…} method of this factory corresponding to the given type,
+     * so the objects are cached under the same keys than the ones used by subsequent calls to that method.
+     * For example objects preloaded for {@code CoordinateReferenceSystem.class} will be found in the cache by
+     * subsequent calls to {@link #createCoordinateReferenceSystem(String)}, no matter if the Data Access Object
+     * overrides that method or delegates to {@link #createObject(String)}.
+     * The cache keeps by strong references only the amount of objects specified at construction time;
+     * other objects are kept by weak references. Consequently the caller should keep a reference to the
+     * returned list for as long as the preloaded objects shall stay in the cache.</p>
+     *
+     * <p>Objects that can not be created (for example because they use an unsupported operation method)
+     * are omitted from the returned list. The failures are logged at {@link java.util.logging.Level#FINE}.</p>
+     *
+     * @param  <T>   the compile-time value of the {@code type} argument.
+     * @param  type  the spatial reference objects type (e.g. {@code ProjectedCRS.class}).
+     * @return all objects of the given type that have been successfully created.
+     * @throws FactoryException if access to the underlying database failed.
+     *
+     * @since 0.8
+     */
+    public <T extends IdentifiedObject> List<T> preload(final Class<T> type) throws FactoryException {
+        ArgumentChecks.ensureNonNull("type", type);
+        final AuthorityFactoryProxy<? super T> proxy = AuthorityFactoryProxy.getInstance(type);
+        final String[] codes = getAuthorityCodes(type).toArray(new String[0]);
+        final int numThreads = Math.min(Math.min(maxConcurrentQueries, codes.length),
+                                        Runtime.getRuntime().availableProcessors());
+        if (numThreads == 0) {
+            return new ArrayList<>(0);
+        }
+        /*
+         * Each task holds a Data Access Object for its whole execution. The objects are created by the public
+         * create…(String) method for the given type, which will find the Data Access Object held by the current
+         * thread and store the result in the cache under the key used by the lookups. The next code to process
+         * is taken from a counter shared by all tasks, so each task gets the codes in the order of the set
+         * returned by getAuthorityCodes(type).
+         */
+        final AtomicInteger next = new AtomicInteger();
+        final class Preloader implements Callable<List<T>> {
+            @Override public List<T> call() throws FactoryException {
+                final List<T> objects = new ArrayList<>();
+                getDataAccess();
+                try {
+                    int i;
+                    while ((i = next.getAndIncrement()) < codes.length) try {
+                        objects.add(type.cast(proxy.create(ConcurrentAuthorityFactory.this, codes[i])));
+                    } catch (FactoryException | ClassCastException e) {
+                        Logging.recoverableException(Logging.getLogger(Loggers.CRS_FACTORY),
+                                ConcurrentAuthorityFactory.class, "preload", e);
+                    }
+                } finally {
+                    release(null, null, null);
+                }
+                return objects;
+            }
+        }
+        final Preloader task = new Preloader();
+        if (numThreads == 1) {
+            return task.call();
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads - 1);
+        try {
+            final List<Future<List<T>>> futures = new ArrayList<>(numThreads - 1);
+            for (int i=1; i<numThreads; i++) {
+                futures.add(executor.submit(task));
+            }
+            final List<T> objects = task.call();            // Execute one task in the current thread.
+            for (final Future<List<T>> future : futures) {
+                objects.addAll(future.get());
+            }
+            return objects;
+        } catch (InterruptedException e) {
+            throw new FactoryException(e.getLocalizedMessage(), e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof FactoryException) throw (FactoryException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error)            throw (Error) cause;
+            throw new FactoryException(cause);
+        } finally {
+            /*
+             * If we are leaving because of a failure, stop the other tasks: exhausting the codes makes each task
+             * release its Data Access Object after its current creation, and 'shutdownNow()' cancels the tasks
+             * not yet started. After a success, all tasks are already completed and this block has no effect.
+             */
+            next.set(codes.length);
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Gets a description of the object corresponding to a code.
      * The default implementation performs the following steps:
@@ -1960,12 +2085,18 @@ public abstract class ConcurrentAuthorityFactory<DAO extends GeodeticAuthorityFa
          */
         private final Deque<DataAccessRef<DAO>> availableDAOs;
 
+        /**
+         * The {@link ConcurrentAuthorityFactory#counters}, to unregister when the factory is disposed.
+         */
+        private final PoolCounters counters;
+
         /**
          * Creates a new shutdown hook for the given factory.
          */
         ShutdownHook(final ConcurrentAuthorityFactory<DAO> factory) {
             super(factory, ReferenceQueueConsumer.QUEUE);
             availableDAOs = factory.availableDAOs;
+            counters      = factory.counters;
         }
 
         /**
@@ -1991,6 +2122,7 @@ public abstract class ConcurrentAuthorityFactory<DAO extends GeodeticAuthorityFa
          */
         @Override
         public Object call() throws Exception {
+            counters.unregister();
             final List<DAO> factories;
             synchronized (availableDAOs) {
                 factories = ConcurrentAuthorityFactory.clear(availableDAOs);
@@ -2108,9 +2240,9 @@ public abstract class ConcurrentAuthorityFactory<DAO extends GeodeticAuthorityFa
         buffer.append(", cache=").append(cache.size()).append(", DAO=");
         synchronized (availableDAOs) {
             buffer.append(availableDAOs.size());
-            if (remainingDAOs <= 0) {
-                buffer.append(" (limit reached)");
-            }
+        }
+        if (remainingDAOs.availablePermits() <= 0) {
+            buffer.append(" (limit reached)");
         }
     }
 }
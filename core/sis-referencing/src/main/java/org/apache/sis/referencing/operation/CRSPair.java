@@ -16,6 +16,7 @@
  */
 package org.apache.sis.referencing.operation;
 
+import java.util.Arrays;
 import org.opengis.referencing.cs.EllipsoidalCS;
 import org.opengis.referencing.cs.CoordinateSystem;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
@@ -33,9 +34,13 @@ import java.util.Objects;
  * A pair of source-destination {@link CoordinateReferenceSystem} objects.
  * Used as key in hash map.
  *
+ * <p>A pair may optionally be associated to a geographic area of interest and a desired accuracy,
+ * for caching the operations found for a {@link CoordinateOperationContext}. In such case, the area
+ * of interest shall be normalized by the caller in order to increase the chances to get cache hits.</p>
+ *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.7
- * @version 0.7
+ * @version 0.8
  * @module
  */
 final class CRSPair {
@@ -44,14 +49,41 @@ final class CRSPair {
      */
     final CoordinateReferenceSystem sourceCRS, targetCRS;
 
+    /**
+     * The west, east, south and north bounds of the area of interest in degrees,
+     * or {@code null} if none.
+     */
+    private final double[] areaOfInterest;
+
+    /**
+     * The desired accuracy in metres, or 0 for the best accuracy available.
+     */
+    private final double desiredAccuracy;
+
     /**
      * Creates a {@code CRSPair} for the specified source and target CRS.
      */
     CRSPair(final CoordinateReferenceSystem sourceCRS,
             final CoordinateReferenceSystem targetCRS)
     {
-        this.sourceCRS = sourceCRS;
-        this.targetCRS = targetCRS;
+        this(sourceCRS, targetCRS, null, 0);
+    }
+
+    /**
+     * Creates a {@code CRSPair} for the specified source and target CRS in the given context.
+     *
+     * @param areaOfInterest   the west, east, south and north bounds in degrees, or {@code null} if none.
+     *                         This array shall not be modified after this method call.
+     * @param desiredAccuracy  the desired accuracy in metres, or 0 for the best accuracy available.
+     */
+    CRSPair(final CoordinateReferenceSystem sourceCRS,
+            final CoordinateReferenceSystem targetCRS,
+            final double[] areaOfInterest, final double desiredAccuracy)
+    {
+        this.sourceCRS       = sourceCRS;
+        this.targetCRS       = targetCRS;
+        this.areaOfInterest  = areaOfInterest;
+        this.desiredAccuracy = desiredAccuracy;
     }
 
     /**
@@ -59,7 +91,9 @@ final class CRSPair {
      */
     @Override
     public int hashCode() {
-        return Objects.hashCode(sourceCRS) * 31 + Objects.hashCode(targetCRS);
+        final long accuracy = Double.doubleToLongBits(desiredAccuracy);
+        return (Objects.hashCode(sourceCRS) * 31 + Objects.hashCode(targetCRS)) * 31
+                + Arrays.hashCode(areaOfInterest) + (int) (accuracy ^ (accuracy >>> 32));
     }
 
     /**
@@ -75,7 +109,9 @@ final class CRSPair {
         if (object instanceof CRSPair) {
             final CRSPair that = (CRSPair) object;
             return Objects.equals(this.sourceCRS, that.sourceCRS) &&
-                   Objects.equals(this.targetCRS, that.targetCRS);
+                   Objects.equals(this.targetCRS, that.targetCRS) &&
+                   Arrays.equals(this.areaOfInterest, that.areaOfInterest) &&
+                   Double.doubleToLongBits(desiredAccuracy) == Double.doubleToLongBits(that.desiredAccuracy);
         }
         return false;
     }
@@ -25,6 +25,9 @@ import org.opengis.util.NoSuchIdentifierException;
 import org.opengis.parameter.ParameterValueGroup;
 import org.opengis.parameter.ParameterDescriptorGroup;
 import org.opengis.referencing.operation.*;
+import org.opengis.metadata.extent.Extent;
+import org.opengis.metadata.extent.GeographicExtent;
+import org.opengis.metadata.extent.GeographicBoundingBox;
 import org.opengis.referencing.AuthorityFactory;
 import org.opengis.referencing.IdentifiedObject;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
@@ -37,10 +40,15 @@ import org.opengis.referencing.datum.Datum;
 import org.apache.sis.internal.referencing.Resources;
 import org.apache.sis.internal.referencing.MergedProperties;
 import org.apache.sis.internal.metadata.ReferencingServices;
+import org.apache.sis.internal.system.CacheCounters;
 import org.apache.sis.internal.system.DefaultFactories;
 import org.apache.sis.internal.util.CollectionsExt;
 import org.apache.sis.internal.util.Constants;
 import org.apache.sis.referencing.CRS;
+import org.apache.sis.metadata.iso.extent.DefaultGeographicBoundingBox;
+import org.apache.sis.metadata.iso.extent.Extents;
+import org.apache.sis.measure.Latitude;
+import org.apache.sis.measure.Longitude;
 import org.apache.sis.referencing.factory.InvalidGeodeticParameterException;
 import org.apache.sis.referencing.operation.transform.DefaultMathTransformFactory;
 import org.apache.sis.util.collection.WeakHashSet;
@@ -130,13 +138,33 @@ public class DefaultCoordinateOperationFactory extends AbstractFactory implement
 
     /**
      * The cache of coordinate operations found for a given pair of source and target CRS.
-     * If current implementation, we cache only operations found without context (otherwise
-     * we would need to take in account the area of interest and desired accuracy in the key).
+     * Operations found with a context are cached with the area of interest and desired accuracy in the key,
+     * provided that the area of interest can be represented by a geographic bounding box. That bounding box
+     * is snapped on a grid of {@value #AREA_OF_INTEREST_RESOLUTION} degrees for increasing the chances that
+     * nearby areas share the same cache entry.
      *
      * @see #createOperation(CoordinateReferenceSystem, CoordinateReferenceSystem, CoordinateOperationContext)
      */
     final Cache<CRSPair,CoordinateOperation> cache;
 
+    /**
+     * Resolution in degrees of the grid on which the bounds of areas of interest are snapped before to be used
+     * as cache keys. The operation is searched using the snapped bounds, so the result is the same regardless
+     * if the operation was found in the cache or not. This resolution is small compared to the typical size of
+     * the domain of validity of coordinate operations, so the snapping should rarely change the result.
+     */
+    static final double AREA_OF_INTEREST_RESOLUTION = 0.1;
+
+    /**
+     * Statistics about the efficiency of the cache of coordinate operations, for all factory instances.
+     * Those statistics are reported by the supervisor MBean.
+     */
+    static final CacheCounters CACHE_COUNTERS;
+    static {
+        CACHE_COUNTERS = new CacheCounters("CoordinateOperationFactory");
+        CACHE_COUNTERS.register();
+    }
+
     /**
      * Constructs a factory with no default properties.
      */
@@ -180,7 +208,11 @@ public class DefaultCoordinateOperationFactory extends AbstractFactory implement
             mtFactory = factory;
         }
         pool = new WeakHashSet<>(IdentifiedObject.class);
-        cache = new Cache<>(12, 50, true);
+        cache = new Cache<CRSPair,CoordinateOperation>(12, 50, true) {
+            @Override protected void evicted(final CRSPair key) {
+                CACHE_COUNTERS.evicted();
+            }
+        };
     }
 
     /**
@@ -713,28 +745,55 @@ next:   for (int i=components.size(); --i >= 0;) {
      */
     public CoordinateOperation createOperation(final CoordinateReferenceSystem sourceCRS,
                                                final CoordinateReferenceSystem targetCRS,
-                                               final CoordinateOperationContext context)
+                                               CoordinateOperationContext context)
             throws OperationNotFoundException, FactoryException
     {
+        /*
+         * Build the cache key. If the context has an area of interest, then the operation will be searched
+         * for the snapped bounds of that area (not the original ones) in order to get a result independent
+         * of the cache state. If the area of interest can not be represented by a bounding box, then the
+         * operation is not cached.
+         */
+        CRSPair key = null;
+        if (context == null) {
+            key = new CRSPair(sourceCRS, targetCRS);
+        } else if (context.getOperationFilter() == null) {
+            final double accuracy = context.getDesiredAccuracy();
+            final Extent area = context.getAreaOfInterest();
+            if (area == null) {
+                key = new CRSPair(sourceCRS, targetCRS, null, accuracy);
+            } else {
+                final double[] bounds = snapAreaOfInterest(area);
+                if (bounds != null) {
+                    key = new CRSPair(sourceCRS, targetCRS, bounds, accuracy);
+                    context = new CoordinateOperationContext(null, accuracy);
+                    context.setAreaOfInterest(new DefaultGeographicBoundingBox(bounds[0], bounds[1], bounds[2], bounds[3]));
+                }
+            }
+        }
         final Cache.Handler<CoordinateOperation> handler;
         CoordinateOperation op;
-        if (context == null) {
-            final CRSPair key = new CRSPair(sourceCRS, targetCRS);
+        if (key != null) {
             op = cache.peek(key);
             if (op != null) {
+                CACHE_COUNTERS.hit();
                 return op;
             }
             handler = cache.lock(key);
         } else {
-            // We currently do not cache the operation when the result may depend on the context (see 'this.cache' javadoc).
             handler = null;
             op = null;
         }
         try {
             if (handler == null || (op = handler.peek()) == null) {
+                if (handler != null) {
+                    CACHE_COUNTERS.miss();
+                }
                 final AuthorityFactory registry = USE_EPSG_FACTORY ? CRS.getAuthorityFactory(Constants.EPSG) : null;
                 op = createOperationFinder((registry instanceof CoordinateOperationAuthorityFactory) ?
                         (CoordinateOperationAuthorityFactory) registry : null, context).createOperation(sourceCRS, targetCRS);
+            } else {
+                CACHE_COUNTERS.hit();
             }
         } finally {
             if (handler != null) {
@@ -744,6 +803,44 @@ next:   for (int i=components.size(); --i >= 0;) {
         return op;
     }
 
+    /**
+     * Returns the bounds of the given area of interest snapped on a grid of {@value #AREA_OF_INTEREST_RESOLUTION}
+     * degrees, or {@code null} if the area can not be represented by a geographic bounding box. The bounds are
+     * expanded to the nearest grid lines, so the returned area always contains the given area.
+     *
+     * @param  area  the area of interest.
+     * @return the west, east, south and north bounds in degrees, or {@code null}.
+     */
+    private static double[] snapAreaOfInterest(final Extent area) {
+        if (!Containers.isNullOrEmpty(area.getVerticalElements()) ||
+            !Containers.isNullOrEmpty(area.getTemporalElements()))
+        {
+            return null;
+        }
+        for (final GeographicExtent element : area.getGeographicElements()) {
+            if (!(element instanceof GeographicBoundingBox) || Boolean.FALSE.equals(element.getInclusion())) {
+                return null;
+            }
+        }
+        final GeographicBoundingBox bbox = Extents.getGeographicBoundingBox(area);
+        if (bbox == null) {
+            return null;
+        }
+        final double r = AREA_OF_INTEREST_RESOLUTION;
+        final double[] bounds = {
+            Math.max(-Longitude.MAX_VALUE, Math.floor(bbox.getWestBoundLongitude() / r) * r),
+            Math.min(+Longitude.MAX_VALUE, Math.ceil (bbox.getEastBoundLongitude() / r) * r),
+            Math.max(-Latitude.MAX_VALUE,  Math.floor(bbox.getSouthBoundLatitude() / r) * r),
+            Math.min(+Latitude.MAX_VALUE,  Math.ceil (bbox.getNorthBoundLatitude() / r) * r)
+        };
+        for (final double value : bounds) {
+            if (Double.isNaN(value)) {
+                return null;
+            }
+        }
+        return bounds;
+    }
+
     /**
      * Creates the object which will perform the actual task of finding a coordinate operation path between two CRS.
      * This method is invoked by {@link #createOperation(CoordinateReferenceSystem, CoordinateReferenceSystem,
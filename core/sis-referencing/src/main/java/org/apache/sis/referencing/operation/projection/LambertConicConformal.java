@@ -23,6 +23,7 @@ import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.MathTransformFactory;
 import org.opengis.referencing.operation.OperationMethod;
 import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.TransformException;
 import org.apache.sis.measure.Latitude;
 import org.apache.sis.parameter.Parameters;
 import org.apache.sis.referencing.operation.matrix.Matrix2;
@@ -33,6 +34,7 @@ import org.apache.sis.internal.referencing.provider.LambertConformal2SP;
 import org.apache.sis.internal.referencing.provider.LambertConformalWest;
 import org.apache.sis.internal.referencing.provider.LambertConformalBelgium;
 import org.apache.sis.internal.referencing.provider.LambertConformalMichigan;
+import org.apache.sis.internal.referencing.CoordinateColumns;
 import org.apache.sis.internal.referencing.Formulas;
 import org.apache.sis.internal.referencing.Resources;
 import org.apache.sis.internal.util.DoubleDouble;
@@ -59,7 +61,7 @@ import static org.apache.sis.internal.util.DoubleDouble.verbatim;
  * @author  Rueben Schulz (UBC)
  * @author  Rémi Maréchal (Geomatys)
  * @since   0.6
- * @version 0.6
+ * @version 0.8
  * @module
  */
 public class LambertConicConformal extends ConformalProjection {
@@ -444,6 +446,44 @@ public class LambertConicConformal extends ConformalProjection {
                           -x, dρ*cosθ);     // ∂y/∂λ , ∂y/∂φ
     }
 
+    /**
+     * Converts coordinates stored in one array per dimension. This method performs the same conversion
+     * than {@link #transform(double[], int, double[], int, boolean)} on each point, without derivative.
+     *
+     * @throws TransformException if a point can not be converted.
+     *
+     * @since 0.8
+     */
+    @Override
+    public void transform(double[][] srcPts, int srcOff, final double[][] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        final double[][] copy = CoordinateColumns.sourceColumns(this, srcPts, srcOff, dstPts, dstOff, numPts);
+        if (copy != null) {
+            srcPts = copy;
+            srcOff = 0;
+        }
+        final double[] θs = srcPts[0];
+        final double[] φs = srcPts[1];
+        final double[] xs = dstPts[0];
+        final double[] ys = dstPts[1];
+        for (int i=0; i<numPts; i++) {
+            final double θ    = θs[srcOff + i];
+            final double φ    = φs[srcOff + i];
+            final double absφ = abs(φ);
+            final double ρ;
+            if (absφ < PI/2) {
+                ρ = pow(expOfNorthing(φ, eccentricity*sin(φ)), n);
+            } else if (absφ < PI/2 + ANGULAR_TOLERANCE) {
+                ρ = (φ*n >= 0) ? POSITIVE_INFINITY : 0;
+            } else {
+                ρ = NaN;
+            }
+            xs[dstOff + i] = ρ * sin(θ);
+            ys[dstOff + i] = ρ * cos(θ);
+        }
+    }
+
     /**
      * Converts the specified (<var>x</var>,<var>y</var>) coordinates and stores the (θ,φ) result in {@code dstPts}.
      *
@@ -491,7 +531,7 @@ public class LambertConicConformal extends ConformalProjection {
      * @author  André Gosselin (MPO)
      * @author  Rueben Schulz (UBC)
      * @since   0.6
-     * @version 0.6
+     * @version 0.8
      * @module
      */
     static final class Spherical extends LambertConicConformal {
@@ -549,6 +589,43 @@ public class LambertConicConformal extends ConformalProjection {
                               -x, dρ*cosθ);   // ∂y/∂λ , ∂y/∂φ
         }
 
+        /**
+         * {@inheritDoc}
+         *
+         * <div class="note"><b>Note:</b>
+         * This method must be overridden because the {@link LambertConicConformal} class overrides the
+         * {@link NormalizedProjection} default implementation.</div>
+         */
+        @Override
+        public void transform(double[][] srcPts, int srcOff, final double[][] dstPts, final int dstOff, final int numPts)
+                throws TransformException
+        {
+            final double[][] copy = CoordinateColumns.sourceColumns(this, srcPts, srcOff, dstPts, dstOff, numPts);
+            if (copy != null) {
+                srcPts = copy;
+                srcOff = 0;
+            }
+            final double[] θs = srcPts[0];
+            final double[] φs = srcPts[1];
+            final double[] xs = dstPts[0];
+            final double[] ys = dstPts[1];
+            for (int i=0; i<numPts; i++) {
+                final double θ    = θs[srcOff + i];
+                final double φ    = φs[srcOff + i];
+                final double absφ = abs(φ);
+                final double ρ;
+                if (absφ < PI/2) {
+                    ρ = pow(tan(PI/4 + 0.5*φ), n);
+                } else if (absφ < PI/2 + ANGULAR_TOLERANCE) {
+                    ρ = (φ*n >= 0) ? POSITIVE_INFINITY : 0;
+                } else {
+                    ρ = NaN;
+                }
+                xs[dstOff + i] = ρ * sin(θ);
+                ys[dstOff + i] = ρ * cos(θ);
+            }
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -29,6 +29,7 @@ import org.apache.sis.internal.referencing.provider.Mercator2SP;
 import org.apache.sis.internal.referencing.provider.MercatorSpherical;
 import org.apache.sis.internal.referencing.provider.RegionalMercator;
 import org.apache.sis.internal.referencing.provider.PseudoMercator;
+import org.apache.sis.internal.referencing.CoordinateColumns;
 import org.apache.sis.internal.util.DoubleDouble;
 import org.apache.sis.referencing.operation.matrix.Matrix2;
 import org.apache.sis.referencing.operation.matrix.MatrixSIS;
@@ -70,7 +71,7 @@ import static org.apache.sis.internal.util.DoubleDouble.verbatim;
  * @author  Simon Reynard (Geomatys)
  * @author  Rémi Maréchal (Geomatys)
  * @since   0.6
- * @version 0.6
+ * @version 0.8
  * @module
  *
  * @see TransverseMercator
@@ -408,6 +409,50 @@ public class Mercator extends ConformalProjection {
         }
     }
 
+    /**
+     * Converts coordinates stored in one array per dimension. The λ values are not modified
+     * by the normalized Mercator projection, so they are only copied if needed.
+     *
+     * @throws TransformException if a point can not be converted.
+     *
+     * @since 0.8
+     */
+    @Override
+    public void transform(double[][] srcPts, int srcOff, final double[][] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        final double[][] copy = CoordinateColumns.sourceColumns(this, srcPts, srcOff, dstPts, dstOff, numPts);
+        if (copy != null) {
+            srcPts = copy;
+            srcOff = 0;
+        }
+        if (numPts <= 0) {
+            return;
+        }
+        if (srcPts[0] != dstPts[0] || srcOff != dstOff) {
+            System.arraycopy(srcPts[0], srcOff, dstPts[0], dstOff, numPts);
+        }
+        final double[] φs = srcPts[1];
+        final double[] ys = dstPts[1];
+        for (int i=0; i<numPts; i++) {
+            final double φ = φs[srcOff + i];
+            double y = φ;                                   // Projection of zero is zero.
+            if (φ != 0) {
+                // See the javadoc of the Spherical inner class for a note
+                // about why we perform explicit checks for the pole cases.
+                final double a = abs(φ);
+                if (a < PI/2) {
+                    y = log(expOfNorthing(φ, eccentricity * sin(φ)));
+                } else if (a <= (PI/2 + ANGULAR_TOLERANCE)) {
+                    y = copySign(POSITIVE_INFINITY, φ);
+                } else {
+                    y = NaN;
+                }
+            }
+            ys[dstOff + i] = y;
+        }
+    }
+
     /**
      * Converts the specified (<var>x</var>,<var>y</var>) coordinates
      * and stores the result in {@code dstPts} (angles in radians).
@@ -447,7 +492,7 @@ public class Mercator extends ConformalProjection {
      * @author  Martin Desruisseaux (MPO, IRD, Geomatys)
      * @author  Rueben Schulz (UBC)
      * @since   0.6
-     * @version 0.6
+     * @version 0.8
      * @module
      */
     static final class Spherical extends Mercator {
@@ -535,6 +580,48 @@ public class Mercator extends ConformalProjection {
             }
         }
 
+        /**
+         * {@inheritDoc}
+         *
+         * <div class="note"><b>Note:</b>
+         * This method must be overridden because the {@link Mercator} class overrides the {@link NormalizedProjection}
+         * default implementation.</div>
+         */
+        @Override
+        public void transform(double[][] srcPts, int srcOff, final double[][] dstPts, final int dstOff, final int numPts)
+                throws TransformException
+        {
+            final double[][] copy = CoordinateColumns.sourceColumns(this, srcPts, srcOff, dstPts, dstOff, numPts);
+            if (copy != null) {
+                srcPts = copy;
+                srcOff = 0;
+            }
+            if (numPts <= 0) {
+                return;
+            }
+            if (srcPts[0] != dstPts[0] || srcOff != dstOff) {
+                System.arraycopy(srcPts[0], srcOff, dstPts[0], dstOff, numPts);
+            }
+            final double[] φs = srcPts[1];
+            final double[] ys = dstPts[1];
+            for (int i=0; i<numPts; i++) {
+                final double φ = φs[srcOff + i];
+                double y = φ;                               // Projection of zero is zero.
+                if (φ != 0) {
+                    // See class javadoc for a note about explicit check for poles.
+                    final double a = abs(φ);
+                    if (a < PI/2) {
+                        y = log(tan(PI/4 + 0.5*φ));                             // Part of Snyder (7-2)
+                    } else if (a <= (PI/2 + ANGULAR_TOLERANCE)) {
+                        y = copySign(POSITIVE_INFINITY, φ);
+                    } else {
+                        y = NaN;
+                    }
+                }
+                ys[dstOff + i] = y;
+            }
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -19,6 +19,8 @@ package org.apache.sis.referencing.operation.transform;
 import java.util.List;
 import java.util.Arrays;
 import java.io.Serializable;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 import org.opengis.util.FactoryException;
 import org.opengis.geometry.DirectPosition;
 import org.opengis.geometry.MismatchedDimensionException;
@@ -35,6 +37,7 @@ import org.apache.sis.parameter.Parameterized;
 import org.apache.sis.referencing.operation.matrix.Matrices;
 import org.apache.sis.io.wkt.Formatter;
 import org.apache.sis.io.wkt.FormattableObject;
+import org.apache.sis.internal.referencing.CoordinateColumns;
 import org.apache.sis.internal.referencing.Resources;
 import org.apache.sis.internal.referencing.WKTUtilities;
 import org.apache.sis.internal.metadata.WKTKeywords;
@@ -737,6 +740,105 @@ public abstract class AbstractMathTransform extends FormattableObject
         }
     }
 
+    /**
+     * Transforms a list of coordinate point ordinal values stored in a NIO buffer, which may be a direct buffer
+     * or a view over a memory-mapped file. Offsets are absolute indices in the buffers, like the offsets in arrays;
+     * the position, limit and mark of the buffers are not modified. The source and destination buffers can be the
+     * same buffer instance, in which case the source and destination regions can overlap with the same restrictions
+     * than {@link #transform(double[], int, double[], int, int)}.
+     *
+     * <p>The default implementation copies the coordinates in blocks of a temporary array of doubles, invokes
+     * {@link #transform(double[], int, double[], int, int)} on each block and copies the results back in the
+     * destination buffer. Consequently the memory used by this method usually does not depend on the number of points.
+     * The exception is when {@code srcPts} and {@code dstPts} are the same buffer with overlapping regions that can not
+     * be processed in ascending or descending order (for example because the source and target dimensions differ).
+     * In that case all source coordinates are copied in a temporary array before the transformation,
+     * in the same way than {@link IterationStrategy#BUFFER_SOURCE}.</p>
+     *
+     * @param  srcPts  the buffer containing the source point coordinates.
+     * @param  srcOff  the index of the first ordinate to be transformed in the source buffer.
+     * @param  dstPts  the buffer into which the transformed point coordinates are written.
+     *                 May be the same than {@code srcPts}.
+     * @param  dstOff  the index where to write the first transformed ordinate in the destination buffer.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed. Some implementations will stop at the first failure,
+     *         wile some other implementations will fill the un-transformable points with {@link Double#NaN} values,
+     *         continue and throw the exception only at end.
+     *
+     * @see MathTransforms#transform(MathTransform, DoubleBuffer, int, DoubleBuffer, int, int)
+     *
+     * @since 0.8
+     */
+    public void transform(final DoubleBuffer srcPts, final int srcOff,
+                          final DoubleBuffer dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        BufferTransform.transform(this, srcPts, srcOff, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values stored in a NIO buffer of single-precision values.
+     * This method has the same contract than {@link #transform(DoubleBuffer, int, DoubleBuffer, int, int)},
+     * except that the calculation is performed in double precision and the results rounded to {@code float}.
+     *
+     * @param  srcPts  the buffer containing the source point coordinates.
+     * @param  srcOff  the index of the first ordinate to be transformed in the source buffer.
+     * @param  dstPts  the buffer into which the transformed point coordinates are written.
+     *                 May be the same than {@code srcPts}.
+     * @param  dstOff  the index where to write the first transformed ordinate in the destination buffer.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed. Some implementations will stop at the first failure,
+     *         wile some other implementations will fill the un-transformable points with {@link Float#NaN} values,
+     *         continue and throw the exception only at end.
+     *
+     * @see MathTransforms#transform(MathTransform, FloatBuffer, int, FloatBuffer, int, int)
+     *
+     * @since 0.8
+     */
+    public void transform(final FloatBuffer srcPts, final int srcOff,
+                          final FloatBuffer dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        BufferTransform.transform(this, srcPts, srcOff, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate points stored in one array per dimension. For example the source coordinates
+     * of a two-dimensional transform are given as {@code double[][] {x, y}} where {@code x} and {@code y} are arrays
+     * of the same length, and the point <var>i</var> is ({@code x[srcOff+i]}, {@code y[srcOff+i]}). This layout is
+     * convenient for columnar data and allows the JIT compiler to vectorize loops over a single dimension.
+     *
+     * <p>A destination array can be the same array than the source array of the same dimension if the source and
+     * destination offsets are equal (in-place transformation). In any other case where a destination array is also
+     * a source array, the source coordinates are copied before the transformation.</p>
+     *
+     * <p>The default implementation copies the coordinates in blocks of interleaved tuples given to
+     * {@link #transform(double[], int, double[], int, int)}. Subclasses can override this method
+     * with loops working directly on the columns.</p>
+     *
+     * @param  srcPts  the source coordinates, as one array for each {@linkplain #getSourceDimensions() source dimension}.
+     * @param  srcOff  the index of the first point to be transformed in each source array.
+     * @param  dstPts  where to write the transformed coordinates,
+     *                 as one array for each {@linkplain #getTargetDimensions() target dimension}.
+     * @param  dstOff  the index where to write the first transformed point in each destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws MismatchedDimensionException if the number of source or destination arrays
+     *         does not match the transform dimensions.
+     * @throws TransformException if a point can not be transformed. Some implementations will stop at the first failure,
+     *         wile some other implementations will fill the un-transformable points with {@link Double#NaN} values,
+     *         continue and throw the exception only at end.
+     *
+     * @see MathTransforms#transform(MathTransform, double[][], int, double[][], int, int)
+     *
+     * @since 0.8
+     */
+    public void transform(final double[][] srcPts, final int srcOff,
+                          final double[][] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        CoordinateColumns.interleaved(this, srcPts, srcOff, dstPts, dstOff, numPts);
+    }
+
     /**
      * Gets the derivative of this transform at a point.
      * The default implementation performs the following steps:
@@ -0,0 +1,430 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation.transform;
+
+import java.io.Serializable;
+import java.awt.geom.Rectangle2D;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform2D;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+import org.apache.sis.internal.util.Numerics;
+import org.apache.sis.io.wkt.Formatter;
+import org.apache.sis.util.ComparisonMode;
+import org.apache.sis.util.Utilities;
+
+
+/**
+ * A two-dimensional transform approximated by bilinear interpolation in a grid of precomputed values.
+ * The grid covers a rectangular domain given at construction time and contains the values computed
+ * by the exact transform at each grid node. Points outside the domain, or in cells having a corner
+ * that the exact transform can not compute, are transformed by the exact transform.
+ *
+ * <p>The grid is built by {@link #create create(…)}, which starts with a coarse grid and doubles the number
+ * of cells along the <var>x</var> or <var>y</var> axis until the interpolated values at the middle of cell
+ * edges and at cell centers are within the tolerance threshold. Refining each axis independently keeps the
+ * grid small for transforms which are nearly linear along one axis, like the Mercator projection.</p>
+ *
+ * <p>In order to store the grid as {@code float} values without losing too much precision,
+ * the grid contains the differences between the exact values and an affine transform computed
+ * from the values at three corners of the domain.</p>
+ *
+ * <p>This transform has the same {@linkplain #inverse() inverse}, {@linkplain #derivative derivatives}
+ * and Well Known Text than the exact transform. It is intended for applications like map rendering or
+ * raster warping, where the same complex transform is applied on every pixel and where an error smaller
+ * than the pixel size is not visible.</p>
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+final class ApproximatedTransform extends AbstractMathTransform2D implements Serializable {
+    /**
+     * Serial number for inter-operability with different versions.
+     */
+    private static final long serialVersionUID = 4473106582451934925L;
+
+    /**
+     * Number of cells along each axis in the first grid tried by {@link #create create(…)}.
+     */
+    private static final int INITIAL_CELLS = 4;
+
+    /**
+     * Maximal number of grid nodes. If the tolerance threshold can not be met with a grid of this size,
+     * then {@link #create create(…)} returns the exact transform. The memory used by a grid of this size
+     * is 8 megabytes.
+     */
+    private static final int MAXIMUM_NODES = 1 << 20;
+
+    /**
+     * The exact transform, used for points that can not be interpolated and for the inverse transform.
+     */
+    final MathTransform2D exact;
+
+    /**
+     * The maximal error tolerated in the interpolated values, in units of the target coordinates.
+     */
+    private final double tolerance;
+
+    /**
+     * Minimal <var>x</var> and <var>y</var> values of the domain.
+     */
+    private final double xmin, ymin;
+
+    /**
+     * Factors converting <var>x</var> and <var>y</var> values to grid indices.
+     * This is the number of cells divided by the domain width or height.
+     */
+    private final double scaleX, scaleY;
+
+    /**
+     * Number of cells along the <var>x</var> and <var>y</var> axes.
+     * The number of nodes is one more on each axis.
+     */
+    private final int nx, ny;
+
+    /**
+     * Coefficients of the affine transform from grid indices (<var>i</var>,<var>j</var>) to target coordinates
+     * which is added to the interpolated {@link #residuals}. This affine transform maps exactly the lower-left,
+     * lower-right and upper-left corners of the domain.
+     */
+    private final double originX, dxdi, dxdj, originY, dydi, dydj;
+
+    /**
+     * Differences between the exact target coordinates at each grid node and the {@link #originX} affine transform,
+     * stored as (<var>x</var>,<var>y</var>) tuples in row-major order. May contain NaN values for nodes that the
+     * exact transform can not compute.
+     */
+    private final float[] residuals;
+
+    /**
+     * Creates an approximation of the given transform from the exact target coordinates computed at each node.
+     *
+     * @param nodes  the target coordinates at each node, as (<var>x</var>,<var>y</var>) tuples in row-major order.
+     *               The three corners of the grid shall have finite values.
+     */
+    private ApproximatedTransform(final MathTransform2D exact, final Rectangle2D domain, final double tolerance,
+            final int nx, final int ny, final double[] nodes)
+    {
+        this.exact     = exact;
+        this.tolerance = tolerance;
+        this.nx        = nx;
+        this.ny        = ny;
+        xmin           = domain.getMinX();
+        ymin           = domain.getMinY();
+        scaleX         = nx / domain.getWidth();
+        scaleY         = ny / domain.getHeight();
+        final int row  = (nx + 1) * 2;
+        originX        = nodes[0];
+        originY        = nodes[1];
+        dxdi           = (nodes[nx*2    ] - originX) / nx;
+        dydi           = (nodes[nx*2 + 1] - originY) / nx;
+        dxdj           = (nodes[ny*row    ] - originX) / ny;
+        dydj           = (nodes[ny*row + 1] - originY) / ny;
+        residuals      = new float[nodes.length];
+        int k = 0;
+        for (int j=0; j<=ny; j++) {
+            for (int i=0; i<=nx; i++) {
+                residuals[k] = (float) (nodes[k] - (originX + dxdi*i + dxdj*j)); k++;
+                residuals[k] = (float) (nodes[k] - (originY + dydi*i + dydj*j)); k++;
+            }
+        }
+    }
+
+    /**
+     * Returns an approximation of the given transform in the given domain, or the given transform itself
+     * if it can not be approximated with the given tolerance. See {@link MathTransforms#approximate
+     * MathTransforms.approximate(…)} for a description of the arguments.
+     *
+     * @throws TransformException if an error occurred while computing the grid values.
+     */
+    static MathTransform2D create(final MathTransform2D exact, final Rectangle2D domain, final double tolerance)
+            throws TransformException
+    {
+        if (MathTransforms.getMatrix(exact) != null) {
+            return exact;                                   // Linear transforms are already fast.
+        }
+        int nx = INITIAL_CELLS;
+        int ny = INITIAL_CELLS;
+        while ((nx + 1) * (ny + 1) <= MAXIMUM_NODES) {
+            /*
+             * Compute the exact target coordinates at all nodes. We need finite values at the three
+             * corners used for computing the affine transform; other nodes may have NaN values.
+             */
+            final int row = (nx + 1) * 2;
+            final double[] nodes = new double[row * (ny + 1)];
+            final double cellWidth  = domain.getWidth()  / nx;
+            final double cellHeight = domain.getHeight() / ny;
+            int k = 0;
+            for (int j=0; j<=ny; j++) {
+                for (int i=0; i<=nx; i++) {
+                    nodes[k++] = domain.getMinX() + cellWidth  * i;
+                    nodes[k++] = domain.getMinY() + cellHeight * j;
+                }
+            }
+            transform(exact, nodes, nodes.length / 2);
+            if (!isFinite(nodes, 0) || !isFinite(nodes, nx*2) || !isFinite(nodes, ny*row)) {
+                break;
+            }
+            final ApproximatedTransform approx = new ApproximatedTransform(exact, domain, tolerance, nx, ny, nodes);
+            /*
+             * If the 'float' type does not have enough precision for the residuals, refining the grid will not help.
+             * The tolerance / 4 threshold leaves room for the rounding errors of the 4 nodes used by interpolations.
+             */
+            if (Math.ulp(approx.maximalResidual()) > tolerance / 4) {
+                break;
+            }
+            final int refine = approx.refinement();
+            if (refine == 0) {
+                return approx;
+            }
+            if ((refine & 1) != 0) nx *= 2;
+            if ((refine & 2) != 0) ny *= 2;
+        }
+        return exact;
+    }
+
+    /**
+     * Returns {@code true} if the (<var>x</var>,<var>y</var>) tuple at the given offset has finite values.
+     */
+    private static boolean isFinite(final double[] coordinates, final int offset) {
+        return !Double.isNaN(coordinates[offset]) && !Double.isInfinite(coordinates[offset]) &&
+               !Double.isNaN(coordinates[offset+1]) && !Double.isInfinite(coordinates[offset+1]);
+    }
+
+    /**
+     * Transforms in-place the given coordinates by the exact transform.
+     * Points that can not be transformed are set to NaN.
+     *
+     * @param  exact        the transform to apply.
+     * @param  coordinates  the (<var>x</var>,<var>y</var>) tuples to transform in-place.
+     * @param  numPts       number of points to transform.
+     * @throws TransformException if the exact transform failed in an unexpected way.
+     */
+    private static void transform(final MathTransform2D exact, final double[] coordinates, final int numPts)
+            throws TransformException
+    {
+        final double[] source = coordinates.clone();
+        try {
+            exact.transform(source, 0, coordinates, 0, numPts);
+        } catch (TransformException e) {
+            /*
+             * The state of the destination array is undetermined if the transform is not an AbstractMathTransform.
+             * Transform the points again one by one, setting to NaN the points which can not be transformed.
+             */
+            for (int i=0; i < numPts*2; i += 2) {
+                try {
+                    exact.transform(source, i, coordinates, i, 1);
+                } catch (TransformException ignore) {
+                    coordinates[i] = coordinates[i+1] = Double.NaN;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the largest absolute value of residuals, ignoring NaN.
+     */
+    private float maximalResidual() {
+        float max = 0;
+        for (final float r : residuals) {
+            if (Math.abs(r) > max) {
+                max = Math.abs(r);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Compares the interpolated values with the exact values in the middle of each horizontal cell edge,
+     * in the middle of each vertical cell edge and at each cell center. Returns the axes to refine as a
+     * bitmask: 1 for the <var>x</var> axis, 2 for the <var>y</var> axis or 0 if the grid is fine enough.
+     * Errors in the middle of horizontal edges (respectively vertical edges) can be reduced by more cells
+     * along the <var>x</var> axis (respectively <var>y</var> axis). Errors at cell centers are used only
+     * if the edges are within the tolerance threshold, in which case both axes are refined.
+     */
+    private int refinement() throws TransformException {
+        final int numH = nx * (ny + 1);                 // Number of horizontal edges.
+        final int numV = (nx + 1) * ny;                 // Number of vertical edges.
+        final int numPts = numH + numV + nx * ny;
+        final double[] samples = new double[numPts * 2];
+        int k = 0;
+        for (int j=0; j<=ny; j++) {
+            for (int i=0; i<nx; i++) {
+                samples[k++] = xmin + (i + 0.5) / scaleX;
+                samples[k++] = ymin + j / scaleY;
+            }
+        }
+        for (int j=0; j<ny; j++) {
+            for (int i=0; i<=nx; i++) {
+                samples[k++] = xmin + i / scaleX;
+                samples[k++] = ymin + (j + 0.5) / scaleY;
+            }
+        }
+        for (int j=0; j<ny; j++) {
+            for (int i=0; i<nx; i++) {
+                samples[k++] = xmin + (i + 0.5) / scaleX;
+                samples[k++] = ymin + (j + 0.5) / scaleY;
+            }
+        }
+        final double[] expected = samples.clone();
+        transform(exact, expected, numPts);
+        final double[] approx = new double[2];
+        boolean center = false;
+        int refine = 0;
+        for (int p=0; p<numPts; p++) {
+            final int i = p * 2;
+            if (interpolate(samples, i, approx, 0)) {
+                // NaN errors are ignored since the comparison is false. This happen if the exact value is NaN.
+                if (Math.hypot(approx[0] - expected[i], approx[1] - expected[i+1]) > tolerance) {
+                    if (p < numH) {
+                        refine |= 1;
+                        p = numH - 1;                   // Skip the remaining horizontal edges.
+                    } else if (p < numH + numV) {
+                        refine |= 2;
+                        p = numH + numV - 1;            // Skip the remaining vertical edges.
+                    } else {
+                        center = true;
+                        break;
+                    }
+                }
+            }
+        }
+        if (refine == 0 && center) {
+            refine = 3;
+        }
+        return refine;
+    }
+
+    /**
+     * Interpolates the target coordinates of the given point. This method returns {@code false} without
+     * writing anything in the destination array if the point is outside the grid domain or in a cell
+     * having a NaN value, in which case the caller should use the exact transform.
+     *
+     * @param  srcPts  the array containing the source coordinates.
+     * @param  srcOff  index of the point to transform in the source array.
+     * @param  dstPts  the array where to write the interpolated coordinates.
+     * @param  dstOff  index where to write the interpolated point in the destination array.
+     * @return whether the point has been interpolated.
+     */
+    private boolean interpolate(final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff) {
+        final double gx = (srcPts[srcOff  ] - xmin) * scaleX;
+        final double gy = (srcPts[srcOff+1] - ymin) * scaleY;
+        if (!(gx >= 0 && gx <= nx && gy >= 0 && gy <= ny)) {         // Use '!' for catching NaN values.
+            return false;
+        }
+        final int i = Math.min((int) gx, nx - 1);
+        final int j = Math.min((int) gy, ny - 1);
+        final double fx = gx - i;
+        final double fy = gy - j;
+        final int row = (nx + 1) * 2;
+        final int k = j*row + i*2;
+        final float[] r = residuals;
+        double r00 = r[k], r10 = r[k+2], r01 = r[k+row], r11 = r[k+row+2];
+        final double x = originX + dxdi*gx + dxdj*gy + r00 + fx*(r10 - r00) + fy*((r01 - r00) + fx*(r11 - r01 - r10 + r00));
+        r00 = r[k+1]; r10 = r[k+3]; r01 = r[k+row+1]; r11 = r[k+row+3];
+        final double y = originY + dydi*gx + dydj*gy + r00 + fx*(r10 - r00) + fy*((r01 - r00) + fx*(r11 - r01 - r10 + r00));
+        if (Double.isNaN(x) || Double.isNaN(y)) {
+            return false;
+        }
+        dstPts[dstOff  ] = x;
+        dstPts[dstOff+1] = y;
+        return true;
+    }
+
+    /**
+     * Transforms a single point by interpolation in the grid, or by the exact transform if the point
+     * can not be interpolated. If the derivative is requested, then the point and the derivative are
+     * computed by the exact transform.
+     *
+     * @return the derivative computed by the exact transform, or {@code null} if not requested.
+     * @throws TransformException if the exact transform failed.
+     */
+    @Override
+    public Matrix transform(final double[] srcPts, final int srcOff,
+                            final double[] dstPts, final int dstOff,
+                            final boolean derivate) throws TransformException
+    {
+        if (derivate) {
+            return MathTransforms.derivativeAndTransform(exact, srcPts, srcOff, dstPts, dstOff);
+        }
+        if (dstPts != null && !interpolate(srcPts, srcOff, dstPts, dstOff)) {
+            exact.transform(srcPts, srcOff, dstPts, dstOff, 1);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the derivative computed by the exact transform at the given point.
+     *
+     * @throws TransformException if the derivative can not be computed.
+     */
+    @Override
+    public Matrix derivative(final DirectPosition point) throws TransformException {
+        return exact.derivative(point);
+    }
+
+    /**
+     * Returns the inverse of the exact transform.
+     *
+     * @throws NoninvertibleTransformException if the exact transform is not invertible.
+     */
+    @Override
+    public MathTransform2D inverse() throws NoninvertibleTransformException {
+        return exact.inverse();
+    }
+
+    /**
+     * Computes a hash code value for this transform.
+     */
+    @Override
+    protected int computeHashCode() {
+        return super.computeHashCode() ^ (exact.hashCode() + 31 * Numerics.hashCode(Double.doubleToLongBits(tolerance)));
+    }
+
+    /**
+     * Compares this transform with the given object for equality. The grid values are not compared
+     * since they are computed from the exact transform, the domain and the tolerance.
+     */
+    @Override
+    public boolean equals(final Object object, final ComparisonMode mode) {
+        if (super.equals(object, mode)) {
+            final ApproximatedTransform that = (ApproximatedTransform) object;
+            return nx == that.nx && ny == that.ny
+                    && Numerics.equals(tolerance, that.tolerance)
+                    && Numerics.equals(xmin,      that.xmin)
+                    && Numerics.equals(ymin,      that.ymin)
+                    && Numerics.equals(scaleX,    that.scaleX)
+                    && Numerics.equals(scaleY,    that.scaleY)
+                    && Utilities.deepEquals(exact, that.exact, mode);
+        }
+        return false;
+    }
+
+    /**
+     * Formats the exact transform, since the approximation is an implementation detail.
+     *
+     * @param  formatter  the formatter to use.
+     * @return the WKT element name.
+     */
+    @Override
+    protected String formatTo(final Formatter formatter) {
+        return formatter.delegateTo(exact);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation.transform;
+
+import java.nio.Buffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.apache.sis.util.Static;
+
+
+/**
+ * Transforms coordinates stored in NIO buffers by copying them, one block at a time, in a temporary array
+ * of type {@code double[]} given to {@link MathTransform#transform(double[], int, double[], int, int)}.
+ * The block size is {@link AbstractMathTransform#MAXIMUM_BUFFER_SIZE}, so the memory used by this class
+ * usually does not depend on the number of points. The exception is when the source and destination are
+ * the same buffer with overlapping regions that can not be processed in ascending or descending order
+ * (for example because the source and target dimensions differ). In that case all source coordinates
+ * are copied in a temporary {@code double[]} array before the transformation, in the same way than
+ * {@link IterationStrategy#BUFFER_SOURCE}. Since each block is transformed by a single call to the
+ * array method, all steps of a concatenated transform are applied while the coordinates are in the block.
+ *
+ * <p>Buffers are accessed with absolute indices, in the same way than arrays.
+ * The position, limit and mark of the given buffers are not modified.</p>
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+final class BufferTransform extends Static {
+    /**
+     * Do not allow instantiation of this class.
+     */
+    private BufferTransform() {
+    }
+
+    /**
+     * Transforms the coordinates in the given buffers, which shall be both {@link DoubleBuffer}
+     * or both {@link FloatBuffer}. Overlapping is detected only if {@code srcPts == dstPts};
+     * distinct views over the same memory are assumed to not overlap. If the regions overlap,
+     * this method may allocate an array as large as the source coordinates.
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the buffer containing the source point coordinates.
+     * @param  srcOff     index of the first ordinate to transform in the source buffer.
+     * @param  dstPts     the buffer into which the transformed point coordinates are written.
+     * @param  dstOff     index where to write the first transformed ordinate in the destination buffer.
+     * @param  numPts     the number of points to transform.
+     * @throws TransformException if a point can not be transformed.
+     */
+    static void transform(final MathTransform transform, final Buffer srcPts, int srcOff,
+                          final Buffer dstPts, int dstOff, int numPts) throws TransformException
+    {
+        if (numPts <= 0) {
+            return;
+        }
+        final int dimSource  = transform.getSourceDimensions();
+        final int dimTarget  = transform.getTargetDimensions();
+        final int dimLargest = Math.max(dimSource, dimTarget);
+        int numBufferedPts = numPts;
+        int bufferSize = numPts * dimLargest;
+        if (bufferSize > AbstractMathTransform.MAXIMUM_BUFFER_SIZE) {
+            numBufferedPts = Math.max(1, AbstractMathTransform.MAXIMUM_BUFFER_SIZE / dimLargest);
+            bufferSize = numBufferedPts * dimLargest;
+        }
+        /*
+         * Same strategy than AbstractMathTransform.transform(float[], …, float[], …): the whole block
+         * is considered as a single coordinate of large dimension when checking for overlapping.
+         * In the BUFFER_SOURCE case, all source coordinates are copied in a heap array; this is the
+         * only case where the memory used by this method depends on the number of points.
+         */
+        int srcInc = dimSource * numBufferedPts;
+        int dstInc = dimTarget * numBufferedPts;
+        int srcStop = srcInc;
+        int dstStop = dstInc;
+        double[] copy = null;
+        if (srcPts == dstPts) {
+            final int numPass = (numPts + numBufferedPts-1) / numBufferedPts;
+            switch (IterationStrategy.suggest(srcOff, srcInc, dstOff, dstInc, numPass)) {
+                case ASCENDING: {
+                    break;
+                }
+                case DESCENDING: {
+                    final int delta = numPts - numBufferedPts;
+                    srcOff += delta * dimSource;
+                    dstOff += delta * dimTarget;
+                    srcInc = -srcInc;
+                    dstInc = -dstInc;
+                    break;
+                }
+                default: {
+                    copy = new double[numPts * dimSource];
+                    get(srcPts, srcOff, copy, 0, copy.length);
+                    srcOff = 0;
+                    break;
+                }
+            }
+        }
+        final int bufferedSrcOff = (dimSource >= dimTarget) ? 0 : dstStop - srcStop;
+        final double[] buffer = new double[bufferSize];
+        TransformException failure = null;
+        do {
+            if (numPts < numBufferedPts) {
+                numBufferedPts = numPts;
+                srcStop = numPts * dimSource;
+                dstStop = numPts * dimTarget;
+                if (srcInc < 0) {
+                    // Same correction than in AbstractMathTransform.transform(float[], …, float[], …).
+                    srcOff -= (srcStop + srcInc);
+                    dstOff -= (dstStop + dstInc);
+                }
+            }
+            if (copy != null) {
+                System.arraycopy(copy, srcOff, buffer, bufferedSrcOff, srcStop);
+            } else {
+                get(srcPts, srcOff, buffer, bufferedSrcOff, srcStop);
+            }
+            try {
+                transform.transform(buffer, bufferedSrcOff, buffer, 0, numBufferedPts);
+            } catch (TransformException exception) {
+                // Same comment than in AbstractMathTransform.transform(float[], …, float[], …).
+                if (exception.getLastCompletedTransform() != transform) {
+                    throw exception;
+                } else if (failure == null) {
+                    failure = exception;
+                } else {
+                    failure.addSuppressed(exception);
+                }
+            }
+            put(buffer, 0, dstPts, dstOff, dstStop);
+            srcOff += srcInc;
+            dstOff += dstInc;
+            numPts -= numBufferedPts;
+        } while (numPts != 0);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Copies {@code length} values from the given buffer, starting at the given absolute index,
+     * into the given array. The position of the given buffer is not modified.
+     */
+    private static void get(final Buffer source, final int srcOff, final double[] target, final int dstOff, final int length) {
+        if (source instanceof DoubleBuffer) {
+            final DoubleBuffer view = ((DoubleBuffer) source).duplicate();
+            view.position(srcOff);
+            view.get(target, dstOff, length);
+        } else {
+            final FloatBuffer b = (FloatBuffer) source;
+            for (int i=0; i<length; i++) {
+                target[dstOff + i] = b.get(srcOff + i);
+            }
+        }
+    }
+
+    /**
+     * Copies {@code length} values from the given array into the given buffer, starting at the given
+     * absolute index. The position of the given buffer is not modified.
+     */
+    private static void put(final double[] source, final int srcOff, final Buffer target, final int dstOff, final int length) {
+        if (target instanceof DoubleBuffer) {
+            final DoubleBuffer view = ((DoubleBuffer) target).duplicate();
+            view.position(dstOff);
+            view.put(source, srcOff, length);
+        } else {
+            final FloatBuffer b = (FloatBuffer) target;
+            for (int i=0; i<length; i++) {
+                b.put(dstOff + i, (float) source[srcOff + i]);
+            }
+        }
+    }
+}
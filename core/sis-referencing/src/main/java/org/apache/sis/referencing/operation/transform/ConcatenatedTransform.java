@@ -35,6 +35,7 @@ import org.apache.sis.parameter.Parameterized;
 import org.apache.sis.referencing.operation.matrix.Matrices;
 import org.apache.sis.internal.referencing.provider.GeocentricAffine;
 import org.apache.sis.internal.metadata.WKTKeywords;
+import org.apache.sis.internal.referencing.CoordinateColumns;
 import org.apache.sis.internal.referencing.Resources;
 import org.apache.sis.internal.system.Semaphores;
 import org.apache.sis.util.Classes;
@@ -57,7 +58,7 @@ import org.apache.sis.util.resources.Errors;
  *
  * @author  Martin Desruisseaux (IRD, Geomatys)
  * @since   0.5
- * @version 0.7
+ * @version 0.8
  * @module
  *
  * @see org.opengis.referencing.operation.MathTransformFactory#createConcatenatedTransform(MathTransform, MathTransform)
@@ -712,6 +713,41 @@ class ConcatenatedTransform extends AbstractMathTransform implements Serializabl
         } while (numPts != 0);
     }
 
+    /**
+     * Transforms many coordinates stored in one array per dimension. The source points are transformed
+     * by {@link #transform1} in temporary columns, then the intermediate points are transformed by
+     * {@link #transform2}. This is done by blocks of points, so the temporary columns have a fixed size.
+     * Each step uses its own specialized implementation for columns if it has one.
+     *
+     * @throws TransformException if {@link #transform1} or {@link #transform2} failed.
+     *
+     * @since 0.8
+     */
+    @Override
+    public void transform(double[][] srcPts, int srcOff, final double[][] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        assert isValid();
+        final double[][] copy = CoordinateColumns.sourceColumns(this, srcPts, srcOff, dstPts, dstOff, numPts);
+        if (copy != null) {
+            srcPts = copy;
+            srcOff = 0;
+        }
+        if (numPts <= 0) {
+            return;
+        }
+        final int blockSize = Math.min(numPts, MAXIMUM_BUFFER_SIZE);
+        final double[][] buffer = new double[transform2.getSourceDimensions()][blockSize];
+        do {
+            final int n = Math.min(numPts, blockSize);
+            CoordinateColumns.transform(transform1, srcPts, srcOff, buffer, 0, n);
+            CoordinateColumns.transform(transform2, buffer, 0, dstPts, dstOff, n);
+            srcOff += n;
+            dstOff += n;
+            numPts -= n;
+        } while (numPts != 0);
+    }
+
     /**
      * Transforms many coordinates in a list of ordinal values. The source points are first
      * transformed by {@link #transform1}, then the intermediate points are transformed by
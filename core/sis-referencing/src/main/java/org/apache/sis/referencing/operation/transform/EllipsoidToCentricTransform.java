@@ -41,6 +41,7 @@ import org.apache.sis.util.ArgumentChecks;
 import org.apache.sis.internal.util.Numerics;
 import org.apache.sis.internal.util.Constants;
 import org.apache.sis.internal.util.DoubleDouble;
+import org.apache.sis.internal.referencing.CoordinateColumns;
 import org.apache.sis.internal.referencing.Formulas;
 import org.apache.sis.internal.referencing.Resources;
 import org.apache.sis.internal.referencing.DirectPositionView;
@@ -98,7 +99,7 @@ import static org.apache.sis.internal.referencing.provider.GeocentricAffineBetwe
  *
  * @author  Martin Desruisseaux (IRD, Geomatys)
  * @since   0.7
- * @version 0.7
+ * @version 0.8
  * @module
  */
 public class EllipsoidToCentricTransform extends AbstractMathTransform implements Serializable {
@@ -627,6 +628,44 @@ public class EllipsoidToCentricTransform extends AbstractMathTransform implement
         }
     }
 
+    /**
+     * Converts geodetic coordinates stored in one array per dimension (λ, φ and optionally <var>h</var>)
+     * to geocentric coordinates stored in three arrays (<var>X</var>, <var>Y</var>, <var>Z</var>).
+     * This method performs the same conversion than {@link #transform(double[], int, double[], int, int)}
+     * on each point, but without the stride of interleaved coordinates.
+     *
+     * @throws TransformException if a point can not be transformed.
+     *
+     * @since 0.8
+     */
+    @Override
+    public void transform(double[][] srcPts, int srcOff, final double[][] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        final double[][] copy = CoordinateColumns.sourceColumns(this, srcPts, srcOff, dstPts, dstOff, numPts);
+        if (copy != null) {
+            srcPts = copy;
+            srcOff = 0;
+        }
+        final double[] λs = srcPts[0];
+        final double[] φs = srcPts[1];
+        final double[] hs = withHeight ? srcPts[2] : null;
+        final double[] Xs = dstPts[0];
+        final double[] Ys = dstPts[1];
+        final double[] Zs = dstPts[2];
+        for (int i=0; i<numPts; i++) {
+            final double λ     = λs[srcOff + i];
+            final double φ     = φs[srcOff + i];
+            final double h     = (hs != null) ? hs[srcOff + i] : 0;
+            final double sinφ  = sin(φ);
+            final double ν     = 1/sqrt(1 - eccentricitySquared * (sinφ*sinφ));
+            final double rcosφ = (ν + h) * cos(φ);
+            Xs[dstOff + i]     = rcosφ * cos(λ);                                   // X: Toward prime meridian
+            Ys[dstOff + i]     = rcosφ * sin(λ);                                   // Y: Toward 90° east
+            Zs[dstOff + i]     = (ν * (1 - eccentricitySquared) + h) * sinφ;       // Z: Toward north pole
+        }
+    }
+
     /*
      * NOTE: we do not bother to override the methods expecting a 'float' array because those methods should
      *       be rarely invoked. Since there is usually LinearTransforms before and after this transform, the
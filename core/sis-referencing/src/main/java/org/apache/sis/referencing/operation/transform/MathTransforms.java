@@ -18,7 +18,10 @@ package org.apache.sis.referencing.operation.transform;
 
 import java.util.List;
 import java.util.Collections;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
 import org.opengis.util.FactoryException;
 import org.opengis.geometry.MismatchedDimensionException;
 import org.opengis.referencing.operation.Matrix;
@@ -27,6 +30,7 @@ import org.opengis.referencing.operation.MathTransform1D;
 import org.opengis.referencing.operation.MathTransform2D;
 import org.opengis.referencing.operation.TransformException;
 import org.opengis.referencing.operation.MathTransformFactory;
+import org.apache.sis.internal.referencing.CoordinateColumns;
 import org.apache.sis.internal.referencing.DirectPositionView;
 import org.apache.sis.internal.referencing.ExtendedPrecisionMatrix;
 import org.apache.sis.internal.referencing.j2d.AffineTransform2D;
@@ -34,6 +38,7 @@ import org.apache.sis.referencing.operation.matrix.AffineTransforms2D;
 import org.apache.sis.referencing.operation.matrix.Matrices;
 import org.apache.sis.util.ArgumentChecks;
 import org.apache.sis.util.Static;
+import org.apache.sis.util.resources.Errors;
 
 
 /**
@@ -52,7 +57,7 @@ import org.apache.sis.util.Static;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.5
- * @version 0.7
+ * @version 0.8
  * @module
  *
  * @see MathTransformFactory
@@ -177,6 +182,47 @@ public final class MathTransforms extends Static {
         return LinearInterpolator1D.create(preimage, values);
     }
 
+    /**
+     * Returns a transform approximating the given transform by bilinear interpolation in a grid computed over
+     * the given domain. The grid is refined until the interpolated values differ from the exact values by no
+     * more than {@code tolerance}, as verified at the middle of cell edges and at cell centers. The grid values
+     * are stored as {@code float} numbers, so the memory used by the returned transform is small.
+     *
+     * <p>The returned transform is intended for map rendering or raster warping, where a complex chain
+     * (for example a map projection concatenated with a datum shift) is applied on every pixel and where
+     * an error smaller than the pixel size is acceptable. The exact transform is still used in the following cases:</p>
+     * <ul>
+     *   <li>for points outside the given domain, or in a grid cell having a corner that can not be transformed;</li>
+     *   <li>for computing derivatives, the inverse transform and the Well Known Text.</li>
+     * </ul>
+     *
+     * If the given transform is linear, or if the tolerance can not be met with a grid of reasonable size
+     * (for example because the {@code float} precision is not sufficient), then this method returns the
+     * given transform unchanged.
+     *
+     * @param  transform  the exact transform to approximate.
+     * @param  domain     the domain of source coordinates where to compute the grid.
+     * @param  tolerance  the maximal error tolerated in the target coordinates, in units of the target coordinates.
+     * @return the approximated transform, or {@code transform} if no suitable approximation has been found.
+     * @throws IllegalArgumentException if the domain is empty or the tolerance is not strictly positive.
+     * @throws TransformException if an error occurred while computing the grid values.
+     *
+     * @since 0.8
+     */
+    public static MathTransform2D approximate(final MathTransform2D transform, final Rectangle2D domain,
+            final double tolerance) throws TransformException
+    {
+        ArgumentChecks.ensureNonNull("transform", transform);
+        ArgumentChecks.ensureNonNull("domain", domain);
+        ArgumentChecks.ensureStrictlyPositive("tolerance", tolerance);
+        if (!(domain.getWidth() > 0 && domain.getHeight() > 0) || Double.isInfinite(domain.getWidth())
+                || Double.isInfinite(domain.getHeight()))
+        {
+            throw new IllegalArgumentException(Errors.format(Errors.Keys.EmptyEnvelope2D));
+        }
+        return ApproximatedTransform.create(transform, domain, tolerance);
+    }
+
     /**
      * Puts together a list of independent math transforms, each of them operating on a subset of ordinate values.
      * This method is often used for defining 4-dimensional (<var>x</var>,<var>y</var>,<var>z</var>,<var>t</var>)
@@ -413,6 +459,146 @@ public final class MathTransforms extends Static {
         return null;
     }
 
+    /**
+     * Transforms a list of coordinate tuples, using many threads if the number of points is large enough.
+     * This method produces the same result than {@code transform.transform(srcPts, srcOff, dstPts, dstOff, numPts)},
+     * but splits the arrays in chunks of consecutive points which are transformed concurrently in a fork-join pool.
+     * The current thread transforms chunks too, so the transformation completes even if the threads of the pool
+     * are busy with other tasks. This method returns after all chunks have been transformed.
+     *
+     * <p>This method transforms the points in the current thread in the following cases:</p>
+     * <ul>
+     *   <li>The number of points is too small for the gain to compensate the cost of dispatching the work
+     *       (currently less than 16384 points).</li>
+     *   <li>The transform, or a step of a concatenated transform, is not an Apache SIS implementation.
+     *       SIS implementations are immutable and thread-safe, but we can not assume that for other
+     *       implementations, including user subclasses of {@link AbstractMathTransform}.</li>
+     * </ul>
+     *
+     * The source and destination arrays can be the same array, with the same restrictions than the
+     * {@link MathTransform#transform(double[], int, double[], int, int)} method. If the region of the array
+     * to write overlaps the region to read in a way that would cause a chunk to read coordinates modified by
+     * another chunk, then the source coordinates are copied in a temporary array before the transformation
+     * (equivalent to the {@link IterationStrategy#BUFFER_SOURCE} strategy).
+     *
+     * <p>If the transformation of some points failed, then the exception thrown by the first failing chunk
+     * is rethrown after all chunks completed. The content of the destination array is then undetermined
+     * for the points of the failing chunks.</p>
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the array containing the source point coordinates.
+     * @param  srcOff     the offset to the first point to be transformed in the source array.
+     * @param  dstPts     the array into which the transformed point coordinates are returned.
+     *                    May be the same than {@code srcPts}.
+     * @param  dstOff     the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts     the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     *
+     * @see MathTransform#transform(double[], int, double[], int, int)
+     *
+     * @since 0.8
+     */
+    public static void transform(final MathTransform transform, final double[] srcPts, final int srcOff,
+                                 final double[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        ArgumentChecks.ensureNonNull("transform", transform);
+        ArgumentChecks.ensurePositive("numPts", numPts);
+        TransformTask.transform(transform, srcPts, srcOff, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate tuples stored in NIO buffers, for example direct buffers or views over
+     * memory-mapped files. Offsets are absolute indices in the buffers, and the buffer positions are not modified.
+     * If the given transform is an {@link AbstractMathTransform}, then this method delegates to
+     * {@link AbstractMathTransform#transform(DoubleBuffer, int, DoubleBuffer, int, int)}.
+     * Otherwise the coordinates are copied in blocks of a temporary array given to
+     * {@link MathTransform#transform(double[], int, double[], int, int)}.
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the buffer containing the source point coordinates.
+     * @param  srcOff     the index of the first ordinate to be transformed in the source buffer.
+     * @param  dstPts     the buffer into which the transformed point coordinates are written.
+     *                    May be the same than {@code srcPts}.
+     * @param  dstOff     the index where to write the first transformed ordinate in the destination buffer.
+     * @param  numPts     the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     *
+     * @since 0.8
+     */
+    public static void transform(final MathTransform transform, final DoubleBuffer srcPts, final int srcOff,
+                                 final DoubleBuffer dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        ArgumentChecks.ensureNonNull("transform", transform);
+        ArgumentChecks.ensurePositive("numPts", numPts);
+        if (transform instanceof AbstractMathTransform) {
+            ((AbstractMathTransform) transform).transform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            BufferTransform.transform(transform, srcPts, srcOff, dstPts, dstOff, numPts);
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples stored in NIO buffers of single-precision values.
+     * This method has the same contract than {@link #transform(MathTransform, DoubleBuffer, int, DoubleBuffer, int, int)}.
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the buffer containing the source point coordinates.
+     * @param  srcOff     the index of the first ordinate to be transformed in the source buffer.
+     * @param  dstPts     the buffer into which the transformed point coordinates are written.
+     *                    May be the same than {@code srcPts}.
+     * @param  dstOff     the index where to write the first transformed ordinate in the destination buffer.
+     * @param  numPts     the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     *
+     * @since 0.8
+     */
+    public static void transform(final MathTransform transform, final FloatBuffer srcPts, final int srcOff,
+                                 final FloatBuffer dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        ArgumentChecks.ensureNonNull("transform", transform);
+        ArgumentChecks.ensurePositive("numPts", numPts);
+        if (transform instanceof AbstractMathTransform) {
+            ((AbstractMathTransform) transform).transform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            BufferTransform.transform(transform, srcPts, srcOff, dstPts, dstOff, numPts);
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate points stored in one array per dimension. For example the source coordinates
+     * of a two-dimensional transform are given as {@code double[][] {x, y}}, and the point <var>i</var> is
+     * ({@code x[srcOff+i]}, {@code y[srcOff+i]}). If the given transform is an {@link AbstractMathTransform},
+     * then this method delegates to {@link AbstractMathTransform#transform(double[][], int, double[][], int, int)}.
+     * Otherwise the coordinates are copied in blocks of interleaved tuples given to
+     * {@link MathTransform#transform(double[], int, double[], int, int)}, except for linear transforms
+     * which are applied directly on the columns.
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the source coordinates, as one array for each source dimension.
+     * @param  srcOff     the index of the first point to be transformed in each source array.
+     * @param  dstPts     where to write the transformed coordinates, as one array for each target dimension.
+     * @param  dstOff     the index where to write the first transformed point in each destination array.
+     * @param  numPts     the number of point objects to be transformed.
+     * @throws MismatchedDimensionException if the number of source or destination arrays
+     *         does not match the transform dimensions.
+     * @throws TransformException if a point can not be transformed.
+     *
+     * @since 0.8
+     */
+    public static void transform(final MathTransform transform, final double[][] srcPts, final int srcOff,
+                                 final double[][] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        ArgumentChecks.ensureNonNull("transform", transform);
+        ArgumentChecks.ensureNonNull("srcPts", srcPts);
+        ArgumentChecks.ensureNonNull("dstPts", dstPts);
+        ArgumentChecks.ensurePositive("numPts", numPts);
+        CoordinateColumns.transform(transform, srcPts, srcOff, dstPts, dstOff, numPts);
+    }
+
     /**
      * A buckle method for calculating derivative and coordinate transformation in a single step.
      * The transform result is stored in the given destination array, and the derivative matrix
@@ -17,10 +17,13 @@
 package org.apache.sis.referencing.operation.transform;
 
 import java.util.Arrays;
+import java.nio.DoubleBuffer;
 import org.opengis.geometry.DirectPosition;
 import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.TransformException;
 import org.apache.sis.referencing.operation.matrix.Matrices;
 import org.apache.sis.referencing.operation.matrix.MatrixSIS;
+import org.apache.sis.internal.referencing.CoordinateColumns;
 import org.apache.sis.internal.referencing.ExtendedPrecisionMatrix;
 import org.apache.sis.util.ArgumentChecks;
 
@@ -35,7 +38,7 @@ import org.apache.sis.util.ArgumentChecks;
  *
  * @author  Martin Desruisseaux (IRD, Geomatys)
  * @since   0.5
- * @version 0.7
+ * @version 0.8
  * @module
  *
  * @see java.awt.geom.AffineTransform
@@ -407,6 +410,88 @@ class ProjectiveTransform extends AbstractLinearTransform implements ExtendedPre
         }
     }
 
+    /**
+     * Transforms coordinates stored in a NIO buffer by this matrix. This method reads and writes the
+     * buffers directly with absolute indices, without the temporary array used by the default implementation.
+     * If the source and destination regions of the same buffer overlap in a way that requires a copy of the
+     * source coordinates, then this method delegates to the default implementation.
+     *
+     * @param srcPts The buffer containing the source point coordinates.
+     * @param srcOff The index of the first ordinate to be transformed in the source buffer.
+     * @param dstPts The buffer into which the transformed point coordinates are written.
+     * @param dstOff The index where to write the first transformed ordinate in the destination buffer.
+     * @param numPts The number of points to be transformed.
+     * @throws TransformException if the source and destination regions overlap and the default
+     *         implementation failed (should not happen with this class).
+     *
+     * @since 0.8
+     */
+    @Override
+    public final void transform(final DoubleBuffer srcPts, int srcOff, final DoubleBuffer dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        final int srcDim, dstDim;
+        int srcInc = srcDim = numCol - 1;
+        int dstInc = dstDim = numRow - 1;
+        if (srcPts == dstPts) {
+            switch (IterationStrategy.suggest(srcOff, srcDim, dstOff, dstDim, numPts)) {
+                case ASCENDING: {
+                    break;
+                }
+                case DESCENDING: {
+                    srcOff += (numPts - 1) * srcDim;
+                    dstOff += (numPts - 1) * dstDim;
+                    srcInc = -srcInc;
+                    dstInc = -dstInc;
+                    break;
+                }
+                default: {
+                    super.transform(srcPts, srcOff, dstPts, dstOff, numPts);
+                    return;
+                }
+            }
+        }
+        final double[] buffer = new double[numRow];
+        while (--numPts >= 0) {
+            int mix = 0;
+            for (int j=0; j<numRow; j++) {
+                double sum = elt[mix + srcDim];
+                for (int i=0; i<srcDim; i++) {
+                    final double e = elt[mix++];
+                    if (e != 0) { // See comment in transform(double[], ...)
+                        sum += srcPts.get(srcOff + i) * e;
+                    }
+                }
+                buffer[j] = sum;
+                mix++;
+            }
+            final double w = buffer[dstDim];
+            for (int j=0; j<dstDim; j++) {
+                dstPts.put(dstOff + j, buffer[j] / w);
+            }
+            srcOff += srcInc;
+            dstOff += dstInc;
+        }
+    }
+
+    /**
+     * Transforms coordinates stored in one array per dimension by this matrix. Each row of the matrix is
+     * computed by loops over single columns, without the temporary interleaved array used by the default
+     * implementation. The results are identical to the ones of {@link #transform(double[], int, double[], int, int)}.
+     *
+     * @param srcPts The source coordinates, as one array per source dimension.
+     * @param srcOff The index of the first point to be transformed in each source array.
+     * @param dstPts Where to write the transformed coordinates, as one array per target dimension.
+     * @param dstOff The index where to write the first transformed point in each destination array.
+     * @param numPts The number of points to be transformed.
+     *
+     * @since 0.8
+     */
+    @Override
+    public final void transform(final double[][] srcPts, final int srcOff, final double[][] dstPts, final int dstOff, final int numPts) {
+        CoordinateColumns.linear(elt, numRow, numCol, srcPts, srcOff, dstPts, dstOff, numPts);
+    }
+
     /**
      * Gets the derivative of this transform at a point.
      * For a matrix transform, the derivative is the same everywhere.
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation.transform;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.apache.sis.internal.referencing.j2d.AffineTransform2D;
+
+// Branch-dependent imports
+import org.apache.sis.internal.jdk8.JDK8;
+
+
+/**
+ * A task transforming the chunks of a large coordinate array, as one part of a transformation executed
+ * by many threads. Instances are created by {@link #transform transform(…)}, which is the implementation
+ * of {@link MathTransforms#transform(MathTransform, double[], int, double[], int, int)}.
+ *
+ * <p>The same task is executed by the current thread and by a few threads of the fork-join pool.
+ * Each execution takes the next chunk not yet claimed by another thread, until all chunks are claimed.
+ * Since the current thread participates to the work, the transformation completes even if all threads
+ * in the pool are busy with other tasks; the pool only makes it faster when it has idle threads.</p>
+ *
+ * <p>A chunk failing to be transformed stores the exception in the {@link #failures} array instead than
+ * throwing it, in order to report the failure of the first chunk in iteration order after all chunks
+ * completed.</p>
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+final class TransformTask implements Runnable {
+    /**
+     * Minimal number of points in a chunk. Arrays having less than twice this number of points
+     * are transformed in the current thread, since the cost of dispatching the work to other
+     * threads would not be compensated by the gain.
+     */
+    static final int MINIMAL_CHUNK_SIZE = 8192;
+
+    /**
+     * The transform to apply.
+     */
+    private final MathTransform transform;
+
+    /**
+     * The source and destination arrays.
+     */
+    private final double[] srcPts, dstPts;
+
+    /**
+     * Offsets of the first point to transform in the source and destination arrays.
+     */
+    private final int srcOff, dstOff;
+
+    /**
+     * Total number of points to transform.
+     */
+    private final int numPts;
+
+    /**
+     * Index of the next chunk to transform.
+     */
+    private final AtomicInteger nextChunk;
+
+    /**
+     * The exception thrown by the transform for each chunk, or {@code null} if none.
+     * The length of this array is the number of chunks.
+     */
+    private final Throwable[] failures;
+
+    /**
+     * Number of chunks not yet transformed.
+     */
+    private final CountDownLatch remaining;
+
+    /**
+     * Creates a new task for transforming the given points in the given number of chunks.
+     */
+    private TransformTask(final MathTransform transform, final double[] srcPts, final int srcOff,
+            final double[] dstPts, final int dstOff, final int numPts, final int numChunks)
+    {
+        this.transform = transform;
+        this.srcPts    = srcPts;
+        this.srcOff    = srcOff;
+        this.dstPts    = dstPts;
+        this.dstOff    = dstOff;
+        this.numPts    = numPts;
+        nextChunk      = new AtomicInteger();
+        failures       = new Throwable[numChunks];
+        remaining      = new CountDownLatch(numChunks);
+    }
+
+    /**
+     * Transforms the given points, using many threads if the number of points is large enough and the
+     * transform is known to be thread-safe. See {@link MathTransforms#transform MathTransforms.transform(…)}
+     * for a description of the parameters.
+     */
+    static void transform(final MathTransform transform, double[] srcPts, int srcOff,
+            final double[] dstPts, final int dstOff, final int numPts) throws TransformException
+    {
+        final ForkJoinPool pool = JDK8.commonPool();
+        final int numChunks = Math.min(numPts / MINIMAL_CHUNK_SIZE, pool.getParallelism() * 4);
+        if (numChunks < 2 || !isThreadSafe(transform)) {
+            transform.transform(srcPts, srcOff, dstPts, dstOff, numPts);
+            return;
+        }
+        if (srcPts == dstPts) {
+            /*
+             * If the source and target regions overlap, a chunk could read coordinates already overwritten by
+             * another chunk, or write coordinates not yet read. This is not a problem only if each chunk reads
+             * and writes the same region. Otherwise copy the source points (the BUFFER iteration strategy).
+             */
+            final int srcDim = transform.getSourceDimensions();
+            final int dstDim = transform.getTargetDimensions();
+            final int srcEnd = srcOff + numPts * srcDim;
+            final int dstEnd = dstOff + numPts * dstDim;
+            if (srcOff < dstEnd && dstOff < srcEnd && (srcOff != dstOff || srcDim != dstDim)) {
+                srcPts = Arrays.copyOfRange(srcPts, srcOff, srcEnd);
+                srcOff = 0;
+            }
+        }
+        final TransformTask task = new TransformTask(transform, srcPts, srcOff, dstPts, dstOff, numPts, numChunks);
+        for (int i = Math.min(numChunks, pool.getParallelism()); --i >= 1;) {
+            pool.execute(task);
+        }
+        task.run();
+        boolean interrupted = false;
+        while (true) try {
+            task.remaining.await();
+            break;
+        } catch (InterruptedException e) {
+            interrupted = true;             // Chunks are short; wait for them and restore the flag after.
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        for (final Throwable failure : task.failures) {
+            if (failure != null) {
+                if (failure instanceof TransformException) throw (TransformException) failure;
+                if (failure instanceof RuntimeException)   throw (RuntimeException)   failure;
+                throw (Error) failure;
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if the given transform is known to be thread-safe. All Apache SIS implementations
+     * are immutable and thread-safe, but we can not assume that for transforms provided by other libraries,
+     * including subclasses of {@link AbstractMathTransform} defined outside the Apache SIS packages.
+     * SIS transforms wrapping other transforms are thread-safe only if the wrapped transforms are.
+     */
+    private static boolean isThreadSafe(final MathTransform transform) {
+        final List<MathTransform> steps = MathTransforms.getSteps(transform);
+        for (final MathTransform step : steps) {
+            if (!step.getClass().getName().startsWith("org.apache.sis.")) {
+                return false;
+            }
+            if (step instanceof PassThroughTransform) {
+                if (!isThreadSafe(((PassThroughTransform) step).getSubTransform())) {
+                    return false;
+                }
+            } else if (step instanceof ApproximatedTransform) {
+                if (!isThreadSafe(((ApproximatedTransform) step).exact)) {
+                    return false;
+                }
+            } else if (!(step instanceof AbstractMathTransform || step instanceof AffineTransform2D)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Transforms chunks of points until all chunks have been claimed by this thread or other threads.
+     * The chunk boundaries are computed from the chunk index, so all chunks have about the same size.
+     */
+    @Override
+    public void run() {
+        final int numChunks = failures.length;
+        final int srcDim = transform.getSourceDimensions();
+        final int dstDim = transform.getTargetDimensions();
+        int i;
+        while ((i = nextChunk.getAndIncrement()) < numChunks) {
+            final int lower = (int) (((long) numPts *  i)    / numChunks);
+            final int upper = (int) (((long) numPts * (i+1)) / numChunks);
+            try {
+                transform.transform(srcPts, srcOff + lower * srcDim, dstPts, dstOff + lower * dstDim, upper - lower);
+            } catch (TransformException | RuntimeException | Error e) {
+                failures[i] = e;
+            } finally {
+                remaining.countDown();
+            }
+        }
+    }
+}
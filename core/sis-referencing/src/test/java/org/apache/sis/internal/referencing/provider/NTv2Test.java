@@ -21,16 +21,19 @@ import java.net.URISyntaxException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import javax.measure.quantity.Angle;
 import org.opengis.geometry.Envelope;
 import org.opengis.util.FactoryException;
+import org.opengis.referencing.operation.Matrix;
 import org.opengis.referencing.operation.TransformException;
 import org.apache.sis.referencing.operation.matrix.Matrix3;
 import org.apache.sis.geometry.Envelope2D;
 import org.apache.sis.geometry.Envelopes;
 import org.apache.sis.measure.Units;
+import org.apache.sis.test.DependsOnMethod;
 import org.apache.sis.test.TestCase;
 import org.junit.Test;
 
@@ -166,6 +169,174 @@ public final strictfp class NTv2Test extends TestCase {
     }
 
 
+    /**
+     * Tests a grid reading values directly from the test file mapped in memory.
+     * The values shall be the same than the ones loaded in the Java heap by {@link #testLoader()}.
+     *
+     * @throws URISyntaxException if the URL to the test file can not be converted to a path.
+     * @throws IOException if an error occurred while mapping the file.
+     * @throws FactoryException if an error occurred while loading the grid.
+     * @throws TransformException if an error occurred while computing a conversion or testing the point.
+     */
+    @Test
+    @DependsOnMethod("testLoader")
+    public void testMappedGrid() throws URISyntaxException, IOException, FactoryException, TransformException {
+        final URL url = NTv2Test.class.getResource(TEST_FILE);
+        assertNotNull("Test file \"" + TEST_FILE + "\" not found.", url);
+        final Path file = Paths.get(url.toURI());
+        final DatumShiftGridFile<Angle,Angle> grid = NTv2.getOrLoad(file);
+        final int[] size = grid.getGridSize();
+        final ByteBuffer data;
+        try (final FileChannel c = FileChannel.open(file)) {
+            // 12 header records of 16 bytes (NUM_OREC = 5 and NUM_SREC = 7) before the grid records.
+            data = c.map(FileChannel.MapMode.READ_ONLY, 12 * 16, size[0] * size[1] * 16).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        final Matrix m = grid.getCoordinateToGrid().inverse().getMatrix();
+        final DatumShiftGridFile<Angle,Angle> mapped = new DatumShiftGridFile.Mapped<>(Units.ARC_SECOND, Units.ARC_SECOND,
+                true, m.getElement(0,2), m.getElement(1,2), m.getElement(0,0), m.getElement(1,1), size[0], size[1],
+                NTv2.PARAMETERS, new DatumShiftGridFile.Region(data, file.toRealPath(), 12 * 16),
+                16, new int[] {4, 0}, new double[] {-m.getElement(0,0), m.getElement(1,1)}, file);
+        assertEquals("translationDimensions", 2, mapped.getTranslationDimensions());
+        /*
+         * A grid mapping the same region of the same file shall be equal,
+         * without comparison of the buffer content.
+         */
+        final DatumShiftGridFile<Angle,Angle> same = new DatumShiftGridFile.Mapped<>(Units.ARC_SECOND, Units.ARC_SECOND,
+                true, m.getElement(0,2), m.getElement(1,2), m.getElement(0,0), m.getElement(1,1), size[0], size[1],
+                NTv2.PARAMETERS, new DatumShiftGridFile.Region(data.duplicate(), file.toRealPath(), 12 * 16),
+                16, new int[] {4, 0}, new double[] {-m.getElement(0,0), m.getElement(1,1)}, file);
+        assertEquals("equals", mapped, same);
+        assertEquals("hashCode", mapped.hashCode(), same.hashCode());
+        for (int y=0; y<size[1]; y++) {
+            for (int x=0; x<size[0]; x++) {
+                assertEquals("tx", grid.getCellValue(0, x, y), mapped.getCellValue(0, x, y), 1E-7);
+                assertEquals("ty", grid.getCellValue(1, x, y), mapped.getCellValue(1, x, y), 1E-7);
+            }
+        }
+        final double[] position = FranceGeocentricInterpolationTest.samplePoint(1);
+        for (int i=0; i<position.length; i++) {
+            position[i] *= DatumShiftGridLoader.DEGREES_TO_SECONDS;
+        }
+        assertArrayEquals("interpolateAt", grid.interpolateAt(position), mapped.interpolateAt(position), 1E-5);
+    }
+
+    /**
+     * Tests loading the test file through the mapped branch of the loader, by setting the mapping threshold
+     * to zero. The grid shall read its values from the file mapped in memory, and those values, the accuracy
+     * and the interpolations shall be the same than the ones of the grid loaded in the Java heap.
+     *
+     * @throws URISyntaxException if the URL to the test file can not be converted to a path.
+     * @throws IOException if an error occurred while loading the grid.
+     * @throws FactoryException if an error occurred while computing the grid.
+     * @throws TransformException if an error occurred while computing a conversion or testing the point.
+     */
+    @Test
+    @DependsOnMethod("testMappedGrid")
+    public void testMappedLoader() throws URISyntaxException, IOException, FactoryException, TransformException {
+        final URL url = NTv2Test.class.getResource(TEST_FILE);
+        assertNotNull("Test file \"" + TEST_FILE + "\" not found.", url);
+        final Path file = Paths.get(url.toURI());
+        final DatumShiftGridFile<Angle,Angle> grid = NTv2.getOrLoad(file);
+        final DatumShiftGridFile<Angle,Angle> mapped;
+        try (final FileChannel in = FileChannel.open(file)) {
+            mapped = NTv2.load(in, file, 0);
+        }
+        assertInstanceOf("load", DatumShiftGridFile.Mapped.class, mapped);
+        assertEquals("accuracy", grid.accuracy, mapped.accuracy, 0);
+        final int[] size = grid.getGridSize();
+        assertArrayEquals("gridSize", size, mapped.getGridSize());
+        for (int y=0; y<size[1]; y++) {
+            for (int x=0; x<size[0]; x++) {
+                assertEquals("tx", grid.getCellValue(0, x, y), mapped.getCellValue(0, x, y), 1E-7);
+                assertEquals("ty", grid.getCellValue(1, x, y), mapped.getCellValue(1, x, y), 1E-7);
+            }
+        }
+        final double[] position = FranceGeocentricInterpolationTest.samplePoint(1);
+        for (int i=0; i<position.length; i++) {
+            position[i] *= DatumShiftGridLoader.DEGREES_TO_SECONDS;
+        }
+        assertArrayEquals("interpolateAt", grid.interpolateAt(position), mapped.interpolateAt(position), 1E-5);
+    }
+
+    /**
+     * Tests loading a file containing two grids: a coarse grid, and a finer grid covering a smaller area.
+     * Interpolations inside the finer grid shall use that grid, and other interpolations shall use the
+     * coarse grid. Each grid contains constant translations, for making easy to identify the grid used.
+     * The coarse grid covers longitudes 0 to 3600″E and the finer grid covers longitudes 1800″E to 2700″E.
+     * Since NTv2 longitudes are positive west, the {@code W_LONG} values are greater than {@code E_LONG}.
+     *
+     * @throws IOException if an error occurred while writing or loading the grid.
+     * @throws FactoryException if an error occurred while computing the grid.
+     * @throws TransformException if an error occurred while testing a point.
+     */
+    @Test
+    @DependsOnMethod("testLoader")
+    public void testMultiGrids() throws IOException, FactoryException, TransformException {
+        final ByteBuffer buffer = ByteBuffer.allocate(4096);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        writeString(buffer, "NUM_OREC"); buffer.putInt(5); nextRecord(buffer);
+        writeString(buffer, "NUM_SREC"); buffer.putInt(11); nextRecord(buffer);
+        writeString(buffer, "NUM_FILE"); buffer.putInt(2); nextRecord(buffer);
+        writeString(buffer, "GS_TYPE");  writeString(buffer, "SECONDS");
+        writeString(buffer, "VERSION");  writeString(buffer, "SIS_TEST");
+        writeConstantGrid(buffer, "PARENT", "NONE",     0, 3600, -3600,     0, 900, 10, 20);
+        writeConstantGrid(buffer, "CHILD",  "PARENT", 900, 1800, -2700, -1800, 300, 30, 40);
+        writeString(buffer, "END");
+        nextRecord(buffer);
+        final Path file = Files.createTempFile("NTv2", ".gsb");
+        try {
+            try (final WritableByteChannel c = Files.newByteChannel(file, StandardOpenOption.WRITE)) {
+                buffer.flip();
+                c.write(buffer);
+            }
+            final DatumShiftGridFile<Angle,Angle> grid = NTv2.getOrLoad(file);
+            assertInstanceOf("Should be a group of grids.", DatumShiftGridGroup.class, grid);
+            assertEquals("translationDimensions", 2, grid.getTranslationDimensions());
+            assertTrue  ("isCellValueRatio", grid.isCellValueRatio());
+            /*
+             * Longitude translations are positive west in NTv2 files,
+             * while they are positive east in DatumShiftGrid.
+             */
+            assertArrayEquals("In the fine grid",   new double[] {-40, 30}, grid.interpolateAt(2000, 1500), 1E-5);
+            assertArrayEquals("In the coarse grid", new double[] {-20, 10}, grid.interpolateAt( 500,  500), 1E-5);
+            assertArrayEquals("In the coarse grid", new double[] {-20, 10}, grid.interpolateAt(3000, 3000), 1E-5);
+            assertArrayEquals("Outside all grids",  new double[] {-20, 10}, grid.interpolateAt(-900,  500), 1E-5);
+            assertSame("Grid should be cached.", grid, NTv2.getOrLoad(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Writes the header and the records of a sub-grid having the same translation in all cells.
+     * This is used by {@link #testMultiGrids()} only. Coordinates are in NTv2 convention
+     * (longitudes positive west) and in units of angular seconds.
+     */
+    private static void writeConstantGrid(final ByteBuffer buffer, final String name, final String parent,
+            final double south, final double north, final double east, final double west, final double increment,
+            final float latShift, final float lonShift)
+    {
+        final int nx = (int) ((west - east) / increment) + 1;
+        final int ny = (int) ((north - south) / increment) + 1;
+        writeString(buffer, "SUB_NAME"); writeString(buffer, name);
+        writeString(buffer, "PARENT");   writeString(buffer, parent);
+        writeString(buffer, "CREATED");  writeString(buffer, "");
+        writeString(buffer, "UPDATED");  writeString(buffer, "");
+        writeString(buffer, "S_LAT");    buffer.putDouble(south);
+        writeString(buffer, "N_LAT");    buffer.putDouble(north);
+        writeString(buffer, "E_LONG");   buffer.putDouble(east);
+        writeString(buffer, "W_LONG");   buffer.putDouble(west);
+        writeString(buffer, "LAT_INC");  buffer.putDouble(increment);
+        writeString(buffer, "LONG_INC"); buffer.putDouble(increment);
+        writeString(buffer, "GS_COUNT"); buffer.putInt(nx * ny); nextRecord(buffer);
+        for (int i = nx*ny; --i >= 0;) {
+            buffer.putFloat(latShift);
+            buffer.putFloat(lonShift);
+            buffer.putFloat(ACCURACY);
+            buffer.putFloat(ACCURACY);
+        }
+    }
+
 
 
     //////////////////////////////////////////////////
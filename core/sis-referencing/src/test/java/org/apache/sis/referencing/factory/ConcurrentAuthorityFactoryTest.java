@@ -22,9 +22,11 @@ import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import org.opengis.util.FactoryException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.apache.sis.internal.system.Loggers;
 import org.apache.sis.util.logging.Logging;
 import org.apache.sis.test.DependsOn;
+import org.apache.sis.test.DependsOnMethod;
 import org.apache.sis.test.TestCase;
 import org.junit.Test;
 
@@ -37,7 +39,7 @@ import static org.junit.Assume.assumeTrue;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.7
- * @version 0.7
+ * @version 0.8
  * @module
  */
 @DependsOn(AuthorityFactoryProxyTest.class)
@@ -147,6 +149,47 @@ public final strictfp class ConcurrentAuthorityFactoryTest extends TestCase {
         assertTrue  ("Worker should be disposed.",  createdDAOs.get(0).isClosed());
     }
 
+    /**
+     * Tests the counting of Data Access Objects borrowed from the pool.
+     * Only the requests for objects not in the cache shall borrow a DAO.
+     *
+     * @throws FactoryException should never happen.
+     */
+    @Test
+    @DependsOnMethod("testTimeout")
+    public void testPoolCounters() throws FactoryException {
+        final Mock factory = new Mock();
+        assertEquals("borrows", 0, factory.counters.borrows());
+        assertNotNull(factory.createObject("84"));
+        assertEquals("borrows", 1, factory.counters.borrows());
+        assertNotNull(factory.createObject("84"));
+        assertEquals("Value should have been taken from the cache.", 1, factory.counters.borrows());
+        assertNotNull(factory.createObject("4326"));
+        assertEquals("borrows", 2, factory.counters.borrows());
+        assertEquals("waits",   0, factory.counters.waits());
+        factory.close();
+    }
+
+    /**
+     * Tests {@link ConcurrentAuthorityFactory#preload(Class)}. After preloading, requests for the
+     * preloaded objects shall be served from the cache without borrowing Data Access Objects.
+     *
+     * @throws FactoryException should never happen.
+     */
+    @Test
+    @DependsOnMethod("testPoolCounters")
+    public void testPreload() throws FactoryException {
+        final Mock factory = new Mock();
+        final List<CoordinateReferenceSystem> preloaded = factory.preload(CoordinateReferenceSystem.class);
+        assertEquals("Expected all CRS known to the mock.", 5, preloaded.size());
+        final long borrows = factory.counters.borrows();
+        for (final String code : new String[] {"84", "4326", "4979", "5714", "9905"}) {
+            assertTrue(code, preloaded.contains(factory.createCoordinateReferenceSystem(code)));
+        }
+        assertEquals("Values should have been taken from the cache.", borrows, factory.counters.borrows());
+        factory.close();
+    }
+
     /**
      * Sleeps and ensures that the sleep time did not exceeded the timeout. The sleep time could be greater if the test
      * machine is under heavy load (for example a Jenkins server), in which case we will cancel the test without failure.
@@ -32,6 +32,10 @@ import org.apache.sis.internal.util.Constants;
 import org.apache.sis.geometry.DirectPosition2D;
 import org.apache.sis.io.wkt.WKTFormat;
 import org.apache.sis.referencing.CRS;
+import org.apache.sis.referencing.CommonCRS;
+import org.apache.sis.metadata.iso.extent.DefaultExtent;
+import org.apache.sis.metadata.iso.extent.DefaultVerticalExtent;
+import org.apache.sis.metadata.iso.extent.DefaultGeographicBoundingBox;
 
 // Test dependencies
 import org.apache.sis.referencing.operation.transform.MathTransformTestCase;
@@ -49,7 +53,7 @@ import static org.apache.sis.test.ReferencingAssert.*;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.7
- * @version 0.7
+ * @version 0.8
  * @module
  */
 @DependsOn({
@@ -314,4 +318,33 @@ public final strictfp class DefaultCoordinateOperationFactoryTest extends MathTr
         assertEquals("Easting should be unchanged", sourcePt.getX(),  targetPt.getX(), STRICT);
         assertEquals("Expected 27 km shift", 27476, targetPt.getY() - sourcePt.getY(), tolerance);
     }
+
+    /**
+     * Tests the cache of coordinate operations found with an area of interest. Areas of interest
+     * snapped to the same bounds shall share the same cache entry.
+     *
+     * @throws ParseException if a CRS used in this test can not be parsed.
+     * @throws FactoryException if the operation can not be created.
+     */
+    @Test
+    @DependsOnMethod("testMercatorToGoogle")
+    public void testCacheWithAreaOfInterest() throws ParseException, FactoryException {
+        final CoordinateReferenceSystem sourceCRS = parse("$Mercator");
+        final CoordinateReferenceSystem targetCRS = CommonCRS.WGS84.normalizedGeographic();
+        final CoordinateOperationContext context = new CoordinateOperationContext();
+        context.setAreaOfInterest(new DefaultGeographicBoundingBox(2.01, 2.02, 48.01, 48.02));
+        final long hits = DefaultCoordinateOperationFactory.CACHE_COUNTERS.hits();
+        final CoordinateOperation operation = factory.createOperation(sourceCRS, targetCRS, context);
+        context.setAreaOfInterest(new DefaultGeographicBoundingBox(2.03, 2.04, 48.05, 48.06));
+        assertSame("Same snapped area.", operation, factory.createOperation(sourceCRS, targetCRS, context));
+        assertTrue("hits", DefaultCoordinateOperationFactory.CACHE_COUNTERS.hits() > hits);
+        /*
+         * An area of interest which is not a bounding box (here an extent with a vertical element)
+         * is not cached, but the operation shall still be found.
+         */
+        final DefaultExtent extent = new DefaultExtent(null, new DefaultGeographicBoundingBox(2.01, 2.02, 48.01, 48.02),
+                new DefaultVerticalExtent(0, 100, null), null);
+        context.setAreaOfInterest(extent);
+        assertNotNull(factory.createOperation(sourceCRS, targetCRS, context));
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation.projection;
+
+import java.util.Random;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.util.FactoryException;
+import org.apache.sis.math.Statistics;
+import org.apache.sis.math.StatisticsFormat;
+import org.apache.sis.parameter.Parameters;
+import org.apache.sis.internal.util.Constants;
+import org.apache.sis.internal.referencing.provider.AbstractProvider;
+import org.apache.sis.referencing.operation.matrix.Matrix3;
+import org.apache.sis.referencing.operation.transform.MathTransforms;
+import org.apache.sis.referencing.operation.transform.MathTransformFactoryMock;
+
+
+/**
+ * Compares the performance of transforming interleaved coordinates with the performance of transforming
+ * the same coordinates stored in one array per dimension. The comparison is done for an affine transform
+ * and for complete Mercator and Lambert Conic Conformal projections (including the linear steps).
+ *
+ * <p><b>Usage:</b> run and compare the number of points per second of the "interleaved" and "columns" lines
+ * printed to the standard output for each transform.</p>
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+@SuppressWarnings("UseOfSystemOutOrSystemErr")
+public final class ColumnTransformBenchmark {
+    /**
+     * Runs the benchmark and prints the time result to the standard output.
+     *
+     * @param  args  ignored.
+     * @throws Exception if an error occurred while creating the transforms or projecting the points.
+     */
+    public static void main(String[] args) throws Exception {
+        final ColumnTransformBenchmark[] benchmarks = {
+            new ColumnTransformBenchmark("Affine", MathTransforms.linear(new Matrix3(
+                    0.75, -0.25, 200,
+                    0.25,  0.75, 100,
+                    0,     0,      1))),
+            new ColumnTransformBenchmark("Mercator",
+                    create(new org.apache.sis.internal.referencing.provider.Mercator1SP(), Double.NaN)),
+            new ColumnTransformBenchmark("Lambert",
+                    create(new org.apache.sis.internal.referencing.provider.LambertConformal1SP(), 40))
+        };
+        for (int i=0; i<10; i++) {
+            for (final ColumnTransformBenchmark benchmark : benchmarks) {
+                benchmark.run();
+            }
+            System.gc();
+            Thread.sleep(1000);
+        }
+        final Statistics[] statistics = new Statistics[benchmarks.length * 2];
+        for (int i=0; i<benchmarks.length; i++) {
+            statistics[i*2    ] = benchmarks[i].interleavedSpeed;
+            statistics[i*2 + 1] = benchmarks[i].columnsSpeed;
+        }
+        StatisticsFormat.getInstance().format(statistics, System.out);
+        System.out.flush();
+    }
+
+    /**
+     * Number of points to transform. Can be modified freely.
+     */
+    private static final int NUM_POINTS = 1000000;
+
+    /**
+     * The transform to benchmark.
+     */
+    private final MathTransform transform;
+
+    /**
+     * The coordinates to transform as interleaved (<var>x</var>,<var>y</var>) tuples.
+     */
+    private final double[] interleaved;
+
+    /**
+     * The same coordinates than {@link #interleaved}, as one array per dimension.
+     */
+    private final double[][] columns;
+
+    /**
+     * Array where to write the transformed coordinates.
+     */
+    private final double[] interleavedResult;
+
+    /**
+     * Arrays where to write the transformed coordinates, as one array per dimension.
+     */
+    private final double[][] columnsResult;
+
+    /**
+     * Statistics about the number of points transformed per second.
+     */
+    private final Statistics interleavedSpeed, columnsSpeed;
+
+    /**
+     * Creates a complete map projection for the given provider on the WGS84 ellipsoid.
+     */
+    private static MathTransform create(final AbstractProvider provider, final double latitudeOfOrigin)
+            throws FactoryException
+    {
+        final Parameters values = Parameters.castOrWrap(provider.getParameters().createValue());
+        values.parameter(Constants.SEMI_MAJOR).setValue(MapProjectionTestCase.WGS84_A);
+        values.parameter(Constants.SEMI_MINOR).setValue(MapProjectionTestCase.WGS84_B);
+        values.parameter(Constants.CENTRAL_MERIDIAN).setValue(8);
+        if (!Double.isNaN(latitudeOfOrigin)) {
+            values.parameter(Constants.LATITUDE_OF_ORIGIN).setValue(latitudeOfOrigin);
+        }
+        return new MathTransformFactoryMock(provider).createParameterizedTransform(values);
+    }
+
+    /**
+     * Prepares benchmarking for the given transform with random points.
+     */
+    private ColumnTransformBenchmark(final String label, final MathTransform transform) {
+        this.transform = transform;
+        final Random random = new Random();
+        interleaved = new double[NUM_POINTS * 2];
+        columns     = new double[2][NUM_POINTS];
+        for (int i=0; i<NUM_POINTS; i++) {
+            interleaved[i*2    ] = columns[0][i] = random.nextDouble() * 80 - 32;     // Longitude
+            interleaved[i*2 + 1] = columns[1][i] = random.nextDouble() * 60 + 10;     // Latitude
+        }
+        interleavedResult = new double[interleaved.length];
+        columnsResult     = new double[2][NUM_POINTS];
+        interleavedSpeed  = new Statistics(label + " interleaved (points/s)");
+        columnsSpeed      = new Statistics(label + " columns (points/s)");
+    }
+
+    /**
+     * Transforms all points once in each layout and adds the speeds to the statistics.
+     */
+    private void run() throws TransformException {
+        long time = System.nanoTime();
+        transform.transform(interleaved, 0, interleavedResult, 0, NUM_POINTS);
+        interleavedSpeed.accept(NUM_POINTS / ((System.nanoTime() - time) / 1E+9));
+
+        time = System.nanoTime();
+        MathTransforms.transform(transform, columns, 0, columnsResult, 0, NUM_POINTS);
+        columnsSpeed.accept(NUM_POINTS / ((System.nanoTime() - time) / 1E+9));
+    }
+}
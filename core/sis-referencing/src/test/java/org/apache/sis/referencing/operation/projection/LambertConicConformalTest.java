@@ -368,4 +368,37 @@ public final strictfp class LambertConicConformalTest extends MapProjectionTestC
         tolerance = Formulas.LINEAR_TOLERANCE;
         verifyTransform(source, target);
     }
+
+    /**
+     * Tests the transformation of coordinates stored in one array per dimension,
+     * with both the ellipsoidal and the spherical formulas.
+     *
+     * @throws FactoryException if an error occurred while creating the map projection.
+     * @throws TransformException if an error occurred while projecting a coordinate.
+     */
+    @Test
+    public void testColumnTransform() throws FactoryException, TransformException {
+        createCompleteProjection(new LambertConformal1SP(),
+                WGS84_A,    // Semi-major axis length
+                WGS84_B,    // Semi-minor axis length
+                0.5,        // Central meridian
+                40,         // Latitude of origin
+                NaN,        // Standard parallel 1
+                NaN,        // Standard parallel 2
+                0.997,      // Scale factor
+                200,        // False easting
+                100);       // False northing
+        verifyColumnTransform(CoordinateDomain.GEOGRAPHIC_SAFE, 1E-7);
+        createCompleteProjection(new LambertConformal1SP(),
+                6371007,    // Semi-major axis length
+                6371007,    // Semi-minor axis length
+                0.5,        // Central meridian
+                40,         // Latitude of origin
+                NaN,        // Standard parallel 1
+                NaN,        // Standard parallel 2
+                0.997,      // Scale factor
+                200,        // False easting
+                100);       // False northing
+        verifyColumnTransform(CoordinateDomain.GEOGRAPHIC_SAFE, 1E-7);
+    }
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.sis.referencing.operation.projection;
 
+import java.util.Random;
 import org.opengis.util.FactoryException;
 import org.opengis.referencing.datum.Ellipsoid;
 import org.opengis.referencing.operation.MathTransform;
@@ -29,6 +30,7 @@ import org.apache.sis.referencing.operation.transform.MathTransformTestCase;
 import org.apache.sis.referencing.operation.transform.MathTransformFactoryMock;
 import org.apache.sis.referencing.operation.transform.MathTransforms;
 import org.apache.sis.referencing.datum.GeodeticDatumMock;
+import org.apache.sis.test.TestUtilities;
 
 import static java.lang.Double.isNaN;
 import static java.lang.StrictMath.*;
@@ -107,6 +109,28 @@ abstract strictfp class MapProjectionTestCase extends MathTransformTestCase {
             final double scaleFactor,
             final double falseEasting,
             final double falseNorthing) throws FactoryException
+    {
+        transform = completeProjection(provider, semiMajor, semiMinor, centralMeridian, latitudeOfOrigin,
+                standardParallel1, standardParallel2, scaleFactor, falseEasting, falseNorthing);
+        validate();
+    }
+
+    /**
+     * Creates a complete projection (including conversion from degrees to radians) for the given provider.
+     * Parameters having a {@link Double#NaN} value are left to their default value.
+     *
+     * @return the complete projection, from degrees to metres.
+     */
+    static MathTransform completeProjection(final DefaultOperationMethod provider,
+            final double semiMajor,
+            final double semiMinor,
+            final double centralMeridian,
+            final double latitudeOfOrigin,
+            final double standardParallel1,
+            final double standardParallel2,
+            final double scaleFactor,
+            final double falseEasting,
+            final double falseNorthing) throws FactoryException
     {
         final Parameters values = Parameters.castOrWrap(provider.getParameters().createValue());
         values.parameter(Constants.SEMI_MAJOR).setValue(semiMajor);
@@ -121,8 +145,7 @@ abstract strictfp class MapProjectionTestCase extends MathTransformTestCase {
         if (!isNaN(scaleFactor))       values.parameter(Constants.SCALE_FACTOR)       .setValue(scaleFactor);
         if (!isNaN(falseEasting))      values.parameter(Constants.FALSE_EASTING)      .setValue(falseEasting);
         if (!isNaN(falseNorthing))     values.parameter(Constants.FALSE_NORTHING)     .setValue(falseNorthing);
-        transform = new MathTransformFactoryMock(provider).createParameterizedTransform(values);
-        validate();
+        return new MathTransformFactoryMock(provider).createParameterizedTransform(values);
     }
 
     /**
@@ -207,4 +230,31 @@ abstract strictfp class MapProjectionTestCase extends MathTransformTestCase {
         }
         verifyInDomain(domain, randomSeed);
     }
+
+    /**
+     * Verifies that transforming coordinates stored in one array per dimension gives the same results
+     * than transforming interleaved coordinates, for random points in the given domain. The columns
+     * are transformed in place.
+     *
+     * @param  domain     the domain of the numbers to be generated.
+     * @param  tolerance  the tolerance threshold, which may be non-zero because the linear steps
+     *                    may perform their additions in a different order.
+     * @throws TransformException if a conversion failed.
+     */
+    final void verifyColumnTransform(final CoordinateDomain domain, final double tolerance) throws TransformException {
+        final int numPts = 1000;
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        final double[] interleaved = domain.generateRandomInput(random, 2, numPts);
+        final double[][] columns = new double[2][numPts];
+        for (int i=0; i<numPts; i++) {
+            columns[0][i] = interleaved[i*2  ];
+            columns[1][i] = interleaved[i*2+1];
+        }
+        transform.transform(interleaved, 0, interleaved, 0, numPts);
+        MathTransforms.transform(transform, columns, 0, columns, 0, numPts);
+        for (int i=0; i<numPts; i++) {
+            assertEquals("x", interleaved[i*2  ], columns[0][i], tolerance);
+            assertEquals("y", interleaved[i*2+1], columns[1][i], tolerance);
+        }
+    }
 }
@@ -17,6 +17,7 @@
 package org.apache.sis.referencing.operation.projection;
 
 import org.opengis.util.FactoryException;
+import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.TransformException;
 import org.opengis.referencing.operation.NoninvertibleTransformException;
 import org.apache.sis.internal.referencing.Formulas;
@@ -51,6 +52,27 @@ import static org.apache.sis.test.Assert.PENDING_NEXT_GEOAPI_RELEASE;
  */
 @DependsOn(ConformalProjectionTest.class)
 public final strictfp class MercatorTest extends MapProjectionTestCase {
+    /**
+     * Creates a complete Mercator (1SP) projection on the WGS84 ellipsoid, from degrees to metres.
+     * This is used by tests in other packages which need a transform made of non-linear and linear steps.
+     *
+     * @param  centralMeridian  the longitude of natural origin, in degrees.
+     * @return the complete Mercator projection.
+     * @throws FactoryException if an error occurred while creating the map projection.
+     */
+    public static MathTransform createMercator(final double centralMeridian) throws FactoryException {
+        return completeProjection(new Mercator1SP(),
+                WGS84_A,            // Semi-major axis length
+                WGS84_B,            // Semi-minor axis length
+                centralMeridian,    // Central meridian
+                NaN,                // Latitude of origin (none)
+                NaN,                // Standard parallel 1 (none)
+                NaN,                // Standard parallel 2 (none)
+                NaN,                // Scale factor (default)
+                NaN,                // False easting (default)
+                NaN);               // False northing (default)
+    }
+
     /**
      * Creates a new instance of {@link Mercator} for a sphere or an ellipsoid.
      * The new instance is stored in the inherited {@link #transform} field.
@@ -307,4 +329,37 @@ public final strictfp class MercatorTest extends MapProjectionTestCase {
         tolerance = Formulas.LINEAR_TOLERANCE;
         compareEllipticalWithSpherical(CoordinateDomain.GEOGRAPHIC_SAFE, 0);
     }
+
+    /**
+     * Tests the transformation of coordinates stored in one array per dimension,
+     * with both the ellipsoidal and the spherical formulas.
+     *
+     * @throws FactoryException if an error occurred while creating the map projection.
+     * @throws TransformException if an error occurred while projecting a coordinate.
+     */
+    @Test
+    public void testColumnTransform() throws FactoryException, TransformException {
+        createCompleteProjection(new Mercator1SP(),
+                WGS84_A,    // Semi-major axis length
+                WGS84_B,    // Semi-minor axis length
+                0.5,        // Central meridian
+                NaN,        // Latitude of origin
+                NaN,        // Standard parallel 1
+                NaN,        // Standard parallel 2
+                0.997,      // Scale factor
+                200,        // False easting
+                100);       // False northing
+        verifyColumnTransform(CoordinateDomain.GEOGRAPHIC_SAFE, 1E-7);
+        createCompleteProjection(new Mercator1SP(),
+                6371007,    // Semi-major axis length
+                6371007,    // Semi-minor axis length
+                0.5,        // Central meridian
+                NaN,        // Latitude of origin
+                NaN,        // Standard parallel 1
+                NaN,        // Standard parallel 2
+                0.997,      // Scale factor
+                200,        // False easting
+                100);       // False northing
+        verifyColumnTransform(CoordinateDomain.GEOGRAPHIC_SAFE, 1E-7);
+    }
 }
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation.transform;
+
+import java.util.Random;
+import java.awt.geom.Rectangle2D;
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.operation.MathTransform2D;
+import org.opengis.referencing.operation.TransformException;
+import org.apache.sis.internal.referencing.j2d.AffineTransform2D;
+import org.apache.sis.referencing.operation.projection.MercatorTest;
+import org.apache.sis.test.DependsOnMethod;
+import org.apache.sis.test.TestCase;
+import org.apache.sis.test.TestUtilities;
+import org.junit.Test;
+
+import static org.apache.sis.test.Assert.*;
+
+
+/**
+ * Tests {@link ApproximatedTransform}.
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+public final strictfp class ApproximatedTransformTest extends TestCase {
+    /**
+     * Number of random points to test.
+     */
+    private static final int NUM_POINTS = 10000;
+
+    /**
+     * Tests the approximation of a Mercator projection with a tolerance of 1 metre.
+     * Points inside the domain shall be close to the exact values, and points outside
+     * the domain shall be transformed by the exact transform.
+     *
+     * @throws FactoryException if an error occurred while creating the projection.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    public void testMercator() throws FactoryException, TransformException {
+        final double tolerance = 1;
+        final MathTransform2D exact  = (MathTransform2D) MercatorTest.createMercator(8);
+        final MathTransform2D approx = MathTransforms.approximate(exact, new Rectangle2D.Double(-30, 10, 60, 50), tolerance);
+        assertInstanceOf("approximate", ApproximatedTransform.class, approx);
+        assertEquals("inverse", exact.inverse(), approx.inverse());
+
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        final double[] source = new double[NUM_POINTS * 2];
+        for (int i=0; i<source.length;) {
+            source[i++] = random.nextDouble() * 60 - 30;
+            source[i++] = random.nextDouble() * 50 + 10;
+        }
+        final double[] expected = new double[source.length];
+        final double[] actual   = new double[source.length];
+        exact .transform(source, 0, expected, 0, NUM_POINTS);
+        approx.transform(source, 0, actual,   0, NUM_POINTS);
+        /*
+         * The tolerance is verified only on sample points at construction time,
+         * so we allow a small margin for points at other locations.
+         */
+        for (int i=0; i<source.length; i += 2) {
+            assertTrue("Distance to exact value", Math.hypot(actual[i] - expected[i], actual[i+1] - expected[i+1]) <= 2*tolerance);
+        }
+        /*
+         * Points outside the domain shall be transformed exactly.
+         */
+        for (int i=0; i<source.length;) {
+            source[i++] = random.nextDouble() * 60 + 35;
+            source[i++] = random.nextDouble() * 50 - 45;
+        }
+        exact .transform(source, 0, expected, 0, NUM_POINTS);
+        approx.transform(source, 0, actual,   0, NUM_POINTS);
+        assertArrayEquals(expected, actual, STRICT);
+    }
+
+    /**
+     * Tests that linear transforms are returned unchanged, since they do not need approximation.
+     *
+     * @throws TransformException if an error occurred while computing the grid.
+     */
+    @Test
+    public void testLinear() throws TransformException {
+        final AffineTransform2D affine = new AffineTransform2D(2, 0, 0, 3, 10, 20);
+        assertSame(affine, MathTransforms.approximate(affine, new Rectangle2D.Double(0, 0, 10, 10), 0.1));
+    }
+
+    /**
+     * Tests that the approximation is not used when the tolerance is below the {@code float} precision.
+     *
+     * @throws FactoryException if an error occurred while creating the projection.
+     * @throws TransformException if an error occurred while computing the grid.
+     */
+    @Test
+    @DependsOnMethod("testMercator")
+    public void testTooSmallTolerance() throws FactoryException, TransformException {
+        final MathTransform2D exact = (MathTransform2D) MercatorTest.createMercator(8);
+        assertSame(exact, MathTransforms.approximate(exact, new Rectangle2D.Double(-30, 10, 60, 50), 1E-6));
+    }
+}
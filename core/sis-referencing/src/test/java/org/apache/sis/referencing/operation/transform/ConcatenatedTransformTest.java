@@ -20,7 +20,9 @@ import org.opengis.util.FactoryException;
 import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.TransformException;
 import org.apache.sis.internal.referencing.j2d.AffineTransform2D;
+import org.apache.sis.referencing.operation.projection.MercatorTest;
 import org.apache.sis.referencing.operation.matrix.Matrix4;
+import org.apache.sis.test.DependsOnMethod;
 import org.apache.sis.test.DependsOn;
 import org.junit.Test;
 
@@ -32,7 +34,7 @@ import static org.opengis.test.Assert.*;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.5
- * @version 0.7
+ * @version 0.8
  * @module
  */
 @DependsOn(ProjectiveTransformTest.class)
@@ -78,6 +80,34 @@ public final strictfp class ConcatenatedTransformTest extends MathTransformTestC
         verifyTransform(source, target);
     }
 
+    /**
+     * Tests a complete Mercator projection (including the linear steps) at the poles, where the kernel
+     * returns an infinite <var>y</var> value. The infinity shall not contaminate the <var>x</var> value:
+     * a coefficient of zero in the denormalization matrix shall be skipped, not multiplied by infinity.
+     *
+     * @throws FactoryException if an error occurred while creating the projection.
+     * @throws TransformException if an error occurred while transforming a coordinate.
+     */
+    @Test
+    @DependsOnMethod("testDirect2D")
+    public void testInfiniteAtPole() throws FactoryException, TransformException {
+        transform = MercatorTest.createMercator(0);
+        assertInstanceOf("Expected concatenated steps.", ConcatenatedTransform.class, transform);
+        final double[] points = {10, 90, 10, -90};
+        transform.transform(points, 0, points, 0, 2);
+        assertEquals("x at North pole", 1113194.908, points[0], 0.001);
+        assertEquals("y at North pole", Double.POSITIVE_INFINITY, points[1], 0);
+        assertEquals("x at South pole", 1113194.908, points[2], 0.001);
+        assertEquals("y at South pole", Double.NEGATIVE_INFINITY, points[3], 0);
+        /*
+         * Same test with the method for a single point.
+         */
+        final double[] point = {10, 90};
+        transform.transform(point, 0, point, 0, 1);
+        assertEquals("x", 1113194.908, point[0], 0.001);
+        assertEquals("y", Double.POSITIVE_INFINITY, point[1], 0);
+    }
+
     /**
      * Tests the concatenation of two affine transforms than can not be represented as a
      * {@link ConcatenatedTransformDirect}. The slower {@link ConcatenatedTransform} shall be used.
@@ -17,6 +17,7 @@
 package org.apache.sis.referencing.operation.transform;
 
 import java.util.Iterator;
+import java.util.Random;
 import org.opengis.util.FactoryException;
 import org.opengis.geometry.DirectPosition;
 import org.opengis.referencing.datum.Ellipsoid;
@@ -36,6 +37,7 @@ import static java.lang.StrictMath.toRadians;
 import org.apache.sis.internal.referencing.provider.GeocentricTranslationTest;
 import org.apache.sis.test.DependsOnMethod;
 import org.apache.sis.test.DependsOn;
+import org.apache.sis.test.TestUtilities;
 import org.junit.Test;
 
 import static org.apache.sis.test.Assert.*;
@@ -76,6 +78,37 @@ public final strictfp class EllipsoidToCentricTransformTest extends MathTransfor
         }
     }
 
+    /**
+     * Tests the conversion of coordinates stored in one array per dimension.
+     * The results shall be the same than the conversion of interleaved coordinates.
+     *
+     * @throws FactoryException if an error occurred while creating a transform.
+     * @throws TransformException if a conversion failed.
+     */
+    @Test
+    public void testColumnTransform() throws FactoryException, TransformException {
+        createGeodeticConversion(CommonCRS.WGS84.ellipsoid(), true);
+        final int numPts = 1000;
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        final double[] interleaved = CoordinateDomain.GEOGRAPHIC.generateRandomInput(random, 3, numPts);
+        final double[][] columns = new double[3][numPts];
+        for (int i=0; i<numPts; i++) {
+            for (int j=0; j<3; j++) {
+                columns[j][i] = interleaved[i*3 + j];
+            }
+        }
+        final double[][] target = new double[3][numPts];
+        transform.transform(interleaved, 0, interleaved, 0, numPts);
+        MathTransforms.transform(transform, columns, 0, target, 0, numPts);
+        MathTransforms.transform(transform, columns, 0, columns, 0, numPts);
+        for (int i=0; i<numPts; i++) {
+            for (int j=0; j<3; j++) {
+                assertEquals(interleaved[i*3 + j], target [j][i], 1E-6);
+                assertEquals(interleaved[i*3 + j], columns[j][i], 1E-6);
+            }
+        }
+    }
+
     /**
      * Tests conversion of a single point from geographic to geocentric coordinates.
      * This test uses the example given in EPSG guidance note #7.
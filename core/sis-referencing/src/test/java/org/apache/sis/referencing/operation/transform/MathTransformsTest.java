@@ -17,12 +17,19 @@
 package org.apache.sis.referencing.operation.transform;
 
 import java.util.List;
+import java.util.Arrays;
+import java.util.Random;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
 import org.apache.sis.referencing.operation.matrix.Matrices;
 import org.apache.sis.referencing.operation.matrix.Matrix2;
 import org.apache.sis.referencing.operation.matrix.Matrix3;
 import org.apache.sis.referencing.operation.matrix.Matrix4;
 import org.apache.sis.test.TestCase;
+import org.apache.sis.test.TestUtilities;
 import org.junit.Test;
 
 import static org.apache.sis.test.Assert.*;
@@ -33,7 +40,7 @@ import static org.apache.sis.test.Assert.*;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.5
- * @version 0.6
+ * @version 0.8
  * @module
  */
 public final strictfp class MathTransformsTest extends TestCase {
@@ -120,4 +127,155 @@ public final strictfp class MathTransformsTest extends TestCase {
             0,  0,  0,  0,  0,  0,  1
         }), MathTransforms.getMatrix(r), STRICT);
     }
+
+    /**
+     * Tests {@link MathTransforms#transform(MathTransform, double[], int, double[], int, int)}.
+     * The result of the transformation in many threads shall be the same than the result in the current
+     * thread, including when the source and destination arrays overlap.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Test
+    public void testParallelTransform() throws TransformException {
+        final MathTransform tr = createConcatenateAndPassThrough();
+        final int numPts = TransformTask.MINIMAL_CHUNK_SIZE * 5 + 7;
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        final double[] source = new double[numPts * 3 + 6];
+        for (int i=0; i<source.length; i++) {
+            source[i] = random.nextDouble() * 4;
+        }
+        final double[] expected = new double[numPts * 3];
+        tr.transform(source, 3, expected, 0, numPts);
+        /*
+         * Separated source and destination arrays.
+         */
+        final double[] actual = new double[numPts * 3];
+        MathTransforms.transform(tr, source, 3, actual, 0, numPts);
+        assertArrayEquals(expected, actual, STRICT);
+        /*
+         * Same array, with the destination region overlapping the source region at a different offset.
+         */
+        for (final int dstOff : new int[] {0, 3, 6}) {
+            final double[] array = source.clone();
+            MathTransforms.transform(tr, array, 3, array, dstOff, numPts);
+            assertArrayEquals(expected, Arrays.copyOfRange(array, dstOff, dstOff + expected.length), STRICT);
+        }
+    }
+
+    /**
+     * Tests {@link MathTransforms#transform(MathTransform, DoubleBuffer, int, DoubleBuffer, int, int)}
+     * on a direct buffer, with both a linear transform and a concatenated transform.
+     * The results shall be the same than the ones computed with arrays.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Test
+    public void testBufferTransform() throws TransformException {
+        final Matrix4 matrix = new Matrix4(
+                2, 0, 1, 3,
+                0, 3, 0, 1,
+                1, 0, 4, 2,
+                0, 0, 0, 1);
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        for (final MathTransform tr : new MathTransform[] {MathTransforms.linear(matrix), createConcatenateAndPassThrough()}) {
+            final int numPts = AbstractMathTransform.MAXIMUM_BUFFER_SIZE + 11;   // More than one block.
+            final double[] source = new double[numPts * 3 + 6];
+            for (int i=0; i<source.length; i++) {
+                source[i] = random.nextDouble() * 4;
+            }
+            final double[] expected = new double[numPts * 3];
+            tr.transform(source, 3, expected, 0, numPts);
+            /*
+             * Separated direct buffers for source and destination.
+             */
+            final DoubleBuffer srcBuffer = ByteBuffer.allocateDirect(source.length * (Double.SIZE / Byte.SIZE)).asDoubleBuffer();
+            final DoubleBuffer dstBuffer = DoubleBuffer.allocate(expected.length);
+            srcBuffer.put(source).clear();
+            MathTransforms.transform(tr, srcBuffer, 3, dstBuffer, 0, numPts);
+            assertEquals("position", 0, dstBuffer.position());
+            assertArrayEquals(expected, dstBuffer.array(), STRICT);
+            /*
+             * Same buffer, with the destination region overlapping the source region at a different offset.
+             */
+            for (final int dstOff : new int[] {0, 3, 6}) {
+                srcBuffer.put(source).clear();
+                MathTransforms.transform(tr, srcBuffer, 3, srcBuffer, dstOff, numPts);
+                final double[] actual = new double[expected.length];
+                srcBuffer.position(dstOff);
+                srcBuffer.get(actual).clear();
+                assertArrayEquals(expected, actual, STRICT);
+            }
+            /*
+             * Single-precision buffers, compared to the result of the double-precision calculation.
+             */
+            final FloatBuffer floats = FloatBuffer.allocate(source.length);
+            for (final double value : source) {
+                floats.put((float) value);
+            }
+            final double[] fromFloats = new double[source.length];
+            for (int i=0; i<source.length; i++) {
+                fromFloats[i] = floats.get(i);
+            }
+            tr.transform(fromFloats, 3, expected, 0, numPts);
+            MathTransforms.transform(tr, floats, 3, floats, 0, numPts);
+            for (int i=0; i<expected.length; i++) {
+                assertEquals(expected[i], floats.get(i), Math.ulp((float) expected[i]));
+            }
+        }
+    }
+
+    /**
+     * Tests {@link MathTransforms#transform(MathTransform, double[][], int, double[][], int, int)}
+     * with a linear transform and a concatenated transform. The results shall be identical to the
+     * ones computed with interleaved coordinates, including when the columns are shared.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Test
+    public void testColumnTransform() throws TransformException {
+        final Matrix4 matrix = new Matrix4(
+                2, 0, 1, 3,
+                0, 3, 0, 1,
+                1, 0, 4, 2,
+                0, 0, 0, 1);
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        for (final MathTransform tr : new MathTransform[] {MathTransforms.linear(matrix), createConcatenateAndPassThrough()}) {
+            final int numPts = AbstractMathTransform.MAXIMUM_BUFFER_SIZE + 11;   // More than one block.
+            final double[] interleaved = new double[numPts * 3];
+            final double[][] columns = new double[3][numPts + 2];
+            for (int i=0; i<numPts; i++) {
+                for (int j=0; j<3; j++) {
+                    columns[j][i+2] = interleaved[i*3 + j] = random.nextDouble() * 4;
+                }
+            }
+            final double[] expected = new double[interleaved.length];
+            tr.transform(interleaved, 0, expected, 0, numPts);
+            /*
+             * Separated source and destination columns.
+             */
+            final double[][] actual = new double[3][numPts];
+            MathTransforms.transform(tr, columns, 2, actual, 0, numPts);
+            for (int j=0; j<3; j++) {
+                for (int i=0; i<numPts; i++) {
+                    assertEquals(expected[i*3 + j], actual[j][i], STRICT);
+                }
+            }
+            /*
+             * Same columns with an offset, which require a copy of the source,
+             * then in-place transformation.
+             */
+            final double[][] shifted = new double[3][];
+            for (int j=0; j<3; j++) {
+                shifted[j] = columns[j].clone();
+            }
+            MathTransforms.transform(tr, shifted, 2, shifted, 0, numPts);
+            MathTransforms.transform(tr, columns, 2, columns, 2, numPts);
+            for (int j=0; j<3; j++) {
+                for (int i=0; i<numPts; i++) {
+                    assertEquals(expected[i*3 + j], shifted[j][i],   STRICT);
+                    assertEquals(expected[i*3 + j], columns[j][i+2], STRICT);
+                }
+            }
+        }
+    }
 }
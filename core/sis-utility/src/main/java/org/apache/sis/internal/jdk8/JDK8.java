@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.Locale;
 import java.util.TimeZone;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicReference;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
@@ -228,6 +229,28 @@ public final class JDK8 {
         return toIntExact(x * (long) y);
     }
 
+    /**
+     * Holder of the pool returned by {@link #commonPool()}, created only when first needed.
+     */
+    private static final class CommonPool {
+        static final ForkJoinPool INSTANCE = new ForkJoinPool();
+    }
+
+    /**
+     * Returns a fork/join pool shared by all Apache SIS modules. The pool parallelism is the number
+     * of available processors. Worker threads are daemon threads, so this pool does not prevent the
+     * JVM to shutdown.
+     *
+     * <p>This method will be replaced by {@code ForkJoinPool.commonPool()} on the JDK8 branch.</p>
+     *
+     * @return the shared fork/join pool.
+     *
+     * @since 0.8
+     */
+    public static ForkJoinPool commonPool() {
+        return CommonPool.INSTANCE;
+    }
+
     /**
      * Returns the floating-point value adjacent to {@code value} in the direction of negative infinity.
      *
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.system;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.sis.util.resources.Messages;
+
+
+/**
+ * Counts the number of hits, misses and evictions in a cache. Instances of this class are typically
+ * created by the users of a shared {@link org.apache.sis.util.collection.Cache} (for example a data store)
+ * for collecting statistics about the efficiency of the cache for that particular user.
+ * The statistics of all {@linkplain #register() registered} counters are reported by the
+ * {@link Supervisor} MBean.
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+public final class CacheCounters extends Counters {
+    /**
+     * Number of times that a requested value has been found in the cache.
+     */
+    private final AtomicLong hits;
+
+    /**
+     * Number of times that a requested value has not been found in the cache.
+     */
+    private final AtomicLong misses;
+
+    /**
+     * Number of values that were hold by strong references and have been released.
+     */
+    private final AtomicLong evictions;
+
+    /**
+     * Creates new counters initialized to zero.
+     *
+     * @param name  a name identifying the cache or the cache user, for reporting purpose.
+     */
+    public CacheCounters(final String name) {
+        super(name);
+        hits      = new AtomicLong();
+        misses    = new AtomicLong();
+        evictions = new AtomicLong();
+    }
+
+    /**
+     * Increments the number of times that a requested value has been found in the cache.
+     */
+    public void hit() {
+        hits.incrementAndGet();
+    }
+
+    /**
+     * Increments the number of times that a requested value has not been found in the cache.
+     */
+    public void miss() {
+        misses.incrementAndGet();
+    }
+
+    /**
+     * Increments the number of values that have been released by the cache.
+     */
+    public void evicted() {
+        evictions.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of times that a requested value has been found in the cache.
+     *
+     * @return number of cache hits.
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of times that a requested value has not been found in the cache.
+     *
+     * @return number of cache misses.
+     */
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of values that have been released by the cache.
+     *
+     * @return number of evictions.
+     */
+    public long evictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Returns a localized description of those counters.
+     */
+    @Override
+    String toString(final Messages resources) {
+        return resources.getString(Messages.Keys.CacheStatistics_4, name, hits(), misses(), evictions());
+    }
+}
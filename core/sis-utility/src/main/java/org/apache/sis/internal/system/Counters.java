@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.system;
+
+import java.util.Set;
+import java.util.List;
+import java.util.Locale;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.sis.util.resources.Messages;
+
+
+/**
+ * Base class of counters collecting statistics reported by the {@link Supervisor} MBean.
+ * This class manages the set of {@linkplain #register() registered} counters and the
+ * formatting of their report; subclasses provide the counters themselves.
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+abstract class Counters {
+    /**
+     * All counters that have been registered and not yet unregistered.
+     */
+    private static final Set<Counters> REGISTERED =
+            Collections.newSetFromMap(new ConcurrentHashMap<Counters,Boolean>());
+
+    /**
+     * A name identifying the owner of those counters, for reporting purpose.
+     */
+    final String name;
+
+    /**
+     * Creates new counters for the given owner.
+     *
+     * @param name  a name identifying the owner of those counters, for reporting purpose.
+     */
+    Counters(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Makes those counters visible to the {@link Supervisor} MBean.
+     * This method does nothing if the counters are already registered.
+     */
+    public void register() {
+        REGISTERED.add(this);
+    }
+
+    /**
+     * Removes those counters from the set of counters visible to the {@link Supervisor} MBean.
+     * This method shall be invoked when the owner of those counters is disposed.
+     */
+    public void unregister() {
+        REGISTERED.remove(this);
+    }
+
+    /**
+     * Returns a localized description of those counters.
+     *
+     * @param  resources  the resources to use for formatting the message.
+     * @return the statistics of those counters.
+     */
+    abstract String toString(Messages resources);
+
+    /**
+     * Returns a localized description of the statistics of all registered counters of the given type.
+     *
+     * @param  type    the type of counters to report.
+     * @param  locale  the locale to use for formatting the messages, or {@code null} for the default.
+     * @return the statistics of all registered counters of the given type.
+     */
+    static String[] statistics(final Class<? extends Counters> type, final Locale locale) {
+        final Messages resources = Messages.getResources(locale);
+        final List<String> statistics = new ArrayList<>();
+        for (final Counters c : REGISTERED) {
+            if (type.isInstance(c)) {
+                statistics.add(c.toString(resources));
+            }
+        }
+        return statistics.toArray(new String[statistics.size()]);
+    }
+
+    /**
+     * Returns a string representation of those counters for debugging purpose.
+     *
+     * @return a string representation of those counters.
+     */
+    @Override
+    public final String toString() {
+        return toString(Messages.getResources(null));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.system;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.sis.util.resources.Messages;
+
+
+/**
+ * Counts the number of borrows from a pool of resources, and how long the borrowers had to wait when
+ * all resources were in use. Instances of this class are typically created by the owners of a pool of
+ * database connections or Data Access Objects for detecting contention on that pool.
+ * The statistics of all {@linkplain #register() registered} counters are reported by the
+ * {@link Supervisor} MBean.
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ *
+ * @see CacheCounters
+ */
+public final class PoolCounters extends Counters {
+    /**
+     * Number of resources borrowed from the pool.
+     */
+    private final AtomicLong borrows;
+
+    /**
+     * Number of borrows which had to wait for a resource to be returned to the pool.
+     */
+    private final AtomicLong waits;
+
+    /**
+     * Total time spent waiting for a resource, in nanoseconds.
+     */
+    private final AtomicLong waitTime;
+
+    /**
+     * Creates new counters initialized to zero.
+     *
+     * @param name  a name identifying the pool, for reporting purpose.
+     */
+    public PoolCounters(final String name) {
+        super(name);
+        borrows   = new AtomicLong();
+        waits     = new AtomicLong();
+        waitTime  = new AtomicLong();
+    }
+
+    /**
+     * Increments the number of resources borrowed without waiting.
+     */
+    public void borrowed() {
+        borrows.incrementAndGet();
+    }
+
+    /**
+     * Increments the number of resources borrowed after waiting the given amount of time.
+     *
+     * @param  nanoseconds  the time spent waiting for a resource to be returned to the pool.
+     */
+    public void borrowed(final long nanoseconds) {
+        borrows.incrementAndGet();
+        waits.incrementAndGet();
+        waitTime.addAndGet(nanoseconds);
+    }
+
+    /**
+     * Returns the number of resources borrowed from the pool.
+     *
+     * @return number of borrows.
+     */
+    public long borrows() {
+        return borrows.get();
+    }
+
+    /**
+     * Returns the number of borrows which had to wait for a resource to be returned to the pool.
+     *
+     * @return number of borrows which had to wait.
+     */
+    public long waits() {
+        return waits.get();
+    }
+
+    /**
+     * Returns the total time spent waiting for a resource, in nanoseconds.
+     *
+     * @return total wait time in nanoseconds.
+     */
+    public long waitTime() {
+        return waitTime.get();
+    }
+
+    /**
+     * Returns a localized description of those counters.
+     */
+    @Override
+    String toString(final Messages resources) {
+        return resources.getString(Messages.Keys.PoolStatistics_4, name, borrows(), waits(), waitTime() / 1000000);
+    }
+}
@@ -51,7 +51,7 @@ import org.apache.sis.util.collection.TreeTable;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.3
- * @version 0.7
+ * @version 0.8
  * @module
  */
 public final class Supervisor extends StandardMBean implements SupervisorMBean {
@@ -231,4 +231,20 @@ public final class Supervisor extends StandardMBean implements SupervisorMBean {
         }
         return warnings;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String[] cacheStatistics(final Locale locale) {
+        return Counters.statistics(CacheCounters.class, locale);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String[] poolStatistics(final Locale locale) {
+        return Counters.statistics(PoolCounters.class, locale);
+    }
 }
@@ -28,7 +28,7 @@ import org.apache.sis.util.collection.TreeTable;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.3
- * @version 0.7
+ * @version 0.8
  * @module
  */
 public interface SupervisorMBean {
@@ -54,4 +54,28 @@ public interface SupervisorMBean {
      * @return A description of a problems in the library, or {@code null} if none.
      */
     String[] warnings(Locale locale);
+
+    /**
+     * Returns the number of hits, misses and evictions counted by the caches that registered their
+     * {@link CacheCounters}. Each element in the returned array describes the statistics of one cache
+     * or cache user.
+     *
+     * @param  locale  the locale to use for reporting messages, or {@code null} for the default.
+     * @return statistics about the registered caches, or an empty array if none.
+     *
+     * @since 0.8
+     */
+    String[] cacheStatistics(Locale locale);
+
+    /**
+     * Returns the number of borrows and the time spent waiting counted by the pools of resources
+     * that registered their {@link PoolCounters}. Each element in the returned array describes
+     * the statistics of one pool.
+     *
+     * @param  locale  the locale to use for reporting messages, or {@code null} for the default.
+     * @return statistics about the registered pools, or an empty array if none.
+     *
+     * @since 0.8
+     */
+    String[] poolStatistics(Locale locale);
 }
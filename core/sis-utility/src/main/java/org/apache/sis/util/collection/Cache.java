@@ -120,6 +120,8 @@ import org.apache.sis.internal.jdk8.Supplier;
  *
  * The total cost is given at construction time. If the {@link #cost} method has not been
  * overridden, then the total cost is the maximal amount of values to keep by strong references.
+ * Subclasses can override {@link #evicted(Object)} for being notified when a strong reference
+ * is replaced by a weak or soft reference.
  *
  *
  * <div class="section">Circular dependencies</div>
@@ -134,7 +136,7 @@ import org.apache.sis.internal.jdk8.Supplier;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.3
- * @version 0.4
+ * @version 0.8
  * @module
  */
 public class Cache<K,V> extends AbstractMap<K,V> {
@@ -786,7 +788,9 @@ public class Cache<K,V> extends AbstractMap<K,V> {
                         @SuppressWarnings("unchecked")
                         final Reference<V> ref = soft ? new Soft<>(map, oldKey, (V) oldValue)
                                                       : new Weak<>(map, oldKey, (V) oldValue);
-                        if (!map.replace(oldKey, oldValue, ref)) {
+                        if (map.replace(oldKey, oldValue, ref)) {
+                            evicted(oldKey);
+                        } else {
                             ref.clear(); // Prevents the reference to be enqueued.
                         }
                     }
@@ -917,4 +921,20 @@ public class Cache<K,V> extends AbstractMap<K,V> {
     protected int cost(final V value) {
         return 1;
     }
+
+    /**
+     * Invoked when the value associated to the given key is no longer hold by strong reference because
+     * the total cost exceeded the cost limit. After this method call, the value may be garbage-collected
+     * at any time. The default implementation does nothing. Subclasses can override this method if they
+     * want to collect statistics about the cache efficiency.
+     *
+     * <p>This method is invoked in a background thread while a lock is held.
+     * Implementations shall be fast, thread-safe and shall not modify this cache.</p>
+     *
+     * @param key The key of the value which is no longer hold by strong reference.
+     *
+     * @since 0.8
+     */
+    protected void evicted(final K key) {
+    }
 }
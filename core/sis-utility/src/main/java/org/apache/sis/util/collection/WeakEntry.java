@@ -39,7 +39,7 @@ import org.apache.sis.math.MathFunctions;
  *
  * @author  Martin Desruisseaux (MPO, IRD, Geomatys)
  * @since   0.3
- * @version 0.3
+ * @version 0.8
  * @module
  */
 abstract class WeakEntry<E> extends WeakReference<E> implements Disposable {
@@ -62,6 +62,23 @@ abstract class WeakEntry<E> extends WeakReference<E> implements Disposable {
      */
     static final long REHASH_DELAY = 4000000000L;
 
+    /**
+     * Maximal number of segments in which the entries of {@link WeakHashSet} and {@link WeakValueHashMap} are
+     * partitioned. Each segment has its own table and its own lock, so threads working on entries in different
+     * segments do not block each other. This is a power of 2 for allowing the segment index to be computed by a
+     * bit mask. Since many {@code WeakHashSet} and {@code WeakValueHashMap} instances are small, the collections
+     * start with a single segment and are split only after they grew beyond {@link #SEGMENT_THRESHOLD}.
+     *
+     * @see #segmentIndex(int, int)
+     */
+    static final int SEGMENT_COUNT = Math.min(16, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * Number of elements above which a collection having a single segment is split in {@link #SEGMENT_COUNT}
+     * segments. Collections smaller than this threshold, which are the majority, use only one segment.
+     */
+    static final int SEGMENT_THRESHOLD = 1024;
+
     /**
      * The logger where to logs collection events, if logging at the finest level is enabled.
      */
@@ -86,6 +103,19 @@ abstract class WeakEntry<E> extends WeakReference<E> implements Disposable {
         this.hash = hash;
     }
 
+    /**
+     * Returns the index of the segment where to store an entry having the given hash code.
+     * The hash code bits are mixed before to be masked, because the index in the table of each
+     * segment is computed from the same hash code and we want the two indices to be independent.
+     *
+     * @param  hash   the hash code value of the entry, after masking by {@link #HASH_MASK}.
+     * @param  count  the number of segments. Must be a power of 2.
+     * @return index of the segment, from 0 inclusive to {@code count} exclusive.
+     */
+    static int segmentIndex(final int hash, final int count) {
+        return ((hash * 0x9E3779B9) >>> 16) & (count - 1);
+    }
+
     /**
      * Counts the number of entries in the given table.
      * This method does not verify if the referenced object has been garbage collected.
@@ -137,8 +167,8 @@ abstract class WeakEntry<E> extends WeakReference<E> implements Disposable {
      * @param  oldTable      the table to rehash.
      * @param  count         number of elements in the table (including chained elements).
      * @param  callerMethod  the method invoking this one, for logging purpose only. The caller class
-     *         will be inferred from the enclosing class of the {@code oldTable} component type. This
-     *         uses the knowledge that all our implementations of {@code WeakEntry} are inner classes.
+     *         will be inferred from the outermost class enclosing the {@code oldTable} component type.
+     *         This uses the knowledge that all our implementations of {@code WeakEntry} are inner classes.
      * @return the new table array, or {@code oldTable} if no rehash were needed.
      */
     static <E> WeakEntry<E>[] rehash(final WeakEntry<E>[] oldTable, final int count, final String callerMethod) {
@@ -177,7 +207,11 @@ abstract class WeakEntry<E> extends WeakReference<E> implements Disposable {
             final LogRecord record = Messages.getResources(null).getLogRecord(Level.FINEST,
                     Messages.Keys.ChangedContainerCapacity_2, oldTable.length, table.length);
             record.setSourceMethodName(callerMethod);
-            record.setSourceClassName(entryType.getEnclosingClass().getName());
+            Class<?> caller = entryType.getEnclosingClass();
+            while (caller.getEnclosingClass() != null) {
+                caller = caller.getEnclosingClass();
+            }
+            record.setSourceClassName(caller.getName());
             record.setLoggerName(LOGGER.getName());
             LOGGER.log(record);
         }
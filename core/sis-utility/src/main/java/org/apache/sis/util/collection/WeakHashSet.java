@@ -66,51 +66,281 @@ import java.util.Objects;
  *
  * <div class="section">Thread safety</div>
  * The same {@code WeakHashSet} instance can be safely used by many threads without synchronization on the part of
- * the caller. But if a sequence of two or more method calls need to appear atomic from other threads perspective,
- * then the caller can synchronize on {@code this}.
+ * the caller. Large sets are partitioned in a few segments having their own locks, so threads adding or getting
+ * elements in different segments do not block each other. Consequently a lock on {@code this} does not block the
+ * method calls of other threads; if a sequence of two or more method calls need to appear atomic from other threads
+ * perspective, then all threads executing such sequences shall synchronize on the same lock (for example {@code this}).
+ * Methods working on the whole set like {@link #size()} and {@link #toArray()} are not atomic.
  *
  * @param  <E>  the type of elements in the set.
  *
  * @author  Martin Desruisseaux (MPO, IRD, Geomatys)
  * @since   0.3
- * @version 0.3
+ * @version 0.8
  * @module
  *
  * @see java.util.WeakHashMap
  */
 public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E> {
     /**
-     * A weak reference to an element. This is an element in a linked list.
-     * When the reference is disposed, it is removed from the enclosing set.
+     * A partition of the {@code WeakHashSet} elements, together with the lock protecting that partition.
+     * An element is stored in the segment at index {@link WeakEntry#segmentIndex(int, int)}, computed from
+     * its hash code value. All methods in this class synchronize on the segment, not on the enclosing set.
+     *
+     * <p>A set starts with a single segment, which is split when it grows beyond {@link WeakEntry#SEGMENT_THRESHOLD}.
+     * After the split, the old segment is empty and delegates all method calls to its {@link #successors}, for the
+     * threads which fetched the {@link WeakHashSet#segments} array before it was replaced.</p>
      */
-    private final class Entry extends WeakEntry<E> {
+    private final class Segment {
         /**
-         * Constructs a new weak reference.
+         * A weak reference to an element. This is an element in a linked list.
+         * When the reference is disposed, it is removed from the enclosing segment.
          */
-        Entry(final E obj, final Entry next, final int hash) {
-            super(obj, next, hash);
+        private final class Entry extends WeakEntry<E> {
+            /**
+             * Constructs a new weak reference.
+             */
+            Entry(final E obj, final Entry next, final int hash) {
+                super(obj, next, hash);
+            }
+
+            /**
+             * Invoked by {@link org.apache.sis.internal.system.ReferenceQueueConsumer}
+             * for removing the reference from the enclosing collection.
+             */
+            @Override
+            public void dispose() {
+                super.clear();
+                removeEntry(this);
+            }
         }
 
         /**
-         * Invoked by {@link org.apache.sis.internal.system.ReferenceQueueConsumer}
-         * for removing the reference from the enclosing collection.
+         * Table of weak references.
          */
-        @Override
-        public void dispose() {
-            super.clear();
-            removeEntry(this);
+        private Entry[] table;
+
+        /**
+         * Number of non-null elements in {@link #table}.
+         */
+        private int count;
+
+        /**
+         * The last time when {@link #table} was not in need for rehash. When the garbage collector
+         * collected a lot of elements, we will wait a few seconds before rehashing {@link #table}
+         * in case lot of news elements are going to be added. Without this field, we noticed many
+         * "reduce", "expand", "reduce", "expand", <i>etc.</i> cycles.
+         */
+        private long lastTimeNormalCapacity;
+
+        /**
+         * The segments which replaced this segment after a split, or {@code null} if this segment is still in use.
+         */
+        private Segment[] successors;
+
+        /**
+         * Creates an initially empty segment.
+         */
+        Segment() {
+            lastTimeNormalCapacity = System.nanoTime();
+            /*
+             * Workaround for the "generic array creation" compiler error.
+             * Otherwise we would use the commented-out line instead.
+             */
+            @SuppressWarnings("unchecked")
+            @Workaround(library="JDK", version="1.7")
+            final Entry[] table = (Entry[]) Array.newInstance(Entry.class, MIN_CAPACITY);
+//          table = new Entry[size];
+            this.table = table;
+        }
+
+        /**
+         * Invoked by {@link Entry} when an element has been collected by the garbage
+         * collector. This method removes the weak reference from the {@link #table}.
+         */
+        synchronized void removeEntry(final Entry toRemove) {
+            if (successors != null) {
+                return;                         // Entry has been cleared by the split.
+            }
+            assert isValid();
+            final int capacity = table.length;
+            if (toRemove.removeFrom(table, toRemove.hash % capacity)) {
+                count--;
+                assert isValid();
+                if (count < lowerCapacityThreshold(capacity)) {
+                    final long currentTime = System.nanoTime();
+                    if (currentTime - lastTimeNormalCapacity > REHASH_DELAY) {
+                        table = (Entry[]) WeakEntry.rehash(table, count, "remove");
+                        lastTimeNormalCapacity = currentTime;
+                        assert isValid();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Checks if this segment is valid. This method counts the number of elements and
+         * compares it to {@link #count}. This method is invoked in assertions only.
+         */
+        @Debug
+        private boolean isValid() {
+            if (!Thread.holdsLock(this)) {
+                throw new AssertionError();
+            }
+            if (count > upperCapacityThreshold(table.length)) {
+                throw new AssertionError(count);
+            }
+            return count(table) == count;
+        }
+
+        /**
+         * Returns the number of elements in this segment.
+         */
+        synchronized int size() {
+            if (successors != null) {
+                return WeakHashSet.this.size(successors);
+            }
+            assert isValid();
+            return count;
+        }
+
+        /**
+         * Implementation of {@link WeakHashSet#intern(Object, int)} for an element in this segment.
+         *
+         * @param  obj        the non-null element to search, add or remove.
+         * @param  hash       the hash code value of {@code obj}, after masking by {@link WeakEntry#HASH_MASK}.
+         * @param  operation  one of the {@link #REMOVE}, {@link #GET}, {@link #ADD} or {@link #INTERN} constants.
+         */
+        synchronized E intern(final Object obj, final int hash, final int operation) {
+            if (successors != null) {
+                return successors[segmentIndex(hash, successors.length)].intern(obj, hash, operation);
+            }
+            assert isValid();
+            /*
+             * Check if the object is already contained in this
+             * WeakHashSet. If yes, return the existing element.
+             */
+            Entry[] table = this.table;
+            int index = hash % table.length;
+            for (Entry e=table[index]; e!=null; e=(Entry) e.next) {
+                final E candidate = e.get();
+                if (mayContainArrays ? Objects.deepEquals(candidate, obj) : obj.equals(candidate)) {
+                    if (operation == REMOVE) {
+                        e.dispose();
+                    }
+                    return candidate;
+                }
+                // Do not remove the null element; lets ReferenceQueue do its job
+                // (it was a bug to remove element here as an "optimization")
+            }
+            if (operation >= ADD) {
+                /*
+                 * Check if the table needs to be rehashed, and add {@code obj} to the table.
+                 */
+                if (++count >= lowerCapacityThreshold(table.length)) {
+                    if (count > upperCapacityThreshold(table.length)) {
+                        this.table = table = (Entry[]) rehash(table, count, "add");
+                        index = hash % table.length;
+                    }
+                    lastTimeNormalCapacity = System.nanoTime();
+                }
+                final E element = elementType.cast(obj);
+                table[index] = new Entry(element, table[index], hash);
+                assert isValid();
+                if (count > SEGMENT_THRESHOLD && segments.length < maxSegments) {
+                    split();
+                }
+                if (operation == INTERN) {
+                    return element;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Removes all of the elements from this segment.
+         */
+        synchronized void clear() {
+            if (successors != null) {
+                for (final Segment segment : successors) {
+                    segment.clear();
+                }
+            } else {
+                Arrays.fill(table, null);
+                count = 0;
+            }
+        }
+
+        /**
+         * Moves all elements of this segment into {@link WeakHashSet#maxSegments} new segments, then replaces
+         * the segments of the enclosing set. Caller must hold the lock on this segment, which shall be the only
+         * segment of the set.
+         */
+        private void split() {
+            final Segment[] parts = newSegments(maxSegments);
+            for (Entry e : table) {
+                while (e != null) {
+                    final E element = e.get();
+                    if (element != null) {
+                        parts[segmentIndex(e.hash, parts.length)].transfer(element, e.hash);
+                    }
+                    e.clear();              // The old entry shall not be disposed in the new segment.
+                    e = (Entry) e.next;
+                }
+            }
+            Arrays.fill(table, null);
+            count = 0;
+            successors = parts;
+            segments = parts;
+        }
+
+        /**
+         * Adds an element moved from a segment being split. This method does not check if the element
+         * is already present, since the elements in the segment being split are known to be distinct.
+         */
+        synchronized void transfer(final E element, final int hash) {
+            if (++count > upperCapacityThreshold(table.length)) {
+                table = (Entry[]) rehash(table, count, "split");
+            }
+            final int index = hash % table.length;
+            table[index] = new Entry(element, table[index], hash);
+        }
+
+        /**
+         * Returns the elements in this segment which have not yet been garbage collected.
+         */
+        synchronized E[] toArray() {
+            if (successors != null) {
+                return WeakHashSet.this.toArray(successors);
+            }
+            assert isValid();
+            @SuppressWarnings("unchecked")
+            final E[] elements = (E[]) Array.newInstance(elementType, count);
+            int index = 0;
+            for (Entry el : table) {
+                while (el != null) {
+                    if ((elements[index] = el.get()) != null) {
+                        index++;
+                    }
+                    el = (Entry) el.next;
+                }
+            }
+            return ArraysExt.resize(elements, index);
         }
     }
 
     /**
-     * Table of weak references.
+     * The segments in which the elements are partitioned. The length of this array is 1 on creation,
+     * then {@link #maxSegments} after the set grew beyond {@link WeakEntry#SEGMENT_THRESHOLD}.
+     * This array is replaced (never modified) while holding the lock of its single segment.
      */
-    private Entry[] table;
+    private volatile Segment[] segments;
 
     /**
-     * Number of non-null elements in {@link #table}.
+     * Number of segments in which the elements are partitioned after the set grew beyond
+     * {@link WeakEntry#SEGMENT_THRESHOLD}. This is {@link WeakEntry#SEGMENT_COUNT} except in tests.
      */
-    private int count;
+    private final int maxSegments;
 
     /**
      * The type of the elements in this set.
@@ -123,32 +353,54 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
      */
     private final boolean mayContainArrays;
 
-    /**
-     * The last time when {@link #table} was not in need for rehash. When the garbage collector
-     * collected a lot of elements, we will wait a few seconds before rehashing {@link #table}
-     * in case lot of news elements are going to be added. Without this field, we noticed many
-     * "reduce", "expand", "reduce", "expand", <i>etc.</i> cycles.
-     */
-    private transient long lastTimeNormalCapacity;
-
     /**
      * Creates a {@code WeakHashSet} for elements of the specified type.
      *
      * @param  type  the type of the element to be included in this set.
      */
     public WeakHashSet(final Class<E> type) {
-        elementType            = type;
-        mayContainArrays       = type.isArray() || type.equals(Object.class);
-        lastTimeNormalCapacity = System.nanoTime();
+        this(type, SEGMENT_COUNT);
+    }
+
+    /**
+     * Creates a {@code WeakHashSet} to be partitioned in the given number of segments after it grew
+     * beyond {@link WeakEntry#SEGMENT_THRESHOLD}. This constructor is for testing the split of segments
+     * independently of the number of processors.
+     *
+     * @param  type         the type of the element to be included in this set.
+     * @param  maxSegments  number of segments after the split. Shall be a power of 2.
+     */
+    WeakHashSet(final Class<E> type, final int maxSegments) {
+        elementType      = type;
+        mayContainArrays = type.isArray() || type.equals(Object.class);
+        this.maxSegments = maxSegments;
+        segments         = newSegments(1);
+    }
+
+    /**
+     * Returns the number of segments in which the elements are currently partitioned.
+     * This method is for testing purpose only.
+     */
+    final int segmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Creates the given number of initially empty segments.
+     */
+    private Segment[] newSegments(final int count) {
         /*
          * Workaround for the "generic array creation" compiler error.
          * Otherwise we would use the commented-out line instead.
          */
         @SuppressWarnings("unchecked")
         @Workaround(library="JDK", version="1.7")
-        final Entry[] table = (Entry[]) Array.newInstance(Entry.class, MIN_CAPACITY);
-//      table = new Entry[size];
-        this.table = table;
+        final Segment[] segments = (Segment[]) Array.newInstance(Segment.class, count);
+//      segments = new Segment[count];
+        for (int i=0; i<count; i++) {
+            segments[i] = new Segment();
+        }
+        return segments;
     }
 
     /**
@@ -160,50 +412,25 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
     }
 
     /**
-     * Invoked by {@link Entry} when an element has been collected by the garbage
-     * collector. This method removes the weak reference from the {@link #table}.
+     * Returns the count of element in this set.
+     * If other threads are modifying this set concurrently, then the returned value is only an estimation.
+     *
+     * @return number of elements in this set.
      */
-    private synchronized void removeEntry(final Entry toRemove) {
-        assert isValid();
-        final int capacity = table.length;
-        if (toRemove.removeFrom(table, toRemove.hash % capacity)) {
-            count--;
-            assert isValid();
-            if (count < lowerCapacityThreshold(capacity)) {
-                final long currentTime = System.nanoTime();
-                if (currentTime - lastTimeNormalCapacity > REHASH_DELAY) {
-                    table = (Entry[]) WeakEntry.rehash(table, count, "remove");
-                    lastTimeNormalCapacity = currentTime;
-                    assert isValid();
-                }
-            }
-        }
+    @Override
+    public int size() {
+        return size(segments);
     }
 
     /**
-     * Checks if this {@code WeakHashSet} is valid. This method counts the number of elements and
-     * compares it to {@link #count}. This method is invoked in assertions only.
+     * Returns the sum of the number of elements in the given segments.
      */
-    @Debug
-    private boolean isValid() {
-        if (!Thread.holdsLock(this)) {
-            throw new AssertionError();
+    private int size(final Segment[] segments) {
+        int n = 0;
+        for (final Segment segment : segments) {
+            n += segment.size();
         }
-        if (count > upperCapacityThreshold(table.length)) {
-            throw new AssertionError(count);
-        }
-        return count(table) == count;
-    }
-
-    /**
-     * Returns the count of element in this set.
-     *
-     * @return number of elements in this set.
-     */
-    @Override
-    public synchronized int size() {
-        assert isValid();
-        return count;
+        return n;
     }
 
     /**
@@ -216,7 +443,7 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
      * @throws NullArgumentException if the given object is {@code null}.
      */
     @Override
-    public synchronized boolean add(final E element) throws NullArgumentException {
+    public boolean add(final E element) throws NullArgumentException {
         ArgumentChecks.ensureNonNull("element", element);
         return intern(element, ADD) == null;
     }
@@ -229,7 +456,7 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
      * @return {@code true} if the set contained the specified element.
      */
     @Override
-    public synchronized boolean remove(final Object element) {
+    public boolean remove(final Object element) {
         return intern(element, REMOVE) != null;
     }
 
@@ -244,7 +471,7 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
      *
      * @see #unique(Object)
      */
-    public synchronized E get(final Object element) {
+    public E get(final Object element) {
         return intern(element, GET);
     }
 
@@ -256,7 +483,7 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
      * @return {@code true} if this set contains the specified element.
      */
     @Override
-    public synchronized boolean contains(final Object element) {
+    public boolean contains(final Object element) {
         return intern(element, GET) != null;
     }
 
@@ -277,17 +504,21 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
      *     return element;
      * }
      *
+     * except that the above sequence is executed atomically.
+     *
      * @param  <T>      the type of the element to get. Can be {@code null}.
      * @param  element  the element to get or to add in the set if not already presents,
      *                  or {@code null} if the given element was null.
      * @return an element equals to the given one if already presents in the set,
      *         or the given {@code object} otherwise.
      */
-    public synchronized <T extends E> T unique(final T element) {
+    public <T extends E> T unique(final T element) {
         // There is no way to make sure that this operation is really safe.
         // We have to trust the Object.equals(Object) method to be strict
         // about the type of compared objects.
-        return (T) intern(element, INTERN);
+        @SuppressWarnings("unchecked")
+        final T result = (T) intern(element, INTERN);
+        return result;
     }
 
     // Arguments for the {@link #intern} method.
@@ -298,58 +529,26 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
 
     /**
      * Implementation of the {@link #add(Object)}, {@link #remove(Object)}, {@link #get(Object)},
-     * {@link #contains(Object)} and {@link #unique(Object)} methods.
+     * {@link #contains(Object)} and {@link #unique(Object)} methods. The hash code is computed
+     * before to acquire the lock, since it may be costly for arrays.
      */
     private E intern(final Object obj, final int operation) {
-        assert isValid();
-        if (obj != null) {
-            /*
-             * Check if the object is already contained in this
-             * WeakHashSet. If yes, return the existing element.
-             */
-            Entry[] table = this.table;
-            final int hash = (mayContainArrays ? Utilities.deepHashCode(obj) : obj.hashCode()) & HASH_MASK;
-            int index = hash % table.length;
-            for (Entry e=table[index]; e!=null; e=(Entry) e.next) {
-                final E candidate = e.get();
-                if (mayContainArrays ? Objects.deepEquals(candidate, obj) : obj.equals(candidate)) {
-                    if (operation == REMOVE) {
-                        e.dispose();
-                    }
-                    return candidate;
-                }
-                // Do not remove the null element; lets ReferenceQueue do its job
-                // (it was a bug to remove element here as an "optimization")
-            }
-            if (operation >= ADD) {
-                /*
-                 * Check if the table needs to be rehashed, and add {@code obj} to the table.
-                 */
-                if (++count >= lowerCapacityThreshold(table.length)) {
-                    if (count > upperCapacityThreshold(table.length)) {
-                        this.table = table = (Entry[]) rehash(table, count, "add");
-                        index = hash % table.length;
-                    }
-                    lastTimeNormalCapacity = System.nanoTime();
-                }
-                final E element = elementType.cast(obj);
-                table[index] = new Entry(element, table[index], hash);
-                assert isValid();
-                if (operation == INTERN) {
-                    return element;
-                }
-            }
+        if (obj == null) {
+            return null;
         }
-        return null;
+        final int hash = (mayContainArrays ? Utilities.deepHashCode(obj) : obj.hashCode()) & HASH_MASK;
+        final Segment[] segments = this.segments;
+        return segments[segmentIndex(hash, segments.length)].intern(obj, hash, operation);
     }
 
     /**
      * Removes all of the elements from this set.
      */
     @Override
-    public synchronized void clear() {
-        Arrays.fill(table, null);
-        count = 0;
+    public void clear() {
+        for (final Segment segment : segments) {
+            segment.clear();
+        }
     }
 
     /**
@@ -360,20 +559,28 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
      * @return all elements in this set.
      */
     @Override
-    public synchronized E[] toArray() {
-        assert isValid();
+    public E[] toArray() {
+        return toArray(segments);
+    }
+
+    /**
+     * Returns the elements of the given segments in a single array.
+     */
+    private E[] toArray(final Segment[] segments) {
+        @SuppressWarnings("unchecked")
+        final E[][] parts = (E[][]) Array.newInstance(elementType, segments.length, 0);
+        int count = 0;
+        for (int i=0; i<parts.length; i++) {
+            count += (parts[i] = segments[i].toArray()).length;
+        }
         @SuppressWarnings("unchecked")
         final E[] elements = (E[]) Array.newInstance(elementType, count);
-        int index = 0;
-        for (Entry el : table) {
-            while (el != null) {
-                if ((elements[index] = el.get()) != null) {
-                    index++;
-                }
-                el = (Entry) el.next;
-            }
+        count = 0;
+        for (final E[] part : parts) {
+            System.arraycopy(part, 0, elements, count, part.length);
+            count += part.length;
         }
-        return ArraysExt.resize(elements, index);
+        return elements;
     }
 
     /**
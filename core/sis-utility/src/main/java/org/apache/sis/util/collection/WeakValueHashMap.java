@@ -64,23 +64,27 @@ import java.util.Objects;
  * }
  *
  * In the above example, the calculation of a new value needs to be fast because it is performed inside a synchronized
- * statement blocking all other access to the map. This is okay if that particular {@code WeakValueHashMap} instance
- * is not expected to be used in a highly concurrent environment.
+ * statement blocking all other threads executing the same statement. This is okay if that particular
+ * {@code WeakValueHashMap} instance is not expected to be used in a highly concurrent environment.
+ * Otherwise {@link #putIfAbsent(Object, Object)} can be used without external synchronization.
  *
  * <p>{@code WeakValueHashMap} works with array keys as one would expect. For example arrays of {@code int[]} are
  * compared using the {@link java.util.Arrays#equals(int[], int[])} method.</p>
  *
  * <div class="section">Thread safety</div>
  * The same {@code WeakValueHashMap} instance can be safely used by many threads without synchronization on the part
- * of the caller. But if a sequence of two or more method calls need to appear atomic from other threads perspective,
- * then the caller can synchronize on {@code this}.
+ * of the caller. Large maps are partitioned in a few segments having their own locks, so threads working on keys in
+ * different segments do not block each other. Consequently a lock on {@code this} does not block the method calls of
+ * other threads; if a sequence of two or more method calls need to appear atomic from other threads perspective, then
+ * all threads executing such sequences shall synchronize on the same lock (for example {@code this}).
+ * Methods working on the whole map like {@link #size()} and iterations over {@link #entrySet()} are not atomic.
  *
  * @param  <K>  the class of key elements.
  * @param  <V>  the class of value elements.
  *
  * @author  Martin Desruisseaux (IRD, Geomatys)
  * @since   0.3
- * @version 0.7
+ * @version 0.8
  * @module
  *
  * @see java.util.WeakHashMap
@@ -106,100 +110,349 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
     private static final byte IDENTITY = 0, EQUALS = 1, DEEP_EQUALS = 2;
 
     /**
-     * An entry in the {@link WeakValueHashMap}. This is a weak reference
-     * to a value together with a strong reference to a key.
+     * A partition of the {@code WeakValueHashMap} entries, together with the lock protecting that partition.
+     * An entry is stored in the segment at index {@link WeakEntry#segmentIndex(int, int)}, computed from the
+     * hash code value of its key. All methods in this class synchronize on the segment, not on the enclosing map.
+     *
+     * <p>A map starts with a single segment, which is split when it grows beyond {@link WeakEntry#SEGMENT_THRESHOLD}.
+     * After the split, the old segment is empty and delegates all method calls to its {@link #successors}, for the
+     * threads which fetched the {@link WeakValueHashMap#segments} array before it was replaced.</p>
      */
-    private final class Entry extends WeakEntry<V> implements Map.Entry<K,V> {
+    private final class Segment {
+        /**
+         * An entry in the {@link WeakValueHashMap}. This is a weak reference
+         * to a value together with a strong reference to a key.
+         */
+        private final class Entry extends WeakEntry<V> implements Map.Entry<K,V> {
+            /**
+             * The key.
+             */
+            final K key;
+
+            /**
+             * Constructs a new weak reference.
+             */
+            Entry(final K key, final V value, final Entry next, final int hash) {
+                super(value, next, hash);
+                this.key   = key;
+                this.next  = next;
+            }
+
+            /**
+             * Returns the key corresponding to this entry.
+             */
+            @Override
+            public K getKey() {
+                return key;
+            }
+
+            /**
+             * Returns the value corresponding to this entry.
+             */
+            @Override
+            public V getValue() {
+                return get();
+            }
+
+            /**
+             * Replaces the value corresponding in this entry with the specified value.
+             * This method can be used only for setting the value to {@code null}.
+             */
+            @Override
+            public V setValue(final V value) {
+                if (value != null) {
+                    throw new UnsupportedOperationException();
+                }
+                final V old = get();
+                dispose();
+                return old;
+            }
+
+            /**
+             * Invoked by {@link org.apache.sis.internal.system.ReferenceQueueConsumer}
+             * for removing the reference from the enclosing collection.
+             */
+            @Override
+            public void dispose() {
+                super.clear();
+                removeEntry(this);
+            }
+
+            /**
+             * Compares the specified object with this entry for equality.
+             */
+            @Override
+            public boolean equals(final Object other) {
+                if (other instanceof Map.Entry<?,?>) {
+                    final Map.Entry<?,?> that = (Map.Entry<?,?>) other;
+                    return keyEquals(key, that.getKey()) && Objects.equals(get(), that.getValue());
+                }
+                return false;
+            }
+
+            /**
+             * Returns the hash code value for this map entry. <strong>This hash code
+             * is not stable</strong>, since it will change after GC collect the value.
+             */
+            @Override
+            public int hashCode() {
+                int code = keyHashCode(key);
+                final V val = get();
+                if (val != null) {
+                    code ^= val.hashCode();
+                }
+                return code;
+            }
+        }
+
+        /**
+         * Table of weak references.
+         */
+        private Entry[] table;
+
         /**
-         * The key.
+         * Number of non-null elements in {@link #table}.
          */
-        final K key;
+        private int count;
 
         /**
-         * Constructs a new weak reference.
+         * The last time when {@link #table} was not in need for rehash. When the garbage collector
+         * collected a lot of elements, we will wait a few seconds before rehashing {@link #table}
+         * in case lot of news entries are going to be added. Without this field, we noticed many
+         * "reduce", "expand", "reduce", "expand", <i>etc.</i> cycles.
          */
-        Entry(final K key, final V value, final Entry next, final int hash) {
-            super(value, next, hash);
-            this.key   = key;
-            this.next  = next;
+        private long lastTimeNormalCapacity;
+
+        /**
+         * The segments which replaced this segment after a split, or {@code null} if this segment is still in use.
+         */
+        private Segment[] successors;
+
+        /**
+         * Creates an initially empty segment.
+         */
+        Segment() {
+            lastTimeNormalCapacity = System.nanoTime();
+            /*
+             * Workaround for the "generic array creation" compiler error.
+             * Otherwise we would use the commented-out line instead.
+             */
+            @SuppressWarnings("unchecked")
+            @Workaround(library="JDK", version="1.7")
+            final Entry[] table = (Entry[]) Array.newInstance(Entry.class, MIN_CAPACITY);
+//          table = new Entry[size];
+            this.table = table;
         }
 
         /**
-         * Returns the key corresponding to this entry.
+         * Invoked by {@link Entry} when an element has been collected by the garbage
+         * collector. This method removes the weak reference from the {@link #table}.
          */
-        @Override
-        public K getKey() {
-            return key;
+        @SuppressWarnings("unchecked")
+        synchronized void removeEntry(final Entry toRemove) {
+            if (successors != null) {
+                return;                         // Entry has been cleared by the split.
+            }
+            assert isValid();
+            final int capacity = table.length;
+            if (toRemove.removeFrom(table, toRemove.hash % capacity)) {
+                count--;
+                assert isValid();
+                if (count < lowerCapacityThreshold(capacity)) {
+                    final long currentTime = System.nanoTime();
+                    if (currentTime - lastTimeNormalCapacity > REHASH_DELAY) {
+                        table = (Entry[]) WeakEntry.rehash(table, count, "remove");
+                        lastTimeNormalCapacity = currentTime;
+                        assert isValid();
+                    }
+                }
+            }
         }
 
         /**
-         * Returns the value corresponding to this entry.
+         * Checks if this segment is valid. This method counts the number of elements
+         * and compares it to {@link #count}. This method is invoked in assertions only.
          */
-        @Override
-        public V getValue() {
-            return get();
+        @Debug
+        private boolean isValid() {
+            if (!Thread.holdsLock(this)) {
+                throw new AssertionError();
+            }
+            if (count > upperCapacityThreshold(table.length)) {
+                throw new AssertionError(count);
+            }
+            return count(table) == count;
         }
 
         /**
-         * Replaces the value corresponding in this entry with the specified value.
-         * This method can be used only for setting the value to {@code null}.
+         * Returns the number of entries in this segment.
          */
-        @Override
-        public V setValue(final V value) {
+        synchronized int size() {
+            if (successors != null) {
+                return WeakValueHashMap.this.size(successors);
+            }
+            assert isValid();
+            return count;
+        }
+
+        /**
+         * Implementation of {@link WeakValueHashMap#get(Object)} for a key in this segment.
+         *
+         * @param  key   the non-null key of the value to get.
+         * @param  hash  the hash code value of {@code key}, after masking by {@link WeakEntry#HASH_MASK}.
+         */
+        @SuppressWarnings("unchecked")
+        synchronized V get(final Object key, final int hash) {
+            if (successors != null) {
+                return successors[segmentIndex(hash, successors.length)].get(key, hash);
+            }
+            assert isValid();
+            final Entry[] table = this.table;
+            final int index = hash % table.length;
+            for (Entry e = table[index]; e != null; e = (Entry) e.next) {
+                if (keyEquals(key, e.key)) {
+                    return e.get();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Implementation of {@link WeakValueHashMap#intern(Object, Object, boolean)} for a key in this segment.
+         *
+         * @param  key      the key of the value to add, replace or remove.
+         * @param  hash     the hash code value of {@code key}, after masking by {@link WeakEntry#HASH_MASK}.
+         * @param  value    the value to associate to the key, or {@code null} for removing the entry.
+         * @param  replace  whether to replace an existing value.
+         */
+        @SuppressWarnings("unchecked")
+        synchronized V intern(final Object key, final int hash, final V value, final boolean replace) {
+            if (successors != null) {
+                return successors[segmentIndex(hash, successors.length)].intern(key, hash, value, replace);
+            }
+            assert isValid();
+            /*
+             * If 'value' is already contained in this WeakValueHashMap, we need to clear it.
+             */
+            V oldValue = null;
+            Entry[] table = this.table;
+            int index = hash % table.length;
+            for (Entry e = table[index]; e != null; e = (Entry) e.next) {
+                if (keyEquals(key, e.key)) {
+                    oldValue = e.get();
+                    if (oldValue != null && !replace) {
+                        return oldValue;
+                    }
+                    e.dispose();
+                    table = this.table; // May have changed.
+                    index = hash % table.length;
+                }
+            }
             if (value != null) {
-                throw new UnsupportedOperationException();
+                if (++count >= lowerCapacityThreshold(table.length)) {
+                    if (count > upperCapacityThreshold(table.length)) {
+                        this.table = table = (Entry[]) rehash(table, count, "put");
+                        index = hash % table.length;
+                    }
+                    lastTimeNormalCapacity = System.nanoTime();
+                }
+                table[index] = new Entry(keyType.cast(key), value, table[index], hash);
+            }
+            assert isValid();
+            if (count > SEGMENT_THRESHOLD && segments.length < maxSegments) {
+                split();
             }
-            final V old = get();
-            dispose();
-            return old;
+            return oldValue;
         }
 
         /**
-         * Invoked by {@link org.apache.sis.internal.system.ReferenceQueueConsumer}
-         * for removing the reference from the enclosing collection.
+         * Removes all of the entries from this segment.
          */
-        @Override
-        public void dispose() {
-            super.clear();
-            removeEntry(this);
+        synchronized void clear() {
+            if (successors != null) {
+                for (final Segment segment : successors) {
+                    segment.clear();
+                }
+            } else {
+                Arrays.fill(table, null);
+                count = 0;
+            }
         }
 
         /**
-         * Compares the specified object with this entry for equality.
+         * Moves all entries of this segment into {@link WeakValueHashMap#maxSegments} new segments, then replaces
+         * the segments of the enclosing map. Caller must hold the lock on this segment, which shall be the only
+         * segment of the map.
          */
-        @Override
-        public boolean equals(final Object other) {
-            if (other instanceof Map.Entry<?,?>) {
-                final Map.Entry<?,?> that = (Map.Entry<?,?>) other;
-                return keyEquals(key, that.getKey()) && Objects.equals(get(), that.getValue());
+        @SuppressWarnings("unchecked")
+        private void split() {
+            final Segment[] parts = newSegments(maxSegments);
+            for (Entry e : table) {
+                while (e != null) {
+                    final V value = e.get();
+                    if (value != null) {
+                        parts[segmentIndex(e.hash, parts.length)].transfer(e.key, value, e.hash);
+                    }
+                    e.clear();              // The old entry shall not be disposed in the new segment.
+                    e = (Entry) e.next;
+                }
             }
-            return false;
+            Arrays.fill(table, null);
+            count = 0;
+            successors = parts;
+            segments = parts;
         }
 
         /**
-         * Returns the hash code value for this map entry. <strong>This hash code
-         * is not stable</strong>, since it will change after GC collect the value.
+         * Adds an entry moved from a segment being split. This method does not check if the key
+         * is already present, since the keys in the segment being split are known to be distinct.
          */
-        @Override
-        public int hashCode() {
-            int code = keyHashCode(key);
-            final V val = get();
-            if (val != null) {
-                code ^= val.hashCode();
+        @SuppressWarnings("unchecked")
+        synchronized void transfer(final K key, final V value, final int hash) {
+            if (++count > upperCapacityThreshold(table.length)) {
+                table = (Entry[]) rehash(table, count, "split");
             }
-            return code;
+            final int index = hash % table.length;
+            table[index] = new Entry(key, value, table[index], hash);
+        }
+
+        /**
+         * Returns a snapshot of the entries in this segment which have not yet been garbage collected.
+         */
+        @SuppressWarnings("unchecked")
+        synchronized Map.Entry<K,V>[] toArray() {
+            if (successors != null) {
+                return WeakValueHashMap.this.toArray(successors);
+            }
+            assert isValid();
+            @SuppressWarnings({"unchecked","rawtypes"})
+            final Map.Entry<K,V>[] elements = new Map.Entry[count];
+            int index = 0;
+            for (Entry el : table) {
+                while (el != null) {
+                    final Map.Entry<K,V> entry = new SimpleEntry<>(el);
+                    if (entry.getValue() != null) {
+                        elements[index++] = entry;
+                    }
+                    el = (Entry) el.next;
+                }
+            }
+            return ArraysExt.resize(elements, index);
         }
     }
 
     /**
-     * Table of weak references.
+     * The segments in which the entries are partitioned. The length of this array is 1 on creation,
+     * then {@link #maxSegments} after the map grew beyond {@link WeakEntry#SEGMENT_THRESHOLD}.
+     * This array is replaced (never modified) while holding the lock of its single segment.
      */
-    private Entry[] table;
+    private volatile Segment[] segments;
 
     /**
-     * Number of non-null elements in {@link #table}.
+     * Number of segments in which the entries are partitioned after the map grew beyond
+     * {@link WeakEntry#SEGMENT_THRESHOLD}. This is {@link WeakEntry#SEGMENT_COUNT} except in tests.
      */
-    private int count;
+    private final int maxSegments;
 
     /**
      * The type of the keys in this map.
@@ -222,14 +475,6 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
      */
     private transient Set<Map.Entry<K,V>> entrySet;
 
-    /**
-     * The last time when {@link #table} was not in need for rehash. When the garbage collector
-     * collected a lot of elements, we will wait a few seconds before rehashing {@link #table}
-     * in case lot of news entries are going to be added. Without this field, we noticed many
-     * "reduce", "expand", "reduce", "expand", <i>etc.</i> cycles.
-     */
-    private transient long lastTimeNormalCapacity;
-
     /**
      * Creates a new {@code WeakValueHashMap}.
      *
@@ -254,67 +499,91 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
      * @since 0.4
      */
     public WeakValueHashMap(final Class<K> keyType, final boolean identity) {
-        this.keyType   = keyType;
-        comparisonMode = identity ? IDENTITY :
+        this(keyType, identity, SEGMENT_COUNT);
+    }
+
+    /**
+     * Creates a new {@code WeakValueHashMap} to be partitioned in the given number of segments
+     * after it grew beyond {@link WeakEntry#SEGMENT_THRESHOLD}. This constructor is for testing
+     * the split of segments independently of the number of processors.
+     *
+     * @param  keyType      the type of keys in the map.
+     * @param  identity     {@code true} if the map shall use reference-equality in place of object-equality.
+     * @param  maxSegments  number of segments after the split. Shall be a power of 2.
+     */
+    WeakValueHashMap(final Class<K> keyType, final boolean identity, final int maxSegments) {
+        this.keyType     = keyType;
+        this.maxSegments = maxSegments;
+        comparisonMode   = identity ? IDENTITY :
                 (keyType.isArray() || keyType.equals(Object.class)) ? DEEP_EQUALS : EQUALS;
-        lastTimeNormalCapacity = System.nanoTime();
+        segments = newSegments(1);
+    }
+
+    /**
+     * Returns the number of segments in which the entries are currently partitioned.
+     * This method is for testing purpose only.
+     */
+    final int segmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Creates the given number of initially empty segments.
+     */
+    private Segment[] newSegments(final int count) {
         /*
          * Workaround for the "generic array creation" compiler error.
          * Otherwise we would use the commented-out line instead.
          */
         @SuppressWarnings("unchecked")
         @Workaround(library="JDK", version="1.7")
-        final Entry[] table = (Entry[]) Array.newInstance(Entry.class, MIN_CAPACITY);
-//      table = new Entry[size];
-        this.table = table;
+        final Segment[] segments = (Segment[]) Array.newInstance(Segment.class, count);
+//      segments = new Segment[count];
+        for (int i=0; i<count; i++) {
+            segments[i] = new Segment();
+        }
+        return segments;
     }
 
     /**
-     * Invoked by {@link Entry} when an element has been collected by the garbage
-     * collector. This method removes the weak reference from the {@link #table}.
+     * Returns the number of key-value mappings in this map.
+     * If other threads are modifying this map concurrently, then the returned value is only an estimation.
+     *
+     * @return the number of entries in this map.
      */
-    @SuppressWarnings("unchecked")
-    private synchronized void removeEntry(final Entry toRemove) {
-        assert isValid();
-        final int capacity = table.length;
-        if (toRemove.removeFrom(table, toRemove.hash % capacity)) {
-            count--;
-            assert isValid();
-            if (count < lowerCapacityThreshold(capacity)) {
-                final long currentTime = System.nanoTime();
-                if (currentTime - lastTimeNormalCapacity > REHASH_DELAY) {
-                    table = (Entry[]) WeakEntry.rehash(table, count, "remove");
-                    lastTimeNormalCapacity = currentTime;
-                    assert isValid();
-                }
-            }
-        }
+    @Override
+    public int size() {
+        return size(segments);
     }
 
     /**
-     * Checks if this {@code WeakValueHashMap} is valid. This method counts the number of elements
-     * and compares it to {@link #count}. This method is invoked in assertions only.
+     * Returns the sum of the number of entries in the given segments.
      */
-    @Debug
-    final boolean isValid() {
-        if (!Thread.holdsLock(this)) {
-            throw new AssertionError();
+    private int size(final Segment[] segments) {
+        int n = 0;
+        for (final Segment segment : segments) {
+            n += segment.size();
         }
-        if (count > upperCapacityThreshold(table.length)) {
-            throw new AssertionError(count);
-        }
-        return count(table) == count;
+        return n;
     }
 
     /**
-     * Returns the number of key-value mappings in this map.
-     *
-     * @return the number of entries in this map.
+     * Returns a snapshot of the entries in the given segments.
      */
-    @Override
-    public synchronized int size() {
-        assert isValid();
-        return count;
+    @SuppressWarnings({"unchecked","rawtypes"})
+    private Map.Entry<K,V>[] toArray(final Segment[] segments) {
+        final Map.Entry<K,V>[][] parts = new Map.Entry[segments.length][];
+        int count = 0;
+        for (int i=0; i<parts.length; i++) {
+            count += (parts[i] = segments[i].toArray()).length;
+        }
+        final Map.Entry<K,V>[] elements = new Map.Entry[count];
+        count = 0;
+        for (final Map.Entry<K,V>[] part : parts) {
+            System.arraycopy(part, 0, elements, count, part.length);
+            count += part.length;
+        }
+        return elements;
     }
 
     /**
@@ -366,7 +635,7 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
      * @return {@code true} if this map maps one or more keys to this value.
      */
     @Override
-    public synchronized boolean containsValue(final Object value) {
+    public boolean containsValue(final Object value) {
         return super.containsValue(value);
     }
 
@@ -379,57 +648,23 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
      * @return the value to which this map maps the specified key.
      */
     @Override
-    @SuppressWarnings("unchecked")
-    public synchronized V get(final Object key) {
-        assert isValid();
-        if (key != null) {
-            final Entry[] table = this.table;
-            final int index = (keyHashCode(key) & HASH_MASK) % table.length;
-            for (Entry e = table[index]; e != null; e = (Entry) e.next) {
-                if (keyEquals(key, e.key)) {
-                    return e.get();
-                }
-            }
+    public V get(final Object key) {
+        if (key == null) {
+            return null;
         }
-        return null;
+        final int hash = keyHashCode(key) & HASH_MASK;
+        final Segment[] segments = this.segments;
+        return segments[segmentIndex(hash, segments.length)].get(key, hash);
     }
 
     /**
-     * Implementation of {@link #put(Object, Object)} and {@link #remove(Object)} operations
+     * Implementation of {@link #put(Object, Object)} and {@link #remove(Object)} operations.
+     * The hash code is computed before to acquire the lock, since it may be costly for arrays.
      */
-    @SuppressWarnings("unchecked")
-    private synchronized V intern(final Object key, final V value, final boolean replace) {
-        assert isValid();
-        /*
-         * If 'value' is already contained in this WeakValueHashMap, we need to clear it.
-         */
-        V oldValue = null;
-        Entry[] table = this.table;
+    private V intern(final Object key, final V value, final boolean replace) {
         final int hash = keyHashCode(key) & HASH_MASK;
-        int index = hash % table.length;
-        for (Entry e = table[index]; e != null; e = (Entry) e.next) {
-            if (keyEquals(key, e.key)) {
-                oldValue = e.get();
-                if (oldValue != null && !replace) {
-                    return oldValue;
-                }
-                e.dispose();
-                table = this.table; // May have changed.
-                index = hash % table.length;
-            }
-        }
-        if (value != null) {
-            if (++count >= lowerCapacityThreshold(table.length)) {
-                if (count > upperCapacityThreshold(table.length)) {
-                    this.table = table = (Entry[]) rehash(table, count, "put");
-                    index = hash % table.length;
-                }
-                lastTimeNormalCapacity = System.nanoTime();
-            }
-            table[index] = new Entry(keyType.cast(key), value, table[index], hash);
-        }
-        assert isValid();
-        return oldValue;
+        final Segment[] segments = this.segments;
+        return segments[segmentIndex(hash, segments.length)].intern(key, hash, value, replace);
     }
 
     /**
@@ -481,6 +716,9 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
      */
     @Override
     public V remove(final Object key) {
+        if (key == null) {
+            return null;
+        }
         return intern(key, null, true);
     }
 
@@ -488,9 +726,10 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
      * Removes all of the elements from this map.
      */
     @Override
-    public synchronized void clear() {
-        Arrays.fill(table, null);
-        count = 0;
+    public void clear() {
+        for (final Segment segment : segments) {
+            segment.clear();
+        }
     }
 
     /**
@@ -513,7 +752,7 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
      *
      * @author  Martin Desruisseaux (Geomatys)
      * @since   0.3
-     * @version 0.3
+     * @version 0.8
      * @module
      */
     private final class EntrySet extends AbstractSet<Map.Entry<K,V>> {
@@ -530,25 +769,8 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
          * Consequently, no object reclamation will occur as long as a reference to this array is hold.
          */
         @Override
-        @SuppressWarnings("unchecked")
         public Map.Entry<K,V>[] toArray() {
-            synchronized (WeakValueHashMap.this) {
-                assert isValid();
-                @SuppressWarnings({"unchecked","rawtypes"})
-                final Map.Entry<K,V>[] elements = new Map.Entry[size()];
-                int index = 0;
-                final Entry[] table = WeakValueHashMap.this.table;
-                for (Entry el : table) {
-                    while (el != null) {
-                        final Map.Entry<K,V> entry = new SimpleEntry<>(el);
-                        if (entry.getValue() != null) {
-                            elements[index++] = entry;
-                        }
-                        el= (Entry) el.next;
-                    }
-                }
-                return ArraysExt.resize(elements, index);
-            }
+            return WeakValueHashMap.this.toArray(segments);
         }
 
         /**
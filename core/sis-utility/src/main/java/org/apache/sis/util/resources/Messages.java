@@ -60,6 +60,11 @@ public final class Messages extends IndexedResourceBundle {
          */
         public static final short AlreadyRegistered_2 = 1;
 
+        /**
+         * {0}: {1} hits, {2} misses, {3} evictions.
+         */
+        public static final short CacheStatistics_4 = 32;
+
         /**
          * Can not create the {0} schema in database.
          */
@@ -193,6 +198,11 @@ public final class Messages extends IndexedResourceBundle {
          */
         public static final short OptionalModuleNotFound_1 = 27;
 
+        /**
+         * {0}: {1} borrows, {2} waits for a total of {3} ms.
+         */
+        public static final short PoolStatistics_4 = 33;
+
         /**
          * Property “{0}” is hidden by “{1}”.
          */
@@ -385,7 +385,7 @@ public final class NilReason implements Serializable {
          * 'synchronized' statement in this method signature, and an other lock in WeakValueHashMap.
          * The second lock may seem useless since we already hold a lock on 'this'. But it is actually
          * needed because the garbage-collected entries are removed from the map in a background thread
-         * (see ReferenceQueueConsumer), which is synchronized on the map itself. It is better to keep
+         * (see ReferenceQueueConsumer), which is synchronized on a lock of the map. It is better to keep
          * the synchronization on the map shorter than the snychronization on 'this' because a single
          * ReferenceQueueConsumer thread is shared by all the SIS library.
          */
@@ -17,7 +17,11 @@
 package org.apache.sis.util.collection;
 
 import java.util.Map;
+import java.util.List;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicReference;
@@ -44,7 +48,7 @@ import static org.apache.sis.test.Assert.*;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.3
- * @version 0.3
+ * @version 0.8
  * @module
  */
 @DependsOn(WeakValueHashMapTest.class)
@@ -99,6 +103,33 @@ public final strictfp class CacheTest extends TestCase {
         assertEquals(singleton(new SimpleEntry<>(key, value)), cache.entrySet());
     }
 
+    /**
+     * Tests the notification of values that are no longer hold by strong references
+     * when the cost limit is exceeded. The eldest values shall be released first.
+     * Since evictions are performed in a background thread, this test needs to wait.
+     *
+     * @throws InterruptedException If the test has been interrupted.
+     */
+    @Test
+    @DependsOnMethod("testPutAndUnlock")
+    public void testEvicted() throws InterruptedException {
+        final List<Integer> evicted = Collections.synchronizedList(new ArrayList<Integer>());
+        final Cache<Integer,String> cache = new Cache<Integer,String>(8, 2, false) {
+            @Override protected void evicted(final Integer key) {
+                evicted.add(key);
+            }
+        };
+        cache.put(1, "One");
+        cache.put(2, "Two");
+        cache.put(3, "Three");
+        cache.put(4, "Four");
+        for (int i=0; evicted.size() < 2; i++) {
+            assertTrue("Timeout while waiting for evictions.", i < 100);
+            Thread.sleep(50);
+        }
+        assertEquals(Arrays.asList(1, 2), evicted);
+    }
+
     /**
      * Tests the cache when a thread is blocking a second one.
      * The second thread tries to write a value while the first thread holds the lock.
@@ -19,10 +19,13 @@ package org.apache.sis.util.collection;
 import java.util.HashSet;
 import java.util.Random;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.sis.test.TestCase;
 import org.apache.sis.test.DependsOn;
 import org.apache.sis.test.DependsOnMethod;
+import org.apache.sis.test.Performance;
 import org.apache.sis.test.TestConfiguration;
+import org.apache.sis.test.TestUtilities;
 import org.junit.Test;
 
 import static org.apache.sis.test.Assert.*;
@@ -35,7 +38,7 @@ import static org.apache.sis.test.TestUtilities.waitForGarbageCollection;
  *
  * @author  Martin Desruisseaux (IRD, Geomatys)
  * @since   0.3
- * @version 0.3
+ * @version 0.8
  * @module
  */
 @DependsOn(org.apache.sis.util.ArraysExtTest.class)
@@ -188,4 +191,106 @@ public final strictfp class WeakHashSetTest extends TestCase {
         assertTrue (weakSet.add(new int[] {2, 5, 4}));
         assertSame (array, weakSet.unique(array.clone()));
     }
+
+    /**
+     * Tests the split of the set in many segments when its size exceeds {@link WeakEntry#SEGMENT_THRESHOLD}.
+     * The number of segments is fixed by this test, since the default number depends on the number of processors
+     * and may be 1. Elements are kept by strong references, so the set shall behave like a standard {@link HashSet}
+     * before and after the split.
+     */
+    @Test
+    @DependsOnMethod("testStrongReferences")
+    public void testSegmentSplit() {
+        final WeakHashSet<Integer> weakSet = new WeakHashSet<>(Integer.class, 4);
+        final HashSet<Integer> strongSet = new HashSet<>();
+        for (int i=0; i <= WeakEntry.SEGMENT_THRESHOLD; i++) {
+            assertEquals("segmentCount", 1, weakSet.segmentCount());
+            final Integer value = i;
+            assertTrue("add:", weakSet.add(value));
+            strongSet.add(value);
+        }
+        assertEquals("segmentCount", 4, weakSet.segmentCount());
+        assertSetEquals(strongSet, weakSet);
+        /*
+         * Modify the set after the split: remove some elements and add new ones.
+         */
+        for (int i=0; i < 2*WeakEntry.SEGMENT_THRESHOLD; i += 3) {
+            final Integer value = i;
+            if ((i & 1) == 0) {
+                assertEquals("add:", strongSet.add(value), weakSet.add(value));
+                assertEquals("get:", value, weakSet.get(value));
+            } else {
+                assertEquals("remove:", strongSet.remove(value), weakSet.remove(value));
+                assertNull("get:", weakSet.get(value));
+            }
+        }
+        assertEquals("segmentCount", 4, weakSet.segmentCount());
+        assertSetEquals(strongSet, weakSet);
+        weakSet.clear();
+        assertTrue("isEmpty", weakSet.isEmpty());
+    }
+
+    /**
+     * Starts many threads invoking {@link WeakHashSet#unique(Object)} on the same set with equal values.
+     * All threads shall get the same instance for equal values, regardless in which segment the values
+     * are stored. If verbose test output is enabled, the elapsed time is reported for comparing the
+     * throughput of different implementations.
+     *
+     * @throws InterruptedException if the test has been interrupted.
+     */
+    @Test
+    @Performance
+    @DependsOnMethod("testStrongReferences")
+    public void stress() throws InterruptedException {
+        final int count = 20000;
+        final WeakHashSet<Integer> weakSet = new WeakHashSet<>(Integer.class);
+        final AtomicReference<Throwable> failures = new AtomicReference<>();
+        final class InternThread extends Thread {
+            /**
+             * The values returned by {@link WeakHashSet#unique(Object)}.
+             */
+            final Integer[] values = new Integer[count];
+
+            /**
+             * Creates a new thread.
+             */
+            InternThread(final int i) {
+                super(TestUtilities.THREADS, "WeakHashSetTest.stress() #" + i);
+            }
+
+            /**
+             * Puts values in the set, keeping strong references to the values returned by the set.
+             */
+            @Override public void run() {
+                try {
+                    for (int i=0; i<count; i++) {
+                        final Integer value = new Integer(i);           // We really want new instances.
+                        values[i] = weakSet.unique(value);
+                        assertEquals(value, values[i]);
+                    }
+                } catch (Throwable e) {
+                    if (!failures.compareAndSet(null, e)) {
+                        failures.get().addSuppressed(e);
+                    }
+                }
+            }
+        }
+        final InternThread[] threads = new InternThread[16];
+        for (int i=0; i<threads.length; i++) threads[i] = new InternThread(i);
+        final long startTime = System.nanoTime();
+        for (int i=0; i<threads.length; i++) threads[i].start();
+        for (int i=0; i<threads.length; i++) threads[i].join();
+        final long elapsedTime = System.nanoTime() - startTime;
+        TestUtilities.rethrownIfNotNull(failures.get());
+        /*
+         * Every thread shall have obtained the same instances.
+         */
+        assertEquals("size", count, weakSet.size());
+        for (int i=1; i<threads.length; i++) {
+            for (int j=0; j<count; j++) {
+                assertSame(threads[0].values[j], threads[i].values[j]);
+            }
+        }
+        out.printf("%d threads interned %d values each in %d ms.%n", threads.length, count, elapsedTime / 1000000);
+    }
 }
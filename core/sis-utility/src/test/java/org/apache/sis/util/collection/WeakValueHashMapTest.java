@@ -36,7 +36,7 @@ import static org.apache.sis.test.TestUtilities.waitForGarbageCollection;
  *
  * @author  Martin Desruisseaux (IRD, Geomatys)
  * @since   0.3
- * @version 0.4
+ * @version 0.8
  * @module
  */
 @DependsOn(org.apache.sis.util.ArraysExtTest.class)
@@ -222,4 +222,45 @@ public final strictfp class WeakValueHashMapTest extends TestCase {
         assertSame(v2, weakMap.get(k2));
         assertSame(v3, weakMap.get(k3));
     }
+
+    /**
+     * Tests the split of the map in many segments when its size exceeds {@link WeakEntry#SEGMENT_THRESHOLD}.
+     * The number of segments is fixed by this test, since the default number depends on the number of processors
+     * and may be 1. Values are kept by strong references, so the map shall behave like a standard {@link HashMap}
+     * before and after the split.
+     *
+     * @since 0.8
+     */
+    @Test
+    @DependsOnMethod("testStrongReferences")
+    public void testSegmentSplit() {
+        final WeakValueHashMap<Integer,Integer> weakMap = new WeakValueHashMap<>(Integer.class, false, 4);
+        final HashMap<Integer,Integer> strongMap = new HashMap<>();
+        for (int i=0; i <= WeakEntry.SEGMENT_THRESHOLD; i++) {
+            assertEquals("segmentCount", 1, weakMap.segmentCount());
+            final Integer key   = i;
+            final Integer value = -i;
+            assertNull("put:", weakMap.put(key, value));
+            strongMap.put(key, value);
+        }
+        assertEquals("segmentCount", 4, weakMap.segmentCount());
+        assertMapEquals(strongMap, weakMap);
+        /*
+         * Modify the map after the split: replace some values, remove other ones and add new entries.
+         */
+        for (int i=0; i < 2*WeakEntry.SEGMENT_THRESHOLD; i += 3) {
+            final Integer key = i;
+            if ((i & 1) == 0) {
+                final Integer value = i;
+                assertSame("put:", strongMap.put(key, value), weakMap.put(key, value));
+            } else {
+                assertSame("remove:", strongMap.remove(key), weakMap.remove(key));
+            }
+            assertSame("get:", strongMap.get(key), weakMap.get(key));
+        }
+        assertEquals("segmentCount", 4, weakMap.segmentCount());
+        assertMapEquals(strongMap, weakMap);
+        weakMap.clear();
+        assertTrue("isEmpty", weakMap.isEmpty());
+    }
 }
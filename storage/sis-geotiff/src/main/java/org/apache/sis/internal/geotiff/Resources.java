@@ -168,6 +168,12 @@ public final class Resources extends IndexedResourceBundle {
          * Unsupported storage location for the “{0}” GeoTIFF value.
          */
         public static final short UnsupportedGeoKeyStorage_1 = 21;
+
+        /**
+         * Can not read pixel values from “{0}” because the {2} value of the “{1}” TIFF tag is not
+         * supported.
+         */
+        public static final short UnsupportedTagValue_3 = 22;
     }
 
     /**
@@ -16,6 +16,9 @@
  */
 package org.apache.sis.storage.geotiff;
 
+import java.util.zip.Inflater;
+import java.util.zip.DataFormatException;
+
 
 /**
  * Possible values for {@link Tags#Compression}.
@@ -28,6 +31,10 @@ package org.apache.sis.storage.geotiff;
  *
  * The main exception is {@link #CCITT}, which has different name in CSW query and response.
  *
+ * <p>Only {@link #NONE}, {@link #PACKBITS}, {@link #LZW} and {@link #DEFLATE} can be decompressed by
+ * this enumeration. For other methods, {@link #isSupported()} returns {@code false} and pixel values
+ * can not be read (but metadata can still be read).</p>
+ *
  * @author  Johann Sorel (Geomatys)
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.8
@@ -151,4 +158,177 @@ enum Compression {
         }
         return null;
     }
+
+    /**
+     * Returns {@code true} if the {@link #decompress(byte[], byte[])} method can decode data compressed
+     * with this method.
+     *
+     * @return whether data compressed with this method can be decompressed by Apache SIS.
+     */
+    final boolean isSupported() {
+        switch (this) {
+            case NONE:
+            case PACKBITS:
+            case LZW:
+            case DEFLATE: return true;
+            default:      return false;
+        }
+    }
+
+    /**
+     * Decompresses the given bytes. The {@code target} array length shall be the expected length of uncompressed
+     * data (typically the tile size in bytes). Source data are allowed to be shorter than what would be required
+     * for filling completely the target array, in which case remaining bytes are left to zero. This tolerance is
+     * needed for the last strip of an image, which is often truncated.
+     *
+     * @param  source  the compressed bytes, as stored in the TIFF file.
+     * @param  target  where to store the uncompressed bytes.
+     * @throws DataFormatException if the compressed data are invalid.
+     * @throws UnsupportedOperationException if {@link #isSupported()} is {@code false}.
+     */
+    final void decompress(final byte[] source, final byte[] target) throws DataFormatException {
+        switch (this) {
+            case NONE:     System.arraycopy(source, 0, target, 0, Math.min(source.length, target.length)); break;
+            case PACKBITS: unpackBits(source, target); break;
+            case LZW:      decodeLZW (source, target); break;
+            case DEFLATE:  inflate   (source, target); break;
+            default: throw new UnsupportedOperationException(name());
+        }
+    }
+
+    /**
+     * Decompresses data compressed with the PackBits algorithm. Each run begins with a header byte {@code n}:
+     *
+     * <ul>
+     *   <li>0 to 127: copy the next <var>n</var>+1 bytes literally.</li>
+     *   <li>-127 to -1: repeat the next byte -<var>n</var>+1 times.</li>
+     *   <li>-128: no operation.</li>
+     * </ul>
+     */
+    private static void unpackBits(final byte[] source, final byte[] target) {
+        int srcPos = 0, dstPos = 0;
+        while (srcPos < source.length && dstPos < target.length) {
+            final int n = source[srcPos++];
+            if (n >= 0) {
+                final int length = Math.min(Math.min(n + 1, source.length - srcPos), target.length - dstPos);
+                System.arraycopy(source, srcPos, target, dstPos, length);
+                srcPos += n + 1;
+                dstPos += length;
+            } else if (n != -128 && srcPos < source.length) {
+                final byte value = source[srcPos++];
+                final int  end   = Math.min(dstPos - n + 1, target.length);
+                while (dstPos < end) {
+                    target[dstPos++] = value;
+                }
+            }
+        }
+    }
+
+    /**
+     * Decompresses data compressed with the LZW algorithm as specified in TIFF 6.0 section 13.
+     * Codes are stored with the most significant bit first, starting with 9 bits per code and
+     * increasing up to 12 bits. The code width increases one code earlier than in the GIF flavor
+     * of LZW (the "early change" convention).
+     */
+    private static void decodeLZW(final byte[] source, final byte[] target) throws DataFormatException {
+        final int CLEAR = 256, EOI = 257, FIRST = 258, MAX_CODE_LENGTH = 12;
+        final int[]  prefixes = new int [1 << MAX_CODE_LENGTH];
+        final int[]  lengths  = new int [1 << MAX_CODE_LENGTH];
+        final byte[] suffixes = new byte[1 << MAX_CODE_LENGTH];
+        for (int i=0; i<CLEAR; i++) {
+            prefixes[i] = -1;
+            lengths [i] =  1;
+            suffixes[i] = (byte) i;
+        }
+        int codeLength = 9;
+        int nextCode   = FIRST;
+        int previous   = -1;
+        int bitBuffer  = 0;
+        int bitCount   = 0;
+        int srcPos     = 0;
+        int dstPos     = 0;
+        while (dstPos < target.length) {
+            while (bitCount < codeLength) {
+                if (srcPos >= source.length) {
+                    return;                             // Truncated data: keep what we got so far.
+                }
+                bitBuffer = (bitBuffer << Byte.SIZE) | (source[srcPos++] & 0xFF);
+                bitCount += Byte.SIZE;
+            }
+            bitCount -= codeLength;
+            final int code = (bitBuffer >>> bitCount) & ((1 << codeLength) - 1);
+            if (code == CLEAR) {
+                codeLength = 9;
+                nextCode   = FIRST;
+                previous   = -1;
+                continue;
+            }
+            if (code == EOI) {
+                break;
+            }
+            if (previous < 0) {
+                if (code >= CLEAR) {
+                    throw new DataFormatException("LZW");
+                }
+                target[dstPos++] = (byte) code;
+                previous = code;
+                continue;
+            }
+            /*
+             * Write the string associated to the code, starting from the last byte since the table
+             * stores strings as (prefix, suffix) chains. If the code is not yet in the table, then
+             * it can only be the code about to be added (the "KwKwK" case) which is the previous
+             * string followed by its own first byte.
+             */
+            final boolean isNew = (code == nextCode);
+            if (code > nextCode || (isNew && nextCode >= prefixes.length)) {
+                throw new DataFormatException("LZW");
+            }
+            final int entry = isNew ? previous : code;
+            final int end = dstPos + lengths[entry] + (isNew ? 1 : 0);
+            int  i = dstPos + lengths[entry];
+            int  c = entry;
+            byte first;
+            do {
+                first = suffixes[c];
+                if (--i < target.length) {
+                    target[i] = first;
+                }
+                c = prefixes[c];
+            } while (c >= 0);
+            if (isNew && end <= target.length) {
+                target[end - 1] = first;
+            }
+            dstPos = end;
+            if (nextCode < prefixes.length) {
+                prefixes[nextCode] = previous;
+                suffixes[nextCode] = first;
+                lengths [nextCode] = lengths[previous] + 1;
+                if (++nextCode == (1 << codeLength) - 1 && codeLength < MAX_CODE_LENGTH) {
+                    codeLength++;
+                }
+            }
+            previous = code;
+        }
+    }
+
+    /**
+     * Decompresses data compressed with the "zlib" format (Deflate algorithm).
+     */
+    private static void inflate(final byte[] source, final byte[] target) throws DataFormatException {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(source);
+            int dstPos = 0;
+            while (dstPos < target.length) {
+                final int n = inflater.inflate(target, dstPos, target.length - dstPos);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                dstPos += n;
+            }
+        } finally {
+            inflater.end();
+        }
+    }
 }
@@ -17,7 +17,10 @@
 package org.apache.sis.storage.geotiff;
 
 import java.util.Locale;
+import java.awt.Rectangle;
 import java.io.IOException;
+import java.lang.ref.PhantomReference;
+import java.util.concurrent.Callable;
 import java.nio.charset.Charset;
 import java.util.logging.LogRecord;
 import java.nio.charset.StandardCharsets;
@@ -33,9 +36,15 @@ import org.apache.sis.storage.DataStoreContentException;
 import org.apache.sis.storage.UnsupportedStorageException;
 import org.apache.sis.internal.storage.io.ChannelDataInput;
 import org.apache.sis.internal.storage.MetadataBuilder;
+import org.apache.sis.internal.system.CacheCounters;
+import org.apache.sis.internal.system.ReferenceQueueConsumer;
+import org.apache.sis.internal.system.Shutdown;
+import org.apache.sis.util.Disposable;
 import org.apache.sis.metadata.sql.MetadataStoreException;
 import org.apache.sis.storage.DataStoreClosedException;
 import org.apache.sis.util.resources.Errors;
+import org.apache.sis.util.ArgumentChecks;
+import org.apache.sis.math.Vector;
 
 
 /**
@@ -66,6 +75,24 @@ public class GeoTiffStore extends DataStore {
      */
     private Metadata metadata;
 
+    /**
+     * Identity of the GeoTIFF file in the {@link TileCache} shared by all data stores.
+     * Data stores opened on the same file share the same identity if the file has not been modified.
+     */
+    final Object fileIdentity;
+
+    /**
+     * Number of hits, misses and evictions in the {@link TileCache} for the tiles read by this data store.
+     * Those counters are reported by the {@link org.apache.sis.internal.system.Supervisor} MBean.
+     */
+    final CacheCounters cacheCounters;
+
+    /**
+     * The hook which unregisters {@link #cacheCounters} if this data store is garbage collected without
+     * having been closed. This hook is unregistered by {@link #close()}.
+     */
+    private final CountersHook countersHook;
+
     /**
      * Creates a new GeoTIFF store from the given file, URL or stream object.
      * This constructor invokes {@link StorageConnector#closeAllExcept(Object)},
@@ -84,12 +111,18 @@ public class GeoTiffStore extends DataStore {
             throw new UnsupportedStorageException(super.getLocale(), "TIFF",
                     connector.getStorage(), connector.getOption(OptionKey.OPEN_OPTIONS));
         }
+        final Object identity = TileCache.fileIdentity(connector.getStorage());
+        fileIdentity  = (identity != null) ? identity : new Object();
+        cacheCounters = new CacheCounters("GeoTIFF: " + input.filename);
         connector.closeAllExcept(input);
         try {
-            reader = new Reader(this, input);
+            reader = new Reader(this, input.mapped());      // Map the file in memory if it is a local file.
         } catch (IOException e) {
             throw new DataStoreException(e);
         }
+        cacheCounters.register();
+        countersHook = new CountersHook(this);
+        Shutdown.register(countersHook);
     }
 
     /**
@@ -129,6 +162,80 @@ public class GeoTiffStore extends DataStore {
         return metadata;
     }
 
+    /**
+     * Reads the sample values in the given region of the image at the given index. Only the tiles or strips
+     * intersecting the given region are read and decompressed, which allows to read a small window in a very
+     * large image without decoding the whole image. Tiles are decompressed in parallel, then kept in a cache
+     * shared by all {@code GeoTiffStore} instances opened on the same file, up to a memory budget.
+     *
+     * <p>Sample values are returned in row-major order, with all components (bands) of a pixel stored
+     * consecutively. The index of the sample for band <var>b</var> of pixel (<var>x</var>,<var>y</var>)
+     * is ({@code y} × {@code width} + {@code x}) × {@code numBands} + {@code b}, where <var>x</var> and
+     * <var>y</var> are relative to the upper-left corner of the intersection of the requested region
+     * with the image bounds.</p>
+     *
+     * @param  image   index of the image to read, starting at 0.
+     * @param  region  the region to read in pixel coordinates, or {@code null} for the whole image.
+     * @return the sample values in the intersection of the given region with the image bounds.
+     * @throws IllegalArgumentException if the given region does not intersect the image.
+     * @throws DataStoreException if an error occurred while reading the data.
+     *
+     * @see #readRegion(int, Rectangle, int, int)
+     */
+    public Vector readRegion(final int image, final Rectangle region) throws DataStoreException {
+        return readRegion(image, region, 1, 1);
+    }
+
+    /**
+     * Reads the sample values in the given region of the image at the given index, keeping only one pixel
+     * every {@code subsamplingX} columns and {@code subsamplingY} rows. The region and the subsampling are
+     * expressed in pixel coordinates of the full-resolution image.
+     *
+     * <p>If the TIFF file contains reduced-resolution versions (overviews) of the requested image, then this
+     * method reads the overview having the lowest resolution which is still at least as fine as the requested
+     * subsampling. For example a read with a subsampling of 16 in a file having overviews at resolutions 1:2,
+     * 1:4, 1:8 and 1:16 reads only the 1:16 overview. In such case, each returned pixel is the overview pixel
+     * nearest to the full-resolution pixel that would have been returned in absence of overviews.</p>
+     *
+     * <p>The returned vector contains ⌈{@code width} / {@code subsamplingX}⌉ × ⌈{@code height} / {@code subsamplingY}⌉
+     * pixels where {@code width} and {@code height} are the size of the intersection of the requested region
+     * with the image bounds. Samples are stored in the same order than {@link #readRegion(int, Rectangle)}.</p>
+     *
+     * @param  image         index of the full-resolution image to read, starting at 0.
+     * @param  region        the region to read in pixel coordinates, or {@code null} for the whole image.
+     * @param  subsamplingX  the number of columns to advance between each returned pixel.
+     * @param  subsamplingY  the number of rows to advance between each returned pixel.
+     * @return the sample values in the intersection of the given region with the image bounds, subsampled.
+     * @throws IllegalArgumentException if the given region does not intersect the image,
+     *         or if a subsampling value is not strictly positive.
+     * @throws DataStoreException if an error occurred while reading the data.
+     */
+    public synchronized Vector readRegion(final int image, final Rectangle region,
+            final int subsamplingX, final int subsamplingY) throws DataStoreException
+    {
+        ArgumentChecks.ensurePositive("image", image);
+        ArgumentChecks.ensureStrictlyPositive("subsamplingX", subsamplingX);
+        ArgumentChecks.ensureStrictlyPositive("subsamplingY", subsamplingY);
+        final Reader reader = reader();
+        try {
+            final ImageFileDirectory dir = reader.getImageFileDirectory(image);
+            if (dir == null) {
+                throw new IndexOutOfBoundsException(errors().getString(Errors.Keys.IndexOutOfBounds_1, image));
+            }
+            final ImageFileDirectory source;
+            if (subsamplingX == 1 && subsamplingY == 1) {
+                source = dir;
+            } else {
+                source = reader.getOverview(dir, image, subsamplingX, subsamplingY);
+            }
+            return dir.readRegion(region, subsamplingX, subsamplingY, source);
+        } catch (IOException e) {
+            throw new DataStoreException(errors().getString(Errors.Keys.CanNotRead_1, reader.input.filename), e);
+        } catch (ArithmeticException e) {
+            throw new DataStoreContentException(getLocale(), "TIFF", reader.input.filename, null).initCause(e);
+        }
+    }
+
     /**
      * Returns the reader if it is not closed, or thrown an exception otherwise.
      */
@@ -149,6 +256,7 @@ public class GeoTiffStore extends DataStore {
     public synchronized void close() throws DataStoreException {
         final Reader r = reader;
         reader = null;
+        countersHook.dispose();
         if (r != null) try {
             r.close();
         } catch (IOException e) {
@@ -156,6 +264,49 @@ public class GeoTiffStore extends DataStore {
         }
     }
 
+    /**
+     * A hook unregistering the cache counters when the {@link GeoTiffStore} is closed or collected by the
+     * garbage collector, or when the Java Virtual Machine is shutdown.
+     *
+     * <p><strong>Do not keep reference to the enclosing data store</strong> - in particular,
+     * this class must be static - otherwise the data store would never been garbage collected.</p>
+     */
+    private static final class CountersHook extends PhantomReference<GeoTiffStore>      // MUST be static!
+            implements Disposable, Callable<Object>
+    {
+        /**
+         * The {@link GeoTiffStore#cacheCounters} to unregister when the data store is disposed.
+         */
+        private final CacheCounters counters;
+
+        /**
+         * Creates a new hook for the given data store.
+         */
+        CountersHook(final GeoTiffStore store) {
+            super(store, ReferenceQueueConsumer.QUEUE);
+            counters = store.cacheCounters;
+        }
+
+        /**
+         * Invoked when the {@link GeoTiffStore} is closed or indirectly by the garbage collector.
+         */
+        @Override
+        public void dispose() {
+            clear();
+            Shutdown.unregister(this);
+            call();
+        }
+
+        /**
+         * Invoked at JVM shutdown time, or when the container (OSGi or Servlet) uninstall the bundle containing SIS.
+         */
+        @Override
+        public Object call() {
+            counters.unregister();
+            return null;
+        }
+    }
+
     /**
      * Returns the error resources in the current locale.
      */
@@ -16,9 +16,12 @@
  */
 package org.apache.sis.storage.geotiff;
 
+import java.awt.Rectangle;
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.zip.DataFormatException;
 import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
@@ -36,6 +39,9 @@ import org.apache.sis.storage.DataStoreContentException;
 import org.apache.sis.internal.storage.MetadataBuilder;
 import org.apache.sis.math.Vector;
 import org.apache.sis.measure.Units;
+import org.apache.sis.util.Numbers;
+import org.apache.sis.util.collection.Cache;
+import org.apache.sis.util.resources.Errors;
 
 
 /**
@@ -64,12 +70,36 @@ final class ImageFileDirectory {
      */
     private final Reader reader;
 
+    /**
+     * Index of this image in the TIFF file, starting at 0.
+     * This is used for identifying the tiles in the {@link TileCache}.
+     */
+    private final int index;
+
     /**
      * {@code true} if this {@code ImageFileDirectory} has not yet read all deferred entries.
      * When this flag is {@code true}, the {@code ImageFileDirectory} is not yet ready for use.
      */
     boolean hasDeferredEntries;
 
+    /**
+     * A general indication of the kind of data contained in this subfile, as a set of 32 flag bits.
+     * Bit 0 is 1 if this image is a {@linkplain #REDUCED_RESOLUTION reduced-resolution} version of
+     * another image in the TIFF file. The default value is 0.
+     */
+    private int subfileType;
+
+    /**
+     * Bit in the {@link #subfileType} flags for images that are reduced-resolution versions
+     * (overviews) of another image in the TIFF file.
+     */
+    private static final int REDUCED_RESOLUTION = 1;
+
+    /**
+     * Bit in the {@link #subfileType} flags for images that are a single page of a multi-page image.
+     */
+    private static final int SINGLE_PAGE = 2;
+
     /**
      * The size of the image described by this FID, or -1 if the information has not been found.
      * The image may be much bigger than the memory capacity, in which case the image shall be tiled.
@@ -181,6 +211,31 @@ final class ImageFileDirectory {
      */
     private short samplesPerPixel;
 
+    /**
+     * How to interpret each data sample in a pixel. Current Apache SIS implementation requires that
+     * all components have the same {@code SampleFormat} value. Possible values are:
+     *
+     * <ul>
+     *   <li>1 = unsigned integer data. This is the default value.</li>
+     *   <li>2 = two’s complement signed integer data.</li>
+     *   <li>3 = IEEE floating point data.</li>
+     *   <li>4 = undefined data format (handled as unsigned integers).</li>
+     * </ul>
+     */
+    private short sampleFormat = UNSIGNED;
+
+    /**
+     * Possible values for {@link #sampleFormat}.
+     */
+    private static final short UNSIGNED = 1, SIGNED = 2, FLOAT = 3;
+
+    /**
+     * A mathematical operator that is applied to the image data before compression.
+     * The value is 1 if no prediction scheme has been applied, or 2 for horizontal differencing.
+     * Other values are not supported by the pixel reader.
+     */
+    private short predictor = 1;
+
     /**
      * Specifies that each pixel has {@code extraSamples.size()} extra components whose interpretation is defined
      * by one of the values listed below. When this field is used, the {@link #samplesPerPixel} field has a value
@@ -311,8 +366,9 @@ final class ImageFileDirectory {
      *
      * @param reader  information about the input stream to read, the metadata and the character encoding.
      */
-    ImageFileDirectory(final Reader reader) {
+    ImageFileDirectory(final Reader reader, final int index) {
         this.reader = reader;
+        this.index  = index;
     }
 
     /**
@@ -518,6 +574,34 @@ final class ImageFileDirectory {
                 extraSamples = type.readVector(input(), count);
                 break;
             }
+            /*
+             * Specifies how to interpret each data sample in a pixel: 1 = unsigned integer, 2 = signed integer,
+             * 3 = floating point, 4 = undefined. The array length should be the number of components in a pixel.
+             * Current implementation requires that all components have the same format.
+             */
+            case Tags.SampleFormat: {
+                final Vector values = type.readVector(input(), count);
+                sampleFormat = values.shortValue(0);
+                final int length = values.size();
+                for (int i = 1; i < length; i++) {
+                    if (values.shortValue(i) != sampleFormat) {
+                        throw new DataStoreContentException(reader.resources().getString(
+                                Resources.Keys.ConstantValueRequired_3, "SampleFormat", input().filename, values));
+                    }
+                }
+                if (sampleFormat < UNSIGNED || sampleFormat > 4) {
+                    return sampleFormat;                    // Cause a warning to be reported by the caller.
+                }
+                break;
+            }
+            /*
+             * A mathematical operator applied to the image data before compression.
+             * 1 = no prediction scheme, 2 = horizontal differencing, 3 = floating point predictor.
+             */
+            case Tags.Predictor: {
+                predictor = type.readShort(input(), count);
+                break;
+            }
 
             ////////////////////////////////////////////////////////////////////////////////////////////////
             ////                                                                                        ////
@@ -586,7 +670,7 @@ final class ImageFileDirectory {
              * Bit 4 indicates MRC imaging model as described in ITU-T recommendation T.44 [T.44] (See ImageLayer tag) - RFC 2301.
              */
             case Tags.NewSubfileType: {
-                // TODO
+                subfileType = type.readInt(input(), count);
                 break;
             }
             /*
@@ -596,7 +680,13 @@ final class ImageFileDirectory {
              * 3 = a single page of a multi-page image (see PageNumber).
              */
             case Tags.SubfileType: {
-                // TODO
+                final short value = type.readShort(input(), count);
+                switch (value) {
+                    case 1:  subfileType &= ~REDUCED_RESOLUTION; break;
+                    case 2:  subfileType |=  REDUCED_RESOLUTION; break;
+                    case 3:  subfileType |=  SINGLE_PAGE; break;
+                    default: return value;                  // Cause a warning to be reported by the caller.
+                }
                 break;
             }
 
@@ -972,6 +1062,315 @@ final class ImageFileDirectory {
         }
     }
 
+    /**
+     * Returns the type of sample values as one of the {@link Numbers} constants.
+     *
+     * @throws DataStoreContentException if the combination of sample format and number of bits is not supported.
+     */
+    private byte dataType() throws DataStoreContentException {
+        switch (sampleFormat) {
+            case UNSIGNED:
+            case SIGNED:
+            case 4: {
+                switch (bitsPerSample) {
+                    case Byte   .SIZE: return Numbers.BYTE;
+                    case Short  .SIZE: return Numbers.SHORT;
+                    case Integer.SIZE: return Numbers.INTEGER;
+                    case Long   .SIZE: return Numbers.LONG;
+                }
+                break;
+            }
+            case FLOAT: {
+                switch (bitsPerSample) {
+                    case Float .SIZE: return Numbers.FLOAT;
+                    case Double.SIZE: return Numbers.DOUBLE;
+                }
+                break;
+            }
+            default: throw unsupportedTagValue(Tags.SampleFormat, sampleFormat);
+        }
+        throw unsupportedTagValue(Tags.BitsPerSample, bitsPerSample);
+    }
+
+    /**
+     * Returns {@code true} if this image is a reduced-resolution version (an overview) of another image
+     * in the TIFF file.
+     */
+    final boolean isReducedResolution() {
+        return (subfileType & REDUCED_RESOLUTION) != 0;
+    }
+
+    /**
+     * Returns {@code true} if this image can be used as an overview of the given full-resolution image.
+     * This method verifies that this image is flagged as a reduced-resolution image, is not larger than
+     * the given image and has the same sample layout.
+     *
+     * @param  base  the full-resolution image.
+     * @return whether this image can be used in place of the given image for subsampled reads.
+     */
+    final boolean isOverviewOf(final ImageFileDirectory base) {
+        return isReducedResolution()
+                && imageWidth  > 0 && imageWidth  <= base.imageWidth
+                && imageHeight > 0 && imageHeight <= base.imageHeight
+                && samplesPerPixel == base.samplesPerPixel
+                && bitsPerSample   == base.bitsPerSample
+                && sampleFormat    == base.sampleFormat;
+    }
+
+    /**
+     * Returns the ratio between the width of the given full-resolution image and the width of this image.
+     * This is 1 for the full-resolution image, 2 for an overview at half resolution, <i>etc.</i>
+     */
+    final double scaleX(final ImageFileDirectory base) {
+        return base.imageWidth / (double) imageWidth;
+    }
+
+    /**
+     * Returns the ratio between the height of the given full-resolution image and the height of this image.
+     * This is 1 for the full-resolution image, 2 for an overview at half resolution, <i>etc.</i>
+     */
+    final double scaleY(final ImageFileDirectory base) {
+        return base.imageHeight / (double) imageHeight;
+    }
+
+    /**
+     * Reads the sample values in the given region of this image. Only the tiles (or strips) intersecting
+     * the given region are read and decompressed. Tiles found in the {@link TileCache} are reused; other
+     * tiles are read sequentially in the order they appear in the file, then decompressed in parallel and
+     * added to the cache.
+     *
+     * <p>Sample values are returned in row-major order, with all components of a pixel stored consecutively
+     * (the "chunky" format) even if the TIFF file stores the components in separated planes. The type of the
+     * returned vector depends on the {@code BitsPerSample} and {@code SampleFormat} TIFF tags.</p>
+     *
+     * @param  request  the region to read in pixel coordinates, or {@code null} for the whole image.
+     * @return the sample values in the intersection of the given region with the image bounds.
+     * @throws IllegalArgumentException if the given region does not intersect the image.
+     * @throws ArithmeticException if the region is too large for being stored in a Java array.
+     * @throws IOException if an error occurred while reading the TIFF file.
+     * @throws DataStoreException if the image layout or the compression method is not supported,
+     *         or if the compressed data are invalid.
+     */
+    final Vector readRegion(final Rectangle request) throws IOException, DataStoreException {
+        return readRegion(request, 1, 1, this);
+    }
+
+    /**
+     * Reads the sample values in the given region of this image with the given subsampling. The region and
+     * the subsampling are expressed in pixel coordinates of this image, but the sample values may be read
+     * from a reduced-resolution image ({@code source}) selected by the caller. In such case, each returned
+     * pixel is the nearest overview pixel of the full-resolution pixel that would have been returned by a
+     * read of this image. The number of returned pixels is the same in both cases:
+     *
+     * <blockquote>
+     * ⌈{@code region.width} / {@code subsamplingX}⌉ × ⌈{@code region.height} / {@code subsamplingY}⌉
+     * </blockquote>
+     *
+     * where {@code region} is the intersection of the requested region with the image bounds.
+     *
+     * @param  request       the region to read in pixel coordinates of this image, or {@code null} for the whole image.
+     * @param  subsamplingX  the subsampling along the <var>x</var> axis. Shall be strictly positive.
+     * @param  subsamplingY  the subsampling along the <var>y</var> axis. Shall be strictly positive.
+     * @param  source        the image from which to read the sample values. Can be {@code this}
+     *                       or an image for which {@link #isOverviewOf(ImageFileDirectory)} returns {@code true}.
+     * @return the sample values in the intersection of the given region with the image bounds.
+     * @throws IllegalArgumentException if the given region does not intersect the image.
+     * @throws ArithmeticException if the region is too large for being stored in a Java array.
+     * @throws IOException if an error occurred while reading the TIFF file.
+     * @throws DataStoreException if the image layout or the compression method is not supported,
+     *         or if the compressed data are invalid.
+     */
+    final Vector readRegion(final Rectangle request, final int subsamplingX, final int subsamplingY,
+            final ImageFileDirectory source) throws IOException, DataStoreException
+    {
+        Rectangle region = new Rectangle(JDK8.toIntExact(imageWidth), JDK8.toIntExact(imageHeight));
+        if (request != null) {
+            region = region.intersection(request);
+            if (region.isEmpty()) {
+                throw new IllegalArgumentException(reader.errors().getString(
+                        Errors.Keys.IllegalArgumentValue_2, "region", request));
+            }
+        }
+        final Object samples;
+        if (source == this && subsamplingX == 1 && subsamplingY == 1) {
+            samples = readSamples(region);
+        } else {
+            /*
+             * For each column and row to return, compute the nearest column and row in the source image.
+             * Then read the smallest region of the source image containing all those columns and rows,
+             * and copy only the pixels of interest. If the source is an overview with a resolution close
+             * to the requested one, most pixels of the source region are used.
+             */
+            final int[] columns = sourceIndices(region.x, region.width,  subsamplingX, source.scaleX(this), source.imageWidth);
+            final int[] rows    = sourceIndices(region.y, region.height, subsamplingY, source.scaleY(this), source.imageHeight);
+            final Rectangle sourceRegion = new Rectangle(columns[0], rows[0],
+                    columns[columns.length - 1] - columns[0] + 1,
+                       rows[rows.length    - 1] -    rows[0] + 1);
+            final Object data = source.readSamples(sourceRegion);
+            final int numBands = samplesPerPixel;
+            samples = TileDecoder.allocate(dataType(),
+                    JDK8.multiplyExact(JDK8.multiplyExact(columns.length, rows.length), numBands));
+            int dstOff = 0;
+            for (final int y : rows) {
+                final int rowOffset = (y - sourceRegion.y) * sourceRegion.width - sourceRegion.x;
+                for (final int x : columns) {
+                    System.arraycopy(data, (rowOffset + x) * numBands, samples, dstOff, numBands);
+                    dstOff += numBands;
+                }
+            }
+        }
+        return Vector.create(samples, sampleFormat != SIGNED && sampleFormat != FLOAT);
+    }
+
+    /**
+     * Computes the indices of the source columns (or rows) to use for each column (or row) to return.
+     * The source index is the index of the source pixel containing the center of the full-resolution pixel,
+     * which is also the source pixel having the nearest center. That index is clamped to the source image size.
+     *
+     * @param  start   index of the first column or row to return, in full-resolution pixel coordinates.
+     * @param  length  number of columns or rows in the region to read, in full-resolution pixel coordinates.
+     * @param  step    the subsampling in full-resolution pixel units.
+     * @param  scale   the ratio between the full-resolution image size and the source image size.
+     * @param  limit   the source image size.
+     * @return index in the source image of each column or row to return, in increasing order.
+     */
+    static int[] sourceIndices(final int start, final int length, final int step, final double scale, final long limit) {
+        final int[] indices = new int[(length + step - 1) / step];
+        for (int i=0; i<indices.length; i++) {
+            final double center = start + (long) i * step + 0.5;         // Pixel center in full-resolution image.
+            indices[i] = (int) Math.min((long) (center / scale), limit - 1);
+        }
+        return indices;
+    }
+
+    /**
+     * Reads the sample values in the given region, which shall be fully contained in this image.
+     * This method returns an array of a primitive type determined by the {@code BitsPerSample}
+     * and {@code SampleFormat} TIFF tags.
+     *
+     * @param  region  the region to read in pixel coordinates.
+     * @return the sample values in the given region.
+     */
+    @SuppressWarnings("fallthrough")
+    private Object readSamples(final Rectangle region) throws IOException, DataStoreException {
+        if (compression == null || !compression.isSupported()) {
+            throw unsupportedTagValue(Tags.Compression, (compression != null) ? compression.name() : "?");
+        }
+        final byte dataType = dataType();
+        final boolean differencing;
+        switch (predictor) {
+            case 1: differencing = false; break;
+            case TileDecoder.HORIZONTAL_DIFFERENCING: {
+                if (dataType <= Numbers.LONG) {
+                    differencing = true;
+                    break;
+                }
+                // Else fallthrough: horizontal differencing is not applicable to floating point values.
+            }
+            default: throw unsupportedTagValue(Tags.Predictor, predictor);
+        }
+        /*
+         * Compute the range of tile indices intersecting the region. Tile indices are
+         * ordered left-to-right and top-to-bottom, with all tiles of the first plane first.
+         */
+        final int tilesAcross = JDK8.toIntExact(JDK8.addExact(imageWidth,  tileWidth  - 1) / tileWidth);
+        final int tilesDown   = JDK8.toIntExact(JDK8.addExact(imageHeight, tileHeight - 1) / tileHeight);
+        final int txmin =  region.x / tileWidth;
+        final int tymin =  region.y / tileHeight;
+        final int txmax = (region.x + region.width  - 1) / tileWidth;      // Inclusive.
+        final int tymax = (region.y + region.height - 1) / tileHeight;
+        final int numPlanes = isPlanar ? samplesPerPixel : 1;
+        final int count = JDK8.multiplyExact((txmax - txmin + 1) * (tymax - tymin + 1), numPlanes);
+        final int[]    tileX   = new int[count];
+        final int[]    tileY   = new int[count];
+        final int[]    planes  = new int[count];
+        final int[]    indices = new int[count];
+        int n = 0;
+        for (int p=0; p<numPlanes; p++) {
+            for (int ty=tymin; ty<=tymax; ty++) {
+                for (int tx=txmin; tx<=txmax; tx++) {
+                    tileX  [n] = tx * tileWidth;
+                    tileY  [n] = ty * tileHeight;
+                    planes [n] = p;
+                    indices[n] = (p * tilesDown + ty) * tilesAcross + tx;
+                    n++;
+                }
+            }
+        }
+        /*
+         * Get the tiles that are already in the cache. For all other tiles, lock the cache entries so other
+         * threads wanting the same tiles will wait for our result instead of decoding the tiles again. Locks
+         * are acquired in increasing tile index order, which is the same order for all threads, so waiting
+         * for a tile locked by another thread while we hold other locks can not cause a deadlock.
+         */
+        final GeoTiffStore store = reader.owner;
+        final TileCache.Key[] keys = new TileCache.Key[count];
+        final Object[]     decoded = new Object[count];
+        final Integer[]    missing = new Integer[count];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final Cache.Handler<Object>[] handlers = new Cache.Handler[count];
+        int numMissing = 0;
+        try {
+            for (int i=0; i<count; i++) {
+                keys[i] = new TileCache.Key(store.fileIdentity, index, indices[i], store.cacheCounters);
+                decoded[i] = TileCache.INSTANCE.getRecent(keys[i]);
+                if (decoded[i] == null) {
+                    final Cache.Handler<Object> handler = TileCache.INSTANCE.lock(keys[i]);
+                    decoded[i] = handler.peek();            // May wait for another thread decoding this tile.
+                    if (decoded[i] == null) {
+                        handlers[i] = handler;
+                        store.cacheCounters.miss();
+                        missing[numMissing++] = i;
+                        continue;
+                    }
+                    handler.putAndUnlock(decoded[i]);
+                }
+                store.cacheCounters.hit();
+            }
+            /*
+             * Read the compressed bytes of missing tiles in the order they appear in the file,
+             * since seek operations may be costly. Decompression is deferred to the fork/join tasks.
+             */
+            final Integer[] order = Arrays.copyOf(missing, numMissing);
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override public int compare(final Integer o1, final Integer o2) {
+                    return Long.compare(tileOffsets.longValue(indices[o1]), tileOffsets.longValue(indices[o2]));
+                }
+            });
+            final byte[][] compressed = new byte[count][];
+            for (final int i : order) {
+                final int tile = indices[i];
+                compressed[i] = reader.readBytes(tileOffsets.longValue(tile), JDK8.toIntExact(tileByteCounts.longValue(tile)));
+            }
+            final Object samples = TileDecoder.allocate(dataType,
+                    JDK8.multiplyExact(JDK8.multiplyExact(region.width, region.height), (int) samplesPerPixel));
+            try {
+                new TileDecoder(compression, differencing, input().buffer.order(), dataType, tileWidth, tileHeight,
+                        isPlanar, samplesPerPixel, region, tileX, tileY, planes, compressed, decoded, samples).decodeAll();
+            } catch (DataFormatException e) {
+                throw new DataStoreContentException(reader.errors().getString(Errors.Keys.CanNotRead_1, input().filename), e);
+            }
+            for (int i=0; i<count; i++) {
+                final Cache.Handler<Object> handler = handlers[i];
+                if (handler != null) {
+                    handlers[i] = null;
+                    handler.putAndUnlock(decoded[i]);
+                }
+            }
+            return samples;
+        } finally {
+            /*
+             * If an exception occurred, release the locks without storing anything in the cache.
+             * Threads waiting for those tiles will decode them themselves.
+             */
+            for (final Cache.Handler<Object> handler : handlers) {
+                if (handler != null) {
+                    handler.putAndUnlock(null);
+                }
+            }
+        }
+    }
+
     /**
      * Completes the metadata with the information stored in the field of this IFD.
      * This method is invoked only if the user requested the ISO 19115 metadata.
@@ -1078,6 +1477,17 @@ final class ImageFileDirectory {
                 Tags.name(missing), value);
     }
 
+    /**
+     * Builds an exception for a TIFF tag value which prevent the pixel values to be read.
+     *
+     * @param  tag    the numerical value of the tag having an unsupported value.
+     * @param  value  the unsupported value.
+     */
+    private DataStoreContentException unsupportedTagValue(final short tag, final Object value) {
+        return new DataStoreContentException(reader.resources().getString(
+                Resources.Keys.UnsupportedTagValue_3, input().filename, Tags.name(tag), value));
+    }
+
     /**
      * Builds an exception for a missing TIFF tag for which no default value can be computed.
      *
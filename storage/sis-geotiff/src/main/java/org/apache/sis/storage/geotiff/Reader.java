@@ -57,6 +57,13 @@ import org.apache.sis.internal.jdk8.JDK8;
  * @module
  */
 final class Reader extends GeoTIFF {
+    /**
+     * Relative tolerance when comparing the scale factor of an overview with a requested subsampling.
+     *
+     * @see #getOverview(ImageFileDirectory, int, int, int)
+     */
+    private static final double SCALE_TOLERANCE = 0.01;
+
     /**
      * The stream from which to read the data.
      */
@@ -256,7 +263,7 @@ final class Reader extends GeoTIFF {
              * to get the pointer to the next IFD.
              */
             final int offsetSize = (Integer.SIZE / Byte.SIZE) << intSizeExpansion;
-            final ImageFileDirectory dir = new ImageFileDirectory(this);
+            final ImageFileDirectory dir = new ImageFileDirectory(this, imageFileDirectories.size());
             for (long remaining = readUnsignedShort(); --remaining >= 0;) {
                 /*
                  * Each entry in the Image File Directory has the following format:
@@ -318,6 +325,49 @@ final class Reader extends GeoTIFF {
         return dir;
     }
 
+    /**
+     * Returns the image to use for reading the image at the given index with the given subsampling.
+     * If the TIFF file contains reduced-resolution versions (overviews) of the requested image, then
+     * this method returns the overview having the lowest resolution that is still equal or finer than
+     * the requested subsampling. Otherwise this method returns the requested image.
+     *
+     * <p>Overviews are the images flagged as reduced-resolution which immediately follow the requested
+     * image in the TIFF file, as done by the GDAL tools and the <cite>Cloud Optimized GeoTIFF</cite>
+     * convention.</p>
+     *
+     * @param  base          the full-resolution image, as returned by {@link #getImageFileDirectory(int)}.
+     * @param  index         index of the full-resolution image.
+     * @param  subsamplingX  the requested subsampling along the <var>x</var> axis.
+     * @param  subsamplingY  the requested subsampling along the <var>y</var> axis.
+     * @return the image to use for reading the sample values (never {@code null}).
+     */
+    final ImageFileDirectory getOverview(final ImageFileDirectory base, int index,
+            final int subsamplingX, final int subsamplingY) throws IOException, DataStoreException
+    {
+        ImageFileDirectory source = base;
+        double bestScale = 1;
+        ImageFileDirectory candidate;
+        while ((candidate = getImageFileDirectory(++index)) != null && candidate.isReducedResolution()) {
+            if (candidate.isOverviewOf(base)) {
+                final double sx = candidate.scaleX(base);
+                final double sy = candidate.scaleY(base);
+                /*
+                 * The overview size may be rounded down (e.g. 1001 pixels become 500 pixels), which
+                 * gives a scale factor slightly larger than the subsampling. We tolerate such small
+                 * differences, but not larger ones since they would cause a loss of resolution.
+                 */
+                if (sx <= subsamplingX * (1 + SCALE_TOLERANCE) && sy <= subsamplingY * (1 + SCALE_TOLERANCE)) {
+                    final double scale = Math.min(sx, sy);
+                    if (scale > bestScale) {
+                        bestScale = scale;
+                        source = candidate;
+                    }
+                }
+            }
+        }
+        return source;
+    }
+
     /**
      * Reads some of the entries that has been deferred. If the given {@code dir} argument is non-null,
      * then this method resolves all entries needed by this IFD no matter where the entry value is located.
@@ -363,6 +413,20 @@ final class Reader extends GeoTIFF {
         }
     }
 
+    /**
+     * Reads the given amount of bytes starting at the given offset. This is used for reading the
+     * compressed content of tiles or strips, which will be decompressed later.
+     *
+     * @param  offset  position of the first byte to read, relative to the beginning of the TIFF file.
+     * @param  length  number of bytes to read.
+     * @return the bytes in a newly allocated array.
+     * @throws IOException if an error (including EOF) occurred while reading the stream.
+     */
+    final byte[] readBytes(final long offset, final int length) throws IOException {
+        input.seek(JDK8.addExact(origin, offset));
+        return input.readBytes(length);
+    }
+
     /**
      * Logs a warning about a tag that can not be read, but does not interrupt the TIFF reading.
      *
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import org.apache.sis.internal.system.CacheCounters;
+import org.apache.sis.util.collection.Cache;
+import org.apache.sis.util.Numbers;
+
+
+/**
+ * A cache of decoded tiles shared by all {@link GeoTiffStore} instances. Tiles are identified by the file
+ * from which they were read, the index of the image in that file and the index of the tile in that image.
+ * The cost of each tile is its size in bytes, so the cache keeps by strong references the most recently
+ * used tiles up to a memory budget. Older tiles are kept by weak references until they are garbage-collected.
+ *
+ * <p>Because the file identity includes the file size and last modification time, two {@code GeoTiffStore}
+ * instances opened on the same file share their tiles, while a file modified between two openings will not
+ * reuse obsolete tiles. Storages that are not files (for example input streams) get an identity specific to
+ * the data store instance.</p>
+ *
+ * <p>The arrays stored in this cache shall never be modified, since they may be shared by many threads.</p>
+ *
+ * <p>Key collisions are allowed: if a thread fails to decode a tile while other threads were waiting for it,
+ * the waiting threads decode the tile themselves without storing it in the cache.</p>
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+final class TileCache extends Cache<TileCache.Key,Object> {
+    /**
+     * Maximal amount of memory, in bytes, to use for tiles hold by strong references.
+     */
+    private static final long MAXIMUM_COST = 512L * 1024 * 1024;
+
+    /**
+     * The cache shared by all GeoTIFF data stores.
+     */
+    static final TileCache INSTANCE = new TileCache(Math.min(Runtime.getRuntime().maxMemory() / 8, MAXIMUM_COST));
+
+    /**
+     * Creates a new cache keeping tiles by strong references up to the given amount of bytes.
+     *
+     * @param costLimit  the maximal amount of bytes of tiles to keep by strong references.
+     */
+    TileCache(final long costLimit) {
+        super(64, costLimit, false);
+        setKeyCollisionAllowed(true);
+    }
+
+    /**
+     * Returns the tile for the given key if it is in the cache, or {@code null} otherwise. Contrarily to
+     * {@link #peek(Object)}, this method marks the tile as the most recently used one. Consequently tiles
+     * that are read often stay hold by strong references, while tiles not read since a long time are the
+     * first ones to be released when the memory budget is exceeded.
+     *
+     * @param  key  the key of the tile to get.
+     * @return the cached tile, or {@code null} if none.
+     */
+    final Object getRecent(final Key key) {
+        final Object tile = peek(key);
+        if (tile != null) {
+            put(key, tile);         // Moves the tile at the end of the eviction order. The cost is unchanged.
+        }
+        return tile;
+    }
+
+    /**
+     * Returns an estimation of the memory used by the given tile, in bytes.
+     *
+     * @param  tile  the decoded tile, as an array of a primitive type.
+     * @return an estimation of the memory used by the given tile.
+     */
+    @Override
+    protected int cost(final Object tile) {
+        final long size = (long) Array.getLength(tile) * (Numbers.primitiveBitCount(tile.getClass().getComponentType()) / Byte.SIZE);
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Notifies the data store which read the given tile that the tile is no longer hold by strong reference.
+     *
+     * @param key  key of the tile released by this cache.
+     */
+    @Override
+    protected void evicted(final Key key) {
+        key.counters.evicted();
+    }
+
+    /**
+     * Returns an identifier of the given storage which will be the same for all data stores opened on the same file,
+     * as long as the file is not modified. If the given storage is not a file, then this method returns {@code null}.
+     * In the later case, the caller should use an identity specific to the data store.
+     *
+     * @param  storage  the input object given to the data store.
+     * @return an identifier of the file, or {@code null} if the identity can not be determined.
+     */
+    static Object fileIdentity(final Object storage) {
+        Path path = null;
+        try {
+            if (storage instanceof Path) {
+                path = (Path) storage;
+            } else if (storage instanceof File) {
+                path = ((File) storage).toPath();
+            } else if (storage instanceof URI) {
+                if ("file".equalsIgnoreCase(((URI) storage).getScheme())) {
+                    path = Paths.get((URI) storage);
+                }
+            } else if (storage instanceof CharSequence) {
+                path = Paths.get(storage.toString());
+            }
+            if (path != null) {
+                final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return Arrays.asList(path.toAbsolutePath().normalize(), attributes.lastModifiedTime(), attributes.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not a file we can identify (e.g. an URL). The caller will use an identity specific to the data store.
+        }
+        return null;
+    }
+
+    /**
+     * The key of a tile in the cache. Keys are compared by the file identity, image index and tile index,
+     * ignoring the counters (which are specific to the data store that created the key).
+     */
+    static final class Key {
+        /**
+         * The file identity as computed by {@link TileCache#fileIdentity(Object)},
+         * or an object specific to the data store if the file identity is unknown.
+         */
+        private final Object file;
+
+        /**
+         * Index of the image in the TIFF file, starting at 0.
+         */
+        private final int image;
+
+        /**
+         * Index of the tile in the image, including the component plane if the image is planar.
+         */
+        private final int tile;
+
+        /**
+         * The counters of the data store which created this key.
+         * This is not used for key comparisons.
+         */
+        final CacheCounters counters;
+
+        /**
+         * Creates a new key for the given tile.
+         */
+        Key(final Object file, final int image, final int tile, final CacheCounters counters) {
+            this.file     = file;
+            this.image    = image;
+            this.tile     = tile;
+            this.counters = counters;
+        }
+
+        /**
+         * Returns a hash code value for this key.
+         */
+        @Override
+        public int hashCode() {
+            return file.hashCode() + 31 * (image + 31 * tile);
+        }
+
+        /**
+         * Compares this key with the given object for equality.
+         */
+        @Override
+        public boolean equals(final Object other) {
+            if (other instanceof Key) {
+                final Key that = (Key) other;
+                return image == that.image && tile == that.tile && file.equals(that.file);
+            }
+            return false;
+        }
+
+        /**
+         * Returns a string representation for debugging purpose.
+         */
+        @Override
+        public String toString() {
+            return "Tile[" + image + ':' + tile + ']';
+        }
+    }
+}
@@ -0,0 +1,396 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff;
+
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.DataFormatException;
+import java.util.concurrent.RecursiveAction;
+import org.apache.sis.util.Numbers;
+
+// Branch-dependent imports
+import org.apache.sis.internal.jdk8.JDK8;
+
+
+/**
+ * Decompresses a set of tiles and copies their sample values in a destination array.
+ * The compressed bytes must have been read from the TIFF file before this task is executed,
+ * since the input channel can not be used concurrently. The decompression and the copy of
+ * each tile are then performed in parallel in a fork/join pool. Tiles that have already been decoded
+ * by a previous read (for example tiles found in the {@link TileCache}) can be given in the {@link #decoded}
+ * array, in which case they are only copied.
+ *
+ * <p>The destination array stores sample values in row-major order, with all samples of a pixel stored
+ * consecutively (the "chunky" format). If the TIFF image stores components in separated planes, then
+ * this task interleaves them.</p>
+ *
+ * <div class="section">Strips considered as tiles</div>
+ * Like {@link ImageFileDirectory}, this class handles strips as a special kind of tiles having a width
+ * equals to the image width.
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+@SuppressWarnings("serial")             // Not intended to be serialized.
+final class TileDecoder extends RecursiveAction {
+    /**
+     * Value of the {@code Predictor} TIFF tag meaning that sample values are stored as differences
+     * with the value of the previous pixel in the same row.
+     */
+    static final int HORIZONTAL_DIFFERENCING = 2;
+
+    /**
+     * The compression method of all tiles.
+     */
+    private final Compression compression;
+
+    /**
+     * Whether {@link #HORIZONTAL_DIFFERENCING} needs to be reverted after decompression.
+     */
+    private final boolean differencing;
+
+    /**
+     * The byte order of sample values in uncompressed tiles.
+     */
+    private final ByteOrder byteOrder;
+
+    /**
+     * The type of sample values, as one of {@link Numbers#BYTE}, {@link Numbers#SHORT}, {@link Numbers#INTEGER},
+     * {@link Numbers#LONG}, {@link Numbers#FLOAT} or {@link Numbers#DOUBLE} constants.
+     */
+    private final byte dataType;
+
+    /**
+     * The size of each tile in pixels.
+     */
+    private final int tileWidth, tileHeight;
+
+    /**
+     * Number of samples per pixel in a tile. This is 1 if the components are stored in separated planes,
+     * or the number of bands otherwise.
+     */
+    private final int samplesPerTilePixel;
+
+    /**
+     * Number of samples per pixel in the destination array. This is the number of bands.
+     */
+    private final int samplesPerPixel;
+
+    /**
+     * The region to read, in pixel coordinates. This region must be fully contained in the image.
+     */
+    private final Rectangle region;
+
+    /**
+     * Pixel coordinates of the upper-left corner of each tile to decode.
+     */
+    private final int[] tileX, tileY;
+
+    /**
+     * Index of the component plane of each tile, or -1 if tiles store all components of each pixel.
+     */
+    private final int[] planes;
+
+    /**
+     * Compressed bytes of each tile to decode, as read from the TIFF file.
+     * Elements are set to {@code null} after decompression for allowing the garbage collector to reclaim space.
+     */
+    private final byte[][] compressed;
+
+    /**
+     * Sample values of each tile after decompression. On input, elements may be non-null for tiles that
+     * have already been decoded, in which case the corresponding {@link #compressed} element is ignored.
+     * On output, this array contains all decoded tiles. Those arrays shall not be modified since they
+     * may be shared with the {@link TileCache}.
+     */
+    final Object[] decoded;
+
+    /**
+     * The destination array where to copy sample values. This is an array of a primitive type
+     * determined by {@link #dataType}.
+     */
+    private final Object destination;
+
+    /**
+     * Index of the first tile (inclusive) and last tile (exclusive) to decode by this task.
+     */
+    private final int lower, upper;
+
+    /**
+     * Creates a new task for decoding all the given tiles.
+     *
+     * @param compression      the compression method of all tiles.
+     * @param differencing     whether horizontal differencing needs to be reverted.
+     * @param byteOrder        the byte order of sample values in uncompressed tiles.
+     * @param dataType         the type of sample values as a {@link Numbers} constant.
+     * @param tileWidth        the width of all tiles, in pixels.
+     * @param tileHeight       the height of all tiles, in pixels.
+     * @param isPlanar         whether the components are stored in separated planes.
+     * @param samplesPerPixel  number of components per pixel.
+     * @param region           the region to read. Shall be fully contained in the image.
+     * @param tileX            pixel coordinates of the upper-left corner of each tile.
+     * @param tileY            pixel coordinates of the upper-left corner of each tile.
+     * @param planes           component plane of each tile, ignored if {@code isPlanar} is {@code false}.
+     * @param compressed       compressed bytes of each tile, or {@code null} elements for tiles already decoded.
+     * @param decoded          tiles already decoded, or {@code null} if none.
+     * @param destination      where to store sample values.
+     */
+    TileDecoder(final Compression compression, final boolean differencing, final ByteOrder byteOrder,
+                final byte dataType, final int tileWidth, final int tileHeight, final boolean isPlanar,
+                final int samplesPerPixel, final Rectangle region, final int[] tileX, final int[] tileY,
+                final int[] planes, final byte[][] compressed, final Object[] decoded, final Object destination)
+    {
+        this.compression         = compression;
+        this.differencing        = differencing;
+        this.byteOrder           = byteOrder;
+        this.dataType            = dataType;
+        this.tileWidth           = tileWidth;
+        this.tileHeight          = tileHeight;
+        this.samplesPerTilePixel = isPlanar ? 1 : samplesPerPixel;
+        this.samplesPerPixel     = samplesPerPixel;
+        this.region              = region;
+        this.tileX               = tileX;
+        this.tileY               = tileY;
+        this.planes              = isPlanar ? planes : null;
+        this.compressed          = compressed;
+        this.decoded             = (decoded != null) ? decoded : new Object[compressed.length];
+        this.destination         = destination;
+        this.lower               = 0;
+        this.upper               = compressed.length;
+    }
+
+    /**
+     * Creates a sub-task for decoding a subset of the tiles of the given task.
+     */
+    private TileDecoder(final TileDecoder parent, final int lower, final int upper) {
+        compression         = parent.compression;
+        differencing        = parent.differencing;
+        byteOrder           = parent.byteOrder;
+        dataType            = parent.dataType;
+        tileWidth           = parent.tileWidth;
+        tileHeight          = parent.tileHeight;
+        samplesPerTilePixel = parent.samplesPerTilePixel;
+        samplesPerPixel     = parent.samplesPerPixel;
+        region              = parent.region;
+        tileX               = parent.tileX;
+        tileY               = parent.tileY;
+        planes              = parent.planes;
+        compressed          = parent.compressed;
+        decoded             = parent.decoded;
+        destination         = parent.destination;
+        this.lower          = lower;
+        this.upper          = upper;
+    }
+
+    /**
+     * Allocates an array of the given type for the given number of sample values.
+     *
+     * @param  dataType  the type of sample values as a {@link Numbers} constant.
+     * @param  length    number of elements in the array to create.
+     * @return the new array.
+     */
+    static Object allocate(final byte dataType, final int length) {
+        switch (dataType) {
+            case Numbers.BYTE:    return new byte  [length];
+            case Numbers.SHORT:   return new short [length];
+            case Numbers.INTEGER: return new int   [length];
+            case Numbers.LONG:    return new long  [length];
+            case Numbers.FLOAT:   return new float [length];
+            case Numbers.DOUBLE:  return new double[length];
+            default: throw new AssertionError(dataType);
+        }
+    }
+
+    /**
+     * Decodes all tiles in the shared fork/join pool and waits for the completion of all tasks.
+     * This method shall be invoked only once, on the task created by the public constructor.
+     *
+     * @throws DataFormatException if the compressed data of a tile are invalid.
+     */
+    final void decodeAll() throws DataFormatException {
+        if (upper - lower <= 1) {
+            compute();                          // No need to involve other threads for a single tile.
+        } else {
+            JDK8.commonPool().execute(this);
+            quietlyJoin();
+        }
+        /*
+         * The fork/join framework may wrap the exception in another exception if it has been thrown
+         * in a different thread than the current one, so we need to search the cause of the failure.
+         */
+        final Throwable failure = getException();
+        if (failure != null) {
+            for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+                if (cause instanceof DataFormatException) {
+                    throw (DataFormatException) cause;
+                }
+            }
+            if (failure instanceof RuntimeException) throw (RuntimeException) failure;
+            if (failure instanceof Error)            throw (Error) failure;
+            throw new IllegalStateException(failure);                   // Should never happen.
+        }
+    }
+
+    /**
+     * Decodes the tiles in the range of indices assigned to this task.
+     * If there is more than one tile, the work is split in two sub-tasks.
+     */
+    @Override
+    protected void compute() {
+        if (upper - lower > 1) {
+            final int mid = (lower + upper) >>> 1;
+            invokeAll(new TileDecoder(this, lower, mid),
+                      new TileDecoder(this, mid, upper));
+        } else for (int i=lower; i<upper; i++) {
+            Object samples = decoded[i];
+            if (samples == null) {
+                try {
+                    samples = decode(compressed[i]);
+                } catch (DataFormatException e) {
+                    completeExceptionally(e);
+                    return;
+                }
+                compressed[i] = null;
+                decoded[i] = samples;
+            }
+            copy(samples, tileX[i], tileY[i], (planes != null) ? planes[i] : -1);
+        }
+    }
+
+    /**
+     * Decompresses the given tile and returns its sample values in an array of the type
+     * determined by {@link #dataType}.
+     */
+    private Object decode(final byte[] tile) throws DataFormatException {
+        final int n = tileWidth * tileHeight * samplesPerTilePixel;
+        final byte[] bytes;
+        switch (dataType) {
+            case Numbers.SHORT:   bytes = new byte[n * (Short  .SIZE / Byte.SIZE)]; break;
+            case Numbers.INTEGER: bytes = new byte[n * (Integer.SIZE / Byte.SIZE)]; break;
+            case Numbers.FLOAT:   bytes = new byte[n * (Float  .SIZE / Byte.SIZE)]; break;
+            case Numbers.LONG:    bytes = new byte[n * (Long   .SIZE / Byte.SIZE)]; break;
+            case Numbers.DOUBLE:  bytes = new byte[n * (Double .SIZE / Byte.SIZE)]; break;
+            default:              bytes = new byte[n]; break;
+        }
+        compression.decompress(tile, bytes);
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(byteOrder);
+        final Object samples;
+        switch (dataType) {
+            case Numbers.SHORT:   {final short [] a = new short [n]; buffer.asShortBuffer ().get(a); samples = a; break;}
+            case Numbers.INTEGER: {final int   [] a = new int   [n]; buffer.asIntBuffer   ().get(a); samples = a; break;}
+            case Numbers.LONG:    {final long  [] a = new long  [n]; buffer.asLongBuffer  ().get(a); samples = a; break;}
+            case Numbers.FLOAT:   {final float [] a = new float [n]; buffer.asFloatBuffer ().get(a); samples = a; break;}
+            case Numbers.DOUBLE:  {final double[] a = new double[n]; buffer.asDoubleBuffer().get(a); samples = a; break;}
+            default:              samples = bytes; break;
+        }
+        if (differencing) {
+            undoDifferencing(samples);
+        }
+        return samples;
+    }
+
+    /**
+     * Reverts the horizontal differencing applied on each row of the given tile.
+     * Each sample value is replaced by the sum of itself with the same component
+     * of the previous pixel in the same row.
+     */
+    private void undoDifferencing(final Object samples) {
+        final int step = samplesPerTilePixel;
+        final int rowLength = tileWidth * step;
+        for (int start=0; start < tileHeight * rowLength; start += rowLength) {
+            final int end = start + rowLength;
+            switch (dataType) {
+                case Numbers.BYTE:    {final byte [] a = (byte []) samples; for (int i=start+step; i<end; i++) a[i] += a[i - step]; break;}
+                case Numbers.SHORT:   {final short[] a = (short[]) samples; for (int i=start+step; i<end; i++) a[i] += a[i - step]; break;}
+                case Numbers.INTEGER: {final int  [] a = (int  []) samples; for (int i=start+step; i<end; i++) a[i] += a[i - step]; break;}
+                case Numbers.LONG:    {final long [] a = (long []) samples; for (int i=start+step; i<end; i++) a[i] += a[i - step]; break;}
+                default: throw new AssertionError(dataType);    // Floating point types have been verified by the caller.
+            }
+        }
+    }
+
+    /**
+     * Copies the sample values of a decoded tile in the destination array.
+     * Only the part of the tile which intersects the region of interest is copied.
+     *
+     * @param samples  the decoded tile.
+     * @param x0       pixel coordinate of the tile upper-left corner.
+     * @param y0       pixel coordinate of the tile upper-left corner.
+     * @param plane    the component plane of the tile, or -1 if the tile contains all components.
+     */
+    private void copy(final Object samples, final int x0, final int y0, final int plane) {
+        final int xmin = Math.max(x0, region.x);
+        final int ymin = Math.max(y0, region.y);
+        final int xmax = Math.min(x0 + tileWidth,  region.x + region.width);
+        final int ymax = Math.min(y0 + tileHeight, region.y + region.height);
+        final int numPixels = xmax - xmin;
+        for (int y=ymin; y<ymax; y++) {
+            final int srcOff = ((y - y0) * tileWidth + (xmin - x0)) * samplesPerTilePixel;
+            final int dstOff = ((y - region.y) * region.width + (xmin - region.x)) * samplesPerPixel;
+            if (plane < 0) {
+                System.arraycopy(samples, srcOff, destination, dstOff, numPixels * samplesPerPixel);
+            } else {
+                copyPlane(samples, srcOff, dstOff + plane, numPixels);
+            }
+        }
+    }
+
+    /**
+     * Copies the given number of sample values from a tile containing a single component plane,
+     * interleaving them with the values of other components in the destination array.
+     */
+    private void copyPlane(final Object samples, int srcOff, int dstOff, final int length) {
+        final int srcEnd = srcOff + length;
+        final int step = samplesPerPixel;
+        switch (dataType) {
+            case Numbers.BYTE: {
+                final byte[] src = (byte[]) samples, dst = (byte[]) destination;
+                while (srcOff < srcEnd) {dst[dstOff] = src[srcOff++]; dstOff += step;}
+                break;
+            }
+            case Numbers.SHORT: {
+                final short[] src = (short[]) samples, dst = (short[]) destination;
+                while (srcOff < srcEnd) {dst[dstOff] = src[srcOff++]; dstOff += step;}
+                break;
+            }
+            case Numbers.INTEGER: {
+                final int[] src = (int[]) samples, dst = (int[]) destination;
+                while (srcOff < srcEnd) {dst[dstOff] = src[srcOff++]; dstOff += step;}
+                break;
+            }
+            case Numbers.LONG: {
+                final long[] src = (long[]) samples, dst = (long[]) destination;
+                while (srcOff < srcEnd) {dst[dstOff] = src[srcOff++]; dstOff += step;}
+                break;
+            }
+            case Numbers.FLOAT: {
+                final float[] src = (float[]) samples, dst = (float[]) destination;
+                while (srcOff < srcEnd) {dst[dstOff] = src[srcOff++]; dstOff += step;}
+                break;
+            }
+            case Numbers.DOUBLE: {
+                final double[] src = (double[]) samples, dst = (double[]) destination;
+                while (srcOff < srcEnd) {dst[dstOff] = src[srcOff++]; dstOff += step;}
+                break;
+            }
+            default: throw new AssertionError(dataType);
+        }
+    }
+}
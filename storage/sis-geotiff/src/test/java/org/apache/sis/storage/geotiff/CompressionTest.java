@@ -16,6 +16,14 @@
  */
 package org.apache.sis.storage.geotiff;
 
+import java.util.Map;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DataFormatException;
+import java.io.ByteArrayOutputStream;
+import org.apache.sis.test.TestUtilities;
 import org.apache.sis.test.TestCase;
 import org.junit.Test;
 
@@ -40,4 +48,132 @@ public final strictfp class CompressionTest extends TestCase {
             assertSame(c.name(), c, Compression.valueOf(c.code));
         }
     }
+
+    /**
+     * Tests {@link Compression#decompress(byte[], byte[])} with PackBits compression.
+     * The test uses the example given in the TIFF 6.0 specification, page 42.
+     *
+     * @throws DataFormatException if an error occurred during the decompression.
+     */
+    @Test
+    public void testPackBits() throws DataFormatException {
+        final byte[] compressed = {
+            (byte) 0xFE, (byte) 0xAA, 0x02, (byte) 0x80, 0x00, 0x2A, (byte) 0xFD, (byte) 0xAA,
+            0x03, (byte) 0x80, 0x00, 0x2A, 0x22, (byte) 0xF7, (byte) 0xAA
+        };
+        final byte[] expected = {
+            (byte) 0xAA, (byte) 0xAA, (byte) 0xAA, (byte) 0x80, 0x00, 0x2A,
+            (byte) 0xAA, (byte) 0xAA, (byte) 0xAA, (byte) 0xAA, (byte) 0x80, 0x00, 0x2A, 0x22,
+            (byte) 0xAA, (byte) 0xAA, (byte) 0xAA, (byte) 0xAA, (byte) 0xAA,
+            (byte) 0xAA, (byte) 0xAA, (byte) 0xAA, (byte) 0xAA, (byte) 0xAA
+        };
+        final byte[] actual = new byte[expected.length];
+        Compression.PACKBITS.decompress(compressed, actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * Tests {@link Compression#decompress(byte[], byte[])} with Deflate compression.
+     *
+     * @throws DataFormatException if an error occurred during the decompression.
+     */
+    @Test
+    public void testDeflate() throws DataFormatException {
+        final byte[] expected = createTestData(TestUtilities.createRandomNumberGenerator());
+        final Deflater deflater = new Deflater();
+        deflater.setInput(expected);
+        deflater.finish();
+        final byte[] buffer = new byte[expected.length * 2 + 100];
+        final byte[] compressed = Arrays.copyOf(buffer, deflater.deflate(buffer));
+        deflater.end();
+        final byte[] actual = new byte[expected.length];
+        Compression.DEFLATE.decompress(compressed, actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * Tests {@link Compression#decompress(byte[], byte[])} with LZW compression.
+     * The test data are compressed by a straightforward implementation of the TIFF flavor of LZW encoder.
+     *
+     * @throws DataFormatException if an error occurred during the decompression.
+     */
+    @Test
+    public void testLZW() throws DataFormatException {
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        for (int i=0; i<10; i++) {
+            final byte[] expected = createTestData(random);
+            final byte[] actual = new byte[expected.length];
+            Compression.LZW.decompress(encodeLZW(expected), actual);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    /**
+     * Creates random bytes to compress, with a limited alphabet in order to get repetitions.
+     */
+    private static byte[] createTestData(final Random random) {
+        final byte[] data = new byte[1000 + random.nextInt(20000)];
+        final int alphabet = 1 + random.nextInt(random.nextBoolean() ? 4 : 256);
+        for (int i=0; i<data.length; i++) {
+            data[i] = (byte) random.nextInt(alphabet);
+        }
+        return data;
+    }
+
+    /**
+     * Compresses the given data with the LZW algorithm as specified by TIFF 6.0 section 13.
+     * This implementation is inefficient and used only for testing the decoder.
+     */
+    private static byte[] encodeLZW(final byte[] data) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Map<String,Integer> table = new HashMap<>();
+        final long[] bits = new long[2];                            // Bit buffer and number of bits in the buffer.
+        int codeLength = 9, nextCode = 258;
+        writeCode(out, bits, 256, codeLength);                      // Clear code.
+        String prefix = "";
+        for (final byte b : data) {
+            final char c = (char) (b & 0xFF);
+            final String candidate = prefix + c;
+            if (prefix.isEmpty() || table.containsKey(candidate)) {
+                prefix = candidate;
+                continue;
+            }
+            writeCode(out, bits, code(table, prefix), codeLength);
+            table.put(candidate, nextCode++);
+            if (nextCode == (1 << codeLength) && codeLength < 12) {
+                codeLength++;
+            } else if (nextCode == 4094) {
+                writeCode(out, bits, 256, codeLength);
+                table.clear();
+                nextCode = 258;
+                codeLength = 9;
+            }
+            prefix = String.valueOf(c);
+        }
+        writeCode(out, bits, code(table, prefix), codeLength);
+        writeCode(out, bits, 257, codeLength);                      // End of information code.
+        if (bits[1] != 0) {
+            out.write((int) (bits[0] << (Byte.SIZE - bits[1])));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the LZW code for the given string.
+     */
+    private static int code(final Map<String,Integer> table, final String s) {
+        return (s.length() == 1) ? s.charAt(0) : table.get(s);
+    }
+
+    /**
+     * Writes the given LZW code with the most significant bits first.
+     */
+    private static void writeCode(final ByteArrayOutputStream out, final long[] bits, final int code, final int length) {
+        bits[0] = (bits[0] << length) | code;
+        bits[1] += length;
+        while (bits[1] >= Byte.SIZE) {
+            bits[1] -= Byte.SIZE;
+            out.write((int) (bits[0] >>> bits[1]));
+        }
+    }
 }
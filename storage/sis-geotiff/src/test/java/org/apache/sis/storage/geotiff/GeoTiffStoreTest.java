@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.sis.math.Vector;
+import org.apache.sis.storage.StorageConnector;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.test.DependsOn;
+import org.apache.sis.test.DependsOnMethod;
+import org.apache.sis.test.TestCase;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests {@link GeoTiffStore#readRegion(int, Rectangle, int, int)} on small TIFF files written by this test.
+ * The images are intentionally not a multiple of the tile size, for testing tiles on the image borders.
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+@DependsOn({TileDecoderTest.class, TileCacheTest.class})
+public final strictfp class GeoTiffStoreTest extends TestCase {
+    /**
+     * Code of the TIFF types used by this test.
+     */
+    private static final short SHORT = 3, LONG = 4;
+
+    /**
+     * Description of an image to write in a test file. Sample values are unsigned 16 bits integers
+     * computed by {@link #sample(int, int, int)}, without compression.
+     */
+    private static final class Image {
+        /** Image size in pixels. */
+        final int width, height;
+
+        /** Tile size in pixels. For stripped images, the tile width is the image width. */
+        final int tileWidth, tileHeight;
+
+        /** Number of bands. */
+        final int numBands;
+
+        /** Whether the image is tiled (as opposed to stripped) and whether bands are in separated planes. */
+        final boolean isTiled, isPlanar;
+
+        /** Non-zero for reduced-resolution images. Also used for making sample values distinct in each image. */
+        final int level;
+
+        /** Creates a new image description. */
+        Image(int width, int height, int tileWidth, int tileHeight, int numBands, boolean isTiled, boolean isPlanar, int level) {
+            this.width      = width;
+            this.height     = height;
+            this.tileWidth  = tileWidth;
+            this.tileHeight = tileHeight;
+            this.numBands   = numBands;
+            this.isTiled    = isTiled;
+            this.isPlanar   = isPlanar;
+            this.level      = level;
+        }
+
+        /** Returns the sample value at the given pixel for the given band. */
+        final int sample(final int x, final int y, final int band) {
+            return level * 10000 + band * 1000 + y * 100 + x;
+        }
+    }
+
+    /**
+     * Writes a TIFF file (little endian) containing the given images in the given order.
+     *
+     * @param  images  the images to write.
+     * @return path to the temporary file. Caller shall delete that file after the test.
+     */
+    private static Path createFile(final Image... images) throws IOException {
+        final ByteBuffer out = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        out.put((byte) 'I').put((byte) 'I').putShort((short) 42);
+        int nextIFD = out.position();
+        out.putInt(0);
+        for (final Image image : images) {
+            /*
+             * Write the tiles or strips. Tiles have always the full tile size, while the last strip
+             * contains only the remaining rows.
+             */
+            final int tilesAcross = (image.width  + image.tileWidth  - 1) / image.tileWidth;
+            final int tilesDown   = (image.height + image.tileHeight - 1) / image.tileHeight;
+            final int numPlanes   = image.isPlanar ? image.numBands : 1;
+            final long[] offsets    = new long[tilesAcross * tilesDown * numPlanes];
+            final long[] byteCounts = new long[offsets.length];
+            int n = 0;
+            for (int p=0; p<numPlanes; p++) {
+                for (int ty=0; ty<tilesDown; ty++) {
+                    for (int tx=0; tx<tilesAcross; tx++) {
+                        offsets[n] = out.position();
+                        int rows = image.tileHeight;
+                        if (!image.isTiled) {
+                            rows = Math.min(rows, image.height - ty * image.tileHeight);
+                        }
+                        for (int r=0; r<rows; r++) {
+                            for (int c=0; c<image.tileWidth; c++) {
+                                final int x = tx * image.tileWidth  + c;
+                                final int y = ty * image.tileHeight + r;
+                                for (int b=0; b<image.numBands; b++) {
+                                    if (!image.isPlanar || b == p) {
+                                        final int value = (x < image.width && y < image.height) ? image.sample(x, y, b) : 0;
+                                        out.putShort((short) value);
+                                    }
+                                }
+                            }
+                        }
+                        byteCounts[n] = out.position() - offsets[n];
+                        n++;
+                    }
+                }
+            }
+            /*
+             * Write the Image File Directory, with entries in increasing tag order.
+             * Values that do not fit in 4 bytes are written after the directory.
+             */
+            final short[] bitsPerSample = new short[image.numBands];
+            Arrays.fill(bitsPerSample, (short) Short.SIZE);
+            final List<Object[]> entries = new ArrayList<>();
+            entries.add(new Object[] {Tags.NewSubfileType,            LONG,  new long[] {image.level != 0 ? 1 : 0}});
+            entries.add(new Object[] {Tags.ImageWidth,                LONG,  new long[] {image.width}});
+            entries.add(new Object[] {Tags.ImageLength,               LONG,  new long[] {image.height}});
+            entries.add(new Object[] {Tags.BitsPerSample,             SHORT, toLongs(bitsPerSample)});
+            entries.add(new Object[] {Tags.Compression,               SHORT, new long[] {1}});
+            entries.add(new Object[] {Tags.PhotometricInterpretation, SHORT, new long[] {image.numBands == 3 ? 2 : 1}});
+            if (!image.isTiled) {
+                entries.add(new Object[] {Tags.StripOffsets,          LONG,  offsets});
+            }
+            entries.add(new Object[] {Tags.SamplesPerPixel,           SHORT, new long[] {image.numBands}});
+            if (!image.isTiled) {
+                entries.add(new Object[] {Tags.RowsPerStrip,          LONG,  new long[] {image.tileHeight}});
+                entries.add(new Object[] {Tags.StripByteCounts,       LONG,  byteCounts});
+            }
+            entries.add(new Object[] {Tags.PlanarConfiguration,       SHORT, new long[] {image.isPlanar ? 2 : 1}});
+            if (image.isTiled) {
+                entries.add(new Object[] {Tags.TileWidth,             LONG,  new long[] {image.tileWidth}});
+                entries.add(new Object[] {Tags.TileLength,            LONG,  new long[] {image.tileHeight}});
+                entries.add(new Object[] {Tags.TileOffsets,           LONG,  offsets});
+                entries.add(new Object[] {Tags.TileByteCounts,        LONG,  byteCounts});
+            }
+            if ((out.position() & 1) != 0) {
+                out.put((byte) 0);                          // IFD shall begin on a word boundary.
+            }
+            out.putInt(nextIFD, out.position());
+            out.putShort((short) entries.size());
+            int extra = out.position() + entries.size() * 12 + 4;
+            for (final Object[] entry : entries) {
+                final short  type   = (Short) entry[1];
+                final long[] values = (long[]) entry[2];
+                out.putShort((Short) entry[0]).putShort(type).putInt(values.length);
+                final int size = (type == SHORT) ? (Short.SIZE / Byte.SIZE) : (Integer.SIZE / Byte.SIZE);
+                if (values.length * size <= Integer.SIZE / Byte.SIZE) {
+                    final int start = out.position();
+                    writeValues(out, type, values);
+                    out.position(start + Integer.SIZE / Byte.SIZE);
+                } else {
+                    out.putInt(extra);
+                    final int position = out.position();
+                    out.position(extra);
+                    writeValues(out, type, values);
+                    extra = out.position();
+                    out.position(position);
+                }
+            }
+            nextIFD = out.position();
+            out.putInt(0);
+            out.position(extra);
+        }
+        final Path file = Files.createTempFile("GeoTiffStoreTest", ".tiff");
+        Files.write(file, Arrays.copyOf(out.array(), out.position()));
+        return file;
+    }
+
+    /**
+     * Returns the given values as an array of {@code long}.
+     */
+    private static long[] toLongs(final short[] values) {
+        final long[] result = new long[values.length];
+        for (int i=0; i<values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
+    /**
+     * Writes the given values as integers of the given TIFF type.
+     */
+    private static void writeValues(final ByteBuffer out, final short type, final long[] values) {
+        for (final long value : values) {
+            if (type == SHORT) {
+                out.putShort((short) value);
+            } else {
+                out.putInt((int) value);
+            }
+        }
+    }
+
+    /**
+     * Verifies the sample values read in the given region of the given image.
+     *
+     * @param image     description of the image which has been read.
+     * @param region    the expected region of the samples, after clipping to the image bounds.
+     * @param samples   the sample values read by {@link GeoTiffStore}.
+     */
+    private static void verifyRegion(final Image image, final Rectangle region, final Vector samples) {
+        assertEquals("size", region.width * region.height * image.numBands, samples.size());
+        int i = 0;
+        for (int y=region.y; y < region.y + region.height; y++) {
+            for (int x=region.x; x < region.x + region.width; x++) {
+                for (int b=0; b<image.numBands; b++) {
+                    assertEquals("sample", image.sample(x, y, b), samples.intValue(i++));
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies the sample values read with a subsampling. Each returned pixel shall be the pixel
+     * of the given source image (which may be an overview) at the given column and row indices.
+     *
+     * @param source    description of the image from which the samples are expected to come from.
+     * @param columns   expected column indices in the source image.
+     * @param rows      expected row indices in the source image.
+     * @param samples   the sample values read by {@link GeoTiffStore}.
+     */
+    private static void verifySubsampled(final Image source, final int[] columns, final int[] rows, final Vector samples) {
+        assertEquals("size", columns.length * rows.length * source.numBands, samples.size());
+        int i = 0;
+        for (final int y : rows) {
+            for (final int x : columns) {
+                for (int b=0; b<source.numBands; b++) {
+                    assertEquals("sample", source.sample(x, y, b), samples.intValue(i++));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests {@link GeoTiffStore#readRegion(int, Rectangle)} in tiled images with the bands stored
+     * in a single plane or in separated planes, and in stripped images. The requested region crosses
+     * tile boundaries, and the region of the last read exceeds the image bounds.
+     *
+     * @throws IOException if an error occurred while writing the test file.
+     * @throws DataStoreException if an error occurred while reading the test file.
+     */
+    @Test
+    public void testReadRegion() throws IOException, DataStoreException {
+        final Image[] images = {
+            new Image(10, 7, 4, 4, 3, true,  false, 0),         // Tiled, bands in a single plane.
+            new Image(10, 7, 4, 4, 3, true,  true,  0),         // Tiled, bands in separated planes.
+            new Image(10, 7, 10, 3, 3, false, false, 0),        // Stripped, bands in a single plane.
+            new Image(10, 7, 10, 3, 3, false, true,  0)         // Stripped, bands in separated planes.
+        };
+        final Path file = createFile(images);
+        try (GeoTiffStore store = new GeoTiffStore(null, new StorageConnector(file))) {
+            for (int i=0; i<images.length; i++) {
+                final Image image = images[i];
+                Rectangle region = new Rectangle(2, 1, 5, 5);           // Intersects 4 tiles.
+                verifyRegion(image, region, store.readRegion(i, region));
+                region = new Rectangle(5, 4, 1, 1);                     // Single pixel.
+                verifyRegion(image, region, store.readRegion(i, region));
+                verifyRegion(image, new Rectangle(7, 5, 3, 2), store.readRegion(i, new Rectangle(7, 5, 10, 10)));
+                verifyRegion(image, new Rectangle(0, 0, 10, 7), store.readRegion(i, null));
+            }
+            /*
+             * Read again the first image. This time, tiles shall be fetched from the cache.
+             */
+            verifyRegion(images[0], new Rectangle(0, 0, 10, 7), store.readRegion(0, null));
+            try {
+                store.readRegion(0, new Rectangle(10, 0, 4, 4));
+                fail("Expected an exception for a region outside the image.");
+            } catch (IllegalArgumentException e) {
+                assertNotNull(e.getMessage());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests {@link GeoTiffStore#readRegion(int, Rectangle, int, int)} in an image having two overviews
+     * at resolutions 1:2 and 1:4. Since sample values are different in each image, the values read tell
+     * which overview has been selected for the requested subsampling.
+     *
+     * @throws IOException if an error occurred while writing the test file.
+     * @throws DataStoreException if an error occurred while reading the test file.
+     */
+    @Test
+    @DependsOnMethod("testReadRegion")
+    public void testReadOverview() throws IOException, DataStoreException {
+        final Image full = new Image(16, 12, 8, 8, 1, true,  false, 0);
+        final Image ov1  = new Image( 8,  6, 4, 4, 1, true,  false, 1);
+        final Image ov2  = new Image( 4,  3, 4, 3, 1, false, false, 2);
+        final Path file = createFile(full, ov1, ov2);
+        try (GeoTiffStore store = new GeoTiffStore(null, new StorageConnector(file))) {
+            verifySubsampled(full, new int[] {0, 3, 6, 9, 12, 15}, new int[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11},
+                    store.readRegion(0, null, 3, 1));                   // Overviews too coarse along y.
+            verifySubsampled(ov1, new int[] {0, 1, 2, 3, 4, 5, 6, 7}, new int[] {0, 1, 2, 3, 4, 5},
+                    store.readRegion(0, null, 2, 2));
+            verifySubsampled(ov1, new int[] {0, 1, 3, 4, 6, 7}, new int[] {0, 1, 3, 4},
+                    store.readRegion(0, null, 3, 3));                   // Finest overview coarser than 3 is 1:2.
+            verifySubsampled(ov1, new int[] {0, 4}, new int[] {0, 1, 2, 3, 4, 5},
+                    store.readRegion(0, null, 8, 2));                   // The 1:4 overview is too coarse along y.
+            verifySubsampled(ov2, new int[] {0, 1, 2, 3}, new int[] {0, 1, 2},
+                    store.readRegion(0, null, 4, 4));
+            verifySubsampled(ov2, new int[] {0, 1, 2, 3}, new int[] {0, 1, 2},
+                    store.readRegion(0, null, 5, 5));
+            verifySubsampled(ov2, new int[] {1, 2}, new int[] {0, 1},
+                    store.readRegion(0, new Rectangle(4, 2, 8, 8), 4, 4));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff;
+
+import org.apache.sis.test.TestCase;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests some static methods of the {@link ImageFileDirectory} class.
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+public final strictfp class ImageFileDirectoryTest extends TestCase {
+    /**
+     * Tests {@link ImageFileDirectory#sourceIndices(int, int, int, double, long)}
+     * for reading subsampled pixels from the full-resolution image or from an overview.
+     */
+    @Test
+    public void testSourceIndices() {
+        // Full-resolution image of 100 pixels, subsampling of 16 starting at pixel 5.
+        assertArrayEquals(new int[] {5, 21, 37, 53, 69, 85}, ImageFileDirectory.sourceIndices(5, 95, 16, 1, 100));
+        // Same request on an overview at 1:16 resolution (7 pixels).
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5},     ImageFileDirectory.sourceIndices(5, 95, 16, 100 / 7.0, 7));
+        // Same request on an overview at 1:8 resolution (13 pixels). Center of pixel 69 is in overview pixel 9.
+        assertArrayEquals(new int[] {0, 2, 4, 6, 9, 11},    ImageFileDirectory.sourceIndices(5, 95, 16, 100 / 13.0, 13));
+        // Non-integer scale factor.
+        assertArrayEquals(new int[] {0, 1, 2},              ImageFileDirectory.sourceIndices(0, 10, 4, 10 / 3.0, 3));
+    }
+}
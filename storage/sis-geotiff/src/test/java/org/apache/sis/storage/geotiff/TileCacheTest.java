@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.sis.internal.system.CacheCounters;
+import org.apache.sis.test.TestCase;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the {@link TileCache} class.
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+public final strictfp class TileCacheTest extends TestCase {
+    /**
+     * Tests the {@link TileCache#cost(Object)} method, which shall return the tile size in bytes.
+     */
+    @Test
+    public void testCost() {
+        final TileCache cache = new TileCache(1000);
+        assertEquals( 10, cache.cost(new byte  [10]));
+        assertEquals( 20, cache.cost(new short [10]));
+        assertEquals( 40, cache.cost(new float [10]));
+        assertEquals( 80, cache.cost(new double[10]));
+    }
+
+    /**
+     * Tests {@link TileCache.Key} equality, which shall ignore the counters.
+     */
+    @Test
+    public void testKey() {
+        final Object file = "dummy";
+        final TileCache.Key key = new TileCache.Key(file, 1, 4, new CacheCounters("A"));
+        assertEquals   (key,            new TileCache.Key(file, 1, 4, new CacheCounters("B")));
+        assertEquals   (key.hashCode(), new TileCache.Key(file, 1, 4, new CacheCounters("B")).hashCode());
+        assertNotEquals(key,            new TileCache.Key(file, 0, 4, key.counters));
+        assertNotEquals(key,            new TileCache.Key(file, 1, 5, key.counters));
+        assertNotEquals(key,            new TileCache.Key(new Object(), 1, 4, key.counters));
+    }
+
+    /**
+     * Tests {@link TileCache#getRecent(TileCache.Key)}. A tile obtained by that method shall become the
+     * most recently used tile, so it shall not be the first tile released when the cost limit is exceeded.
+     * Since evictions are performed in a background thread, this test needs to wait.
+     *
+     * @throws InterruptedException if the test has been interrupted.
+     */
+    @Test
+    public void testGetRecent() throws InterruptedException {
+        final TileCache cache = new TileCache(25);
+        final TileCache.Key first  = new TileCache.Key(0, 0, 1, new CacheCounters("first"));
+        final TileCache.Key second = new TileCache.Key(0, 0, 2, new CacheCounters("second"));
+        final TileCache.Key third  = new TileCache.Key(0, 0, 3, new CacheCounters("third"));
+        final byte[] tile = new byte[10];
+        cache.put(first,  tile);
+        cache.put(second, tile);
+        assertSame(tile, cache.getRecent(first));
+        assertNull(cache.getRecent(third));
+        cache.put(third, tile);
+        for (int i=0; first.counters.evictions() + second.counters.evictions() == 0; i++) {
+            assertTrue("Timeout while waiting for evictions.", i < 100);
+            Thread.sleep(50);
+        }
+        assertEquals("first",  0, first .counters.evictions());
+        assertEquals("second", 1, second.counters.evictions());
+    }
+
+    /**
+     * Tests {@link TileCache#fileIdentity(Object)}. The identity shall be the same for different
+     * objects referencing the same file, and shall change when the file is modified.
+     *
+     * @throws IOException if an error occurred while creating the temporary file.
+     */
+    @Test
+    public void testFileIdentity() throws IOException {
+        final Path file = Files.createTempFile("TileCacheTest", ".tiff");
+        try {
+            final Object identity = TileCache.fileIdentity(file);
+            assertNotNull(identity);
+            assertEquals(identity, TileCache.fileIdentity(file.toFile()));
+            assertEquals(identity, TileCache.fileIdentity(file.toUri()));
+            assertEquals(identity, TileCache.fileIdentity(file.toString()));
+            Files.write(file, new byte[] {1, 2, 3});
+            assertNotEquals(identity, TileCache.fileIdentity(file));
+        } finally {
+            Files.delete(file);
+        }
+        assertNull(TileCache.fileIdentity(new Object()));
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff;
+
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import org.apache.sis.util.Numbers;
+import org.apache.sis.test.DependsOn;
+import org.apache.sis.test.TestCase;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the {@link TileDecoder} class.
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+@DependsOn(CompressionTest.class)
+public final strictfp class TileDecoderTest extends TestCase {
+    /**
+     * Size of the test image in pixels.
+     */
+    private static final int WIDTH = 10, HEIGHT = 7;
+
+    /**
+     * Size of the tiles in the test image. Those sizes are intentionally not divisors
+     * of the image size in order to test the handling of tiles on the image borders.
+     */
+    private static final int TILE_WIDTH = 4, TILE_HEIGHT = 3;
+
+    /**
+     * Number of tiles along the <var>x</var> and <var>y</var> axes.
+     */
+    private static final int TILES_ACROSS = 3, TILES_DOWN = 3;
+
+    /**
+     * Returns the sample value expected at the given pixel for the given band.
+     */
+    private static short sample(final int x, final int y, final int band) {
+        return (short) (band * 1000 + (y * WIDTH + x) * 7);
+    }
+
+    /**
+     * Creates the uncompressed content of the tile at the given index.
+     *
+     * @param tx            column index of the tile.
+     * @param ty            row index of the tile.
+     * @param plane         the component plane, or -1 for storing all bands in the tile.
+     * @param numBands      number of bands in the image.
+     * @param differencing  whether to apply horizontal differencing.
+     */
+    private static byte[] createTile(final int tx, final int ty, final int plane, final int numBands,
+            final boolean differencing)
+    {
+        final int n = (plane >= 0) ? 1 : numBands;
+        final ByteBuffer buffer = ByteBuffer.allocate(TILE_WIDTH * TILE_HEIGHT * n * (Short.SIZE / Byte.SIZE));
+        for (int y=0; y<TILE_HEIGHT; y++) {
+            final short[] previous = new short[n];
+            for (int x=0; x<TILE_WIDTH; x++) {
+                final int px = tx * TILE_WIDTH  + x;
+                final int py = ty * TILE_HEIGHT + y;
+                for (int b=0; b<n; b++) {
+                    final short value = (px < WIDTH && py < HEIGHT) ? sample(px, py, (plane >= 0) ? plane : b) : 0;
+                    buffer.putShort(differencing ? (short) (value - previous[b]) : value);
+                    previous[b] = value;
+                }
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes the given region of the test image and verifies the sample values.
+     *
+     * @param region        the region to read.
+     * @param numBands      number of bands in the image.
+     * @param isPlanar      whether the bands are stored in separated planes.
+     * @param differencing  whether horizontal differencing has been applied.
+     */
+    private static void verifyRegion(final Rectangle region, final int numBands, final boolean isPlanar,
+            final boolean differencing) throws DataFormatException
+    {
+        final int numPlanes = isPlanar ? numBands : 1;
+        final int capacity  = TILES_ACROSS * TILES_DOWN * numPlanes;
+        final int[]    tileX      = new int[capacity];
+        final int[]    tileY      = new int[capacity];
+        final int[]    planes     = new int[capacity];
+        final byte[][] compressed = new byte[capacity][];
+        int count = 0;
+        for (int p=0; p<numPlanes; p++) {
+            for (int ty=0; ty<TILES_DOWN; ty++) {
+                for (int tx=0; tx<TILES_ACROSS; tx++) {
+                    if (region.intersects(tx * TILE_WIDTH, ty * TILE_HEIGHT, TILE_WIDTH, TILE_HEIGHT)) {
+                        tileX [count] = tx * TILE_WIDTH;
+                        tileY [count] = ty * TILE_HEIGHT;
+                        planes[count] = p;
+                        compressed[count++] = createTile(tx, ty, isPlanar ? p : -1, numBands, differencing);
+                    }
+                }
+            }
+        }
+        final short[] samples = new short[region.width * region.height * numBands];
+        new TileDecoder(Compression.NONE, differencing, ByteOrder.BIG_ENDIAN, Numbers.SHORT,
+                TILE_WIDTH, TILE_HEIGHT, isPlanar, numBands, region, tileX, tileY, planes,
+                Arrays.copyOf(compressed, count), null, samples).decodeAll();
+        int i = 0;
+        for (int y=0; y<region.height; y++) {
+            for (int x=0; x<region.width; x++) {
+                for (int b=0; b<numBands; b++) {
+                    assertEquals(sample(region.x + x, region.y + y, b), samples[i++]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests the decoding of a region covering partially many tiles, with all bands stored in each tile.
+     *
+     * @throws DataFormatException if an error occurred during the decompression.
+     */
+    @Test
+    public void testChunky() throws DataFormatException {
+        verifyRegion(new Rectangle(3, 2, 6, 4), 3, false, false);
+        verifyRegion(new Rectangle(0, 0, WIDTH, HEIGHT), 3, false, false);
+    }
+
+    /**
+     * Tests the decoding of a region when each band is stored in a separated plane.
+     *
+     * @throws DataFormatException if an error occurred during the decompression.
+     */
+    @Test
+    public void testPlanar() throws DataFormatException {
+        verifyRegion(new Rectangle(3, 2, 6, 4), 2, true, false);
+        verifyRegion(new Rectangle(0, 0, WIDTH, HEIGHT), 2, true, false);
+    }
+
+    /**
+     * Tests the decoding of tiles compressed with horizontal differencing.
+     *
+     * @throws DataFormatException if an error occurred during the decompression.
+     */
+    @Test
+    public void testHorizontalDifferencing() throws DataFormatException {
+        verifyRegion(new Rectangle(1, 1, 8, 5), 3, false, true);
+        verifyRegion(new Rectangle(1, 1, 8, 5), 2, true,  true);
+    }
+
+    /**
+     * Verifies that corrupted data cause a {@link DataFormatException} to be thrown
+     * in the caller thread, including when the tiles are decoded by other threads.
+     */
+    @Test
+    public void testCorruptedData() {
+        final byte[][] compressed = {{1, 2, 3}, {4, 5, 6}};
+        try {
+            new TileDecoder(Compression.DEFLATE, false, ByteOrder.BIG_ENDIAN, Numbers.BYTE, 4, 4, false, 1,
+                    new Rectangle(8, 4), new int[] {0, 4}, new int[] {0, 0}, null, compressed, null, new byte[32]).decodeAll();
+            fail("Expected DataFormatException.");
+        } catch (DataFormatException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+}
@@ -32,8 +32,12 @@ import org.junit.BeforeClass;
 @Suite.SuiteClasses({
     org.apache.sis.storage.geotiff.TypeTest.class,
     org.apache.sis.storage.geotiff.CompressionTest.class,
+    org.apache.sis.storage.geotiff.TileDecoderTest.class,
+    org.apache.sis.storage.geotiff.TileCacheTest.class,
+    org.apache.sis.storage.geotiff.ImageFileDirectoryTest.class,
     org.apache.sis.storage.geotiff.GeoKeysTest.class,
-    org.apache.sis.storage.geotiff.CRSBuilderTest.class
+    org.apache.sis.storage.geotiff.CRSBuilderTest.class,
+    org.apache.sis.storage.geotiff.GeoTiffStoreTest.class
 })
 public final strictfp class GeoTiffTestSuite extends TestSuite {
     /**
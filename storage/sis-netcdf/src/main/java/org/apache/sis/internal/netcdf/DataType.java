@@ -172,6 +172,24 @@ public enum DataType {
         return (u == isUnsigned) ? this : valueOf(opposite);
     }
 
+    /**
+     * Returns the number of bytes used for storing a value of this type in a NetCDF file,
+     * or 0 if the size is unknown or variable.
+     *
+     * @return number of bytes of a value of this type, or 0 if unknown.
+     */
+    public final int size() {
+        switch (number) {
+            case Numbers.BYTE:    return Byte   .SIZE / Byte.SIZE;
+            case Numbers.SHORT:   return Short  .SIZE / Byte.SIZE;
+            case Numbers.INTEGER: return Integer.SIZE / Byte.SIZE;
+            case Numbers.FLOAT:   return Float  .SIZE / Byte.SIZE;
+            case Numbers.LONG:    return Long   .SIZE / Byte.SIZE;
+            case Numbers.DOUBLE:  return Double .SIZE / Byte.SIZE;
+            default:              return 0;
+        }
+    }
+
     /**
      * An array of all supported NetCDF data types ordered in such a way that
      * {@code VALUES[codeNetCDF - 1]} is the enumeration value for a given NetCDF code.
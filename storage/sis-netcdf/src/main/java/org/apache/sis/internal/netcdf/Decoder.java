@@ -16,10 +16,18 @@
  */
 package org.apache.sis.internal.netcdf;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import javax.measure.Unit;
 import javax.measure.format.ParserException;
 import org.apache.sis.measure.Units;
@@ -31,7 +39,8 @@ import org.apache.sis.util.logging.WarningListeners;
  * The API used internally by Apache SIS for fetching variables and attribute values from a NetCDF file.
  *
  * <p>This {@code Decoder} class and subclasses are <strong>not</strong> thread-safe.
- * Synchronizations are caller's responsibility.</p>
+ * Synchronizations are caller's responsibility. Callers shall synchronize on the decoder instance,
+ * since this is the lock used by the tasks executed in background by {@link #submit(ReadTask[])}.</p>
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.3
@@ -50,6 +59,14 @@ public abstract class Decoder implements Closeable {
      */
     public volatile boolean canceled;
 
+    /**
+     * The executor of the tasks given to {@link #submit(ReadTask[])}. This executor uses at most one thread,
+     * which is created when first needed and terminated after a few seconds of inactivity. We do not use a
+     * pool shared with other modules because read tasks block on I/O operations, which would prevent the
+     * shared pool from running computational tasks.
+     */
+    private final ThreadPoolExecutor executor;
+
     /**
      * Creates a new decoder.
      *
@@ -58,6 +75,14 @@ public abstract class Decoder implements Closeable {
     protected Decoder(final WarningListeners<?> listeners) {
         Objects.requireNonNull(listeners);
         this.listeners = listeners;
+        executor = new ThreadPoolExecutor(0, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override public Thread newThread(final Runnable task) {
+                        final Thread thread = new Thread(task, "NetCDF reader");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
     }
 
     /**
@@ -216,4 +241,68 @@ public abstract class Decoder implements Closeable {
      * @throws IOException if an I/O operation was necessary but failed.
      */
     public abstract GridGeometry[] getGridGeometries() throws IOException;
+
+    /**
+     * Executes the given read tasks in a background thread. Tasks are sorted in the order of their data
+     * in the file before to be executed, so the channel is traversed in a single forward pass as much as
+     * possible. Tasks are executed sequentially in a thread dedicated to this decoder. Each task holds the
+     * lock on this decoder only during its own execution, so other threads synchronizing on this decoder
+     * can interleave their work between two tasks.
+     *
+     * <p>This method returns immediately. The results shall be obtained by {@link ReadTask#get()}.
+     * Tasks cancelled before their execution are skipped, and the remaining tasks are skipped if
+     * the {@link #canceled} flag is set or if {@link #shutdown()} has been invoked.</p>
+     *
+     * @param  tasks  the tasks created by {@link Variable#createReadTask(int[], int[], int[])}.
+     */
+    public final void submit(final ReadTask... tasks) {
+        final ReadTask[] ordered = tasks.clone();
+        Arrays.sort(ordered, new Comparator<ReadTask>() {
+            @Override public int compare(final ReadTask t1, final ReadTask t2) {
+                return Long.compare(t1.position, t2.position);
+            }
+        });
+        for (int i=0; i<ordered.length; i++) {
+            final ReadTask task = ordered[i];
+            try {
+                executor.execute(new Runnable() {
+                    @Override public void run() {
+                        synchronized (Decoder.this) {
+                            if (canceled || executor.isShutdown()) {
+                                task.cancel(false);
+                            } else {
+                                task.run();
+                            }
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The decoder has been shutdown. Cancel this task and all remaining ones.
+                while (i < ordered.length) {
+                    ordered[i++].cancel(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancels the tasks given to {@link #submit(ReadTask[])} that have not yet started, and waits for the
+     * task currently running (if any) to complete. This method shall be invoked before {@link #close()},
+     * without holding the lock on this decoder since the running task needs that lock.
+     *
+     * @throws InterruptedIOException if the current thread has been interrupted while waiting.
+     */
+    public final void shutdown() throws InterruptedIOException {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Wait until the running task completes. Remaining tasks will be cancelled quickly.
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException ex = new InterruptedIOException(getFilename());
+            ex.initCause(e);
+            throw ex;
+        }
+    }
 }
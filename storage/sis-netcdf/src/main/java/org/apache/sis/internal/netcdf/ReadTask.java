@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.netcdf;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import org.apache.sis.math.Vector;
+import org.apache.sis.util.Debug;
+
+
+/**
+ * A deferred read of a sub-sampled sub-area of a variable. Instances are created by
+ * {@link Variable#createReadTask(int[], int[], int[])} and executed in a batch by
+ * {@link Decoder#submit(ReadTask[])}. The result is obtained by {@link #get()},
+ * which blocks until the data have been read.
+ *
+ * <p>A task can be cancelled by a call to {@link #cancel(boolean)} before it is executed. Cancelling a
+ * task never interrupts the thread executing it, since interrupting a thread blocked in an I/O operation
+ * on an interruptible channel would close the channel. Consequently a task already running completes
+ * normally, but its result is discarded.</p>
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+public final class ReadTask extends FutureTask<Vector> {
+    /**
+     * The variable to read.
+     */
+    final Variable variable;
+
+    /**
+     * Position of the first value to read, used for sorting tasks in the order of data in the file.
+     */
+    final long position;
+
+    /**
+     * Creates a new task for reading a sub-area of the given variable.
+     * The arrays given to this constructor shall not be modified after this call.
+     */
+    ReadTask(final Variable variable, final int[] areaLower, final int[] areaUpper, final int[] subsampling) {
+        super(new Callable<Vector>() {
+            @Override public Vector call() throws Exception {
+                return variable.read(areaLower, areaUpper, subsampling);
+            }
+        });
+        this.variable = variable;
+        this.position = variable.dataPosition(areaLower, areaUpper, subsampling);
+    }
+
+    /**
+     * Attempts to cancel the execution of this task. The thread executing the task is never interrupted,
+     * regardless the value of the {@code mayInterruptIfRunning} argument.
+     *
+     * @param  mayInterruptIfRunning  ignored.
+     * @return {@code false} if the task could not be cancelled, typically because it has already completed.
+     */
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        return super.cancel(false);
+    }
+
+    /**
+     * Returns a string representation of this task for debugging purpose.
+     *
+     * @return a string representation of this task.
+     */
+    @Debug
+    @Override
+    public String toString() {
+        return "ReadTask[" + variable.getName() + " @ " + position + ']';
+    }
+}
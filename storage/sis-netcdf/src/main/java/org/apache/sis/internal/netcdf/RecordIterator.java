@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.netcdf;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import org.apache.sis.math.Vector;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.util.ArgumentChecks;
+
+
+/**
+ * Iterates over the values of a variable slab by slab along the first NetCDF dimension, which is the
+ * unlimited (record) dimension if the variable has one. Each slab contains the values of a fixed number
+ * of consecutive records (except the last slab, which may be shorter), in the same order than the values
+ * returned by {@link Variable#read()}. This allows to scan variables too large for being loaded in memory,
+ * like multi-year time series, in constant memory.
+ *
+ * <p>Typical usage:</p>
+ * {@preformat java
+ *     RecordIterator it = variable.records(100);
+ *     while (it.next()) {
+ *         Vector values = it.values();
+ *         // Use the values of records it.first() to it.first() + it.count() - 1.
+ *     }
+ * }
+ *
+ * Implementations may reuse the same array of primitive type for all slabs. Consequently the vector returned
+ * by {@link #values()} is valid only until the next call to {@link #next()}; callers shall copy the values
+ * that they want to keep. The default implementation delegates to {@link Variable#read(int[], int[], int[])}
+ * for each slab.
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+public class RecordIterator {
+    /**
+     * The variable to read.
+     */
+    protected final Variable variable;
+
+    /**
+     * Index of the first value to read along each dimension, in NetCDF order.
+     * The element at index 0 is updated for each slab.
+     */
+    private final int[] areaLower;
+
+    /**
+     * Index after the last value to read along each dimension, in NetCDF order.
+     * The element at index 0 is updated for each slab.
+     */
+    private final int[] areaUpper;
+
+    /**
+     * The sub-sampling, which is 1 in all dimensions.
+     */
+    private final int[] subsampling;
+
+    /**
+     * Total number of records in the variable.
+     */
+    private final long numRecords;
+
+    /**
+     * Maximal number of records to read in each slab.
+     */
+    private final int recordsPerSlab;
+
+    /**
+     * Index of the first record in the current slab.
+     */
+    private long first;
+
+    /**
+     * Number of records in the current slab, or 0 if {@link #next()} has not been invoked
+     * or if the iteration is finished.
+     */
+    private int count;
+
+    /**
+     * The values of the current slab, or {@code null} if none.
+     */
+    private Vector values;
+
+    /**
+     * Creates a new iterator over the records of the given variable.
+     * If the variable has no dimension, then it is considered as a single record.
+     *
+     * @param  variable        the variable to read.
+     * @param  recordsPerSlab  maximal number of records to read in each slab.
+     */
+    public RecordIterator(final Variable variable, final int recordsPerSlab) {
+        ArgumentChecks.ensureStrictlyPositive("recordsPerSlab", recordsPerSlab);
+        this.variable       = variable;
+        this.recordsPerSlab = recordsPerSlab;
+        areaUpper   = variable.getGridEnvelope();
+        areaLower   = new int[areaUpper.length];
+        subsampling = new int[areaUpper.length];
+        for (int i=0; i<subsampling.length; i++) {
+            subsampling[i] = 1;
+        }
+        numRecords = (areaUpper.length != 0) ? areaUpper[0] & 0xFFFFFFFFL : 1;
+    }
+
+    /**
+     * Reads the next slab of records.
+     *
+     * @return {@code false} if there is no more records to read.
+     * @throws IOException if an error occurred while reading the data.
+     * @throws DataStoreException if a logical error occurred.
+     */
+    public boolean next() throws IOException, DataStoreException {
+        first += count;
+        values = null;
+        if (first >= numRecords) {
+            count = 0;
+            return false;
+        }
+        count = (int) Math.min(recordsPerSlab, numRecords - first);
+        values = read(first, count);
+        return true;
+    }
+
+    /**
+     * Reads the values of the given range of records. This method is invoked by {@link #next()}.
+     * The default implementation delegates to {@link Variable#read(int[], int[], int[])}.
+     * Subclasses can override this method for reusing the same array for all slabs.
+     *
+     * @param  first  index of the first record to read.
+     * @param  count  number of records to read.
+     * @return the values of the given records.
+     * @throws IOException if an error occurred while reading the data.
+     * @throws DataStoreException if a logical error occurred.
+     */
+    protected Vector read(final long first, final int count) throws IOException, DataStoreException {
+        if (areaLower.length == 0) {
+            return variable.read();
+        }
+        areaLower[0] = (int) first;
+        areaUpper[0] = (int) (first + count);
+        return variable.read(areaLower, areaUpper, subsampling);
+    }
+
+    /**
+     * Returns the index of the first record in the current slab.
+     *
+     * @return index of the first record in the current slab.
+     */
+    public long first() {
+        return first;
+    }
+
+    /**
+     * Returns the number of records in the current slab.
+     *
+     * @return number of records in the current slab, or 0 if none.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns the values of the current slab. The returned vector may be backed by an array
+     * which will be overwritten by the next call to {@link #next()}.
+     *
+     * @return the values of the current slab.
+     * @throws NoSuchElementException if {@link #next()} has not been invoked or returned {@code false}.
+     */
+    public Vector values() {
+        if (values == null) {
+            throw new NoSuchElementException();
+        }
+        return values;
+    }
+}
@@ -192,6 +192,52 @@ public abstract class Variable extends NamedElement {
      */
     public abstract Vector read(int[] areaLower, int[] areaUpper, int[] subsampling) throws IOException, DataStoreException;
 
+    /**
+     * Returns an iterator over the values of this variable, slab by slab along the first NetCDF dimension
+     * (the unlimited dimension if this variable has one). This method allows to read variables which are
+     * too large for {@link #read()}. The default implementation reads each slab with
+     * {@link #read(int[], int[], int[])}; subclasses may return an iterator reusing the same array
+     * for all slabs.
+     *
+     * @param  recordsPerSlab  maximal number of records to read in each slab.
+     * @return an iterator over the slabs of this variable.
+     * @throws DataStoreException if the records of this variable can not be read.
+     */
+    public RecordIterator records(final int recordsPerSlab) throws DataStoreException {
+        return new RecordIterator(this, recordsPerSlab);
+    }
+
+    /**
+     * Creates a task for reading a sub-sampled sub-area of the variable later. The task is not executed
+     * by this method; it shall be given to {@link Decoder#submit(ReadTask[])}, possibly together with tasks
+     * for other variables or other slices of this variable. This allows the decoder to read all data in
+     * a single pass over the file. Constraints on argument values are the same than for
+     * {@link #read(int[], int[], int[])}.
+     *
+     * @param  areaLower    index of the first value to read along each dimension.
+     * @param  areaUpper    index after the last value to read along each dimension.
+     * @param  subsampling  sub-sampling along each dimension. 1 means no sub-sampling.
+     * @return a task to submit to the decoder for reading the data.
+     */
+    public final ReadTask createReadTask(final int[] areaLower, final int[] areaUpper, final int[] subsampling) {
+        return new ReadTask(this, areaLower.clone(), areaUpper.clone(), subsampling.clone());
+    }
+
+    /**
+     * Returns the position in the file of the first value to be read by {@link #read(int[], int[], int[])}.
+     * This is used for executing many read operations in the order of data in the file. The default
+     * implementation returns 0, meaning that the position is unknown. In such case, read operations
+     * are executed in the order they were submitted.
+     *
+     * @param  areaLower    index of the first value to read along each dimension.
+     * @param  areaUpper    index after the last value to read along each dimension.
+     * @param  subsampling  sub-sampling along each dimension. 1 means no sub-sampling.
+     * @return position in the file of the first value to read, or 0 if unknown.
+     */
+    protected long dataPosition(int[] areaLower, int[] areaUpper, int[] subsampling) {
+        return 0;
+    }
+
     /**
      * Returns a string representation of this variable for debugging purpose.
      *
@@ -271,6 +271,9 @@ public final class ChannelDecoder extends Decoder {
                 }
             }
         }
+        if (variables != null) {
+            VariableInfo.computeRecordSize(variables);
+        }
         attributeMap = attributes;
         this.variables = variables;
         variableMap = NamedElement.toCaseInsensitiveNameMap(variables, NAME_LOCALE);
@@ -466,13 +469,14 @@ public final class ChannelDecoder extends Decoder {
         for (int i=0; i<nelems; i++) {
             final String name = readName();
             int length = input.readInt();
-            if (length == 0) {
+            final boolean isUnlimited = (length == 0);
+            if (isUnlimited) {
                 length = numrecs;
                 if (length == STREAMING) {
                     throw new DataStoreContentException(errors().getString(Errors.Keys.MissingValueForProperty_1, "numrecs"));
                 }
             }
-            dimensions[i] = new Dimension(name, length);
+            dimensions[i] = new Dimension(name, length, isUnlimited);
         }
         dimensionMap = Dimension.toCaseInsensitiveNameMap(dimensions, NAME_LOCALE);
         return dimensions;
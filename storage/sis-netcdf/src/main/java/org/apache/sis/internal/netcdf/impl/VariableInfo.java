@@ -23,6 +23,7 @@ import ucar.nc2.constants.CF;
 import ucar.nc2.constants.CDM;
 import ucar.nc2.constants._Coordinate;
 import org.apache.sis.internal.netcdf.DataType;
+import org.apache.sis.internal.netcdf.RecordIterator;
 import org.apache.sis.internal.netcdf.Variable;
 import org.apache.sis.internal.storage.io.ChannelDataInput;
 import org.apache.sis.internal.storage.io.HyperRectangleReader;
@@ -50,6 +51,12 @@ final class VariableInfo extends Variable {
      */
     private static final Number[] EMPTY = new Number[0];
 
+    /**
+     * Minimal number of values to read before to use many threads. Below this threshold, the cost of
+     * concurrent reads is not worth the gain. The current value is about one megabyte of {@code float}s.
+     */
+    private static final long PARALLEL_READ_THRESHOLD = 1 << 18;
+
     /**
      * The names of attributes where to look for the description to be returned by {@link #getDescription()}.
      * We use the same attributes than the one documented in the {@link ucar.nc2.Variable#getDescription()} javadoc.
@@ -118,6 +125,15 @@ final class VariableInfo extends Variable {
      */
     private final boolean isCoordinateSystemAxis;
 
+    /**
+     * Number of bytes between the first values of two consecutive indices along the first NetCDF dimension.
+     * For variables using the unlimited dimension, this is the size of a whole record, which may include
+     * the values of other record variables since the values of all record variables are interleaved.
+     * For other variables, this is the size of a slice of this variable. This field is computed by
+     * {@link #computeRecordSize(VariableInfo[])} after all variables have been read from the header.
+     */
+    private long recordSize;
+
     /**
      * Creates a new variable.
      *
@@ -173,6 +189,61 @@ final class VariableInfo extends Variable {
         }
     }
 
+    /**
+     * Computes the {@link #recordSize} of all given variables. The NetCDF classic format stores the values
+     * of all record variables interleaved record by record, each slice being padded to a multiple of 4 bytes,
+     * except when there is only one record variable in which case no padding is applied.
+     *
+     * @param  variables  all variables declared in the NetCDF file.
+     */
+    static void computeRecordSize(final VariableInfo[] variables) {
+        long total = 0;
+        int  count = 0;
+        for (final VariableInfo variable : variables) {
+            final long size = variable.sliceSize();
+            variable.recordSize = size;
+            if (variable.isRecordVariable()) {
+                total += (size + 3) & ~3L;
+                count++;
+            }
+        }
+        if (count > 1) {
+            for (final VariableInfo variable : variables) {
+                if (variable.isRecordVariable()) {
+                    variable.recordSize = total;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes used by this variable for one index along the first NetCDF dimension,
+     * without padding. This is the number of values along all other dimensions multiplied by the value size.
+     */
+    private long sliceSize() {
+        long size = (dataType != null) ? dataType.size() : 0;
+        for (int i=1; i<dimensions.length; i++) {
+            size *= dimensions[i].length();
+        }
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this variable uses the unlimited dimension.
+     * By NetCDF convention, the unlimited dimension can only be the first one.
+     */
+    private boolean isRecordVariable() {
+        return dimensions.length != 0 && dimensions[0].isUnlimited;
+    }
+
+    /**
+     * Returns {@code true} if the records of this variable are interleaved with the records of other variables.
+     * In such case the values of this variable can not be read as a single hyper-rectangle.
+     */
+    private boolean isInterleaved() {
+        return isRecordVariable() && recordSize != sliceSize();
+    }
+
     /**
      * Returns the name of this variable.
      */
@@ -373,7 +444,10 @@ final class VariableInfo extends Variable {
             sub [i] = 1;
             size[i] = dimensions[(dimension - 1) - i].length();
         }
-        return Vector.create(reader.read(new Region(size, new long[dimension], size, sub)), dataType.isUnsigned);
+        if (isInterleaved()) {
+            return read(new int[dimension], getGridEnvelope(), sub);
+        }
+        return Vector.create(read(new Region(size, new long[dimension], size, sub), length), dataType.isUnsigned);
     }
 
     /**
@@ -389,6 +463,197 @@ final class VariableInfo extends Variable {
         if (reader == null) {
             throw new DataStoreContentException(unknownType());
         }
+        if (isInterleaved()) {
+            /*
+             * Read the records one by one, since the records of other variables are stored between them.
+             * The sub-area in all dimensions except the record dimension is the same for all records.
+             */
+            final long first = areaLower[0] & 0xFFFFFFFFL;
+            final int  step  = subsampling[0];
+            final long count = ((areaUpper[0] & 0xFFFFFFFFL) - first + (step - 1)) / step;
+            final int[] lower = areaLower  .clone();
+            final int[] upper = areaUpper  .clone();
+            final int[] sub   = subsampling.clone();
+            lower[0] = 0;
+            upper[0] = 1;
+            sub  [0] = 1;
+            long recordLength = 1;
+            for (int i=1; i<upper.length; i++) {
+                recordLength *= ((upper[i] & 0xFFFFFFFFL) - (lower[i] & 0xFFFFFFFFL) + (sub[i] - 1)) / sub[i];
+            }
+            final long length = recordLength * count;
+            if (length > Integer.MAX_VALUE) {
+                throw new DataStoreContentException(Errors.format(Errors.Keys.ExcessiveListSize_2, name, length));
+            }
+            return Vector.create(readRecords(region(lower, upper, sub), (int) recordLength, first, step, (int) count, null),
+                                 dataType.isUnsigned);
+        }
+        long length = 1;
+        for (int i=0; i<areaUpper.length; i++) {
+            length *= ((areaUpper[i] & 0xFFFFFFFFL) - (areaLower[i] & 0xFFFFFFFFL) + (subsampling[i] - 1)) / subsampling[i];
+        }
+        return Vector.create(read(region(areaLower, areaUpper, subsampling), length), dataType.isUnsigned);
+    }
+
+    /**
+     * Reads the given region of a non-interleaved variable. If the number of values to read is large enough,
+     * the region is read using as many threads as there is processors. The reads are concurrent only if the
+     * data are read from a file channel; see {@link HyperRectangleReader#read(Region, int)} for details.
+     *
+     * @param  region  the sub-area to read and the sub-sampling to use.
+     * @param  length  number of values in the region.
+     * @return the data as an array of a Java primitive type.
+     */
+    private Object read(final Region region, final long length) throws IOException {
+        final int parallelism = (length >= PARALLEL_READ_THRESHOLD) ? Runtime.getRuntime().availableProcessors() : 1;
+        return reader.read(region, parallelism);
+    }
+
+    /**
+     * Reads the same sub-area in many records and stores the values in the given array, one record after the other.
+     *
+     * @param  region        the sub-area to read in a single record.
+     * @param  recordLength  number of values read in each record.
+     * @param  record        index of the first record to read.
+     * @param  step          increment between the indices of two consecutive records to read.
+     * @param  count         number of records to read.
+     * @param  target        the array where to store the values, or {@code null} for creating a new array.
+     * @return the array where the values have been stored.
+     */
+    private Object readRecords(final Region region, final int recordLength, long record, final int step,
+            final int count, Object target) throws IOException
+    {
+        if (target == null) {
+            target = allocate(recordLength * count);
+        }
+        for (int i=0; i<count; i++) {
+            reader.read(region, record * recordSize, target, i * recordLength);
+            record += step;
+        }
+        return target;
+    }
+
+    /**
+     * Allocates an array of the type of values in this variable.
+     *
+     * @param  length  number of elements in the array to create.
+     * @return the new array.
+     */
+    private Object allocate(final int length) {
+        switch (dataType.number) {
+            case Numbers.BYTE:    return new byte  [length];
+            case Numbers.SHORT:   return new short [length];
+            case Numbers.INTEGER: return new int   [length];
+            case Numbers.LONG:    return new long  [length];
+            case Numbers.FLOAT:   return new float [length];
+            case Numbers.DOUBLE:  return new double[length];
+            default: throw new AssertionError(dataType);
+        }
+    }
+
+    /**
+     * Returns an iterator over the values of this variable, record by record. All slabs of the same
+     * size are read in the same array, so this iterator does not consume more memory as the iteration
+     * progresses.
+     *
+     * @param  recordsPerSlab  maximal number of records to read in each slab.
+     * @return an iterator over the slabs of this variable.
+     * @throws DataStoreException if the data type of this variable is not supported.
+     */
+    @Override
+    public RecordIterator records(final int recordsPerSlab) throws DataStoreException {
+        if (reader == null) {
+            throw new DataStoreContentException(unknownType());
+        }
+        if (dimensions.length == 0) {
+            return super.records(recordsPerSlab);
+        }
+        return new Records(recordsPerSlab);
+    }
+
+    /**
+     * An iterator over the records of this variable which reuses the same array for all slabs.
+     */
+    private final class Records extends RecordIterator {
+        /**
+         * The region to read in each record, which is the whole record.
+         */
+        private final Region region;
+
+        /**
+         * Number of values in each record.
+         */
+        private final int recordLength;
+
+        /**
+         * The array where the values of the current slab are stored, or {@code null} if not yet created.
+         */
+        private Object buffer;
+
+        /**
+         * Creates a new iterator over the records of the enclosing variable.
+         */
+        Records(final int recordsPerSlab) throws DataStoreException {
+            super(VariableInfo.this, recordsPerSlab);
+            final int[] upper = getGridEnvelope();
+            final int[] sub   = new int[upper.length];
+            long length = 1;
+            for (int i=0; i<upper.length; i++) {
+                sub[i] = 1;
+                if (i != 0) {
+                    length *= upper[i] & 0xFFFFFFFFL;
+                }
+            }
+            upper[0] = 1;
+            final long slabLength = length * Math.min(recordsPerSlab, dimensions[0].length());
+            if (slabLength > Integer.MAX_VALUE) {
+                throw new DataStoreContentException(Errors.format(Errors.Keys.ExcessiveListSize_2, name, slabLength));
+            }
+            region = region(new int[upper.length], upper, sub);
+            recordLength = (int) length;
+        }
+
+        /**
+         * Reads the given range of records in the array shared by all slabs of the same size.
+         */
+        @Override
+        protected Vector read(final long first, final int count) throws IOException {
+            final int length = recordLength * count;
+            if (buffer == null || Array.getLength(buffer) != length) {
+                buffer = allocate(length);
+            }
+            return Vector.create(readRecords(region, recordLength, first, 1, count, buffer), dataType.isUnsigned);
+        }
+    }
+
+    /**
+     * Returns the position in the NetCDF file of the first value to be read in the given sub-area.
+     *
+     * @param  areaLower    index of the first value to read along each dimension, as unsigned integers.
+     * @param  areaUpper    index after the last value to read along each dimension, as unsigned integers.
+     * @param  subsampling  sub-sampling along each dimension. 1 means no sub-sampling.
+     * @return position in the NetCDF file of the first value to read, or 0 if the data type is unknown.
+     */
+    @Override
+    protected long dataPosition(int[] areaLower, int[] areaUpper, int[] subsampling) {
+        if (reader == null) {
+            return 0;
+        }
+        if (isInterleaved()) {
+            final long first = areaLower[0] & 0xFFFFFFFFL;
+            areaLower = areaLower.clone();
+            areaUpper = areaUpper.clone();
+            areaLower[0] = 0;
+            areaUpper[0] = 1;
+            return reader.streamPosition(region(areaLower, areaUpper, subsampling)) + first * recordSize;
+        }
+        return reader.streamPosition(region(areaLower, areaUpper, subsampling));
+    }
+
+    /**
+     * Converts the given sub-area and sub-sampling, in NetCDF dimension order, into a region to read.
+     */
+    private Region region(final int[] areaLower, final int[] areaUpper, final int[] subsampling) {
         /*
          * NetCDF sorts datas in reverse dimension order. Example:
          *
@@ -420,7 +685,7 @@ final class VariableInfo extends Variable {
             sub  [i] = subsampling[j];
             size [i] = dimensions[j].length();
         }
-        return Vector.create(reader.read(new Region(size, lower, upper, sub)), dataType.isUnsigned);
+        return new Region(size, lower, upper, sub);
     }
 
     /**
@@ -17,9 +17,11 @@
 package org.apache.sis.storage.netcdf;
 
 import java.io.IOException;
+import java.nio.file.StandardOpenOption;
 import org.opengis.metadata.Metadata;
 import org.apache.sis.util.Debug;
 import org.apache.sis.storage.DataStore;
+import org.apache.sis.storage.DataStoreClosedException;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.UnsupportedStorageException;
 import org.apache.sis.storage.StorageConnector;
@@ -46,8 +48,11 @@ public class NetcdfStore extends DataStore {
     /**
      * The object to use for decoding the NetCDF file content. There is two different implementations,
      * depending on whether we are using the embedded SIS decoder or a wrapper around the UCAR library.
+     * This decoder is also the lock for all operations on this store, since it is the lock used by the
+     * read tasks executed in background. This field is set to {@code null} when the store is closed,
+     * for allowing the garbage collector to release the memory-mapped file (if any).
      */
-    private final Decoder decoder;
+    private volatile Decoder decoder;
 
     /**
      * The object returned by {@link #getMetadata()}, created when first needed and cached.
@@ -102,17 +107,20 @@ public class NetcdfStore extends DataStore {
      * @throws DataStoreException if an error occurred while reading the data.
      */
     @Override
-    public synchronized Metadata getMetadata() throws DataStoreException {
-        if (metadata == null) try {
-            final MetadataReader reader = new MetadataReader(decoder);
-            metadata = reader.read();
-            if (metadata instanceof ModifiableMetadata) {
-                ((ModifiableMetadata) metadata).freeze();
+    public Metadata getMetadata() throws DataStoreException {
+        final Decoder decoder = decoder();
+        synchronized (decoder) {
+            if (metadata == null) try {
+                final MetadataReader reader = new MetadataReader(decoder);
+                metadata = reader.read();
+                if (metadata instanceof ModifiableMetadata) {
+                    ((ModifiableMetadata) metadata).freeze();
+                }
+            } catch (IOException e) {
+                throw new DataStoreException(e);
             }
-        } catch (IOException e) {
-            throw new DataStoreException(e);
+            return metadata;
         }
-        return metadata;
     }
 
     /**
@@ -125,25 +133,45 @@ public class NetcdfStore extends DataStore {
      *
      * @since 0.8
      */
-    public synchronized Version getConventionVersion() throws DataStoreException {
-        for (final CharSequence value : CharSequences.split(decoder.stringValue(CDM.CONVENTIONS), ',')) {
-            if (CharSequences.regionMatches(value, 0, "CF-", true)) {
-                return new Version(value.subSequence(3, value.length()).toString());
+    public Version getConventionVersion() throws DataStoreException {
+        final Decoder decoder = decoder();
+        synchronized (decoder) {
+            for (final CharSequence value : CharSequences.split(decoder.stringValue(CDM.CONVENTIONS), ',')) {
+                if (CharSequences.regionMatches(value, 0, "CF-", true)) {
+                    return new Version(value.subSequence(3, value.length()).toString());
+                }
             }
         }
         return null;
     }
 
+    /**
+     * Returns the decoder if this store is not closed, or throws an exception otherwise.
+     */
+    private Decoder decoder() throws DataStoreException {
+        final Decoder d = decoder;
+        if (d == null) {
+            throw new DataStoreClosedException(getLocale(), "NetCDF", StandardOpenOption.READ);
+        }
+        return d;
+    }
+
     /**
      * Closes this NetCDF store and releases any underlying resources.
+     * Pending read tasks are cancelled, and this method waits for the running task (if any) to complete.
      *
      * @throws DataStoreException if an error occurred while closing the NetCDF file.
      */
     @Override
-    public synchronized void close() throws DataStoreException {
-        metadata = null;
-        try {
-            decoder.close();
+    public void close() throws DataStoreException {
+        final Decoder d = decoder;
+        if (d != null) try {
+            d.shutdown();                       // Shall not be invoked while holding the decoder lock.
+            synchronized (d) {
+                decoder  = null;
+                metadata = null;
+                d.close();
+            }
         } catch (IOException e) {
             throw new DataStoreException(e);
         }
@@ -17,9 +17,12 @@
 package org.apache.sis.internal.netcdf;
 
 import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import org.apache.sis.math.Vector;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.test.DependsOn;
+import org.apache.sis.test.DependsOnMethod;
 import org.junit.Test;
 
 import static org.opengis.test.Assert.*;
@@ -179,4 +182,71 @@ public strictfp class VariableTest extends TestCase {
             assertEquals("Longitude value", -180 + 5*i, data.floatValue(i), 0f);
         }
     }
+
+    /**
+     * Tests {@link Variable#records(int)} on a one-dimensional variable, with a number of records
+     * per slab which is not a divisor of the variable length.
+     *
+     * @throws IOException if an error occurred while reading the NetCDF file.
+     * @throws DataStoreException if a logical error occurred.
+     */
+    @Test
+    @DependsOnMethod("testRead1D")
+    public void testRecords() throws IOException, DataStoreException {
+        final Variable variable = selectDataset(NCEP).getVariables()[25];
+        assertEquals("lon", variable.getName());
+        final RecordIterator it = variable.records(10);
+        int expected = 0;
+        while (it.next()) {
+            assertEquals("first", expected, it.first());
+            final Vector data = it.values();
+            final int count = it.count();
+            assertEquals("count", Math.min(10, 73 - expected), count);
+            assertEquals("length", count, data.size());
+            for (int i=0; i<count; i++) {
+                assertEquals("Longitude value", -180 + 5*(expected + i), data.floatValue(i), 0f);
+            }
+            expected += count;
+        }
+        assertEquals("Number of records", 73, expected);
+        assertEquals("count", 0, it.count());
+    }
+
+    /**
+     * Tests {@link Decoder#submit(ReadTask[])} with tasks reading different slices of the same variable,
+     * submitted in reverse order of their position in the file. One task is cancelled before submission.
+     *
+     * @throws IOException if an error occurred while reading the NetCDF file.
+     * @throws DataStoreException if a logical error occurred.
+     * @throws InterruptedException if the test has been interrupted while waiting for the results.
+     * @throws ExecutionException if an error occurred while executing a task.
+     */
+    @Test
+    @DependsOnMethod("testRead1D")
+    public void testReadTasks() throws IOException, DataStoreException, InterruptedException, ExecutionException {
+        final Decoder decoder = selectDataset(NCEP);
+        final Variable variable = decoder.getVariables()[25];
+        assertEquals("lon", variable.getName());
+        final ReadTask tail      = variable.createReadTask(new int[] {40}, new int[] {73}, new int[] {3});
+        final ReadTask head      = variable.createReadTask(new int[] { 0}, new int[] {10}, new int[] {1});
+        final ReadTask cancelled = variable.createReadTask(new int[] { 5}, new int[] {15}, new int[] {1});
+        assertTrue("cancel", cancelled.cancel(true));
+        decoder.submit(tail, cancelled, head);
+        Vector data = head.get();
+        assertEquals("length", 10, data.size());
+        for (int i=0; i<10; i++) {
+            assertEquals("Longitude value", -180 + 5*i, data.floatValue(i), 0f);
+        }
+        data = tail.get();
+        assertEquals("length", 11, data.size());
+        for (int i=0; i<11; i++) {
+            assertEquals("Longitude value", -180 + 5*(40 + 3*i), data.floatValue(i), 0f);
+        }
+        try {
+            cancelled.get();
+            fail("Expected CancellationException.");
+        } catch (CancellationException e) {
+            // This is the expected exception.
+        }
+    }
 }
@@ -17,10 +17,19 @@
 package org.apache.sis.internal.netcdf.impl;
 
 import java.io.IOException;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import org.apache.sis.internal.netcdf.Decoder;
+import org.apache.sis.internal.netcdf.RecordIterator;
+import org.apache.sis.internal.netcdf.Variable;
 import org.apache.sis.internal.netcdf.VariableTest;
+import org.apache.sis.internal.storage.io.ChannelDataInput;
+import org.apache.sis.math.Vector;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.test.DependsOn;
+import org.apache.sis.test.DependsOnMethod;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -70,4 +79,164 @@ public final strictfp class VariableInfoTest extends VariableTest {
         assertArrayEquals("numberValues", new Number[] { 10f,    20f,    1f  }, VariableInfo.numberValues(a));
         assertArrayEquals("stringValues", new String[] {"10.0", "20.0", "1.0"}, VariableInfo.stringValues(a));
     }
+
+    /**
+     * Creates a decoder for a small NetCDF file in classic format having three record variables
+     * and one fixed-size variable. The file content is:
+     *
+     * {@preformatted text
+     *   dimensions:
+     *     time = UNLIMITED ; // (3 currently)
+     *     x = 3 ;
+     *     y = 2 ;
+     *   variables:
+     *     int   fixed(x) ;        // fixed(i)   = 10*(i+1)
+     *     short a(time, x) ;      // a(t,i)     = 100*t + i        (6 bytes padded to 8 in each record)
+     *     float b(time, y) ;      // b(t,j)     = 10*t + j + 0.5
+     *     byte  c(time) ;         // c(t)       = t + 1            (1 byte padded to 4 in each record)
+     * }
+     *
+     * The values of the {@code a}, {@code b} and {@code c} variables are interleaved record by record,
+     * for a record size of 8 + 8 + 4 = 20 bytes.
+     *
+     * @return the decoder for the file described above.
+     */
+    private static Decoder createRecordsDecoder() throws IOException, DataStoreException {
+        final int numRecords = 3;
+        final ByteBuffer out = ByteBuffer.allocate(1024);
+        out.put(new byte[] {'C', 'D', 'F', 1}).putInt(numRecords);
+        out.putInt(0x0A).putInt(3);                                 // Dimensions.
+        putName(out, "time"); out.putInt(0);
+        putName(out, "x");    out.putInt(3);
+        putName(out, "y");    out.putInt(2);
+        out.putInt(0).putInt(0);                                    // No global attributes.
+        out.putInt(0x0B).putInt(4);                                 // Variables.
+        final int[] begins = new int[4];
+        begins[0] = putVariable(out, "fixed", new int[] {1},    4, 12);
+        begins[1] = putVariable(out, "a",     new int[] {0, 1}, 3,  8);
+        begins[2] = putVariable(out, "b",     new int[] {0, 2}, 5,  8);
+        begins[3] = putVariable(out, "c",     new int[] {0},    1,  4);
+        /*
+         * Data of the fixed-size variable, followed by the records.
+         */
+        out.putInt(begins[0], out.position());
+        for (int i=0; i<3; i++) {
+            out.putInt(10 * (i+1));
+        }
+        final int recordStart = out.position();
+        out.putInt(begins[1], recordStart);
+        out.putInt(begins[2], recordStart + 8);
+        out.putInt(begins[3], recordStart + 16);
+        for (int t=0; t<numRecords; t++) {
+            for (int i=0; i<3; i++) out.putShort((short) (100*t + i));
+            out.putShort((short) 0);                                // Padding.
+            for (int j=0; j<2; j++) out.putFloat(10*t + j + 0.5f);
+            out.put((byte) (t + 1)).put(new byte[3]);               // Value and padding.
+        }
+        final ChannelDataInput input = new ChannelDataInput("records.nc",
+                Channels.newChannel(new ByteArrayInputStream(out.array(), 0, out.position())),
+                ByteBuffer.allocate(out.position()), false);
+        return new ChannelDecoder(LISTENERS, input);
+    }
+
+    /**
+     * Writes a name in the NetCDF header, padded to a multiple of 4 bytes.
+     */
+    private static void putName(final ByteBuffer out, final String name) {
+        final byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+        out.putInt(bytes.length).put(bytes).put(new byte[-bytes.length & 3]);
+    }
+
+    /**
+     * Writes a variable declaration in the NetCDF header, with a {@code "units"} attribute.
+     * The data offset is written as zero and shall be set by the caller.
+     *
+     * @return position of the data offset in the buffer.
+     */
+    private static int putVariable(final ByteBuffer out, final String name, final int[] dimensions,
+            final int type, final int size)
+    {
+        putName(out, name);
+        out.putInt(dimensions.length);
+        for (final int dim : dimensions) {
+            out.putInt(dim);
+        }
+        out.putInt(0x0C).putInt(1);                                 // One attribute.
+        putName(out, "units");
+        out.putInt(2);                                              // CHAR type.
+        putName(out, "m");
+        out.putInt(type).putInt(size);
+        final int position = out.position();
+        out.putInt(0);
+        return position;
+    }
+
+    /**
+     * Asserts that the given vector contains the expected values.
+     */
+    private static void assertValuesEqual(final String name, final double[] expected, final Vector actual) {
+        assertEquals(name, expected.length, actual.size());
+        for (int i=0; i<expected.length; i++) {
+            assertEquals(name, expected[i], actual.doubleValue(i), 0);
+        }
+    }
+
+    /**
+     * Tests {@link VariableInfo#read()} and {@link VariableInfo#read(int[], int[], int[])} on record variables
+     * interleaved in the same records, with values padded to 4 bytes.
+     *
+     * @throws IOException if an error occurred while reading the NetCDF file.
+     * @throws DataStoreException if a logical error occurred.
+     */
+    @Test
+    public void testReadInterleavedRecords() throws IOException, DataStoreException {
+        final Variable[] variables = createRecordsDecoder().getVariables();
+        assertEquals(4, variables.length);
+        assertValuesEqual("fixed", new double[] {10, 20, 30}, variables[0].read());
+        assertValuesEqual("a", new double[] {0, 1, 2, 100, 101, 102, 200, 201, 202}, variables[1].read());
+        assertValuesEqual("b", new double[] {0.5, 1.5, 10.5, 11.5, 20.5, 21.5}, variables[2].read());
+        assertValuesEqual("c", new double[] {1, 2, 3}, variables[3].read());
+        assertValuesEqual("a", new double[] {0, 2, 200, 202},
+                variables[1].read(new int[] {0, 0}, new int[] {3, 3}, new int[] {2, 2}));
+        assertValuesEqual("b", new double[] {11.5, 21.5},
+                variables[2].read(new int[] {1, 1}, new int[] {3, 2}, new int[] {1, 1}));
+        assertValuesEqual("c", new double[] {2},
+                variables[3].read(new int[] {1}, new int[] {2}, new int[] {1}));
+    }
+
+    /**
+     * Tests {@link VariableInfo#records(int)} on record variables interleaved in the same records,
+     * with a number of records per slab which is not a divisor of the number of records.
+     *
+     * @throws IOException if an error occurred while reading the NetCDF file.
+     * @throws DataStoreException if a logical error occurred.
+     */
+    @Test
+    @DependsOnMethod("testReadInterleavedRecords")
+    public void testInterleavedRecords() throws IOException, DataStoreException {
+        final Variable[] variables = createRecordsDecoder().getVariables();
+        RecordIterator it = variables[1].records(2);
+        assertTrue(it.next());
+        assertEquals("first", 0, it.first());
+        assertValuesEqual("a", new double[] {0, 1, 2, 100, 101, 102}, it.values());
+        assertTrue(it.next());
+        assertEquals("first", 2, it.first());
+        assertValuesEqual("a", new double[] {200, 201, 202}, it.values());
+        assertFalse(it.next());
+
+        it = variables[2].records(2);
+        assertTrue(it.next());
+        assertValuesEqual("b", new double[] {0.5, 1.5, 10.5, 11.5}, it.values());
+        assertTrue(it.next());
+        assertValuesEqual("b", new double[] {20.5, 21.5}, it.values());
+        assertFalse(it.next());
+
+        it = variables[3].records(1);
+        for (int t=0; t<3; t++) {
+            assertTrue(it.next());
+            assertEquals("first", t, it.first());
+            assertValuesEqual("c", new double[] {t + 1}, it.values());
+        }
+        assertFalse(it.next());
+    }
 }
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.storage.csv;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+
+/**
+ * A range of lines in a CSV file, delimited by byte positions. Many ranges can be read concurrently
+ * since they share the same channel but read it only with absolute positions, which is thread-safe.
+ * A line belongs to a range if its first byte is at a position inside that range.
+ *
+ * <p>Lines are separated by {@code '\n'}, {@code '\r'} or {@code "\r\n"}, as in {@link java.io.BufferedReader#readLine()}.
+ * Like {@link Store#split(String, List)}, this class does not consider quotes when searching line boundaries,
+ * since the sequential reader does not support quoted values spanning many lines neither.
+ * The encoding must be such that the bytes of those line separators never appear inside multi-bytes characters,
+ * which is the case of US-ASCII, ISO-8859-1 and UTF-8.</p>
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+final class LineRange {
+    /**
+     * Minimal number of bytes in a range for allowing that range to be split.
+     */
+    static final int MINIMAL_SPLIT_LENGTH = 0x10000;
+
+    /**
+     * The channel from which to read the bytes. This channel is shared by all ranges.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The character encoding of the file.
+     */
+    private final Charset encoding;
+
+    /**
+     * Position in the file of the next byte to consume.
+     */
+    private long position;
+
+    /**
+     * Position after the last byte of this range. Lines starting at this position
+     * or after it belong to another range.
+     */
+    private long end;
+
+    /**
+     * Bytes read from the channel but not yet consumed, or {@code null} if no byte has been read yet.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * The bytes of the line being read.
+     */
+    private byte[] line;
+
+    /**
+     * Creates a new range of lines.
+     *
+     * @param channel   the channel from which to read the bytes.
+     * @param encoding  the character encoding of the file.
+     * @param start     position of the first byte of the first line in this range.
+     * @param end       position after the last byte of this range.
+     */
+    LineRange(final FileChannel channel, final Charset encoding, final long start, final long end) {
+        this.channel  = channel;
+        this.encoding = encoding;
+        this.position = start;
+        this.end      = end;
+    }
+
+    /**
+     * Ensures that the buffer contains at least one byte to consume.
+     *
+     * @return {@code false} if the end of file has been reached.
+     */
+    private boolean fill() throws IOException {
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(8192);
+            line   = new byte[256];
+        } else if (buffer.hasRemaining()) {
+            return true;
+        }
+        buffer.clear();
+        final int n = channel.read(buffer, position);
+        buffer.flip();
+        return n > 0;
+    }
+
+    /**
+     * Returns the next line in this range, or {@code null} if there is no more line to read.
+     *
+     * @return the next line without line separator, or {@code null} if none.
+     * @throws IOException if an error occurred while reading the file.
+     */
+    String readLine() throws IOException {
+        if (position >= end) {
+            return null;
+        }
+        int length = 0;
+        boolean eof = true;
+        while (fill()) {
+            final byte c = buffer.get();
+            position++;
+            if (c == '\n' || c == '\r') {
+                if (c == '\r' && fill() && buffer.get(buffer.position()) == '\n') {
+                    buffer.get();
+                    position++;
+                }
+                eof = false;
+                break;
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, length * 2);
+            }
+            line[length++] = c;
+        }
+        if (eof && length == 0) {
+            end = position;
+            return null;
+        }
+        return new String(line, 0, length, encoding);
+    }
+
+    /**
+     * Splits this range in two parts if the range is large enough, and returns the first part.
+     * The split point is moved forward until the beginning of a line having at least the given
+     * number of columns. This is required by the Moving Features specification, which allows
+     * to omit the last values of a line when they are the same than in the previous line.
+     * Consequently each range shall begin with a complete line.
+     *
+     * <p>This method can be invoked only before the first call to {@link #readLine()}.</p>
+     *
+     * @param  numColumns  minimal number of columns of the first line of the second part.
+     * @return the first part of this range, or {@code null} if this range can not be split.
+     * @throws IOException if an error occurred while reading the file.
+     */
+    LineRange trySplit(final int numColumns) throws IOException {
+        final long length = end - position;
+        if (buffer != null || length < MINIMAL_SPLIT_LENGTH) {
+            return null;
+        }
+        final long middle = position + length / 2;
+        final LineRange scanner = new LineRange(channel, encoding, middle - 1, end);
+        final List<String> elements = new ArrayList<>();
+        String text = scanner.readLine();           // Skip the end of the line that contains the middle.
+        while (text != null) {
+            final long start = scanner.position();
+            text = scanner.readLine();
+            if (text != null) {
+                Store.split(text, elements);
+                if (elements.size() >= numColumns) {
+                    final LineRange prefix = new LineRange(channel, encoding, position, start);
+                    position = start;
+                    return prefix;
+                }
+                elements.clear();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the position in the file of the next line to be returned by {@link #readLine()}.
+     *
+     * @return position of the next line.
+     */
+    long position() {
+        return position;
+    }
+
+    /**
+     * Returns an estimation of the number of lines remaining in this range.
+     * Current implementation returns the number of remaining bytes, which is an upper bound.
+     *
+     * @return an upper bound of the number of remaining lines.
+     */
+    long estimateSize() {
+        return Math.max(0, end - position);
+    }
+}
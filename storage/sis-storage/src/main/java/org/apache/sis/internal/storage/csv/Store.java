@@ -26,9 +26,12 @@ import java.util.logging.LogRecord;
 import java.io.Reader;
 import java.io.BufferedReader;
 import java.io.LineNumberReader;
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
 import javax.measure.Unit;
 import javax.measure.quantity.Time;
 import org.opengis.metadata.Metadata;
@@ -71,6 +74,9 @@ import org.apache.sis.internal.jdk8.Consumer;
 import org.apache.sis.internal.jdk8.Spliterator;
 import org.apache.sis.internal.jdk8.Stream;
 import org.apache.sis.internal.jdk8.StreamSupport;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 
 /**
@@ -97,7 +103,7 @@ public final class Store extends FeatureStore {
     /**
      * The quote character. Quotes inside quoted texts must be doubled.
      */
-    private static final char QUOTE = '"';
+    static final char QUOTE = '"';
 
     /**
      * The column separator.
@@ -165,6 +171,33 @@ public final class Store extends FeatureStore {
      */
     private TimeEncoding timeEncoding;
 
+    /**
+     * The file to read if the features can be read by many threads in different ranges of lines, or {@code null}.
+     * This is non-null only if the storage is a file in an encoding where line separators can be found without
+     * decoding the characters.
+     *
+     * @see #dataRange()
+     */
+    private final Path file;
+
+    /**
+     * The file size at the time this data store has been created, or -1 if unknown.
+     * Used for estimating the number of features.
+     */
+    private final long fileSize;
+
+    /**
+     * Number of lines before the first feature.
+     */
+    private final int headerLines;
+
+    /**
+     * The channel shared by all ranges of lines read concurrently, or {@code null} if not yet opened.
+     *
+     * @see #dataRange()
+     */
+    private FileChannel channel;
+
     /**
      * Creates a new CSV store from the given file, URL or stream.
      *
@@ -186,11 +219,13 @@ public final class Store extends FeatureStore {
         GeneralEnvelope envelope = null;
         DefaultFeatureType featureType = null;
         Foliation foliation = null;
+        int lineCount = 0, headerLines = 0;
         try {
             final List<String> elements = new ArrayList<>();
             source.mark(1024);
             String line;
             while ((line = source.readLine()) != null) {
+                lineCount++;
                 line = line.trim();
                 if (line.isEmpty()) continue;
                 final char c = line.charAt(0);
@@ -230,6 +265,7 @@ public final class Store extends FeatureStore {
                 }
                 elements.clear();
                 source.mark(1024);
+                headerLines = lineCount;
             }
             source.reset();
         } catch (IOException e) {
@@ -243,6 +279,29 @@ public final class Store extends FeatureStore {
         this.envelope    = envelope;
         this.featureType = featureType;
         this.foliation   = foliation;
+        this.headerLines = headerLines;
+        /*
+         * If the storage is a file, remember it for allowing many threads to read different parts of the file.
+         * We require an encoding where line separators are single bytes that can not be part of multi-bytes
+         * characters. Failure to get the file size is not fatal; we will just not split the file.
+         */
+        Object storage = connector.getStorage();
+        if (storage instanceof File) {
+            storage = ((File) storage).toPath();
+        }
+        Path file = null;
+        long fileSize = -1;
+        if (storage instanceof Path) {
+            final Charset cs = (encoding != null) ? encoding : Charset.defaultCharset();
+            if (cs.equals(StandardCharsets.UTF_8) || cs.equals(StandardCharsets.US_ASCII) || cs.equals(StandardCharsets.ISO_8859_1)) try {
+                fileSize = Files.size((Path) storage);
+                file = (Path) storage;
+            } catch (IOException e) {
+                listeners.warning(null, e);
+            }
+        }
+        this.file     = file;
+        this.fileSize = fileSize;
     }
 
     /**
@@ -544,15 +603,60 @@ public final class Store extends FeatureStore {
         return StreamSupport.stream(new Iter(), false);
     }
 
+    /**
+     * Returns the range of all lines after the header, or {@code null} if the file can not be split.
+     * The returned range shares a channel with all other ranges; that channel is closed by {@link #close()}.
+     *
+     * @return the range of lines containing all features, or {@code null} if none.
+     * @throws IOException if an error occurred while opening the file or skipping the header.
+     */
+    final synchronized LineRange dataRange() throws IOException {
+        if (file == null || source == null) {
+            return null;
+        }
+        if (channel == null) {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        }
+        final Charset cs = (encoding != null) ? encoding : Charset.defaultCharset();
+        final LineRange header = new LineRange(channel, cs, 0, fileSize);
+        for (int i=0; i<headerLines; i++) {
+            header.readLine();
+        }
+        return new LineRange(channel, cs, header.position(), fileSize);
+    }
+
     /**
      * Implementation of the iterator returned by {@link #getFeatures()}.
+     * This iterator reads the features sequentially from the reader given at construction time, unless it
+     * has been split before the first feature has been read. In the later case, each iterator reads its own
+     * range of lines from the file. Splits happen only at the beginning of lines having all columns, since
+     * values omitted at the end of a line are taken from the previous line.
      */
-    private final class Iter implements Spliterator<AbstractFeature> {
+    final class Iter implements Spliterator<AbstractFeature> {
+        /**
+         * Values in the {@link #parsers} array for the columns which can be parsed without
+         * {@link ObjectConverter}. Value 0 means that the column needs to be converted by
+         * the {@link #converters}.
+         */
+        private static final byte TEXT = 1, REAL = 2, INTEGER = 3, TIME = 4, TRAJECTORY = 5;
+
         /**
          * Converters from string representations to the values to store in the {@link #values} array.
+         * Used for the columns that can not be parsed directly from the line, and for quoted or empty cells.
          */
         private final ObjectConverter<String,?>[] converters;
 
+        /**
+         * For each column, how to parse the cell text directly from the line. The values are {@link #TEXT},
+         * {@link #REAL}, {@link #INTEGER}, {@link #TIME}, {@link #TRAJECTORY} or 0 for using the converter.
+         */
+        private final byte[] parsers;
+
+        /**
+         * The object to use for splitting lines in cells.
+         */
+        private final Tokenizer tokenizer;
+
         /**
          * All values found in a row. We need to remember those values between different executions
          * of the {@link #tryAdvance(Consumer)} method because the Moving Feature Specification said:
@@ -561,9 +665,28 @@ public final class Store extends FeatureStore {
         private final Object[] values;
 
         /**
-         * Name of the property where to store a value.
+         * The range of lines to read, or {@code null} for reading from {@link Store#source}.
          */
-        private final String[] propertyNames;
+        private LineRange range;
+
+        /**
+         * Whether at least one line has been read. The iterator can not be split after that point.
+         */
+        private boolean started;
+
+        /**
+         * Creates an iterator for the first part of the lines of the given iterator.
+         *
+         * @param  other  the iterator which has been split.
+         * @param  range  the range of lines to be read by the new iterator.
+         */
+        private Iter(final Iter other, final LineRange range) {
+            converters = other.converters;
+            parsers    = other.parsers;
+            values     = new Object[converters.length];
+            tokenizer  = new Tokenizer();
+            this.range = range;
+        }
 
         /**
          * Creates a new iterator.
@@ -571,12 +694,13 @@ public final class Store extends FeatureStore {
         @SuppressWarnings({"unchecked", "rawtypes", "fallthrough"})
         Iter() {
             final Collection<? extends AbstractIdentifiedType> properties = featureType.getProperties(true);
-            converters    = new ObjectConverter[properties.size()];
-            values        = new Object[converters.length];
-            propertyNames = new String[converters.length];
+            converters = new ObjectConverter[properties.size()];
+            parsers    = new byte[converters.length];
+            values     = new Object[converters.length];
+            tokenizer  = new Tokenizer();
             int i = -1;
             for (final AbstractIdentifiedType p : properties) {
-                propertyNames[++i] = p.getName().tip().toString();
+                i++;
                 /*
                  * According Moving Features specification:
                  *   Column 0 is the feature identifier (mfidref). There is nothing special to do here.
@@ -591,6 +715,9 @@ public final class Store extends FeatureStore {
                     case 2: {
                         if (timeEncoding != null) {
                             c = timeEncoding;
+                            if (c != TimeEncoding.ABSOLUTE) {
+                                parsers[i] = TIME;
+                            }
                             break;
                         }
                         /*
@@ -603,6 +730,7 @@ public final class Store extends FeatureStore {
                     case 3: {
                         if (hasTrajectories) {
                             c = GeometryParser.INSTANCE;
+                            parsers[i] = TRAJECTORY;
                             break;
                         }
                         /*
@@ -613,6 +741,10 @@ public final class Store extends FeatureStore {
                     }
                     default: {
                         c = ObjectConverters.find(String.class, ((DefaultAttributeType) p).getValueClass());
+                        final Class<?> type = ((DefaultAttributeType<?>) p).getValueClass();
+                        if      (type == String .class) parsers[i] = TEXT;
+                        else if (type == Double .class) parsers[i] = REAL;
+                        else if (type == Integer.class) parsers[i] = INTEGER;
                         break;
                     }
                 }
@@ -636,28 +768,55 @@ public final class Store extends FeatureStore {
          * @throws DateTimeException if parsing of a date failed.
          */
         private boolean read(final Consumer<? super AbstractFeature> action, boolean all) throws IOException {
-            final FixedSizeList elements = new FixedSizeList(values);
             String line;
-            while ((line = source.readLine()) != null) {
-                split(line, elements);
-                final AbstractFeature feature = featureType.newInstance();
-                int i, n = elements.size();
-                for (i=0; i<n; i++) {
-                    values[i] = converters[i].apply((String) values[i]);
-                    feature.setPropertyValue(propertyNames[i], values[i]);
+            started = true;
+            while ((line = (range != null) ? range.readLine() : source.readLine()) != null) {
+                final int n = tokenizer.split(line, values.length);
+                for (int i=0; i<n; i++) {
+                    values[i] = parse(line, i);
                 }
-                n = values.length;
-                for (; i<n; i++) {
-                    // For omitted elements, reuse previous value.
-                    feature.setPropertyValue(propertyNames[i], values[i]);
-                }
-                action.accept(feature);
+                // For omitted elements, the previous values are still in the array.
+                action.accept(featureType.newInstance(values));
                 if (!all) return true;
-                elements.clear();
             }
             return false;
         }
 
+        /**
+         * Parses the value of the given cell in the line given to the last call to {@link Tokenizer#split(String, int)}.
+         * Numbers, times and trajectories are parsed directly from the line without creating intermediate strings.
+         * Texts equal to the value of the previous line are shared. Cells that are empty or contain quotes are
+         * delegated to the {@linkplain #converters}.
+         *
+         * @param  line  the line being parsed.
+         * @param  cell  index of the cell to parse.
+         * @return the cell value.
+         */
+        private Object parse(final String line, final int cell) {
+            final int lower = tokenizer.lower(cell);
+            final int upper = tokenizer.upper(cell);
+            if (lower < upper && !tokenizer.hasQuotes(cell)) {
+                switch (parsers[cell]) {
+                    case TEXT: {
+                        final Object previous = values[cell];
+                        if (previous instanceof String) {
+                            final String text = (String) previous;
+                            final int length = upper - lower;
+                            if (text.length() == length && line.regionMatches(lower, text, 0, length)) {
+                                return text;
+                            }
+                        }
+                        return line.substring(lower, upper);
+                    }
+                    case REAL:       return Tokenizer.parseDouble   (line, lower, upper);
+                    case INTEGER:    return Tokenizer.parseInt      (line, lower, upper);
+                    case TRAJECTORY: return Tokenizer.parseOrdinates(line, lower, upper);
+                    case TIME:       return timeEncoding.toInstant(Tokenizer.parseDouble(line, lower, upper));
+                }
+            }
+            return converters[cell].apply(tokenizer.text(line, cell));
+        }
+
         /**
          * Executes the given action only on the next feature, if any.
          */
@@ -683,27 +842,44 @@ public final class Store extends FeatureStore {
         }
 
         /**
-         * Current implementation can not split this iterator.
+         * Splits this iterator in two ranges of lines if the file is large enough and no feature has been read yet.
+         * The returned iterator covers the lines before the lines covered by this iterator.
          */
         @Override
         public Spliterator<AbstractFeature> trySplit() {
+            if (!started) try {
+                if (range == null) {
+                    range = dataRange();
+                }
+                if (range != null) {
+                    final LineRange prefix = range.trySplit(values.length);
+                    if (prefix != null) {
+                        return new Iter(this, prefix);
+                    }
+                }
+            } catch (IOException e) {
+                throw new BackingStoreException(canNotParseFile(), e);
+            }
             return null;
         }
 
         /**
-         * We do not know the number of features.
+         * Returns an upper bound of the number of features, which is the number of remaining bytes if known.
          */
         @Override
         public long estimateSize() {
-            return Long.MAX_VALUE;
+            if (range != null) {
+                return range.estimateSize();
+            }
+            return (fileSize >= 0) ? fileSize : Long.MAX_VALUE;
         }
 
         /**
-         * Guarantees that we will not return null element.
+         * Guarantees that we will not return null element and that the features are in file order.
          */
         @Override
         public int characteristics() {
-            return NONNULL;
+            return ORDERED | NONNULL;
         }
     }
 
@@ -758,7 +934,7 @@ public final class Store extends FeatureStore {
      *
      * This part of the specification is currently ignored (its purpose is still unclear).
      */
-    private static String decode(CharSequence text, final int lower, final int upper, final boolean hasQuotes) {
+    static String decode(CharSequence text, final int lower, final int upper, final boolean hasQuotes) {
         if (hasQuotes) {
             final StringBuilder buffer = new StringBuilder(upper - lower).append(text, lower, upper);
             for (int i=0; i<buffer.length(); i++) {
@@ -805,9 +981,12 @@ public final class Store extends FeatureStore {
     @Override
     public synchronized void close() throws DataStoreException {
         final BufferedReader s = source;
-        source = null;                  // Cleared first in case of failure.
-        if (s != null) try {
-            s.close();
+        final FileChannel c = channel;
+        source  = null;                 // Cleared first in case of failure.
+        channel = null;
+        try {
+            if (s != null) s.close();
+            if (c != null) c.close();
         } catch (IOException e) {
             throw new DataStoreException(e);
         }
@@ -94,7 +94,18 @@ class TimeEncoding extends SurjectiveConverter<String,Instant> {
      */
     @Override
     public Instant apply(final String time) {
-        final double value = Double.parseDouble(time) * interval;
+        return toInstant(Double.parseDouble(time));
+    }
+
+    /**
+     * Returns the instant for the given time elapsed since the CRS temporal origin.
+     * This method shall not be invoked on the {@link #ABSOLUTE} encoding.
+     *
+     * @param  time  the time elapsed since the CRS temporal origin, in units of the temporal axis.
+     * @return the instant for the given value.
+     */
+    final Instant toInstant(final double time) {
+        final double value = time * interval;
         final long millis = Math.round(value);
         return Instant.ofEpochMilli(millis + origin).plusNanos(Math.round((value - millis)*1E6));
     }
@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.storage.csv;
+
+import java.util.Arrays;
+import org.apache.sis.util.ArraysExt;
+import org.apache.sis.util.CharSequences;
+
+
+/**
+ * Splits lines of a CSV file in cells without creating a {@code String} for each cell.
+ * The cells are represented by their start and end indices in the line, after omission of leading and trailing
+ * whitespaces. The caller can then parse numbers directly from the line, or extract substrings only when needed.
+ * The same {@code Tokenizer} instance is reused for all lines read by an iterator.
+ *
+ * <p>The splitting rules are the same than {@link Store#split(String, java.util.List)}:
+ * quotes are taken in account and a quote inside a quoted text shall be doubled.</p>
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+final class Tokenizer {
+    /**
+     * Powers of 10 which can be represented exactly by a {@code double} value.
+     */
+    private static final double[] POWERS_OF_10 = {
+        1E+0,  1E+1,  1E+2,  1E+3,  1E+4,  1E+5,  1E+6,  1E+7,  1E+8,  1E+9,  1E+10, 1E+11,
+        1E+12, 1E+13, 1E+14, 1E+15, 1E+16, 1E+17, 1E+18, 1E+19, 1E+20, 1E+21, 1E+22
+    };
+
+    /**
+     * Maximal number of significant digits for which {@link #parseDouble(CharSequence, int, int)}
+     * can compute the value without rounding error in the mantissa.
+     */
+    private static final int MAXIMUM_DIGITS = 15;
+
+    /**
+     * Start index (inclusive) and end index (exclusive) of each cell in the current line.
+     * For cells without quotes, leading and trailing whitespaces are excluded.
+     */
+    private int[] bounds;
+
+    /**
+     * Whether each cell contains at least one quote, in which case the text needs to be decoded.
+     */
+    private boolean[] hasQuotes;
+
+    /**
+     * Number of cells in the current line.
+     */
+    private int count;
+
+    /**
+     * Creates a new tokenizer.
+     */
+    Tokenizer() {
+        bounds    = new int[16];
+        hasQuotes = new boolean[8];
+    }
+
+    /**
+     * Splits the given line around the column separator, ignoring the cells after the given maximal number.
+     *
+     * @param  line     the line to split.
+     * @param  maximum  maximal number of cells to retain.
+     * @return number of cells found in the given line, not greater than {@code maximum}.
+     */
+    int split(final String line, final int maximum) {
+        count = 0;
+        int startAt = 0;
+        boolean isQuoting = false;        // If a quote has been opened and not yet closed.
+        boolean quoted    = false;        // If the value contains at least one quote.
+        final int length = line.length();
+        for (int i=0; i<length; i++) {
+            switch (line.charAt(i)) {
+                case Store.QUOTE: {
+                    quoted = true;
+                    if (isQuoting && i+1 < length && line.charAt(i+1) == Store.QUOTE) {
+                        i++;
+                    } else {
+                        isQuoting = !isQuoting;
+                    }
+                    break;
+                }
+                case Store.SEPARATOR: {
+                    if (!isQuoting) {
+                        if (count >= maximum) {
+                            return count;       // Reached the maximal number of cells.
+                        }
+                        add(line, startAt, i, quoted);
+                        startAt = i+1;
+                        quoted = false;
+                    }
+                    break;
+                }
+            }
+        }
+        if (count < maximum) {
+            add(line, startAt, length, quoted);
+        }
+        return count;
+    }
+
+    /**
+     * Adds the bounds of a cell.
+     */
+    private void add(final String line, int lower, int upper, final boolean quoted) {
+        if (count == hasQuotes.length) {
+            hasQuotes = Arrays.copyOf(hasQuotes, count * 2);
+            bounds    = Arrays.copyOf(bounds,    count * 4);
+        }
+        if (!quoted) {
+            lower = CharSequences.skipLeadingWhitespaces (line, lower, upper);
+            upper = CharSequences.skipTrailingWhitespaces(line, lower, upper);
+        }
+        hasQuotes[count] = quoted;
+        bounds[count*2    ] = lower;
+        bounds[count*2 + 1] = upper;
+        count++;
+    }
+
+    /**
+     * Returns {@code true} if the cell at the given index contains quotes, in which case
+     * the text returned by {@link #text(String, int)} should be used instead than the bounds.
+     */
+    boolean hasQuotes(final int cell) {
+        return hasQuotes[cell];
+    }
+
+    /**
+     * Returns the start index of the cell at the given index in the current line.
+     */
+    int lower(final int cell) {
+        return bounds[cell*2];
+    }
+
+    /**
+     * Returns the end index of the cell at the given index in the current line.
+     */
+    int upper(final int cell) {
+        return bounds[cell*2 + 1];
+    }
+
+    /**
+     * Returns the text of the cell at the given index, with quotes decoded.
+     *
+     * @param  line  the line given to the last call to {@link #split(String, int)}.
+     * @param  cell  index of the cell for which to get the text.
+     * @return text of the given cell.
+     */
+    String text(final String line, final int cell) {
+        final int lower = lower(cell);
+        final int upper = upper(cell);
+        return hasQuotes[cell] ? Store.decode(line, lower, upper, true) : line.substring(lower, upper);
+    }
+
+    /**
+     * Parses a floating point number in the given sub-sequence, which shall not contain leading or trailing
+     * whitespaces. This method computes the value directly for the common case of decimal numbers without
+     * exponent and with no more than 15 significant digits, in which case the result is the same than
+     * {@link Double#parseDouble(String)} since the mantissa and the power of 10 are both exact.
+     * All other cases delegate to {@code Double.parseDouble(String)}.
+     *
+     * @param  text   the text containing the number to parse.
+     * @param  lower  index of the first character to parse.
+     * @param  upper  index after the last character to parse.
+     * @return the parsed number.
+     * @throws NumberFormatException if the text is not a valid number.
+     */
+    static double parseDouble(final CharSequence text, final int lower, final int upper) {
+        int i = lower;
+        boolean negative = false;
+        if (i < upper) {
+            final char c = text.charAt(i);
+            if (c == '-' || c == '+') {
+                negative = (c == '-');
+                i++;
+            }
+        }
+        long    mantissa = 0;
+        int     digits   = 0;
+        int     scale    = 0;
+        boolean hasDot   = false;
+        boolean hasDigit = false;
+parse:  if (i < upper) {
+            do {
+                final char c = text.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0 && ++digits > MAXIMUM_DIGITS) break parse;
+                    if (hasDot) scale++;
+                    hasDigit = true;
+                } else if (c == '.' && !hasDot) {
+                    hasDot = true;
+                } else {
+                    break parse;
+                }
+            } while (++i < upper);
+            if (hasDigit && scale < POWERS_OF_10.length) {
+                double value = mantissa;
+                if (scale != 0) value /= POWERS_OF_10[scale];
+                return negative ? -value : value;
+            }
+        }
+        return Double.parseDouble(text.subSequence(lower, upper).toString());
+    }
+
+    /**
+     * Parses an integer in the given sub-sequence, which shall not contain leading or trailing whitespaces.
+     * This method computes the value directly for the common case of numbers of 9 digits or less.
+     * All other cases delegate to {@link Integer#parseInt(String)}.
+     *
+     * @param  text   the text containing the number to parse.
+     * @param  lower  index of the first character to parse.
+     * @param  upper  index after the last character to parse.
+     * @return the parsed number.
+     * @throws NumberFormatException if the text is not a valid integer.
+     */
+    static int parseInt(final CharSequence text, final int lower, final int upper) {
+        int i = lower;
+        final boolean negative = (i < upper) && text.charAt(i) == '-';
+        if (negative) i++;
+        if (i < upper && upper - i <= 9) {
+            int value = 0;
+            do {
+                final char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    value = -1;
+                    break;
+                }
+                value = value * 10 + (c - '0');
+            } while (++i < upper);
+            if (value >= 0) {
+                return negative ? -value : value;
+            }
+        }
+        return Integer.parseInt(text.subSequence(lower, upper).toString());
+    }
+
+    /**
+     * Parses the ordinate values of a trajectory in the given sub-sequence. Ordinate values are separated
+     * by {@value Store#ORDINATE_SEPARATOR}. Empty texts between separators are ignored, as does
+     * {@link CharSequences#parseDoubles(CharSequence, char)} for whitespace separators.
+     *
+     * @param  text   the text containing the ordinate values to parse.
+     * @param  lower  index of the first character to parse.
+     * @param  upper  index after the last character to parse.
+     * @return the parsed ordinate values.
+     * @throws NumberFormatException if a text is not a valid number.
+     */
+    static double[] parseOrdinates(final CharSequence text, int lower, final int upper) {
+        double[] ordinates = new double[8];
+        int n = 0;
+        while (true) {
+            int end = lower;
+            while (end < upper && text.charAt(end) != Store.ORDINATE_SEPARATOR) end++;
+            final int s = CharSequences.skipLeadingWhitespaces (text, lower, end);
+            final int e = CharSequences.skipTrailingWhitespaces(text, s, end);
+            if (s < e) {
+                if (n == ordinates.length) {
+                    ordinates = Arrays.copyOf(ordinates, n * 2);
+                }
+                ordinates[n++] = parseDouble(text, s, e);
+            }
+            if (end >= upper) break;
+            lower = end + 1;
+        }
+        return ArraysExt.resize(ordinates, n);
+    }
+}
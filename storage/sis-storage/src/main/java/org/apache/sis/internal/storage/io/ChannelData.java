@@ -34,7 +34,7 @@ import static org.apache.sis.util.ArgumentChecks.ensureBetween;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.5 (derived from 0.3)
- * @version 0.5
+ * @version 0.8
  * @module
  */
 public abstract class ChannelData implements Markable {
@@ -217,11 +217,17 @@ public abstract class ChannelData implements Markable {
             throw new IndexOutOfBoundsException(Errors.format(Errors.Keys.ValueOutOfRange_4,
                     "position", bufferOffset, currentPosition, position));
         }
-        final int n = (int) (position - bufferOffset);
-        final int p = buffer.position() - n;
-        final int r = buffer.limit() - n;
-        flushAndSetPosition(n);                             // Number of bytes to forget.
-        buffer.compact().position(p).limit(r);
+        /*
+         * Read-only buffers are used for memory-mapped files (see ChannelDataInput.map(…)).
+         * The buffer contains the whole stream, so there is no need to make room for new data.
+         */
+        if (!buffer.isReadOnly()) {
+            final int n = (int) (position - bufferOffset);
+            final int p = buffer.position() - n;
+            final int r = buffer.limit() - n;
+            flushAndSetPosition(n);                         // Number of bytes to forget.
+            buffer.compact().position(p).limit(r);
+        }
         /*
          * Discard trailing obsolete marks. Note that obsolete marks between valid marks
          * can not be discarded - only the trailing obsolete marks can be removed.
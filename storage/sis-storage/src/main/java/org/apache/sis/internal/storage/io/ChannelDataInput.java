@@ -26,6 +26,8 @@ import java.nio.IntBuffer;
 import java.nio.LongBuffer;
 import java.nio.FloatBuffer;
 import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SeekableByteChannel;
 import org.apache.sis.internal.storage.Resources;
@@ -61,9 +63,20 @@ import org.apache.sis.internal.jdk8.JDK8;
  * the {@link javax.imageio.stream.ImageInputStream} one, mostly for situations when inter-operability with
  * {@link javax.imageio} is needed.
  *
+ * <div class="section">Memory-mapped files</div>
+ * If the buffer given at construction time is a {@link MappedByteBuffer}, then this class assumes that the buffer
+ * maps the whole channel content from the channel position at construction time up to the end of file, as done by
+ * {@link #map(ReadableByteChannel, int)}. In such case the channel is never read: all read operations are served
+ * directly from the mapped memory, and arrays of primitive types are read by bulk operations on buffer views.
+ *
+ * <p>Closing the channel does not release the mapped memory. Java provides no public method for unmapping a
+ * buffer; the operating system releases the mapping only after the buffer has been garbage-collected. Owners
+ * of a {@code ChannelDataInput} using a mapped buffer should therefore discard their references to it when
+ * they close the channel.</p>
+ *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.3
- * @version 0.7
+ * @version 0.8
  * @module
  */
 public class ChannelDataInput extends ChannelData {
@@ -73,10 +86,19 @@ public class ChannelDataInput extends ChannelData {
      */
     public final ReadableByteChannel channel;
 
+    /**
+     * {@code true} if {@link #buffer} is a read-only buffer mapping the whole channel content.
+     * In such case the buffer content never changes and the channel is never read.
+     *
+     * @see #map(ReadableByteChannel, int)
+     */
+    private final boolean isMapped;
+
     /**
      * Creates a new data input for the given channel and using the given buffer.
      * If the buffer already contains some data, then the {@code filled} argument shall be {@code true}.
      * Otherwise (e.g. if it is a newly created buffer), then {@code filled} shall be {@code false}.
+     * The {@code filled} argument is ignored if the buffer has been created by {@link #map(ReadableByteChannel, int)}.
      *
      * @param  filename  a file identifier used only for formatting error message.
      * @param  channel   the channel from where data are read.
@@ -89,14 +111,83 @@ public class ChannelDataInput extends ChannelData {
             final boolean filled) throws IOException
     {
         super(filename, channel, buffer);
-        this.channel = channel;
-        if (!filled) {
+        this.channel  = channel;
+        this.isMapped = (buffer instanceof MappedByteBuffer);
+        if (!filled && !isMapped) {
             buffer.clear();
             channel.read(buffer);
             buffer.flip();
         }
     }
 
+    /**
+     * Maps in memory the content of the given channel from its current position to the end of file, if possible.
+     * This method returns a non-null buffer only if the given channel is a {@link FileChannel} and the number of
+     * bytes to map is between the given minimal size (exclusive) and {@link Integer#MAX_VALUE} (inclusive).
+     * Larger files are not mapped because a {@link ByteBuffer} can not map more than 2 gigabytes, and the
+     * {@link #buffer} of a {@code ChannelDataInput} can not be replaced by another mapping window.
+     *
+     * <p>The buffer returned by this method can be given to the {@code ChannelDataInput} constructor.
+     * Reading a mapped file avoids the system calls done every time the buffer needs to be refilled,
+     * at the cost of an address space reservation of the size of the file. That reservation is released
+     * only after the returned buffer has been garbage-collected, not when the channel is closed.</p>
+     *
+     * @param  channel      the channel to map.
+     * @param  minimalSize  the minimal file size for mapping the channel. Smaller files should be read
+     *                      with an ordinary buffer, which can contain the whole file in a single read.
+     * @return a read-only buffer mapping the channel content, or {@code null} if the channel has not been mapped.
+     * @throws IOException if an error occurred while mapping the channel.
+     *
+     * @since 0.8
+     */
+    public static ByteBuffer map(final ReadableByteChannel channel, final int minimalSize) throws IOException {
+        if (channel instanceof FileChannel) {
+            final FileChannel fc = (FileChannel) channel;
+            final long position = fc.position();
+            final long size = fc.size() - position;
+            if (size > minimalSize && size <= Integer.MAX_VALUE) {
+                return fc.map(FileChannel.MapMode.READ_ONLY, position, size);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a data input reading the same channel through a memory-mapped buffer, or {@code this} if the
+     * channel can not be mapped. The channel is mapped from the stream position at construction time to the
+     * end of file, provided that it is a {@link FileChannel} larger than the current buffer capacity and not
+     * larger than {@link Integer#MAX_VALUE} bytes. The returned input has the same byte order and the same
+     * stream position than this input.
+     *
+     * <p>This method is intended for data stores that keep the channel after the format has been recognized.
+     * It is not invoked by {@link org.apache.sis.storage.StorageConnector} itself, because probing the format
+     * needs only the first bytes of the file. If this method returns a new instance, then this input shall
+     * not be used anymore; the channel shall be closed by closing the returned input.</p>
+     *
+     * @return a data input reading the same channel through a mapped buffer, or {@code this}.
+     * @throws IOException if an error occurred while mapping the channel.
+     *
+     * @see #map(ReadableByteChannel, int)
+     *
+     * @since 0.8
+     */
+    public ChannelDataInput mapped() throws IOException {
+        if (!isMapped && channel instanceof FileChannel) {
+            final FileChannel fc = (FileChannel) channel;
+            final long size = fc.size() - channelOffset;
+            if (size > buffer.capacity() && size <= Integer.MAX_VALUE) {
+                final long position = getStreamPosition();
+                fc.position(channelOffset);
+                final ChannelDataInput input = new ChannelDataInput(filename, channel,
+                        fc.map(FileChannel.MapMode.READ_ONLY, channelOffset, size), false);
+                input.buffer.order(buffer.order());
+                input.seek(position);
+                return input;
+            }
+        }
+        return this;
+    }
+
     /**
      * Tries to read more bytes from the channel without changing the buffer position.
      * This method returns a negative number if the buffer is already full or if the channel reached the
@@ -114,6 +205,9 @@ public class ChannelDataInput extends ChannelData {
         if (limit == capacity) {
             return -2;
         }
+        if (isMapped) {
+            return -1;                  // The whole channel content is already in the buffer.
+        }
         final int position = buffer.position();
         buffer.limit(capacity).position(limit);
         int c = channel.read(buffer);
@@ -138,6 +232,9 @@ public class ChannelDataInput extends ChannelData {
         if (buffer.hasRemaining()) {
             return true;
         }
+        if (isMapped) {
+            return false;
+        }
         bufferOffset += buffer.limit();
         buffer.clear();
         int c = channel.read(buffer);
@@ -162,6 +259,9 @@ public class ChannelDataInput extends ChannelData {
         assert n >= 0 && n <= buffer.capacity() : n;
         n -= buffer.remaining();
         if (n > 0) {
+            if (isMapped) {
+                throw new EOFException(eof());
+            }
             bufferOffset += buffer.position();
             buffer.compact();
             do {
@@ -545,6 +645,13 @@ public class ChannelDataInput extends ChannelData {
          */
         abstract void transfer(int offset, int n);
 
+        /**
+         * Transfers the data from a new view created over the given buffer, starting at the buffer position.
+         * This method is used for memory-mapped files, where the buffer position may not be a multiple of
+         * the data size and the buffer can not be compacted.
+         */
+        abstract void transfer(ByteBuffer source, int offset, int n);
+
         /**
          * Skips the given amount of bytes in the buffer. It is caller responsibility to ensure
          * that there is enough bytes remaining in the buffer.
@@ -577,6 +684,19 @@ public class ChannelDataInput extends ChannelData {
         @Override
         public void readFully(Buffer view, int offset, int length) throws IOException {
             final int dataSizeShift = dataSizeShift();
+            if (isMapped) {
+                /*
+                 * All data are already in memory, so we can transfer them in a single bulk operation.
+                 * We do not use the given view because its element at index 0 is at buffer index 0,
+                 * while the buffer position may not be a multiple of the data size.
+                 */
+                if (((long) length << dataSizeShift) > buffer.remaining()) {
+                    throw new EOFException(eof());
+                }
+                transfer(buffer, offset, length);
+                skipInBuffer(length << dataSizeShift);
+                return;
+            }
             ensureBufferContains(Math.min(length << dataSizeShift, buffer.capacity()));
             if (view == null) {
                 view = createView();                                    // Must be after ensureBufferContains(int).
@@ -619,6 +739,7 @@ public class ChannelDataInput extends ChannelData {
         @Override public Buffer createView()            {return buffer;}
         @Override public void   createDataArray(int n)  {dest = new byte[n];}
         @Override        void   transfer(int p, int n)  {buffer.get(dest, p, n);}
+        @Override void transfer(ByteBuffer s, int p, int n) {s.slice().get(dest, p, n);}
         @Override public void   setDest(Object array)   {dest = (byte[]) array;};
         @Override public void readFully(Buffer view, int offset, int length) throws IOException {
             ChannelDataInput.this.readFully(dest, offset, length);
@@ -640,6 +761,7 @@ public class ChannelDataInput extends ChannelData {
         @Override public Buffer createView()            {return view = buffer.asCharBuffer();}
         @Override public void   createDataArray(int n)  {dest = new char[n];}
         @Override        void   transfer(int p, int n)  {view.get(dest, p, n);}
+        @Override void transfer(ByteBuffer s, int p, int n) {s.asCharBuffer().get(dest, p, n);}
         @Override public void   setDest(Object array)   {dest = (char[]) array;};
     };
 
@@ -658,6 +780,7 @@ public class ChannelDataInput extends ChannelData {
         @Override public Buffer createView()            {return view = buffer.asShortBuffer();}
         @Override public void   createDataArray(int n)  {dest = new short[n];}
         @Override void          transfer(int p, int n)  {view.get(dest, p, n);}
+        @Override void transfer(ByteBuffer s, int p, int n) {s.asShortBuffer().get(dest, p, n);}
         @Override public void   setDest(Object array)   {dest = (short[]) array;};
     };
 
@@ -676,6 +799,7 @@ public class ChannelDataInput extends ChannelData {
         @Override public Buffer createView()            {return view = buffer.asIntBuffer();}
         @Override public void   createDataArray(int n)  {dest = new int[n];}
         @Override void          transfer(int p, int n)  {view.get(dest, p, n);}
+        @Override void transfer(ByteBuffer s, int p, int n) {s.asIntBuffer().get(dest, p, n);}
         @Override public void   setDest(Object array)   {dest = (int[]) array;};
     };
 
@@ -694,6 +818,7 @@ public class ChannelDataInput extends ChannelData {
         @Override public Buffer createView()            {return view = buffer.asLongBuffer();}
         @Override public void   createDataArray(int n)  {dest = new long[n];}
         @Override void          transfer(int p, int n)  {view.get(dest, p, n);}
+        @Override void transfer(ByteBuffer s, int p, int n) {s.asLongBuffer().get(dest, p, n);}
         @Override public void   setDest(Object array)   {dest = (long[]) array;};
     };
 
@@ -712,6 +837,7 @@ public class ChannelDataInput extends ChannelData {
         @Override public Buffer createView()            {return view = buffer.asFloatBuffer();}
         @Override public void   createDataArray(int n)  {dest = new float[n];}
         @Override void          transfer(int p, int n)  {view.get(dest, p, n);}
+        @Override void transfer(ByteBuffer s, int p, int n) {s.asFloatBuffer().get(dest, p, n);}
         @Override public void   setDest(Object array)   {dest = (float[]) array;};
     };
 
@@ -730,6 +856,7 @@ public class ChannelDataInput extends ChannelData {
         @Override public Buffer createView()            {return view = buffer.asDoubleBuffer();}
         @Override public void   createDataArray(int n)  {dest = new double[n];}
         @Override void          transfer(int p, int n)  {view.get(dest, p, n);}
+        @Override void transfer(ByteBuffer s, int p, int n) {s.asDoubleBuffer().get(dest, p, n);}
         @Override public void   setDest(Object array)   {dest = (double[]) array;};
     };
 
@@ -849,6 +976,12 @@ public class ChannelDataInput extends ChannelData {
              * Requested position is inside the current limits of the buffer.
              */
             buffer.position((int) p);
+        } else if (isMapped) {
+            /*
+             * The buffer contains the whole channel content,
+             * so the requested position is outside the stream.
+             */
+            throw new EOFException(eof());
         } else if (channel instanceof SeekableByteChannel) {
             /*
              * Requested position is outside the current limits of the buffer,
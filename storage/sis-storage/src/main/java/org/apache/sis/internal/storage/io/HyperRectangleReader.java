@@ -19,6 +19,7 @@ package org.apache.sis.internal.storage.io;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import org.apache.sis.util.Numbers;
 import org.apache.sis.util.resources.Errors;
 import org.apache.sis.storage.DataStoreException;
@@ -43,6 +44,12 @@ public final class HyperRectangleReader {
      */
     private final DataTransfer reader;
 
+    /**
+     * The input from which {@link #reader} gets the values, or {@code null} if the values are read from
+     * a buffer in memory. This is used for determining if concurrent reads are possible.
+     */
+    private final ChannelDataInput input;
+
     /**
      * The {@link #input} position of the first sample (ignoring sub-area and sub-sampling).
      */
@@ -70,6 +77,7 @@ public final class HyperRectangleReader {
             default: throw new DataStoreContentException(Errors.format(Errors.Keys.UnknownType_1, dataType));
         }
         this.origin = origin;
+        this.input  = input;
         final ByteBuffer buffer = input.buffer;
         final int pos = buffer.position();
         final int lim = buffer.limit();
@@ -92,6 +100,7 @@ public final class HyperRectangleReader {
     public HyperRectangleReader(final String filename, final Buffer data) throws IOException {
         reader = new MemoryDataTransfer(filename, data).reader();
         origin = 0;
+        input  = null;
     }
 
     /**
@@ -104,6 +113,20 @@ public final class HyperRectangleReader {
         return reader.filename();
     }
 
+    /**
+     * Returns the position in the input of the first value to be read in the given region.
+     * This information can be used for ordering many read operations in a sequence that
+     * traverses the input in a single forward pass.
+     *
+     * @param  region  the sub-area to read and the sub-sampling to use.
+     * @return position in the input of the first value to be read.
+     *
+     * @since 0.8
+     */
+    public long streamPosition(final Region region) {
+        return origin + (region.startAt << reader.dataSizeShift());
+    }
+
     /**
      * Reads data in the given region. It is caller's responsibility to ensure that the {@code Region}
      * object has been created with a {@code size} argument equals to this hyper-rectangle size.
@@ -113,18 +136,45 @@ public final class HyperRectangleReader {
      * @throws IOException if an error occurred while transferring data from the channel.
      */
     public Object read(final Region region) throws IOException {
+        return read(region, 0, null, 0);
+    }
+
+    /**
+     * Reads data in the given region and stores them in an existing array. The region is shifted by the given
+     * amount of bytes, which allows to read many slices having the same shape (for example the records of a
+     * NetCDF file) without creating a new {@code Region} for each slice. This method allows also to read many
+     * slices in the same array, one after the other.
+     *
+     * @param  region        the sub-area to read and the sub-sampling to use.
+     * @param  offset        number of bytes to add to the position of all values in the region.
+     * @param  target        the array where to store the values, or {@code null} for creating a new array.
+     * @param  targetOffset  index in the {@code target} array where to store the first value. Ignored if
+     *                       {@code target} is null.
+     * @return the data in an array of primitive type. This is {@code target} if it was non-null.
+     * @throws IOException if an error occurred while transferring data from the channel.
+     * @throws ClassCastException if the given {@code target} is not an array of the expected type.
+     *
+     * @since 0.8
+     */
+    public Object read(final Region region, final long offset, final Object target, final int targetOffset)
+            throws IOException
+    {
         final int contiguousDataLength = region.targetLength(region.contiguousDataDimension);
         final long[] strides = new long[region.getDimension() - region.contiguousDataDimension];
         final int[]   cursor = new int[strides.length];
         final int  sizeShift = reader.dataSizeShift();
-        long  streamPosition = origin + (region.startAt << sizeShift);
-        int    arrayPosition = 0;
+        long  streamPosition = origin + offset + (region.startAt << sizeShift);
+        int    arrayPosition = (target != null) ? targetOffset : 0;
         for (int i=0; i<strides.length; i++) {
             strides[i] = (region.skips[i + region.contiguousDataDimension] + contiguousDataLength) << sizeShift;
             assert (strides[i] > 0) : i;
         }
         try {
-            reader.createDataArray(region.targetLength(region.getDimension()));
+            if (target != null) {
+                reader.setDest(target);
+            } else {
+                reader.createDataArray(region.targetLength(region.getDimension()));
+            }
             final Buffer view = reader.view();
 loop:       do {
                 reader.seek(streamPosition);
@@ -152,4 +202,65 @@ loop:       do {
             reader.setDest(null);
         }
     }
+
+    /**
+     * Reads data in the given region using many threads. The region is partitioned along its outermost dimension
+     * in at most {@code parallelism} slabs, and each slab is read concurrently using positional reads in the file.
+     * This method does not change the position of the {@link ChannelDataInput}.
+     *
+     * <p>Concurrent reads are possible only if the values are read from a {@link FileChannel}. In other cases,
+     * or if the region has only one slab, or if {@code parallelism} is 1, this method delegates to
+     * {@link #read(Region)}.</p>
+     *
+     * @param  region       the sub-area to read and the sub-sampling to use.
+     * @param  parallelism  maximal number of slabs to read concurrently.
+     * @return the data in an array of primitive type.
+     * @throws IOException if an error occurred while transferring data from the channel.
+     *
+     * @since 0.8
+     */
+    public Object read(final Region region, final int parallelism) throws IOException {
+        final int dimension = region.getDimension();
+        final int contiguousDataDimension = region.contiguousDataDimension;
+        if (parallelism <= 1 || contiguousDataDimension >= dimension || region.targetSize[dimension - 1] <= 1
+                || input == null || !(input.channel instanceof FileChannel)
+                || !(reader instanceof ChannelDataInput.ArrayReader))
+        {
+            return read(region);
+        }
+        /*
+         * Compute the number of bytes between two consecutive chunks of contiguous data along each dimension.
+         * Contrarily to the strides computed by read(Region), those strides are independent of the position
+         * in the lower dimensions. This allows each slab to compute the position of any chunk.
+         */
+        final int contiguousDataLength = region.targetLength(contiguousDataDimension);
+        final int[]  sizes   = new int [dimension - contiguousDataDimension];
+        final long[] strides = new long[sizes.length];
+        final int sizeShift = reader.dataSizeShift();
+        for (int i=0; i<sizes.length; i++) {
+            long stride = region.skips[i + contiguousDataDimension] + contiguousDataLength;
+            for (int j=0; j<i; j++) {
+                stride += (sizes[j] - 1) * strides[j];
+            }
+            sizes  [i] = region.targetSize[i + contiguousDataDimension];
+            strides[i] = stride;
+        }
+        for (int i=0; i<sizes.length; i++) {
+            strides[i] <<= sizeShift;
+        }
+        /*
+         * Above loop computed strides in number of values before converting them to bytes, because the skips are
+         * expressed in number of values. Note that strides[j] for j < i were still in number of values at the time
+         * they were used. Now create the destination array and read all slabs.
+         */
+        try {
+            reader.createDataArray(region.targetLength(dimension));
+            new SlabReader((ChannelDataInput.ArrayReader) reader, (FileChannel) input.channel, input.buffer.order(),
+                    input.channelOffset + origin + (region.startAt << sizeShift), strides, sizes,
+                    contiguousDataLength, parallelism).readAll();
+            return reader.dataArray();
+        } finally {
+            reader.setDest(null);
+        }
+    }
 }
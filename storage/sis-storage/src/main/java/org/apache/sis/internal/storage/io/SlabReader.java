@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.storage.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.apache.sis.util.resources.Errors;
+
+// Branch-dependent imports
+import org.apache.sis.internal.jdk8.JDK8;
+
+
+/**
+ * Reads a hyper-rectangle from a file by slabs, in parallel. The region is partitioned along its outermost
+ * dimension and each slab is read by a separated task using positional reads ({@link FileChannel#read(ByteBuffer,
+ * long)}), which do not modify the channel position and can be executed concurrently. Each task reads the bytes
+ * in its own buffer, then copies the values in the destination array shared by all tasks. Since the slabs do not
+ * overlap, no synchronization is needed on the destination array.
+ *
+ * <p>Channel reads are blocking operations executed in the fork/join pool. For avoiding to starve other users
+ * of that pool, each read is wrapped in a {@link ForkJoinPool.ManagedBlocker}, which allows the pool to create
+ * a compensation thread while the worker thread is blocked.</p>
+ *
+ * <p>This class is used by {@link HyperRectangleReader#read(Region, int)}.</p>
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+@SuppressWarnings("serial")             // Not intended to be serialized.
+final class SlabReader extends RecursiveAction {
+    /**
+     * Maximal capacity of the buffer allocated by each task, in bytes.
+     */
+    private static final int MAXIMUM_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * The object to use for copying values from a buffer to the destination array.
+     * The destination array shall be created before the tasks are executed.
+     */
+    private final ChannelDataInput.ArrayReader reader;
+
+    /**
+     * The channel from which to read the values. Only positional reads are performed on this channel.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The byte order of the values to read.
+     */
+    private final ByteOrder order;
+
+    /**
+     * Number of bits to shift for converting a number of values into a number of bytes.
+     */
+    private final int dataSizeShift;
+
+    /**
+     * Channel position of the first value in the region.
+     */
+    private final long origin;
+
+    /**
+     * Number of bytes between the first values of two consecutive chunks of contiguous data,
+     * for each dimension after the dimensions collapsed in a chunk.
+     */
+    private final long[] strides;
+
+    /**
+     * Number of chunks along each dimension after the dimensions collapsed in a chunk.
+     * The last element is the size of the dimension along which the region is partitioned.
+     */
+    private final int[] sizes;
+
+    /**
+     * Number of values in a chunk of contiguous data.
+     */
+    private final int chunkLength;
+
+    /**
+     * Maximal number of indices along the outermost dimension to read in a single task.
+     */
+    private final int slabSize;
+
+    /**
+     * Range of indices along the outermost dimension to be read by this task.
+     */
+    private final int lower, upper;
+
+    /**
+     * Creates a new task for reading the given region.
+     *
+     * @param reader         the object to use for copying values in the destination array.
+     * @param channel        the channel from which to read the values.
+     * @param order          the byte order of the values to read.
+     * @param origin         channel position of the first value in the region.
+     * @param strides        number of bytes between consecutive chunks along each dimension.
+     * @param sizes          number of chunks along each dimension.
+     * @param chunkLength    number of values in a chunk of contiguous data.
+     * @param parallelism    the desired number of slabs.
+     */
+    SlabReader(final ChannelDataInput.ArrayReader reader, final FileChannel channel, final ByteOrder order,
+            final long origin, final long[] strides, final int[] sizes, final int chunkLength, final int parallelism)
+    {
+        this.reader        = reader;
+        this.channel       = channel;
+        this.order         = order;
+        this.dataSizeShift = reader.dataSizeShift();
+        this.origin        = origin;
+        this.strides       = strides;
+        this.sizes         = sizes;
+        this.chunkLength   = chunkLength;
+        this.lower         = 0;
+        this.upper         = sizes[sizes.length - 1];
+        this.slabSize      = Math.max(1, (upper + parallelism - 1) / parallelism);
+    }
+
+    /**
+     * Creates a new task for a sub-range of the slabs of the given parent task.
+     */
+    private SlabReader(final SlabReader parent, final int lower, final int upper) {
+        reader        = parent.reader;
+        channel       = parent.channel;
+        order         = parent.order;
+        dataSizeShift = parent.dataSizeShift;
+        origin        = parent.origin;
+        strides       = parent.strides;
+        sizes         = parent.sizes;
+        chunkLength   = parent.chunkLength;
+        slabSize      = parent.slabSize;
+        this.lower    = lower;
+        this.upper    = upper;
+    }
+
+    /**
+     * Reads all slabs in the shared fork/join pool and waits for the completion of all tasks.
+     * This method shall be invoked only once, on the task created by the package-private constructor.
+     *
+     * @throws IOException if an error occurred while reading the channel.
+     */
+    final void readAll() throws IOException {
+        if (upper - lower <= slabSize) {
+            compute();                          // No need to involve other threads for a single slab.
+        } else {
+            JDK8.commonPool().execute(this);
+            quietlyJoin();
+        }
+        /*
+         * The fork/join framework may wrap the exception in another exception if it has been thrown
+         * in a different thread than the current one, so we need to search the cause of the failure.
+         */
+        final Throwable failure = getException();
+        if (failure != null) {
+            for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+            }
+            if (failure instanceof RuntimeException) throw (RuntimeException) failure;
+            if (failure instanceof Error)            throw (Error) failure;
+            throw new IllegalStateException(failure);                   // Should never happen.
+        }
+    }
+
+    /**
+     * Reads the slabs in the range of indices assigned to this task.
+     * If there is more slabs than the maximal slab size, the work is split in two sub-tasks.
+     */
+    @Override
+    protected void compute() {
+        if (upper - lower > slabSize) {
+            final int mid = (lower + upper) >>> 1;
+            invokeAll(new SlabReader(this, lower, mid),
+                      new SlabReader(this, mid, upper));
+        } else try {
+            readSlab();
+        } catch (IOException e) {
+            completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Reads all chunks of contiguous data having an outermost index in the range assigned to this task.
+     * Chunks are read through a buffer, so small chunks close to each other are read in a single operation.
+     */
+    private void readSlab() throws IOException {
+        final int last = sizes.length - 1;
+        /*
+         * Compute the position of the first value to read and the position after the last value to read,
+         * for bounding the amount of bytes to transfer in the buffer. The number of chunks before the first
+         * chunk of this slab gives the position in the destination array.
+         */
+        long start = origin + lower * strides[last];
+        long end   = origin + (upper - 1) * strides[last] + ((long) chunkLength << dataSizeShift);
+        long chunksPerIndex = 1;
+        for (int i=0; i<last; i++) {
+            end += (sizes[i] - 1) * strides[i];
+            chunksPerIndex *= sizes[i];
+        }
+        int offset = JDK8.toIntExact(lower * chunksPerIndex * chunkLength);
+        final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(end - start, MAXIMUM_BUFFER_SIZE)).order(order);
+        buffer.limit(0);
+        long bufferStart = start;
+        /*
+         * Iterate over all chunks in the same order than they are stored in the destination array.
+         * For each chunk, transfer the values from the buffer, filling the buffer when needed.
+         */
+        final int[] cursor = new int[sizes.length];
+        cursor[last] = lower;
+        do {
+            long position = start;
+            int remaining = chunkLength;
+            while (remaining != 0) {
+                final long available = bufferStart + buffer.limit() - position;
+                if (position < bufferStart || available < (1 << dataSizeShift)) {
+                    bufferStart = position;
+                    fill(buffer, position, end);
+                    continue;
+                }
+                final int n = (int) Math.min(remaining, available >> dataSizeShift);
+                buffer.position((int) (position - bufferStart));
+                reader.transfer(buffer, offset, n);
+                position  += (long) n << dataSizeShift;
+                offset    += n;
+                remaining -= n;
+            }
+            /*
+             * Move to the next chunk. The position of the next chunk is computed from the cursor
+             * rather than incrementally, for making this loop independent of the skips between rows.
+             */
+            int i = 0;
+            while (++cursor[i] >= sizes[i] && i != last) {
+                cursor[i++] = 0;
+            }
+            start = origin;
+            for (i=0; i<=last; i++) {
+                start += cursor[i] * strides[i];
+            }
+        } while (cursor[last] < upper);
+    }
+
+    /**
+     * Fills the given buffer with bytes starting at the given channel position.
+     * This method does not read bytes after the given end position.
+     *
+     * @param  buffer    the buffer to fill.
+     * @param  position  channel position of the first byte to read.
+     * @param  end       channel position after the last byte that may be needed.
+     * @throws EOFException if the end of file has been reached before a complete value could be read.
+     */
+    private void fill(final ByteBuffer buffer, final long position, final long end) throws IOException {
+        buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+        final Fill task = new Fill(channel, buffer, position);
+        try {
+            ForkJoinPool.managedBlock(task);
+        } catch (InterruptedException e) {
+            final InterruptedIOException ex = new InterruptedIOException(reader.filename());
+            ex.initCause(e);
+            throw ex;
+        }
+        if (task.failure != null) {
+            throw task.failure;
+        }
+        buffer.flip();
+        if ((buffer.limit() >> dataSizeShift) == 0) {
+            throw new EOFException(Errors.format(Errors.Keys.UnexpectedEndOfFile_1, reader.filename()));
+        }
+    }
+
+    /**
+     * A blocking read of the channel, executed in a way that allows the fork/join pool to compensate
+     * for the blocked worker thread. This task reads bytes until the buffer is full or the end of file
+     * is reached.
+     */
+    private static final class Fill implements ForkJoinPool.ManagedBlocker {
+        /** The channel from which to read the bytes. */
+        private final FileChannel channel;
+
+        /** The buffer to fill. */
+        private final ByteBuffer buffer;
+
+        /** Channel position of the first byte to read. */
+        private final long position;
+
+        /** The exception thrown by the read operation, or {@code null} if none. */
+        IOException failure;
+
+        /** Whether the read operation has been executed. */
+        private boolean done;
+
+        /** Creates a new task for filling the given buffer. */
+        Fill(final FileChannel channel, final ByteBuffer buffer, final long position) {
+            this.channel  = channel;
+            this.buffer   = buffer;
+            this.position = position;
+        }
+
+        /** Reads the bytes. Exceptions are saved for being rethrown by the caller. */
+        @Override
+        public boolean block() {
+            try {
+                do {
+                    if (channel.read(buffer, position + buffer.position()) < 0) {
+                        break;
+                    }
+                } while (buffer.hasRemaining());
+            } catch (IOException e) {
+                failure = e;
+            }
+            done = true;
+            return true;
+        }
+
+        /** Returns whether the read operation has been executed. */
+        @Override
+        public boolean isReleasable() {
+            return done;
+        }
+    }
+}
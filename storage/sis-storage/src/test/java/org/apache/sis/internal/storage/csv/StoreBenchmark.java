@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.storage.csv;
+
+import java.io.IOException;
+import java.io.StringReader;
+import org.apache.sis.math.Statistics;
+import org.apache.sis.math.StatisticsFormat;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.StorageConnector;
+
+// Branch-dependent imports
+import org.apache.sis.feature.AbstractFeature;
+import org.apache.sis.internal.jdk8.Consumer;
+
+
+/**
+ * Measures the performance of reading features from a Moving Features CSV file.
+ * The file content is generated in memory, so this benchmark measures the parsing
+ * and feature creation costs without disk access.
+ *
+ * <p><b>Usage:</b> run before and after a change in the CSV {@link Store} implementation,
+ * then compare the number of rows per second printed to the standard output.</p>
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+@SuppressWarnings("UseOfSystemOutOrSystemErr")
+public final class StoreBenchmark implements Consumer<AbstractFeature> {
+    /**
+     * Runs the benchmark and prints the time result to the standard output.
+     *
+     * @param  args  ignored.
+     * @throws Exception if an error occurred while reading the features or printing the results.
+     */
+    public static void main(String[] args) throws Exception {
+        final StoreBenchmark benchmark = new StoreBenchmark();
+        for (int i=0; i<10; i++) {
+            benchmark.run();
+            System.gc();
+            Thread.sleep(1000);
+        }
+        benchmark.printStatistics();
+    }
+
+    /**
+     * Number of rows in the CSV file. Can be modified freely.
+     */
+    private static final int NUM_ROWS = 500000;
+
+    /**
+     * The CSV file content.
+     */
+    private final String data;
+
+    /**
+     * Statistics about the number of rows read per second.
+     */
+    private final Statistics rowsPerSecond;
+
+    /**
+     * A value computed from the results, for preventing the JVM to optimize away the benchmarked code.
+     */
+    private int check;
+
+    /**
+     * Creates a new benchmark.
+     */
+    private StoreBenchmark() {
+        final StringBuilder buffer = new StringBuilder(
+                "@stboundedby, urn:ogc:def:crs:CRS:1.3:84, 2D, 50.23 9.23, 50.31 9.27, 2012-01-17T12:33:41Z, 2012-01-17T12:37:00Z, sec\n" +
+                "@columns, mfidref, trajectory, state,xsd:string, speed,xsd:decimal, \"type code\",xsd:integer\n");
+        for (int i=0; i<NUM_ROWS; i++) {
+            final int t = i % 1000;
+            buffer.append('m').append(i / 100).append(", ").append(t).append(", ").append(t + 10).append(", ")
+                  .append(50.23 + t * 0.00008).append(' ').append(9.23 + t * 0.00004).append(' ')
+                  .append(50.24 + t * 0.00007).append(' ').append(9.24 + t * 0.00003).append(", ");
+            if ((i & 3) != 0) {
+                buffer.append((i & 1) != 0 ? "walking" : "vehicle").append(", ").append(t * 0.25).append(", ").append(i & 7);
+            }
+            buffer.append('\n');
+        }
+        data = buffer.toString();
+        rowsPerSecond = new Statistics("Rows per second");
+    }
+
+    /**
+     * Reads all features once and adds the reading speed to the statistics.
+     */
+    private void run() throws DataStoreException {
+        final long time = System.nanoTime();
+        try (Store store = new Store(null, new StorageConnector(new StringReader(data)))) {
+            store.getFeatures().forEachOrdered(this);
+        }
+        rowsPerSecond.accept(NUM_ROWS / ((System.nanoTime() - time) / 1E+9));
+    }
+
+    /**
+     * Invoked for each feature read from the CSV file.
+     *
+     * @param  feature  the feature which has been read.
+     */
+    @Override
+    public void accept(final AbstractFeature feature) {
+        check += System.identityHashCode(feature.getPropertyValue("state"));
+    }
+
+    /**
+     * Prints the statistics to the standard output.
+     *
+     * @throws IOException if an error occurred while writing to the standard output.
+     */
+    private void printStatistics() throws IOException {
+        StatisticsFormat.getInstance().format(new Statistics[] {rowsPerSecond}, System.out);
+        System.out.println("(check value: " + check + ')');
+        System.out.flush();
+    }
+}
@@ -16,13 +16,18 @@
  */
 package org.apache.sis.internal.storage.csv;
 
+import java.util.List;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.io.IOException;
 import java.io.StringReader;
 import org.opengis.metadata.Metadata;
 import org.opengis.metadata.extent.Extent;
 import org.opengis.metadata.extent.GeographicBoundingBox;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.StorageConnector;
+import org.apache.sis.setup.OptionKey;
+import org.apache.sis.test.DependsOnMethod;
 import org.apache.sis.test.TestCase;
 import org.junit.Test;
 
@@ -37,6 +42,11 @@ import org.apache.sis.feature.DefaultAttributeType;
 import org.apache.sis.feature.DefaultFeatureType;
 import org.apache.sis.metadata.iso.identification.AbstractIdentification;
 import org.apache.sis.internal.jdk8.Instant;
+import org.apache.sis.internal.jdk8.Consumer;
+import org.apache.sis.internal.jdk8.Spliterator;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 
 /**
@@ -109,6 +119,85 @@ public final strictfp class StoreTest extends TestCase {
         }
     }
 
+    /**
+     * Tests splitting the iterator in many ranges of lines, as done by parallel streams.
+     * The file is made of many repetitions of the test data, including lines with omitted values.
+     * The features obtained from the split iterators shall be the same than the ones obtained
+     * by a sequential iteration, in the same order.
+     *
+     * @throws IOException if an error occurred while writing or reading the temporary file.
+     * @throws DataStoreException if an error occurred while parsing the data.
+     */
+    @Test
+    @DependsOnMethod("testGetFeatures")
+    public void testSplit() throws IOException, DataStoreException {
+        final StringBuilder buffer = new StringBuilder(
+                "@stboundedby, urn:ogc:def:crs:CRS:1.3:84, 2D,  50.23 9.23,  50.31 9.27,  2012-01-17T12:33:41Z, 2012-01-17T12:37:00Z, sec\n" +
+                "@columns, mfidref, trajectory, state,xsd:string, \"type code\",xsd:integer\n");
+        for (int i=0; i<4000; i++) {
+            buffer.append("a").append(i).append(",  10, 150, 11.0 2.0 12.0 3.0, walking, ").append(i).append('\n')
+                  .append("b").append(i).append(", 150, 190, 12.0 3.0 10.0 3.0\n");
+        }
+        final Path file = Files.createTempFile("features", ".csv");
+        try {
+            Files.write(file, buffer.toString().getBytes(StandardCharsets.UTF_8));
+            final List<String> expected = new ArrayList<>();
+            final List<String> actual   = new ArrayList<>();
+            try (Store store = new Store(null, connector(file))) {
+                store.new Iter().forEachRemaining(collector(expected));
+            }
+            assertEquals("Number of features.", 8000, expected.size());
+            try (Store store = new Store(null, connector(file))) {
+                final Spliterator<AbstractFeature> it = store.new Iter();
+                assertTrue("Expected at least one split.", read(it, collector(actual), 0) > 0);
+            }
+            assertEquals(expected, actual);
+            assertEquals("b3999 walking 3999", actual.get(actual.size() - 1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Creates a connector for reading the given file in UTF-8 encoding.
+     */
+    private static StorageConnector connector(final Path file) {
+        final StorageConnector connector = new StorageConnector(file);
+        connector.setOption(OptionKey.ENCODING, StandardCharsets.UTF_8);
+        return connector;
+    }
+
+    /**
+     * Returns a consumer adding a string representation of the features in the given list.
+     */
+    private static Consumer<AbstractFeature> collector(final List<String> list) {
+        return new Consumer<AbstractFeature>() {
+            @Override public void accept(final AbstractFeature f) {
+                list.add(f.getPropertyValue("mfidref") + " " + f.getPropertyValue("state") + ' '
+                       + f.getPropertyValue("type code"));
+            }
+        };
+    }
+
+    /**
+     * Reads all features from the given iterator after having split it recursively up to a few levels.
+     *
+     * @return number of successful splits.
+     */
+    private static int read(final Spliterator<AbstractFeature> it, final Consumer<AbstractFeature> action, final int depth) {
+        int count = 0;
+        if (depth < 4) {
+            final Spliterator<AbstractFeature> prefix = it.trySplit();
+            if (prefix != null) {
+                count = 1 + read(prefix, action, depth + 1)
+                          + read(it,     action, depth + 1);
+                return count;
+            }
+        }
+        it.forEachRemaining(action);
+        return count;
+    }
+
     /**
      * Verifies that the feature type is equal to the expected one.
      */
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.storage.csv;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.apache.sis.test.TestCase;
+import org.apache.sis.test.TestUtilities;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests {@link Tokenizer}.
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+public final strictfp class TokenizerTest extends TestCase {
+    /**
+     * Tests {@link Tokenizer#split(String, int)} and verifies that the result is the same
+     * than {@link Store#split(String, List)}.
+     */
+    @Test
+    public void testSplit() {
+        final String line = "a,  10, \"x,\"\"y\"\" \" , 11.0 2.0 ,,last ";
+        final Tokenizer tokenizer = new Tokenizer();
+        final List<String> expected = new ArrayList<>();
+        Store.split(line, expected);
+        assertEquals("count", expected.size(), tokenizer.split(line, 100));
+        for (int i=0; i<expected.size(); i++) {
+            assertEquals(expected.get(i), tokenizer.text(line, i));
+        }
+        assertEquals("x,\"y\"", tokenizer.text(line, 2));
+        assertFalse("hasQuotes", tokenizer.hasQuotes(1));
+        assertTrue ("hasQuotes", tokenizer.hasQuotes(2));
+        assertEquals("lower", 4, tokenizer.lower(1));
+        assertEquals("upper", 6, tokenizer.upper(1));
+        assertEquals("count", 3, tokenizer.split(line, 3));
+    }
+
+    /**
+     * Tests {@link Tokenizer#parseDouble(CharSequence, int, int)} with values for which the fast path applies
+     * and values delegated to {@link Double#parseDouble(String)}. Results shall be identical in all cases.
+     */
+    @Test
+    public void testParseDouble() {
+        final List<String> texts = new ArrayList<>(Arrays.asList("0", "-0", "1.", "+.5", "0.1", "-12.75",
+                "00012.50000", "1E5", "123456789012345", "1234567890123456", "9007199254740993", "0.0000000000000000000001"));
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        for (int i=0; i<1000; i++) {
+            final double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12) - 4);
+            texts.add(Double.toString(value));
+            texts.add(String.format(Locale.US, "%." + random.nextInt(14) + 'f', value));
+        }
+        for (final String text : texts) {
+            assertEquals(text, Double.doubleToLongBits(Double.parseDouble(text)),
+                    Double.doubleToLongBits(Tokenizer.parseDouble(text, 0, text.length())));
+        }
+        assertEquals(2.5, Tokenizer.parseDouble("a 2.5 b", 2, 5), STRICT);
+    }
+
+    /**
+     * Tests {@link Tokenizer#parseInt(CharSequence, int, int)}.
+     */
+    @Test
+    public void testParseInt() {
+        assertEquals(  -123, Tokenizer.parseInt("-123", 0, 4));
+        assertEquals(     7, Tokenizer.parseInt("+7",   0, 2));
+        assertEquals(Integer.MAX_VALUE, Tokenizer.parseInt("2147483647", 0, 10));
+        try {
+            Tokenizer.parseInt("12a", 0, 3);
+            fail("Shall not parse an invalid number.");
+        } catch (NumberFormatException e) {
+            assertTrue(e.getMessage().contains("12a"));
+        }
+    }
+
+    /**
+     * Tests {@link Tokenizer#parseOrdinates(CharSequence, int, int)}.
+     */
+    @Test
+    public void testParseOrdinates() {
+        final String text = ",  11.0  2.0 12 3.5 ,";
+        assertArrayEquals(new double[] {11, 2, 12, 3.5}, Tokenizer.parseOrdinates(text, 3, text.length() - 2), STRICT);
+        assertArrayEquals(new double[] {11, 2, 12, 3.5}, GeometryParser.INSTANCE.apply(text.substring(3, text.length() - 2)), STRICT);
+    }
+}
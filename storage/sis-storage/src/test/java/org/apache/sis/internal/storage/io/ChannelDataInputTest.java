@@ -19,11 +19,18 @@ package org.apache.sis.internal.storage.io;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.InvalidMarkException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.sis.test.DependsOnMethod;
 import org.junit.Test;
 
-import static org.junit.Assert.*;
+import static org.apache.sis.test.Assert.*;
 
 
 /**
@@ -32,7 +39,7 @@ import static org.junit.Assert.*;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.3
- * @version 0.5
+ * @version 0.8
  * @module
  */
 public final strictfp class ChannelDataInputTest extends ChannelDataTestCase {
@@ -62,6 +69,69 @@ public final strictfp class ChannelDataInputTest extends ChannelDataTestCase {
         transferRandomData(testedStream, array.length - ARRAY_MAX_LENGTH, 16);
     }
 
+    /**
+     * Tests the same read methods than {@link #testAllReadMethods()}, but on a memory-mapped file.
+     * Also verifies that attempts to read or seek after the end of file are reported as errors.
+     *
+     * @throws IOException if an error occurred while writing or reading the temporary file.
+     */
+    @Test
+    @DependsOnMethod("testAllReadMethods")
+    public void testMappedFile() throws IOException {
+        final byte[] array = createRandomArray(STREAM_LENGTH);
+        final Path file = Files.createTempFile("ChannelDataInputTest", ".raw");
+        try {
+            Files.write(file, array);
+            try (FileChannel channel = FileChannel.open(file)) {
+                assertNull("Files smaller than the threshold shall not be mapped.", ChannelDataInput.map(channel, STREAM_LENGTH));
+                final ByteBuffer buffer = ChannelDataInput.map(channel, 0);
+                assertInstanceOf("map", MappedByteBuffer.class, buffer);
+                assertEquals("capacity", STREAM_LENGTH, buffer.capacity());
+                referenceStream = new DataInputStream(new ByteArrayInputStream(array));
+                testedStream = new ChannelDataInput("testMappedFile", channel, buffer, false);
+                transferRandomData(testedStream, array.length - ARRAY_MAX_LENGTH, 16);
+                /*
+                 * Reading after the end of file shall throw an exception rather than trying to refill the buffer.
+                 */
+                testedStream.seek(STREAM_LENGTH - 2);
+                assertEquals(ByteBuffer.wrap(array).getShort(STREAM_LENGTH - 2), testedStream.readShort());
+                assertFalse("hasRemaining()", testedStream.hasRemaining());
+                try {
+                    testedStream.readInt();
+                    fail("Expected EOFException.");
+                } catch (EOFException e) {
+                    assertTrue(e.getMessage().contains("testMappedFile"));
+                }
+                try {
+                    testedStream.seek(STREAM_LENGTH + 1);
+                    fail("Expected EOFException.");
+                } catch (EOFException e) {
+                    assertTrue(e.getMessage().contains("testMappedFile"));
+                }
+                /*
+                 * Flushing shall discard the obsolete marks even if the mapped buffer is not compacted.
+                 */
+                testedStream.seek(10);
+                testedStream.mark();
+                testedStream.seek(20);
+                testedStream.flushBefore(20);
+                try {
+                    testedStream.reset();
+                    fail("Expected InvalidMarkException.");
+                } catch (InvalidMarkException e) {
+                    // This is the expected exception.
+                }
+            }
+        } finally {
+            try {
+                Files.delete(file);
+            } catch (IOException e) {
+                // May happen on some platforms as long as the mapped buffer has not been garbage-collected.
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
     /**
      * Reads a random unit of data using a method selected randomly.
      * This method is invoked (indirectly) by {@link #testAllReadMethods()}.
@@ -22,6 +22,9 @@ import java.nio.ByteOrder;
 import java.nio.ByteBuffer;
 import java.nio.ShortBuffer;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import org.apache.sis.util.Numbers;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.test.DependsOnMethod;
@@ -39,7 +42,7 @@ import static org.junit.Assert.*;
  * @author  Johann Sorel (Geomatys)
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.7
- * @version 0.7
+ * @version 0.8
  * @module
  */
 @DependsOn(ChannelDataInputTest.class)
@@ -65,11 +68,16 @@ public final strictfp class HyperRectangleReaderTest extends TestCase {
     private final int[] subsampling = new int[size.length];
 
     /**
-     * The reader to test for an hyper-cube of {@code short} values, created by {@link #initialize(Random)}.
+     * The reader to test for an hyper-cube of {@code short} values, created by {@link #initialize(Random, boolean, Path)}.
      * Sample values are index values encoded in base 10. For example the value at index (4,1,2,3) will be 4123.
      */
     private HyperRectangleReader reader;
 
+    /**
+     * The channel opened on a temporary file by {@link #initialize(Random, boolean, Path)}, or {@code null} if none.
+     */
+    private FileChannel file;
+
     /**
      * Encodes the given index in the sample values to be stored in the array of data.
      * We use a decimal encoding for making easier to compare the actual values with the expected ones.
@@ -85,8 +93,11 @@ public final strictfp class HyperRectangleReaderTest extends TestCase {
      * @param random The random number generator to use for initializing the test.
      * @param useChannel {@code true} for fetching the data from channel to a small buffer,
      *        or {@code false} if the data are expected to be fully contained in the buffer.
+     * @param path if non-null, the temporary file where to write the data for reading them through a file channel.
      */
-    private void initialize(final Random random, final boolean useChannel) throws IOException, DataStoreException {
+    private void initialize(final Random random, final boolean useChannel, final Path path)
+            throws IOException, DataStoreException
+    {
         /*
          * Compute a random hyper-rectangle size, sub-region and sub-sampling. Each dimension will have a
          * size between 1 to 10, so we will be able to use decimal digits from 0 to 9 in the sample values.
@@ -131,7 +142,13 @@ public final strictfp class HyperRectangleReaderTest extends TestCase {
             }
         }
         assertEquals(length, view.position());
-        if (useChannel) {
+        if (path != null) {
+            Files.write(path, array);
+            file = FileChannel.open(path);
+            final ByteBuffer       buffer  = ByteBuffer.allocate(random.nextInt(20) + 20).order(ByteOrder.nativeOrder());
+            final ChannelDataInput input   = new ChannelDataInput("HyperRectangle in file", file, buffer, false);
+            reader = new HyperRectangleReader(Numbers.SHORT, input, origin);
+        } else if (useChannel) {
             final ByteArrayChannel channel = new ByteArrayChannel(array, true);
             final ByteBuffer       buffer  = ByteBuffer.allocate(random.nextInt(20) + 20).order(ByteOrder.nativeOrder());
             final ChannelDataInput input   = new ChannelDataInput("HyperRectangle in channel", channel, buffer, false);
@@ -145,9 +162,11 @@ public final strictfp class HyperRectangleReaderTest extends TestCase {
     /**
      * Extracts data from a region defined by current {@link #lower}, {@link #upper} and {@link #subsampling} values,
      * then compares against the expected values.
+     *
+     * @param parallelism maximal number of slabs to read concurrently, or 1 for sequential read.
      */
-    private void verifyRegionRead() throws IOException {
-        final short[] data = (short[]) reader.read(new Region(size, lower, upper, subsampling));
+    private void verifyRegionRead(final int parallelism) throws IOException {
+        final short[] data = (short[]) reader.read(new Region(size, lower, upper, subsampling), parallelism);
         int p = 0;
         final int s3 = subsampling[3];
         final int s2 = subsampling[2];
@@ -173,9 +192,9 @@ public final strictfp class HyperRectangleReaderTest extends TestCase {
      */
     @Test
     public void testSubRegion() throws IOException, DataStoreException {
-        initialize(TestUtilities.createRandomNumberGenerator(), true);
+        initialize(TestUtilities.createRandomNumberGenerator(), true, null);
         Arrays.fill(subsampling, 0, subsampling.length, 1);
-        verifyRegionRead();
+        verifyRegionRead(1);
     }
 
     /**
@@ -186,10 +205,10 @@ public final strictfp class HyperRectangleReaderTest extends TestCase {
      */
     @Test
     public void testSubSampling() throws IOException, DataStoreException {
-        initialize(TestUtilities.createRandomNumberGenerator(), true);
+        initialize(TestUtilities.createRandomNumberGenerator(), true, null);
         System.arraycopy(size, 0, upper, 0, size.length);
         Arrays.fill(lower, 0, lower.length, 0);
-        verifyRegionRead();
+        verifyRegionRead(1);
     }
 
     /**
@@ -201,8 +220,8 @@ public final strictfp class HyperRectangleReaderTest extends TestCase {
     @Test
     @DependsOnMethod({"testSubRegion", "testSubSampling"})
     public void testRandom() throws IOException, DataStoreException {
-        initialize(TestUtilities.createRandomNumberGenerator(), true);
-        verifyRegionRead();
+        initialize(TestUtilities.createRandomNumberGenerator(), true, null);
+        verifyRegionRead(1);
     }
 
     /**
@@ -214,7 +233,32 @@ public final strictfp class HyperRectangleReaderTest extends TestCase {
     @Test
     @DependsOnMethod("testRandom")
     public void testMemoryTransfer() throws IOException, DataStoreException {
-        initialize(TestUtilities.createRandomNumberGenerator(), false);
-        verifyRegionRead();
+        initialize(TestUtilities.createRandomNumberGenerator(), false, null);
+        verifyRegionRead(1);
+    }
+
+    /**
+     * Tests reading a random part of the hyper-cube from a file, with many threads.
+     *
+     * @throws IOException if an error occurred while writing or reading the temporary file.
+     * @throws DataStoreException should never happen.
+     */
+    @Test
+    @DependsOnMethod("testRandom")
+    public void testParallelRead() throws IOException, DataStoreException {
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        final Path path = Files.createTempFile("HyperRectangle", ".raw");
+        try {
+            for (int i=0; i<10; i++) {
+                initialize(random, true, path);
+                try {
+                    verifyRegionRead(random.nextInt(4) + 2);
+                } finally {
+                    file.close();
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
     }
 }
@@ -21,6 +21,9 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.channels.ReadableByteChannel;
 import javax.imageio.ImageIO;
 import javax.imageio.stream.ImageInputStream;
@@ -42,7 +45,7 @@ import static org.opengis.test.Assert.*;
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @since   0.3
- * @version 0.7
+ * @version 0.8
  * @module
  */
 @SuppressWarnings("OverlyStrongTypeCast")
@@ -257,22 +260,61 @@ public final strictfp class StorageConnectorTest extends TestCase {
 
     /**
      * Tests the {@link StorageConnector#getStorageAs(Class)} method for the {@link ByteBuffer} type.
-     * This method uses the same test file than {@link #testGetAsDataInputFromURL()}.
+     * This method uses the same test file than {@link #testGetAsDataInputFromStream()}. Since the storage
+     * is an input stream, the file shall not be mapped in memory and a heap buffer shall be allocated.
      *
      * @throws DataStoreException if an error occurred while using the storage connector.
      * @throws IOException if an error occurred while reading the test file.
      */
     @Test
-    @DependsOnMethod("testGetAsDataInputFromURL")
+    @DependsOnMethod("testGetAsDataInputFromStream")
     public void testGetAsByteBuffer() throws DataStoreException, IOException {
-        final StorageConnector connection = create(false);
+        final StorageConnector connection = create(true);
         final ByteBuffer buffer = connection.getStorageAs(ByteBuffer.class);
         assertNotNull("getStorageAs(ByteBuffer.class)", buffer);
+        assertFalse("isDirect", buffer.isDirect());
         assertEquals(StorageConnector.DEFAULT_BUFFER_SIZE, buffer.capacity());
         assertEquals(MAGIC_NUMBER, buffer.getInt());
         connection.closeAllExcept(null);
     }
 
+    /**
+     * Tests {@link ChannelDataInput#mapped()} on the input created by {@link StorageConnector} for a local file
+     * larger than {@link StorageConnector#DEFAULT_BUFFER_SIZE}. The buffer used for probing the format shall be
+     * an ordinary heap buffer, and the file shall be mapped in memory only when explicitly requested.
+     *
+     * @throws DataStoreException if an error occurred while using the storage connector.
+     * @throws IOException if an error occurred while writing or reading the temporary file.
+     */
+    @Test
+    @DependsOnMethod("testGetAsByteBuffer")
+    public void testMappedChannelDataInput() throws DataStoreException, IOException {
+        final int length = StorageConnector.DEFAULT_BUFFER_SIZE * 3;
+        final Path file = Files.createTempFile("StorageConnectorTest", ".raw");
+        try {
+            Files.write(file, ByteBuffer.allocate(length).putInt(4, MAGIC_NUMBER).array());
+            final StorageConnector connection = new StorageConnector(file);
+            final ByteBuffer buffer = connection.getStorageAs(ByteBuffer.class);
+            assertFalse("getStorageAs(ByteBuffer.class)", buffer instanceof MappedByteBuffer);
+            assertEquals("capacity", StorageConnector.DEFAULT_BUFFER_SIZE, buffer.capacity());
+
+            final ChannelDataInput input = connection.getStorageAs(ChannelDataInput.class);
+            input.seek(4);
+            final ChannelDataInput mapped = input.mapped();
+            assertNotSame("mapped()", input, mapped);
+            assertSame("channel", input.channel, mapped.channel);
+            assertInstanceOf("buffer", MappedByteBuffer.class, mapped.buffer);
+            assertEquals("capacity", length, mapped.buffer.capacity());
+            assertEquals("streamPosition", 4, mapped.getStreamPosition());
+            assertEquals(MAGIC_NUMBER, mapped.readInt());
+            assertSame("mapped()", mapped, mapped.mapped());
+            connection.closeAllExcept(mapped);
+            mapped.channel.close();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
     /**
      * Tests the {@link StorageConnector#getStorageAs(Class)} method for the {@link ByteBuffer} type when
      * the buffer is only temporary. The difference between this test and {@link #testGetAsByteBuffer()} is
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.internal.storage.gpx;
+
+import java.net.URISyntaxException;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.DataStoreContentException;
+import org.apache.sis.util.ArgumentChecks;
+
+
+/**
+ * Iterates over the coordinates of all way points, route points and track points of a GPX file, block by block.
+ * The coordinates are stored in arrays of primitive types (one array per column) instead than in feature instances.
+ * This is faster than iterating over features when only the point locations are desired, for example for ingesting
+ * large GPS track archives. Usage:
+ *
+ * {@preformat java
+ *     try (PointColumns points = store.getPointColumns(10000)) {
+ *         while (points.next()) {
+ *             double[] latitudes = points.latitudes();
+ *             // Use the values from index 0 inclusive to points.count() exclusive.
+ *         }
+ *     }
+ * }
+ *
+ * The same arrays are reused for all blocks. Consequently the values are valid only until the next call
+ * to {@link #next()}; callers shall copy the values that they want to keep.
+ *
+ * @author  agent (GeoPlatform)
+ * @since   0.8
+ * @version 0.8
+ * @module
+ */
+public final class PointColumns implements AutoCloseable {
+    /**
+     * The reader from which to read the points.
+     */
+    private final Reader reader;
+
+    /**
+     * The coordinates of the points in the current block.
+     */
+    private final double[] latitudes, longitudes, elevations;
+
+    /**
+     * The times of the points in the current block.
+     */
+    private final long[] times;
+
+    /**
+     * Number of points in the current block.
+     */
+    private int count;
+
+    /**
+     * Creates a new iterator over the points read by the given reader.
+     *
+     * @param  reader     the reader from which to read the points.
+     * @param  blockSize  maximal number of points in each block.
+     */
+    PointColumns(final Reader reader, final int blockSize) {
+        ArgumentChecks.ensureStrictlyPositive("blockSize", blockSize);
+        this.reader = reader;
+        latitudes   = new double[blockSize];
+        longitudes  = new double[blockSize];
+        elevations  = new double[blockSize];
+        times       = new long  [blockSize];
+    }
+
+    /**
+     * Reads the next block of points.
+     *
+     * @return {@code false} if there is no more points to read.
+     * @throws DataStoreException if an error occurred while reading the points.
+     */
+    public boolean next() throws DataStoreException {
+        try {
+            count = reader.readPoints(latitudes, longitudes, elevations, times);
+        } catch (DataStoreException e) {
+            throw e;
+        } catch (URISyntaxException | RuntimeException e) {
+            throw new DataStoreContentException(e);
+        } catch (Exception e) {
+            throw new DataStoreException(e);
+        }
+        return count != 0;
+    }
+
+    /**
+     * Returns the number of points in the current block.
+     *
+     * @return number of valid elements in the arrays returned by the other methods.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns the latitudes of the points in the current block, in decimal degrees.
+     *
+     * @return the latitudes. Only the {@link #count()} first values are valid.
+     */
+    public double[] latitudes() {
+        return latitudes;
+    }
+
+    /**
+     * Returns the longitudes of the points in the current block, in decimal degrees.
+     *
+     * @return the longitudes. Only the {@link #count()} first values are valid.
+     */
+    public double[] longitudes() {
+        return longitudes;
+    }
+
+    /**
+     * Returns the elevations of the points in the current block, or NaN for points without elevation.
+     *
+     * @return the elevations. Only the {@link #count()} first values are valid.
+     */
+    public double[] elevations() {
+        return elevations;
+    }
+
+    /**
+     * Returns the times of the points in the current block in milliseconds elapsed since January 1st, 1970,
+     * or {@link Long#MIN_VALUE} for points without time.
+     *
+     * @return the times. Only the {@link #count()} first values are valid.
+     */
+    public long[] times() {
+        return times;
+    }
+
+    /**
+     * Closes the reader used by this iterator.
+     *
+     * @throws DataStoreException if an error occurred while closing the reader.
+     */
+    @Override
+    public void close() throws DataStoreException {
+        try {
+            reader.close();
+        } catch (DataStoreException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DataStoreException(e);
+        }
+    }
+}
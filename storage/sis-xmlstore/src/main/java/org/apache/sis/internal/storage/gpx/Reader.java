@@ -18,13 +18,13 @@ package org.apache.sis.internal.storage.gpx;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.Objects;
 import java.io.IOException;
 import java.io.EOFException;
 import java.net.URISyntaxException;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
-import javax.xml.bind.JAXBException;
 import com.esri.core.geometry.Point;
 import org.apache.sis.storage.gps.Fix;
 import org.apache.sis.storage.DataStoreException;
@@ -140,14 +140,13 @@ final class Reader extends StaxStreamReader {
      * @return the GPX file version, or {@code null} if no version information was found.
      * @throws DataStoreException if the root element is not the expected one.
      * @throws XMLStreamException if an error occurred while reading the XML file.
-     * @throws JAXBException if an error occurred while parsing GPX 1.1 metadata.
-     * @throws ClassCastException if an object unmarshalled by JAXB was not of the expected type.
-     * @throws URISyntaxException if an error occurred while parsing URI in GPX 1.0 metadata.
+     * @throws URISyntaxException if an error occurred while parsing URI in GPX metadata.
+     * @throws NumberFormatException if a text can not be parsed as an integer or a floating point number.
      * @throws ParseException if a text can not be parsed as a date.
      * @throws EOFException if the file seems to be truncated.
      */
     public Version initialize(final boolean readMetadata) throws DataStoreException,
-            XMLStreamException, JAXBException, URISyntaxException, ParseException, EOFException
+            XMLStreamException, URISyntaxException, ParseException, EOFException
     {
         /*
          * Skip comments, characters, entity declarations, etc. until we find the root element.
@@ -188,7 +187,7 @@ final class Reader extends StaxStreamReader {
          *     Those elements are parsed in the switch statement below.
          *
          *   - In GPX 1.1, they are declared in a <metadata> sub-element and their structure is a little bit
-         *     more elaborated than what it was in the previous version. We will use JAXB for parsing them.
+         *     more elaborated than what it was in the previous version. They are parsed by parseMetadata().
          */
 parse:  while (reader.hasNext()) {
             switch (next()) {
@@ -203,7 +202,7 @@ parse:  while (reader.hasNext()) {
                         if (readMetadata) {
                             switch (name) {
                                 // GPX 1.1 metadata
-                                case Tags.METADATA:     metadata = unmarshal(Metadata.class); break;
+                                case Tags.METADATA:     metadata = parseMetadata(); break;
 
                                 // GPX 1.0 metadata
                                 case Tags.NAME:         metadata().name        = getElementText();        break;
@@ -214,7 +213,7 @@ parse:  while (reader.hasNext()) {
                                 case Tags.URL_NAME:     link()    .text        = getElementText();        break;
                                 case Tags.TIME:         metadata().time        = getElementAsDate();      break;
                                 case Tags.KEYWORDS:     metadata().keywords    = getElementAsList();      break;
-                                case Tags.BOUNDS:       metadata().bounds      = unmarshal(Bounds.class); break;
+                                case Tags.BOUNDS:       metadata().bounds      = parseBounds();           break;
                                 case Tags.WAY_POINT:    // stop metadata parsing.
                                 case Tags.TRACKS:
                                 case Tags.ROUTES:       break parse;
@@ -237,7 +236,7 @@ parse:  while (reader.hasNext()) {
                 }
                 case END_ELEMENT: {
                     /*
-                     * Reminder: calling next() after getElementText(), getElementAsFoo() and unmarshal(…) methods
+                     * Reminder: calling next() after getElementText(), getElementAsFoo() and parseFoo() methods
                      * moves the reader after the END_ELEMENT event. Consequently there is only the enclosing <gpx>
                      * tag to check here.
                      */
@@ -254,6 +253,165 @@ parse:  while (reader.hasNext()) {
         return version;
     }
 
+    /**
+     * Parses a GPX 1.1 {@code <metadata>} element. The STAX reader {@linkplain XMLStreamReader#getEventType() current
+     * event} must be a {@link #START_ELEMENT} and the name of that start element must be {@link Tags#METADATA}.
+     * After this method invocation, the reader will be on {@link #END_ELEMENT}.
+     *
+     * @throws XMLStreamException if an error occurred while reading the XML file.
+     * @throws URISyntaxException if an error occurred while parsing an URI.
+     * @throws ParseException if a text can not be parsed as a date.
+     * @throws EOFException if the file seems to be truncated.
+     */
+    private Metadata parseMetadata() throws XMLStreamException, URISyntaxException, ParseException, EOFException {
+        assert reader.isStartElement() && Tags.METADATA.equals(reader.getLocalName());
+        final Metadata md = new Metadata();
+        while (true) {
+            switch (reader.next()) {
+                case START_ELEMENT: {
+                    switch (isGPX() ? reader.getLocalName() : "") {
+                        case Tags.NAME:        md.name        = getElementText();    break;
+                        case Tags.DESCRIPTION: md.description = getElementText();    break;
+                        case Tags.AUTHOR:      md.author      = parsePerson();       break;
+                        case Tags.COPYRIGHT:   md.copyright   = parseCopyright();    break;
+                        case Tags.LINK:        md.links       = Metadata.addIfNonNull(md.links, parseLink()); break;
+                        case Tags.TIME:        md.time        = getElementAsDate();  break;
+                        case Tags.KEYWORDS:    md.keywords    = getElementAsList();  break;
+                        case Tags.BOUNDS:      md.bounds      = parseBounds();       break;
+                        default:               skipUntilEnd(reader.getName());       break;
+                    }
+                    break;
+                }
+                case END_ELEMENT: {
+                    if (Tags.METADATA.equals(reader.getLocalName()) && isGPX()) {
+                        return md;
+                    }
+                    break;
+                }
+                case END_DOCUMENT: {
+                    throw new EOFException(endOfFile());
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a GPX 1.1 {@code <author>} element in metadata. The STAX reader current event must be
+     * a {@link #START_ELEMENT}. After this method invocation, the reader will be on {@link #END_ELEMENT}.
+     */
+    @SuppressWarnings("fallthrough")
+    private Person parsePerson() throws XMLStreamException, URISyntaxException, EOFException {
+        final String tagName = reader.getLocalName();
+        final Person person = new Person();
+        while (true) {
+            switch (reader.next()) {
+                case START_ELEMENT: {
+                    switch (isGPX() ? reader.getLocalName() : "") {
+                        case Tags.NAME: person.name = getElementText(); break;
+                        case Tags.LINK: person.link = parseLink();      break;
+                        case Tags.EMAIL: {
+                            final String id     = reader.getAttributeValue(null, "id");
+                            final String domain = reader.getAttributeValue(null, "domain");
+                            if (id != null || domain != null) {
+                                person.email = id + '@' + domain;           // Same formatting than Email.
+                            }
+                            // Fallthrough for moving to the end of <email> element.
+                        }
+                        default: skipUntilEnd(reader.getName()); break;
+                    }
+                    break;
+                }
+                case END_ELEMENT: {
+                    if (tagName.equals(reader.getLocalName()) && isGPX()) {
+                        return person;
+                    }
+                    break;
+                }
+                case END_DOCUMENT: {
+                    throw new EOFException(endOfFile());
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a GPX 1.1 {@code <copyright>} element in metadata. The STAX reader current event must be
+     * a {@link #START_ELEMENT}. After this method invocation, the reader will be on {@link #END_ELEMENT}.
+     */
+    private Copyright parseCopyright() throws XMLStreamException, URISyntaxException, EOFException {
+        final Copyright copyright = new Copyright();
+        copyright.author = reader.getAttributeValue(null, Attributes.AUTHOR);
+        while (true) {
+            switch (reader.next()) {
+                case START_ELEMENT: {
+                    switch (isGPX() ? reader.getLocalName() : "") {
+                        case Tags.YEAR:    copyright.year    = getElementAsInteger(); break;
+                        case Tags.LICENSE: copyright.license = getElementAsURI();     break;
+                        default:           skipUntilEnd(reader.getName());            break;
+                    }
+                    break;
+                }
+                case END_ELEMENT: {
+                    if (Tags.COPYRIGHT.equals(reader.getLocalName()) && isGPX()) {
+                        return copyright;
+                    }
+                    break;
+                }
+                case END_DOCUMENT: {
+                    throw new EOFException(endOfFile());
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a GPX 1.1 {@code <link>} element. The STAX reader current event must be a {@link #START_ELEMENT}
+     * and the name of that start element must be {@link Tags#LINK}. After this method invocation,
+     * the reader will be on {@link #END_ELEMENT}.
+     */
+    private Link parseLink() throws XMLStreamException, URISyntaxException, EOFException {
+        assert reader.isStartElement() && Tags.LINK.equals(reader.getLocalName());
+        final Link link = new Link(getAttributeAsURI(Attributes.HREF));
+        while (true) {
+            switch (reader.next()) {
+                case START_ELEMENT: {
+                    switch (isGPX() ? reader.getLocalName() : "") {
+                        case Tags.TEXT: link.text = getElementText(); break;
+                        case Tags.TYPE: link.type = getElementText(); break;
+                        default:        skipUntilEnd(reader.getName()); break;
+                    }
+                    break;
+                }
+                case END_ELEMENT: {
+                    if (Tags.LINK.equals(reader.getLocalName()) && isGPX()) {
+                        return link;
+                    }
+                    break;
+                }
+                case END_DOCUMENT: {
+                    throw new EOFException(endOfFile());
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a {@code <bounds>} element. The STAX reader current event must be a {@link #START_ELEMENT}
+     * and the name of that start element must be {@link Tags#BOUNDS}. Missing attributes are left to NaN.
+     * After this method invocation, the reader will be on {@link #END_ELEMENT}.
+     */
+    private Bounds parseBounds() throws XMLStreamException, EOFException {
+        assert reader.isStartElement() && Tags.BOUNDS.equals(reader.getLocalName());
+        final Bounds bounds = new Bounds();
+        String value;
+        if ((value = reader.getAttributeValue(null, Attributes.MIN_X)) != null) bounds.westBoundLongitude = parseDouble(value);
+        if ((value = reader.getAttributeValue(null, Attributes.MAX_X)) != null) bounds.eastBoundLongitude = parseDouble(value);
+        if ((value = reader.getAttributeValue(null, Attributes.MIN_Y)) != null) bounds.southBoundLatitude = parseDouble(value);
+        if ((value = reader.getAttributeValue(null, Attributes.MAX_Y)) != null) bounds.northBoundLatitude = parseDouble(value);
+        skipUntilEnd(reader.getName());
+        return bounds;
+    }
+
     /**
      * Returns the {@link #metadata} field, creating it if needed.
      * This is a convenience method for GPX 1.0 metadata parsing.
@@ -357,9 +515,7 @@ parse:  while (reader.hasNext()) {
      * @return {@code false} if this method as detected the end of {@code <gpx>} element or the end of document.
      * @throws DataStoreException if the file contains invalid elements.
      * @throws XMLStreamException if an error occurred while reading the XML file.
-     * @throws URISyntaxException if an error occurred while parsing GPX 1.0 URI.
-     * @throws JAXBException if an error occurred while parsing GPX 1.1 link.
-     * @throws ClassCastException if an object unmarshalled by JAXB was not of the expected type.
+     * @throws URISyntaxException if an error occurred while parsing an URI.
      * @throws NumberFormatException if a text can not be parsed as an integer or a floating point number.
      * @throws ParseException if a text can not be parsed as a date.
      * @throws EOFException if the file seems to be truncated.
@@ -392,6 +548,85 @@ parse:  while (reader.hasNext()) {
         }
     }
 
+    /**
+     * Reads the coordinates of the next way points, route points or track points in the given arrays.
+     * Points are read in document order, regardless if they are way points, route points or track points.
+     * All other information (names, links, <i>etc.</i>) are skipped and no feature instance is created.
+     * This method stops when the arrays are full or when the end of the {@code <gpx>} element is reached.
+     *
+     * @param  latitudes   where to store the latitudes in decimal degrees.
+     * @param  longitudes  where to store the longitudes in decimal degrees.
+     * @param  elevations  where to store the elevations, or NaN if none. Same length than {@code latitudes}.
+     * @param  times       where to store the times in milliseconds since epoch, or {@link Long#MIN_VALUE} if none.
+     * @return number of points stored in the arrays, or 0 if there is no more points.
+     * @throws Exception see the list of exceptions documented in {@link #parse(Consumer, boolean)}.
+     */
+    @SuppressWarnings("fallthrough")
+    final int readPoints(final double[] latitudes, final double[] longitudes, final double[] elevations, final long[] times)
+            throws Exception
+    {
+        int count = 0;
+        for (int type = reader.getEventType(); count < latitudes.length; type = reader.next()) {
+            switch (type) {
+                case START_ELEMENT: {
+                    final String tagName = reader.getLocalName();
+                    switch (isGPX() ? tagName : "") {
+                        case Tags.WAY_POINT:
+                        case Tags.ROUTE_POINTS:
+                        case Tags.TRACK_POINTS: break;
+                        default: continue;
+                    }
+                    final String lat = reader.getAttributeValue(null, Attributes.LATITUDE);
+                    final String lon = reader.getAttributeValue(null, Attributes.LONGITUDE);
+                    if (lat == null || lon == null) {
+                        throw new DataStoreContentException(errors().getString(Errors.Keys.MandatoryAttribute_2,
+                                (lat == null) ? Attributes.LATITUDE : Attributes.LONGITUDE, tagName));
+                    }
+                    latitudes [count] = parseDouble(lat);
+                    longitudes[count] = parseDouble(lon);
+                    elevations[count] = Double.NaN;
+                    times     [count] = Long.MIN_VALUE;
+                    /*
+                     * Search for elevation and time, skipping all other elements
+                     * until we reach the end of the point element.
+                     */
+point:              while (true) {
+                        switch (reader.next()) {
+                            case START_ELEMENT: {
+                                switch (isGPX() ? reader.getLocalName() : "") {
+                                    case Tags.ELEVATION: {
+                                        final String text = getElementText();
+                                        if (text != null) elevations[count] = parseDouble(text);
+                                        break;
+                                    }
+                                    case Tags.TIME: {
+                                        final Date time = getElementAsDate();
+                                        if (time != null) times[count] = time.getTime();
+                                        break;
+                                    }
+                                    default: skipUntilEnd(reader.getName()); break;
+                                }
+                                break;
+                            }
+                            case END_ELEMENT: {
+                                if (tagName.equals(reader.getLocalName()) && isGPX()) break point;
+                                break;
+                            }
+                            case END_DOCUMENT: {
+                                throw new EOFException(endOfFile());
+                            }
+                        }
+                    }
+                    count++;
+                    break;
+                }
+                case END_ELEMENT:  if (!isEndGPX()) continue;           // else fallthrough
+                case END_DOCUMENT: return count;
+            }
+        }
+        return count;
+    }
+
     /**
      * Parses a {@code <wpt>}, {@code <rtept>} or {@code <trkpt>} element.
      * The STAX reader {@linkplain XMLStreamReader#getEventType() current event} must be a {@link #START_ELEMENT}.
@@ -444,7 +679,7 @@ parse:  while (reader.hasNext()) {
                         case Tags.SATELITTES:       // Fallthrough to getElementAsInteger()
                         case Tags.DGPS_ID:          value = getElementAsInteger(); break;
                         case Tags.FIX:              value = Fix.fromGPX(getElementText()); break;
-                        case Tags.LINK:             links = Metadata.addIfNonNull(links, unmarshal(Link.class)); continue;
+                        case Tags.LINK:             links = Metadata.addIfNonNull(links, parseLink()); continue;
                         case Tags.URL:              links = Metadata.addIfNonNull(links, Link.valueOf(getElementAsURI())); continue;
                         default: {
                             if (name.equals(tagName)) {
@@ -499,7 +734,7 @@ parse:  while (reader.hasNext()) {
                         case Tags.SOURCE:      // ︙
                         case Tags.TYPE:        value = getElementText(); break;
                         case Tags.NUMBER:      value = getElementAsInteger(); break;
-                        case Tags.LINK:        links = Metadata.addIfNonNull(links, unmarshal(Link.class)); continue;
+                        case Tags.LINK:        links = Metadata.addIfNonNull(links, parseLink()); continue;
                         case Tags.URL:         links = Metadata.addIfNonNull(links, Link.valueOf(getElementAsURI())); continue;
                         case Tags.ROUTES:      throw new DataStoreContentException(nestedElement(name));
                         case Tags.ROUTE_POINTS: {
@@ -598,7 +833,7 @@ parse:  while (reader.hasNext()) {
                         case Tags.SOURCE:       // ︙
                         case Tags.TYPE:         value = getElementText(); break;
                         case Tags.NUMBER:       value = getElementAsInteger(); break;
-                        case Tags.LINK:         links = Metadata.addIfNonNull(links, unmarshal(Link.class)); continue;
+                        case Tags.LINK:         links = Metadata.addIfNonNull(links, parseLink()); continue;
                         case Tags.URL:          links = Metadata.addIfNonNull(links, Link.valueOf(getElementAsURI())); continue;
                         case Tags.TRACKS:       throw new DataStoreContentException(nestedElement(name));
                         case Tags.TRACK_SEGMENTS: {
@@ -185,6 +185,41 @@ public final class Store extends StaxDataStore {
      */
     @Override
     public synchronized Stream<AbstractFeature> getFeatures() throws DataStoreException {
+        final Reader r = acquireReader();
+        final Stream<AbstractFeature> features = StreamSupport.stream(r, false);
+        return features.onClose(r);
+    }
+
+    /**
+     * Returns an iterator over the coordinates of all points in the GPX file, in blocks of arrays.
+     * This is a faster alternative to {@link #getFeatures()} when only the point locations and times
+     * are desired, since it does not create any feature instance. The iterator shall be closed after usage.
+     *
+     * @param  blockSize  maximal number of points in each block.
+     * @return an iterator over the way points, route points and track points, in document order.
+     * @throws DataStoreException if an error occurred while creating the iterator.
+     *
+     * @since 0.8
+     */
+    public synchronized PointColumns getPointColumns(final int blockSize) throws DataStoreException {
+        final Reader r = acquireReader();
+        try {
+            return new PointColumns(r, blockSize);
+        } catch (RuntimeException e) {
+            try {
+                r.close();
+            } catch (Exception s) {
+                e.addSuppressed(s);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the reader created for reading the metadata if still available, or creates a new reader otherwise.
+     * The caller is responsible for closing the returned reader.
+     */
+    private Reader acquireReader() throws DataStoreException {
         Reader r = reader;
         reader = null;
         if (r == null) try {
@@ -197,8 +232,7 @@ public final class Store extends StaxDataStore {
         } catch (Exception e) {
             throw new DataStoreException(e);
         }
-        final Stream<AbstractFeature> features = StreamSupport.stream(r, false);
-        return features.onClose(r);
+        return r;
     }
 
     /**
@@ -350,6 +350,22 @@ public abstract class StaxStreamReader extends StaxStreamIO implements XMLStream
         return Context.converter(context).toURI(context, getElementText());
     }
 
+    /**
+     * Returns the value of the given attribute of the current element as an URI,
+     * or {@code null} if that attribute is missing or empty.
+     *
+     * <p>The current event when this method is invoked must be {@link #START_ELEMENT}.
+     * This method does not move the reader.</p>
+     *
+     * @param  name  local name of the attribute to parse.
+     * @return the attribute value as an URI, or {@code null} if none.
+     * @throws URISyntaxException if the attribute value can not be parsed as an URI.
+     */
+    protected final URI getAttributeAsURI(final String name) throws URISyntaxException {
+        final Context context = Context.current();
+        return Context.converter(context).toURI(context, reader.getAttributeValue(null, name));
+    }
+
     /**
      * Returns the current value of {@link XMLStreamReader#getElementText()} as an integer,
      * or {@code null} if that value is null or empty.
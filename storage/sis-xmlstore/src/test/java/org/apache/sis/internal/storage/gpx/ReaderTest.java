@@ -401,6 +401,39 @@ public final strictfp class ReaderTest extends TestCase {
         }
     }
 
+    /**
+     * Tests reading the points of GPX version 1.1.0 track as columns of coordinates.
+     * The block size is smaller than the number of points in order to test the reading of many blocks.
+     *
+     * @throws DataStoreException if reader failed to be created or failed at reading
+     */
+    @Test
+    @DependsOnMethod("testTrack110")
+    public void testPointColumns() throws DataStoreException {
+        try (final Store reader = create("1.1/track.xml")) {
+            try (final PointColumns points = reader.getPointColumns(2)) {
+                assertTrue("next", points.next());
+                assertEquals("count", 2, points.count());
+                assertEquals("lat",  10.0, points.latitudes ()[0], STRICT);
+                assertEquals("lon",  15.0, points.longitudes()[0], STRICT);
+                assertEquals("ele", 140.0, points.elevations()[0], STRICT);
+                assertEquals("time", date("2010-01-10 00:00:00").getTime(), points.times()[0]);
+                assertEquals("lat",  20.0, points.latitudes ()[1], STRICT);
+                assertEquals("lon",  25.0, points.longitudes()[1], STRICT);
+                assertTrue  ("ele", Double.isNaN(points.elevations()[1]));
+                assertEquals("time", Long.MIN_VALUE, points.times()[1]);
+
+                assertTrue("next", points.next());
+                assertEquals("count", 1, points.count());
+                assertEquals("lat",  30.0, points.latitudes ()[0], STRICT);
+                assertEquals("lon",  35.0, points.longitudes()[0], STRICT);
+                assertEquals("ele", 150.0, points.elevations()[0], STRICT);
+                assertEquals("time", date("2010-01-30 00:00:00").getTime(), points.times()[0]);
+                assertFalse("next", points.next());
+            }
+        }
+    }
+
     /**
      * Verifies property values for the given track.
      *